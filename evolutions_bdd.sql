@@ -0,0 +1,189 @@
+-- =====================================================================
+-- Évolutions du schéma de la base ParkinRose
+--
+-- À appliquer sur la base, par un administrateur, avant de
+-- lancer une nouvelle version de l'application :
+--     mysql -u VOTRE_USER -p VOTRE_DATABASE < evolutions_bdd.sql
+-- Le script peut être rejoué : il ne crée que ce qui manque.
+-- L'application ne crée elle-même ni table ni index.
+-- =====================================================================
+
+-- ---------------------------------------------------------------------
+-- Tarifs des parkings (MoteurTarifs)
+-- Un parking absent de la table a le tarif par défaut (0.50 le quart d'heure).
+-- Les tarifs d'origine ne sont insérés que pour les parkings qui n'en ont
+-- pas encore : ceux modifiés par l'administrateur sont gardés.
+-- ---------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS Tarif_Parking (
+    id_parking        VARCHAR(50) PRIMARY KEY,
+    tarif_quart_heure DECIMAL(6,3) NOT NULL,
+    forfait_24h       DECIMAL(6,2) NULL,   -- NULL : 24 x tarif horaire
+    montant_soiree    DECIMAL(6,2) NULL,   -- NULL : 5.90
+    gratuit           BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+INSERT IGNORE INTO Tarif_Parking (id_parking, tarif_quart_heure, gratuit) VALUES
+    -- Parkings standards
+    ('PARK_CAPITOLE', 0.75, FALSE),         -- 3€/h
+    ('PARK_CARNOT', 0.75, FALSE),           -- 3€/h
+    ('PARK_ESQUIROL', 0.63, FALSE),         -- 2.50€/h
+    ('PARK_SAINT_ETIENNE', 0.63, FALSE),    -- 2.50€/h
+    ('PARK_JEAN_JAURES', 0.50, FALSE),      -- 2€/h
+    ('PARK_JEANNE_DARC', 0.50, FALSE),      -- 2€/h
+    ('PARK_EUROPE', 0.50, FALSE),           -- 2€/h
+    ('PARK_VICTOR_HUGO', 0.50, FALSE),      -- 2€/h
+    ('PARK_SAINT_AUBIN', 0.50, FALSE),      -- 2€/h
+    ('PARK_SAINT_CYPRIEN', 0.50, FALSE),    -- 2€/h
+    ('PARK_SAINT_MICHEL', 0.38, FALSE),     -- 1.50€/h
+    ('PARK_MATABIAU', 1.00, FALSE),         -- 4€/h
+    ('PARK_ARNAUD_BERNARD', 0.38, FALSE),   -- 1.50€/h
+    ('PARK_CARMES', 0.63, FALSE),           -- 2.50€/h
+    -- Parkings relais (tarif normal si pas de carte Tisséo)
+    ('PARK_SEPT_DENIERS', 0.25, FALSE),     -- 1€/h
+    ('PARK_BAGATELLE', 0.25, FALSE),        -- 1€/h
+    ('PARK_JOLIMONT', 0.25, FALSE),         -- 1€/h
+    ('PARK_ARENES', 0.25, FALSE),           -- 1€/h
+    -- Parkings gratuits
+    ('PARK_VIGUERIE', 0.50, TRUE),
+    ('PARK_BOULE', 0.50, TRUE),
+    ('PARK_VELODROME', 0.50, TRUE),
+    ('PARK_PONTS_JUMEAUX', 0.50, TRUE),
+    ('PARK_BONNEFOY', 0.50, TRUE),
+    ('PARK_MIRAIL', 0.50, TRUE),
+    ('PARK_CROIX_PIERRE', 0.50, TRUE);
+
+-- ---------------------------------------------------------------------
+-- Recherche des usagers (gestion des utilisateurs, UsagerDAO.rechercherPage)
+-- Index plein texte à n-grammes sur nom, prénom et email : recherche par
+-- sous-chaîne. Sans lui, l'application cherche par début de mot.
+-- Créé seulement s'il manque (MySQL n'a pas de IF NOT EXISTS pour un index).
+-- ---------------------------------------------------------------------
+SET @index_recherche = (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'Usager'
+      AND index_name = 'ft_usager_recherche');
+SET @sql = IF(@index_recherche = 0,
+    'CREATE FULLTEXT INDEX ft_usager_recherche ON Usager (nom_usager, prenom_usager, mail_usager) WITH PARSER ngram',
+    'DO 0');
+PREPARE creer_index FROM @sql;
+EXECUTE creer_index;
+DEALLOCATE PREPARE creer_index;
+
+-- ---------------------------------------------------------------------
+-- Cumuls mensuels par usager (CumulsUsagers) : stationnements terminés
+-- et dépenses, lus par le profil et les statistiques.
+-- Remplie depuis l'historique seulement si elle est vide (premier passage) ;
+-- ensuite, l'application la tient à jour dans ses transactions.
+-- ---------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS Cumul_Usager_Mois (
+    id_usager               INT NOT NULL,
+    mois                    DATE NOT NULL,                    -- premier jour du mois
+    nb_stationnements       INT NOT NULL DEFAULT 0,           -- terminés ou expirés
+    nb_voirie               INT NOT NULL DEFAULT 0,
+    nb_parking              INT NOT NULL DEFAULT 0,
+    cout_stationnements     DECIMAL(12,2) NOT NULL DEFAULT 0,
+    depenses_abonnements    DECIMAL(12,2) NOT NULL DEFAULT 0, -- paiements réussis
+    depenses_stationnements DECIMAL(12,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_usager, mois)
+);
+
+START TRANSACTION;
+SET @cumuls_vides = NOT EXISTS (SELECT 1 FROM Cumul_Usager_Mois);
+
+INSERT INTO Cumul_Usager_Mois (id_usager, mois, nb_stationnements, nb_voirie, nb_parking, cout_stationnements)
+SELECT id_usager, DATE_FORMAT(COALESCE(date_creation, NOW()), '%Y-%m-01'), COUNT(*),
+       SUM(IF(type_stationnement = 'VOIRIE', 1, 0)), SUM(IF(type_stationnement = 'PARKING', 1, 0)),
+       COALESCE(SUM(cout), 0)
+FROM Stationnement
+WHERE statut <> 'ACTIF' AND @cumuls_vides
+GROUP BY id_usager, DATE_FORMAT(COALESCE(date_creation, NOW()), '%Y-%m-01')
+ON DUPLICATE KEY UPDATE nb_stationnements = VALUES(nb_stationnements),
+    nb_voirie = VALUES(nb_voirie), nb_parking = VALUES(nb_parking),
+    cout_stationnements = VALUES(cout_stationnements);
+
+INSERT INTO Cumul_Usager_Mois (id_usager, mois, depenses_abonnements, depenses_stationnements)
+SELECT id_usager, DATE_FORMAT(COALESCE(date_paiement, NOW()), '%Y-%m-01'),
+       SUM(IF(NULLIF(id_abonnement, '') IS NOT NULL, montant, 0)),
+       SUM(IF(NULLIF(id_abonnement, '') IS NOT NULL, 0, montant))
+FROM Paiement
+WHERE statut = 'REUSSI' AND @cumuls_vides
+GROUP BY id_usager, DATE_FORMAT(COALESCE(date_paiement, NOW()), '%Y-%m-01')
+ON DUPLICATE KEY UPDATE depenses_abonnements = VALUES(depenses_abonnements),
+    depenses_stationnements = VALUES(depenses_stationnements);
+COMMIT;
+
+-- ---------------------------------------------------------------------
+-- État de lecture des réponses aux feedbacks (FeedbackDAO) : une ligne par
+-- conversation ayant une réponse, et le nombre de conversations non lues
+-- de chaque usager. Reprises des anciennes lignes sentinelles 'MESSAGE_LU'
+-- seulement si Feedback_Non_Lus est vide (premier passage).
+-- ---------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS Feedback_Lecture (
+    id_feedback INT PRIMARY KEY,                              -- message parent de la conversation
+    id_usager   INT NOT NULL,
+    lu          BOOLEAN NOT NULL,
+    INDEX idx_feedback_lecture_usager (id_usager, lu)
+);
+
+CREATE TABLE IF NOT EXISTS Feedback_Non_Lus (
+    id_usager INT PRIMARY KEY,
+    non_lus   INT NOT NULL DEFAULT 0                          -- conversations avec une réponse non lue
+);
+
+START TRANSACTION;
+SET @lecture_vide = NOT EXISTS (SELECT 1 FROM Feedback_Non_Lus);
+
+INSERT INTO Feedback_Lecture (id_feedback, id_usager, lu)
+SELECT f.id_feedback, f.id_usager,
+       f.statut = 'RESOLU' OR EXISTS (SELECT 1 FROM Feedback vu
+           WHERE vu.id_feedback_parent = f.id_feedback AND vu.message = 'MESSAGE_LU')
+FROM Feedback f
+WHERE f.id_feedback_parent IS NULL AND f.gotanswer = TRUE AND @lecture_vide
+ON DUPLICATE KEY UPDATE lu = VALUES(lu);
+
+INSERT INTO Feedback_Non_Lus (id_usager, non_lus)
+SELECT id_usager, SUM(NOT lu) FROM Feedback_Lecture
+WHERE @lecture_vide
+GROUP BY id_usager
+ON DUPLICATE KEY UPDATE non_lus = VALUES(non_lus);
+COMMIT;
+
+-- ---------------------------------------------------------------------
+-- Stationnements d'un usager : historique parcouru par pages sur
+-- (date_creation, id_stationnement), et stationnements par statut (actifs,
+-- hors cumuls mensuels). Sans eux les requêtes restent justes, mais
+-- parcourent tout l'historique de l'usager. Créés seulement s'ils manquent.
+-- ---------------------------------------------------------------------
+SET @index_historique = (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'Stationnement'
+      AND index_name = 'idx_stationnement_historique');
+SET @sql = IF(@index_historique = 0,
+    'ALTER TABLE Stationnement ADD INDEX idx_stationnement_historique (id_usager, date_creation, id_stationnement)',
+    'DO 0');
+PREPARE creer_index FROM @sql;
+EXECUTE creer_index;
+DEALLOCATE PREPARE creer_index;
+
+SET @index_statut_usager = (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'Stationnement'
+      AND index_name = 'idx_stationnement_usager_statut');
+SET @sql = IF(@index_statut_usager = 0,
+    'ALTER TABLE Stationnement ADD INDEX idx_stationnement_usager_statut (id_usager, statut)',
+    'DO 0');
+PREPARE creer_index FROM @sql;
+EXECUTE creer_index;
+DEALLOCATE PREPARE creer_index;
+
+-- ---------------------------------------------------------------------
+-- Expiration des stationnements (ExpirationStationnements) : index sur
+-- (statut, date_fin), chaque lot ne lit que les stationnements actifs échus.
+-- Créé seulement s'il manque.
+-- ---------------------------------------------------------------------
+SET @index_statut_fin = (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'Stationnement'
+      AND index_name = 'idx_stationnement_statut_fin');
+SET @sql = IF(@index_statut_fin = 0,
+    'ALTER TABLE Stationnement ADD INDEX idx_stationnement_statut_fin (statut, date_fin)',
+    'DO 0');
+PREPARE creer_index FROM @sql;
+EXECUTE creer_index;
+DEALLOCATE PREPARE creer_index;
@@ -13,6 +13,7 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import modele.dao.SessionUsager;
 import modele.dao.UsagerDAO;
 import modele.Usager;
 
@@ -320,6 +321,7 @@ public class ControleurAuthentification implements ActionListener {
                 usager.getPrenomUsager(), usager.getNomUsager()),
             JOptionPane.INFORMATION_MESSAGE);
         
+        SessionUsager.ouvrir(usager);
         Page_Principale pagePrincipale = new Page_Principale(usager.getMailUsager());
         pagePrincipale.setVisible(true);
         
@@ -6,6 +6,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import modele.Parking;
 import modele.dao.ParkingDAO;
+import modele.dao.TarifParkingDAO;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
@@ -233,7 +234,8 @@ public class ControleurCarteAdmin implements ActionListener {
     
     /**
      * Ajoute un nouveau parking à la base de données et à la carte.
-     * Valide les données du parking avant l'insertion, met à jour la map locale
+     * Valide les données du parking avant l'insertion, enregistre le parking et son tarif
+     * horaire dans une même transaction, met à jour la map locale
      * et recharge la carte pour afficher le nouveau parking.
      * 
      * @param parking le parking à ajouter
@@ -244,7 +246,7 @@ public class ControleurCarteAdmin implements ActionListener {
                 return;
             }
             
-            boolean succes = parkingDAO.creerParking(parking);
+            boolean succes = parkingDAO.creerParkingAvecTarif(parking);
             
             if (succes) {
                 parkingsMap.put(parking.getIdParking(), parking);
@@ -271,7 +273,8 @@ public class ControleurCarteAdmin implements ActionListener {
     
     /**
      * Modifie un parking existant dans la base de données.
-     * Valide les nouvelles données, met à jour la base de données et la map locale,
+     * Valide les nouvelles données, met à jour le parking et son tarif horaire
+     * dans une même transaction, puis la map locale,
      * puis recharge la carte pour afficher les modifications.
      * 
      * @param parking le parking avec les données modifiées
@@ -282,7 +285,7 @@ public class ControleurCarteAdmin implements ActionListener {
                 return;
             }
             
-            boolean succes = parkingDAO.mettreAJourParking(parking);
+            boolean succes = parkingDAO.mettreAJourParkingAvecTarif(parking);
             
             if (succes) {
                 parkingsMap.put(parking.getIdParking(), parking);
@@ -463,7 +466,10 @@ public class ControleurCarteAdmin implements ActionListener {
             java.util.List<Parking> parkings = parkingDAO.findAll();
             parkingsMap.clear();
             
+            TarifParkingDAO tarifDAO = TarifParkingDAO.getInstance();
             for (Parking parking : parkings) {
+                // Le tarif horaire n'est pas dans la table Parking : on le reprend du moteur de tarifs
+                parking.setTarifHoraire(tarifDAO.getTarifHoraire(parking.getIdParking()));
                 parkingsMap.put(parking.getIdParking(), parking);
             }
             
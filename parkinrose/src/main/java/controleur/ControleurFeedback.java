@@ -12,6 +12,7 @@ import javax.swing.event.ListSelectionListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -61,6 +62,8 @@ public class ControleurFeedback implements ActionListener, ListSelectionListener
     private static final int LONGUEUR_MIN_MESSAGE = 10;
     private static final int LONGUEUR_MAX_SUJET = 100;
     private static final int LONGUEUR_MAX_MESSAGE = 1000;
+    // Nombre de conversations chargées par requête
+    private static final int TAILLE_PAGE = 100;
     
     /**
      * Constructeur du contrôleur de feedback.
@@ -188,7 +191,7 @@ public class ControleurFeedback implements ActionListener, ListSelectionListener
      */
     private void chargerFeedbacks() {
         try {
-            feedbacksList = FeedbackDAO.getFeedbacksByUser(usager.getIdUsager());
+            feedbacksList = chargerConversations();
             
             vue.getTableModel().setRowCount(0);
             feedbackSelectionne = null;
@@ -214,6 +217,26 @@ public class ControleurFeedback implements ActionListener, ListSelectionListener
         }
     }
     
+    /**
+     * Charge toutes les conversations de l'utilisateur avec leurs réponses,
+     * une requête par page de conversations.
+     * 
+     * @return les conversations du plus récent au plus ancien, ou null en cas d'erreur
+     */
+    private List<Feedback> chargerConversations() {
+        List<Feedback> conversations = new ArrayList<>();
+        List<Feedback> page;
+        do {
+            Feedback derniere = conversations.isEmpty() ? null : conversations.get(conversations.size() - 1);
+            page = FeedbackDAO.getConversations(usager.getIdUsager(), derniere, TAILLE_PAGE);
+            if (page == null) {
+                return null;
+            }
+            conversations.addAll(page);
+        } while (page.size() == TAILLE_PAGE);
+        return conversations;
+    }
+    
     /**
      * Retourne l'icône de statut d'un feedback.
      * 
@@ -252,8 +275,8 @@ public class ControleurFeedback implements ActionListener, ListSelectionListener
      * @return une chaîne HTML formatée avec la date et l'heure
      */
     private String getDerniereActivite(Feedback feedback) {
-        List<Feedback> reponses = FeedbackDAO.getReponsesFeedback(feedback.getIdFeedback());
-        if (reponses != null && !reponses.isEmpty()) {
+        List<Feedback> reponses = feedback.getReponses();
+        if (!reponses.isEmpty()) {
             Feedback derniere = reponses.get(reponses.size() - 1);
             return "<html><font size='-1'>" + 
                    derniere.getDateCreation().format(DateTimeFormatter.ofPattern("dd/MM")) + 
@@ -388,9 +411,9 @@ public class ControleurFeedback implements ActionListener, ListSelectionListener
      * Affiche un message si aucune réponse n'existe encore.
      */
     private void chargerHistoriqueConversation() {
-        List<Feedback> reponses = FeedbackDAO.getReponsesFeedback(feedbackSelectionne.getIdFeedback());
+        List<Feedback> reponses = feedbackSelectionne.getReponses();
         
-        if (reponses == null || reponses.isEmpty()) {
+        if (reponses.isEmpty()) {
             vue.getTxtHistorique().setText("Aucune réponse pour le moment.\n\n" +
                                           "L'équipe ParkinRose vous répondra dans les plus brefs délais.");
             return;
@@ -15,6 +15,8 @@ import modele.Parking;
 import modele.Usager;
 import modele.VehiculeUsager;
 import modele.dao.AbonnementDAO;
+import modele.dao.IndexSpatialParkings;
+import modele.dao.OccupationParkings;
 import modele.dao.ParkingDAO;
 import modele.dao.TarifParkingDAO;
 import modele.dao.UsagerDAO;
@@ -53,6 +55,9 @@ public class ControleurGarerParking implements ActionListener {
         ERREUR
     }
     
+    /** Hauteur retenue pour un camion (m) */
+    private static final double HAUTEUR_CAMION = 3.0;
+    
     private Page_Garer_Parking vue;
     private Etat etat;
     private StationnementControleur stationnementControleur;
@@ -329,6 +334,9 @@ public class ControleurGarerParking implements ActionListener {
             
             Parking parking = listeParkings.get(index);
             
+            // Occupation en temps réel (compteurs en mémoire, sans requête)
+            OccupationParkings.getInstance().actualiser(parking);
+            
             vue.setPlacesDisponibles(parking.getPlacesDisponibles(), parking.getNombrePlaces());
             
             if (parking.hasMoto()) {
@@ -486,10 +494,7 @@ public class ControleurGarerParking implements ActionListener {
         
         if ("Moto".equals(typeVehicule) && parkingSelectionne.hasMoto() && 
             parkingSelectionne.getPlacesMotoDisponibles() <= 0) {
-            JOptionPane.showMessageDialog(vue,
-                "Ce parking n'a plus de places moto disponibles.",
-                "Places moto indisponibles",
-                JOptionPane.WARNING_MESSAGE);
+            proposerParkingsProches();
             return false;
         }
         
@@ -549,7 +554,7 @@ public class ControleurGarerParking implements ActionListener {
      */
     private boolean validerHauteurParking() {
         try {
-            double hauteurCamion = 3.0;
+            double hauteurCamion = HAUTEUR_CAMION;
             if (parkingSelectionne.getHauteurParking() > 0 && 
                 parkingSelectionne.getHauteurParking() < hauteurCamion) {
                 vue.afficherMessageErreur("Hauteur insuffisante",
@@ -564,16 +569,33 @@ public class ControleurGarerParking implements ActionListener {
         }
     }
     
+    /**
+     * Formate une distance pour l'affichage (mètres sous le kilomètre).
+     * 
+     * @param metres la distance en mètres
+     * @return la distance formatée, par exemple "350 m" ou "1,2 km"
+     */
+    private String formaterDistance(double metres) {
+        if (metres < 1000) {
+            return Math.round(metres) + " m";
+        }
+        return String.format("%.1f km", metres / 1000);
+    }
+    
     /**
      * Propose une liste de parkings alternatifs proches en cas de parking complet.
-     * Affiche jusqu'à 5 parkings disponibles avec leurs informations et permet
-     * à l'utilisateur d'en sélectionner un directement.
+     * Affiche jusqu'à 5 parkings disponibles et compatibles avec le véhicule
+     * (places moto, hauteur pour un camion) et permet à l'utilisateur
+     * d'en sélectionner un directement.
      */
     private void proposerParkingsProches() {
         try {
+            String typeVehicule = vue.getTypeVehicule();
             parkingsProposes = ParkingDAO.getInstance().trouverParkingsProches(
                 parkingSelectionne.getIdParking(), 
-                5
+                5,
+                "Moto".equals(typeVehicule),
+                "Camion".equals(typeVehicule) ? HAUTEUR_CAMION : 0
             );
             
             if (parkingsProposes.isEmpty()) {
@@ -589,13 +611,20 @@ public class ControleurGarerParking implements ActionListener {
             
             for (int i = 0; i < parkingsProposes.size(); i++) {
                 Parking p = parkingsProposes.get(i);
+                OccupationParkings.getInstance().actualiser(p);
                 message.append(i + 1).append(". ")
                        .append(p.getLibelleParking()).append("\n")
-                       .append("   Adresse : ").append(p.getAdresseParking()).append("\n")
-                       .append("   Places disponibles : ").append(p.getPlacesDisponibles())
+                       .append("   Adresse : ").append(p.getAdresseParking()).append("\n");
+                
+                double distance = IndexSpatialParkings.distanceMetres(parkingSelectionne, p);
+                if (distance >= 0) {
+                    message.append("   Distance : ").append(formaterDistance(distance)).append("\n");
+                }
+                
+                message.append("   Places disponibles : ").append(p.getPlacesDisponibles())
                        .append("/").append(p.getNombrePlaces());
                 
-                if ("Moto".equals(vue.getTypeVehicule()) && p.hasMoto()) {
+                if ("Moto".equals(typeVehicule) && p.hasMoto()) {
                     message.append(" (moto : ").append(p.getPlacesMotoDisponibles())
                            .append("/").append(p.getPlacesMoto()).append(")");
                 }
@@ -1019,15 +1048,16 @@ public class ControleurGarerParking implements ActionListener {
         
         boolean estComplet = false;
         String typeVehicule = vue.getTypeVehicule();
+        OccupationParkings occupation = OccupationParkings.getInstance();
         
         if ("Moto".equals(typeVehicule)) {
             if (parkingSelectionne.hasMoto()) {
-                estComplet = parkingSelectionne.getPlacesMotoDisponibles() <= 0;
+                estComplet = occupation.estComplet(parkingSelectionne.getIdParking(), true);
             } else {
                 estComplet = true;
             }
         } else {
-            estComplet = parkingSelectionne.getPlacesDisponibles() <= 0;
+            estComplet = occupation.estComplet(parkingSelectionne.getIdParking(), false);
         }
         
         if (estComplet) {
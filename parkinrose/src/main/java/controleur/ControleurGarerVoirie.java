@@ -16,6 +16,7 @@ import modele.Zone;
 import modele.VehiculeUsager;
 import modele.dao.UsagerDAO;
 import modele.dao.VehiculeUsagerDAO;
+import modele.dao.ResolveurZones;
 
 /**
  * Contrôleur gérant le stationnement sur voirie (zones de stationnement payant en rue).
@@ -120,6 +121,7 @@ public class ControleurGarerVoirie implements ActionListener {
         vue.setEmailUsager(usager.getMailUsager());
         
         chargerZones();
+        selectionnerZoneSelonPosition();
         chargerVehiculePrincipal();
         recalculerCout();
     }
@@ -175,6 +177,17 @@ public class ControleurGarerVoirie implements ActionListener {
         }
     }
     
+    /**
+     * Présélectionne la zone contenant la position choisie sur la carte, s'il y en a une.
+     */
+    private void selectionnerZoneSelonPosition() {
+        if (vue.getLatitude() == null || vue.getLongitude() == null) {
+            return;
+        }
+        String idZone = ResolveurZones.getInstance().resoudreZone(vue.getLatitude(), vue.getLongitude());
+        vue.selectionnerZone(idZone);
+    }
+    
     /**
      * Charge et affiche le véhicule principal de l'utilisateur.
      * Si aucun véhicule principal n'existe, affiche le premier véhicule disponible.
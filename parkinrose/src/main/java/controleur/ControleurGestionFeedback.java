@@ -11,6 +11,7 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -62,6 +63,8 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
     
     private static final int LONGUEUR_MIN_REPONSE = 10;
     private static final int LONGUEUR_MAX_REPONSE = 2000;
+    // Nombre de conversations chargées par page (pagination par clé sur date_creation)
+    private static final int TAILLE_PAGE = 50;
     
     /**
      * Constructeur du contrôleur de gestion des feedbacks.
@@ -120,6 +123,7 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
         vue.getBtnMarquerEnCours().addActionListener(this);
         vue.getBtnMarquerResolu().addActionListener(this);
         vue.getBtnRepondre().addActionListener(this);
+        vue.getBtnPlusAnciens().addActionListener(this);
         
         vue.getTableFeedbacks().getSelectionModel().addListSelectionListener(this);
         
@@ -151,6 +155,8 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
                     envoyerReponse();
                 } else if (source == vue.getComboFiltre()) {
                     filtrerFeedbacks();
+                } else if (source == vue.getBtnPlusAnciens()) {
+                    chargerPageSuivante();
                 }
                 break;
                 
@@ -182,14 +188,16 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
     }
     
     /**
-     * Charge tous les feedbacks depuis la base de données et les affiche dans la table.
+     * Charge la première page de conversations (messages et réponses, en une requête)
+     * et l'affiche dans la table.
      * Met à jour le titre avec le nombre de nouveaux messages non traités.
      */
     private void chargerFeedbacks() {
         try {
-            feedbacksList = FeedbackDAO.getAllFeedbacksWithInfo();
+            feedbacksList = FeedbackDAO.getConversations(null, null, TAILLE_PAGE);
             vue.getTableModel().setRowCount(0);
             feedbackSelectionne = null;
+            vue.getBtnPlusAnciens().setEnabled(feedbacksList != null && feedbacksList.size() == TAILLE_PAGE);
             
             if (feedbacksList == null || feedbacksList.isEmpty()) {
                 JOptionPane.showMessageDialog(vue,
@@ -224,6 +232,26 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
         }
     }
     
+    /**
+     * Ajoute la page de conversations suivante, à partir de la plus ancienne déjà affichée,
+     * puis réapplique le filtre courant.
+     */
+    private void chargerPageSuivante() {
+        if (feedbacksList == null || feedbacksList.isEmpty()) {
+            return;
+        }
+        
+        List<Feedback> page = FeedbackDAO.getConversations(null, feedbacksList.get(feedbacksList.size() - 1), TAILLE_PAGE);
+        if (page == null) {
+            afficherMessageErreur("Erreur lors du chargement des messages plus anciens.", "Erreur");
+            return;
+        }
+        
+        feedbacksList.addAll(page);
+        vue.getBtnPlusAnciens().setEnabled(page.size() == TAILLE_PAGE);
+        filtrerFeedbacks();
+    }
+    
     /**
      * Convertit le statut d'un feedback en texte lisible avec indication visuelle.
      * 
@@ -323,7 +351,13 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
             }
             
             int idFeedback = (Integer) idObj;
-            feedbackSelectionne = FeedbackDAO.getFeedbackById(idFeedback);
+            feedbackSelectionne = null;
+            for (Feedback feedback : feedbacksList) {
+                if (feedback.getIdFeedback() == idFeedback) {
+                    feedbackSelectionne = feedback;
+                    break;
+                }
+            }
             
             if (feedbackSelectionne == null) {
                 afficherMessageErreur("Impossible de charger les détails du message.", "Erreur");
@@ -380,11 +414,10 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
         if (feedbackSelectionne == null) return;
         
         try {
-            Usager usager = UsagerDAO.getUsagerByEmail(feedbackSelectionne.getMailUsager());
             String nomUtilisateur;
             
-            if (usager != null && usager.getPrenomUsager() != null && usager.getNomUsager() != null) {
-                nomUtilisateur = usager.getPrenomUsager() + " " + usager.getNomUsager() + 
+            if (feedbackSelectionne.getPrenomUsager() != null && feedbackSelectionne.getNomUsager() != null) {
+                nomUtilisateur = feedbackSelectionne.getPrenomUsager() + " " + feedbackSelectionne.getNomUsager() + 
                                " (" + (feedbackSelectionne.getMailUsager() != null ? feedbackSelectionne.getMailUsager() : "sans email") + ")";
             } else {
                 nomUtilisateur = "Utilisateur #" + feedbackSelectionne.getIdUsager();
@@ -416,9 +449,9 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
     private void chargerHistorique() {
         if (feedbackSelectionne == null) return;
         
-        List<Feedback> reponses = FeedbackDAO.getReponsesFeedback(feedbackSelectionne.getIdFeedback());
+        List<Feedback> reponses = feedbackSelectionne.getReponses();
         
-        if (reponses == null || reponses.isEmpty()) {
+        if (reponses.isEmpty()) {
             vue.getTxtHistorique().setText("Aucune réponse pour le moment.");
             return;
         }
@@ -432,15 +465,8 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
             
             String nomAdmin = "Administrateur";
             
-            if (reponse.getIdAdminReponse() != null) {
-                try {
-                    Usager admin = UsagerDAO.getUsagerByEmail(String.valueOf(reponse.getIdAdminReponse()));
-                    if (admin != null && admin.getPrenomUsager() != null && admin.getNomUsager() != null) {
-                        nomAdmin = admin.getPrenomUsager() + " " + admin.getNomUsager();
-                    }
-                } catch (Exception ex) {
-                    // Continuer avec le nom par défaut
-                }
+            if (reponse.getPrenomAdminReponse() != null && reponse.getNomAdminReponse() != null) {
+                nomAdmin = reponse.getPrenomAdminReponse() + " " + reponse.getNomAdminReponse();
             }
             
             historique.append("[").append(date).append("] ").append(nomAdmin).append(" :\n")
@@ -575,6 +601,7 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
                 
                 vue.getTxtReponse().setText("");
                 
+                feedbackSelectionne.getReponses().add(creerReponseLocale(reponse));
                 chargerHistorique();
                 
                 feedbackSelectionne.setStatut("EN_COURS");
@@ -592,6 +619,22 @@ public class ControleurGestionFeedback implements ActionListener, ListSelectionL
         etat = Etat.MESSAGE_SELECTIONNE;
     }
     
+    /**
+     * Construit la réponse qui vient d'être envoyée, pour l'historique affiché
+     * sans recharger la conversation.
+     */
+    private Feedback creerReponseLocale(String message) {
+        Feedback reponse = new Feedback();
+        reponse.setIdUsager(admin.getIdUsager());
+        reponse.setIdFeedbackParent(feedbackSelectionne.getIdFeedback());
+        reponse.setIdAdminReponse(admin.getIdUsager());
+        reponse.setMessage(message);
+        reponse.setDateCreation(LocalDateTime.now());
+        reponse.setPrenomAdminReponse(admin.getPrenomUsager());
+        reponse.setNomAdminReponse(admin.getNomUsager());
+        return reponse;
+    }
+    
     /**
      * Actualise la liste complète des feedbacks en rechargeant les données
      * depuis la base de données. Efface la sélection et les détails affichés.
@@ -2,16 +2,19 @@ package controleur;
 
 import ihm.PageGestionUtilisateurs;
 import ihm.Page_Administration;
+import ihm.ModeleHistoriqueStationnements;
 import modele.Usager;
 import modele.VehiculeUsager;
 import modele.Abonnement;
 import modele.dao.UsagerDAO;
 import modele.dao.VehiculeUsagerDAO;
 import modele.dao.AbonnementDAO;
-import modele.dao.StationnementDAO;
 import modele.dao.MySQLConnection;
+import modele.dao.SessionUsager;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
 import java.awt.event.*;
 import java.sql.*;
@@ -67,6 +70,12 @@ public class ControleurGestionUtilisateurs implements ActionListener {
     private AbonnementDAO abonnementDAO;
     private Usager usagerSelectionne;
     
+    /** Délai sans frappe avant de lancer la recherche */
+    private static final int DELAI_RECHERCHE_MS = 300;
+    
+    /** Recherche différée pendant la saisie, relancée à chaque frappe */
+    private final Timer minuterieRecherche;
+    
     /**
      * Constructeur du contrôleur de gestion des utilisateurs.
      * Initialise les DAOs et configure le contrôleur avec la vue associée.
@@ -79,6 +88,14 @@ public class ControleurGestionUtilisateurs implements ActionListener {
         this.usagerDAO = UsagerDAO.getInstance();
         this.vehiculeUsagerDAO = VehiculeUsagerDAO.getInstance();
         this.abonnementDAO = AbonnementDAO.getInstance();
+        this.minuterieRecherche = new Timer(DELAI_RECHERCHE_MS, e -> {
+            if (etat == Etat.AFFICHAGE) {
+                etat = Etat.RECHERCHE;
+                rechercherUtilisateurs();
+                etat = Etat.AFFICHAGE;
+            }
+        });
+        this.minuterieRecherche.setRepeats(false);
         
         initialiserControleur();
     }
@@ -100,7 +117,8 @@ public class ControleurGestionUtilisateurs implements ActionListener {
     
     /**
      * Configure tous les écouteurs d'événements pour les composants interactifs de la vue.
-     * Connecte les boutons d'action et ajoute la recherche à la frappe avec la touche Entrée.
+     * Connecte les boutons d'action et ajoute la recherche à la frappe : immédiate avec la touche
+     * Entrée, sinon lancée quand la saisie marque une pause.
      */
     private void configurerListeners() {
         vue.getBtnRechercher().addActionListener(this);
@@ -117,12 +135,30 @@ public class ControleurGestionUtilisateurs implements ActionListener {
             @Override
             public void keyReleased(KeyEvent e) {
                 if (etat == Etat.AFFICHAGE && e.getKeyCode() == KeyEvent.VK_ENTER) {
+                    minuterieRecherche.stop();
                     etat = Etat.RECHERCHE;
                     rechercherUtilisateurs();
                     etat = Etat.AFFICHAGE;
                 }
             }
         });
+        
+        vue.getTxtRecherche().getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                minuterieRecherche.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                minuterieRecherche.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attributs de style uniquement
+            }
+        });
     }
     
     /**
@@ -139,6 +175,7 @@ public class ControleurGestionUtilisateurs implements ActionListener {
         switch (etat) {
             case AFFICHAGE:
                 if (source == vue.getBtnRechercher()) {
+                    minuterieRecherche.stop();
                     etat = Etat.RECHERCHE;
                     rechercherUtilisateurs();
                     etat = Etat.AFFICHAGE;
@@ -567,6 +604,8 @@ public class ControleurGestionUtilisateurs implements ActionListener {
             pstmt.setInt(2, idUsager);
             
             int rowsAffected = pstmt.executeUpdate();
+            // L'usager modifié peut être celui de la session ouverte
+            SessionUsager.invaliderUsager(idUsager);
             return rowsAffected > 0;
         }
     }
@@ -967,29 +1006,29 @@ public class ControleurGestionUtilisateurs implements ActionListener {
         dialog.setLayout(new java.awt.BorderLayout(10, 10));
         
         String[] colonnes = {"ID", "Type", "Véhicule", "Lieu", "Date début", "Date fin", "Durée", "Coût", "Statut", "Paiement"};
-        DefaultTableModel model = new DefaultTableModel(colonnes, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Historique lu par pages au défilement
+        ModeleHistoriqueStationnements model = new ModeleHistoriqueStationnements(
+            usagerSelectionne.getIdUsager(), colonnes, ControleurGestionUtilisateurs::ligneStationnement);
         JTable table = new JTable(model);
         
-        chargerStationnements(usagerSelectionne.getIdUsager(), model);
-        
         JScrollPane scrollPane = new JScrollPane(table);
+        model.chargerAuDefilement(table, scrollPane);
+        model.reinitialiser();
         
         JPanel panelInfo = new JPanel();
-        panelInfo.add(new JLabel("Stationnements de " + usagerSelectionne.getPrenomUsager() + " " + 
-                                usagerSelectionne.getNomUsager() + " (" + model.getRowCount() + " stationnement(s))"));
+        String titulaire = "Stationnements de " + usagerSelectionne.getPrenomUsager() + " " + 
+                           usagerSelectionne.getNomUsager();
+        JLabel lblInfo = new JLabel(titulaire);
+        panelInfo.add(lblInfo);
+        model.compter((total, actifs) -> lblInfo.setText(titulaire + " (" + total + " stationnement(s))"));
         
         JPanel panelBoutons = new JPanel();
         JButton btnActualiser = new JButton("Actualiser");
         JButton btnFermer = new JButton("Fermer");
         
         btnActualiser.addActionListener(e -> {
-            model.setRowCount(0);
-            chargerStationnements(usagerSelectionne.getIdUsager(), model);
+            model.reinitialiser();
+            model.compter((total, actifs) -> lblInfo.setText(titulaire + " (" + total + " stationnement(s))"));
             vue.afficherInformation("Liste actualisée");
         });
         
@@ -1007,37 +1046,28 @@ public class ControleurGestionUtilisateurs implements ActionListener {
     }
     
     /**
-     * Charge l'historique des stationnements d'un utilisateur dans le modèle de table.
+     * Valeurs affichées d'un stationnement dans l'historique (une par colonne).
      * 
-     * @param idUsager l'identifiant de l'utilisateur
-     * @param model le modèle de table à remplir
+     * @param s le stationnement à afficher
+     * @return les valeurs de la ligne
      */
-    private void chargerStationnements(int idUsager, DefaultTableModel model) {
-        try {
-            StationnementDAO stationnementDAO = StationnementDAO.getInstance();
-            List<modele.Stationnement> stationnements = stationnementDAO.getHistoriqueStationnements(idUsager);
-            
-            java.text.SimpleDateFormat dateFormat = new java.text.SimpleDateFormat("dd/MM/yyyy HH:mm");
-            
-            for (modele.Stationnement s : stationnements) {
-                model.addRow(new Object[]{
-                    s.getIdStationnement(),
-                    s.getTypeStationnement(),
-                    s.getTypeVehicule() + " - " + s.getPlaqueImmatriculation(),
-                    s.getIdTarification(),
-                    s.getDateCreation() != null ? dateFormat.format(
-                        java.sql.Timestamp.valueOf(s.getDateCreation())) : "-",
-                    s.getDateFin() != null ? dateFormat.format(
-                        java.sql.Timestamp.valueOf(s.getDateFin())) : "-",
-                    s.getDureeHeures() + "h" + s.getDureeMinutes() + "min",
-                    String.format("%.2f €", s.getCout()),
-                    s.getStatut(),
-                    s.getStatutPaiement()
-                });
-            }
-        } catch (SQLException e) {
-            gererErreur("Erreur chargement stationnements", e.getMessage());
-        }
+    private static Object[] ligneStationnement(modele.Stationnement s) {
+        java.text.SimpleDateFormat dateFormat = new java.text.SimpleDateFormat("dd/MM/yyyy HH:mm");
+        
+        return new Object[]{
+            s.getIdStationnement(),
+            s.getTypeStationnement(),
+            s.getTypeVehicule() + " - " + s.getPlaqueImmatriculation(),
+            s.getIdTarification(),
+            s.getDateCreation() != null ? dateFormat.format(
+                java.sql.Timestamp.valueOf(s.getDateCreation())) : "-",
+            s.getDateFin() != null ? dateFormat.format(
+                java.sql.Timestamp.valueOf(s.getDateFin())) : "-",
+            s.getDureeHeures() + "h" + s.getDureeMinutes() + "min",
+            String.format("%.2f €", s.getCout()),
+            s.getStatut(),
+            s.getStatutPaiement()
+        };
     }
     
     /**
@@ -2,95 +2,55 @@ package controleur;
 
 import ihm.Page_Stationnement_En_Cours;
 import modele.Stationnement;
+import modele.dao.EcheancierStationnements;
 import javax.swing.*;
 
 import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Toolkit;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Contrôleur pour les notifications de stationnement en voirie
  * Affiche un pop-up lorsqu'il reste 10 minutes ou moins
+ * 
+ * Le rappel est déclenché une seule fois, à l'échéance, par EcheancierStationnements.
  */
-public class ControleurNotificationStationnement {
+public class ControleurNotificationStationnement implements EcheancierStationnements.EcouteurEcheance {
     
     private Page_Stationnement_En_Cours vue;
-    private ScheduledExecutorService scheduler;
     private boolean notificationAffichee = false;
-    private LocalDateTime derniereNotification = null;
     
     public ControleurNotificationStationnement(Page_Stationnement_En_Cours vue) {
         this.vue = vue;
-        this.scheduler = Executors.newScheduledThreadPool(1);
-        demarrerSurveillance();
+        demarrer();
     }
     
     /**
-     * Démarre la surveillance du temps restant pour le stationnement
+     * Inscrit le stationnement affiché auprès de l'échéancier
      */
-    private void demarrerSurveillance() {
-        // Vérifier toutes les minutes
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                verifierTempsRestant();
-            } catch (Exception e) {
-                System.err.println("Erreur lors de la vérification du temps restant: " + e.getMessage());
-            }
-        }, 0, 1, TimeUnit.MINUTES); // Vérification toutes les minutes
+    private void verifierTempsRestant() {
+        if (vue != null) {
+            EcheancierStationnements.getInstance().planifier(vue.getStationnementActif());
+        }
     }
     
     /**
-     * Vérifie le temps restant et affiche une notification si nécessaire
+     * Rappel de l'échéancier : affiché s'il concerne le stationnement de la page
      */
-    private void verifierTempsRestant() {
-        if (vue == null || vue.getStationnementActif() == null) {
-            return;
-        }
-        
-        Stationnement stationnement = vue.getStationnementActif();
-        
-        // Vérifier que c'est un stationnement en voirie
-        if (!stationnement.estVoirie()) {
-            return;
-        }
-        
-        // Vérifier que le stationnement est actif
-        if (!"ACTIF".equals(stationnement.getStatut())) {
-            return;
-        }
-        
-        // Vérifier qu'il y a une date de fin
-        if (stationnement.getDateFin() == null) {
-            return;
-        }
-        
-        LocalDateTime maintenant = LocalDateTime.now();
-        LocalDateTime dateFin = stationnement.getDateFin();
-        
-        // Calculer le temps restant en minutes
-        long minutesRestantes = ChronoUnit.MINUTES.between(maintenant, dateFin);
-        
-        // Afficher la notification seulement si 10 minutes ou moins restent
-        if (minutesRestantes > 0 && minutesRestantes <= 10) {
-            // Éviter d'afficher la notification trop souvent
-            if (derniereNotification != null) {
-                long minutesDepuisDerniereNotification = ChronoUnit.MINUTES.between(derniereNotification, maintenant);
-                if (minutesDepuisDerniereNotification < 5) { // Attendre au moins 5 minutes entre les notifications
-                    return;
-                }
-            }
-            
-            afficherNotification(minutesRestantes, stationnement);
-            derniereNotification = maintenant;
+    @Override
+    public void rappel(Stationnement stationnement, long minutesRestantes) {
+        Stationnement affiche = vue == null ? null : vue.getStationnementActif();
+        if (affiche != null && affiche.getIdStationnement() == stationnement.getIdStationnement()) {
+            afficherNotification(minutesRestantes, affiche);
         }
     }
     
+    @Override
+    public void expiration(Stationnement stationnement) {
+        // L'expiration est notifiée par NotificationManager
+    }
+    
     /**
      * Affiche une notification à l'utilisateur
      */
@@ -192,26 +152,14 @@ public class ControleurNotificationStationnement {
      * Arrête la surveillance
      */
     public void arreterSurveillance() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
-            try {
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                scheduler.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
+        EcheancierStationnements.getInstance().removeEcouteur(this);
     }
     
     /**
      * Démarre la surveillance (si elle a été arrêtée)
      */
     public void demarrer() {
-        if (scheduler == null || scheduler.isShutdown()) {
-            scheduler = Executors.newScheduledThreadPool(1);
-            demarrerSurveillance();
-        }
+        EcheancierStationnements.getInstance().addEcouteur(this);
+        verifierTempsRestant();
     }
 }
\ No newline at end of file
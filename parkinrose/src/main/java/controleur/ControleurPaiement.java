@@ -5,15 +5,17 @@ import ihm.Page_Principale;
 import modele.Paiement;
 import modele.Stationnement;
 import modele.Usager;
-import modele.dao.PaiementDAO;
+import modele.dao.JournalPaiements;
 import modele.dao.StationnementDAO;
 import modele.dao.UsagerDAO;
 import javax.swing.*;
+import java.awt.Cursor;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Contrôleur gérant l'interface de paiement pour les stationnements.
@@ -291,7 +293,8 @@ public class ControleurPaiement implements ActionListener {
     /**
      * Effectue le traitement du paiement.
      * Distingue entre les paiements gratuits (parking < 15min) et les paiements normaux.
-     * Traite différemment les stationnements en voirie et en parking.
+     * Les paiements normaux sont soumis à TraitementPaiements sans bloquer l'interface :
+     * le résultat est affiché sur l'EDT par terminerPaiement.
      */
     private void effectuerPaiement() {
         try {
@@ -301,28 +304,29 @@ public class ControleurPaiement implements ActionListener {
                 return;
             }
             
-            this.paiement = new Paiement(
-                vue.getTxtNomCarte().getText().trim(),
-                nettoyerNumeroCarte(vue.getTxtNumeroCarte().getText().trim()),
-                vue.getTxtCVV().getText().trim(),
-                vue.getMontant(),
-                usager.getIdUsager()
-            );
-            
-            boolean succes;
-            if (vue.getIdStationnement() == null) {
-                succes = traiterPaiementVoirie();
-            } else {
-                succes = traiterPaiementParking();
+            // Un paiement au délai dépassé est soumis de nouveau avec le même
+            // id_paiement : les étapes déjà enregistrées ne sont pas refaites
+            if (paiement == null) {
+                this.paiement = new Paiement(
+                    vue.getTxtNomCarte().getText().trim(),
+                    nettoyerNumeroCarte(vue.getTxtNumeroCarte().getText().trim()),
+                    vue.getTxtCVV().getText().trim(),
+                    vue.getMontant(),
+                    usager.getIdUsager()
+                );
             }
             
-            if (succes) {
-                etat = Etat.PAIEMENT_REUSSI;
-                afficherConfirmationPaiement();
-                retourPagePrincipale();
-            } else {
-                gererErreur("Erreur lors du traitement du paiement");
-            }
+            // Le stationnement est écrit dans la même transaction que le paiement
+            JournalPaiements.Ecriture ecriture = vue.getIdStationnement() == null
+                ? StationnementDAO.getInstance().creationVoiriePayee(creerStationnementVoirie())
+                : StationnementDAO.getInstance().finParkingPayee(vue.getIdStationnement(), LocalDateTime.now(),
+                                                                 vue.getMontant());
+            
+            vue.getBtnPayer().setEnabled(false);
+            vue.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            TraitementPaiements.getInstance()
+                .soumettre(paiement, vue.getTxtDateExpiration().getText().trim(), ecriture)
+                .whenCompleteAsync(this::terminerPaiement, SwingUtilities::invokeLater);
             
         } catch (Exception e) {
             gererErreur("Erreur paiement: " + e.getMessage());
@@ -330,66 +334,64 @@ public class ControleurPaiement implements ActionListener {
     }
     
     /**
-     * Traite un paiement pour un stationnement en voirie.
-     * Enregistre le paiement puis crée le stationnement associé.
+     * Affiche le résultat du paiement soumis (sur l'EDT).
+     * Après un refus ou une erreur, l'utilisateur peut corriger sa saisie et payer de nouveau.
      * 
-     * @return true si le traitement a réussi, false sinon
+     * @param accepte true si le paiement est accepté et enregistré, false s'il est refusé
+     * @param erreur l'erreur survenue pendant le traitement, ou null
      */
-    private boolean traiterPaiementVoirie() {
-        try {
-            PaiementDAO paiementDAO = PaiementDAO.getInstance();
-            paiementDAO.create(paiement);
-
-            Stationnement stationnement = new Stationnement(
-                usager.getIdUsager(),
-                vue.getTypeVehicule(),
-                vue.getPlaqueImmatriculation(),
-                vue.getIdZone(),
-                vue.getNomZone(),
-                vue.getDureeHeures(),
-                vue.getDureeMinutes(),
-                vue.getMontant(),
-                paiement.getIdPaiement()
-            );
-            
-            stationnement.setTypeStationnement("VOIRIE");
-            stationnement.setStatutPaiement("PAYE");
-            
-            StationnementDAO stationnementDAO = StationnementDAO.getInstance();
-            stationnementDAO.creerStationnementVoirie(stationnement);
-            
-            return true;
-        } catch (SQLException e) {
-            afficherMessageErreur("Erreur création stationnement: " + e.getMessage(), "Erreur système");
-            return false;
+    private void terminerPaiement(Boolean accepte, Throwable erreur) {
+        vue.setCursor(Cursor.getDefaultCursor());
+        vue.getBtnPayer().setEnabled(true);
+        
+        if (erreur != null) {
+            etat = Etat.SAISIE_INFORMATIONS;
+            System.err.println("Erreur paiement: " + erreur);
+            if (erreur instanceof TimeoutException) {
+                // Peut-être enregistré : le même paiement est soumis de nouveau
+                afficherMessageErreur("Le paiement n'a pas abouti dans les délais.\n"
+                    + "Vous pouvez réessayer : il ne sera pas enregistré deux fois.", "Délai dépassé");
+            } else {
+                // Pas enregistré : un nouveau paiement est créé avec la saisie corrigée
+                this.paiement = null;
+                afficherMessageErreur("Erreur lors du traitement du paiement: " + erreur.getMessage(), "Erreur");
+            }
+            return;
+        }
+        
+        if (!accepte) {
+            this.paiement = null;
+            etat = Etat.SAISIE_INFORMATIONS;
+            afficherMessageErreur("Le paiement a été refusé par la banque.", "Paiement refusé");
+            return;
         }
+        
+        etat = Etat.PAIEMENT_REUSSI;
+        afficherConfirmationPaiement();
+        retourPagePrincipale();
     }
     
     /**
-     * Traite un paiement pour un stationnement en parking.
-     * Enregistre le paiement puis termine le stationnement parking existant.
+     * Prépare le stationnement en voirie réglé par le paiement.
      * 
-     * @return true si le traitement a réussi, false sinon
+     * @return le stationnement à créer
      */
-    private boolean traiterPaiementParking() {
-        try {
-            PaiementDAO paiementDAO = PaiementDAO.getInstance();
-            paiementDAO.create(paiement);
-
-            StationnementDAO stationnementDAO = StationnementDAO.getInstance();
-            boolean stationnementTermine = stationnementDAO.terminerStationnementParking(
-                vue.getIdStationnement(),
-                LocalDateTime.now(),
-                vue.getMontant(),
-                paiement.getIdPaiement()
-            );
-            
-            return stationnementTermine;
-            
-        } catch (SQLException e) {
-            afficherMessageErreur("Erreur traitement paiement parking: " + e.getMessage(), "Erreur système");
-            return false;
-        }
+    private Stationnement creerStationnementVoirie() {
+        Stationnement stationnement = new Stationnement(
+            usager.getIdUsager(),
+            vue.getTypeVehicule(),
+            vue.getPlaqueImmatriculation(),
+            vue.getIdZone(),
+            vue.getNomZone(),
+            vue.getDureeHeures(),
+            vue.getDureeMinutes(),
+            vue.getMontant(),
+            paiement.getIdPaiement()
+        );
+        
+        stationnement.setTypeStationnement("VOIRIE");
+        stationnement.setStatutPaiement("PAYE");
+        return stationnement;
     }
     
     /**
@@ -6,14 +6,14 @@ import ihm.Page_Utilisateur;
 import modele.Abonnement;
 import modele.Paiement;
 import modele.Usager;
-import modele.dao.PaiementDAO;
 import modele.dao.UsagerDAO;
 import modele.dao.AbonnementDAO;
 import javax.swing.*;
+import java.awt.Cursor;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.YearMonth;
-import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Contrôleur gérant l'interface de paiement pour les abonnements.
@@ -303,27 +303,67 @@ public class ControleurPaiementAbonnement implements ActionListener {
     
     /**
      * Effectue le traitement du paiement de l'abonnement.
-     * Crée l'objet paiement, l'enregistre en base de données puis active l'abonnement.
+     * Le paiement est soumis à TraitementPaiements sans bloquer l'interface :
+     * le paiement et l'activation de l'abonnement sont écrits dans une même transaction,
+     * le résultat est affiché sur l'EDT.
      */
     private void effectuerPaiement() {
         try {
-            this.paiement = creerPaiement();
-            
-            boolean paiementReussi = PaiementDAO.getInstance().enregistrerPaiement(paiement);
-            
-            if (!paiementReussi) {
-                gererErreur("Erreur lors de l'enregistrement du paiement");
-                return;
+            // Un paiement au délai dépassé est soumis de nouveau avec le même id_paiement
+            if (paiement == null) {
+                this.paiement = creerPaiement();
             }
             
-            etat = Etat.ACTIVATION_ABONNEMENT;
-            activerAbonnement();
+            vue.getBtnPayer().setEnabled(false);
+            vue.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            TraitementPaiements.getInstance()
+                .soumettre(paiement, vue.getTxtExpiration().getText().trim(),
+                           AbonnementDAO.getInstance().souscriptionPayee(usager.getIdUsager(), abonnement.getIdAbonnement()))
+                .whenCompleteAsync(this::terminerPaiement, SwingUtilities::invokeLater);
             
         } catch (Exception e) {
             gererErreur("Erreur paiement: " + e.getMessage());
         }
     }
     
+    /**
+     * Affiche le résultat du paiement soumis (sur l'EDT).
+     * Après un refus ou une erreur, l'utilisateur peut corriger sa saisie et payer de nouveau.
+     * 
+     * @param accepte true si le paiement est accepté et l'abonnement activé, false s'il est refusé
+     * @param erreur l'erreur survenue pendant le traitement, ou null
+     */
+    private void terminerPaiement(Boolean accepte, Throwable erreur) {
+        vue.setCursor(Cursor.getDefaultCursor());
+        vue.getBtnPayer().setEnabled(true);
+        
+        if (erreur != null) {
+            etat = Etat.SAISIE_INFORMATIONS;
+            System.err.println("Erreur paiement abonnement: " + erreur);
+            if (erreur instanceof TimeoutException) {
+                // Peut-être enregistré : le même paiement est soumis de nouveau
+                afficherMessageErreur("Le paiement n'a pas abouti dans les délais.\n"
+                    + "Vous pouvez réessayer : il ne sera pas enregistré deux fois.", "Délai dépassé");
+            } else {
+                // Pas enregistré : un nouveau paiement est créé avec la saisie corrigée
+                this.paiement = null;
+                afficherMessageErreur("Erreur lors du traitement du paiement: " + erreur.getMessage(), "Erreur");
+            }
+            return;
+        }
+        
+        if (!accepte) {
+            this.paiement = null;
+            etat = Etat.SAISIE_INFORMATIONS;
+            afficherMessageErreur("Le paiement a été refusé par la banque.", "Paiement refusé");
+            return;
+        }
+        
+        etat = Etat.CONFIRMATION_SUCCES;
+        afficherConfirmationPaiement();
+        retourPageUtilisateur();
+    }
+    
     /**
      * Crée un objet Paiement à partir des informations saisies dans le formulaire.
      * Génère automatiquement un identifiant unique pour le paiement.
@@ -333,7 +373,7 @@ public class ControleurPaiementAbonnement implements ActionListener {
     private Paiement creerPaiement() {
         Paiement paiement = new Paiement();
         
-        paiement.setIdPaiement(genererIdPaiement());
+        paiement.setIdPaiement(Paiement.genererIdPaiement());
         paiement.setNomCarte(vue.getTxtTitulaire().getText().trim());
         paiement.setNumeroCarte(vue.getTxtNumeroCarte().getText().trim().replaceAll("\\s+", ""));
         paiement.setCodeSecretCarte(vue.getTxtCrypto().getText().trim());
@@ -346,40 +386,6 @@ public class ControleurPaiementAbonnement implements ActionListener {
         return paiement;
     }
     
-    /**
-     * Génère un identifiant unique pour le paiement.
-     * Format : PAY_XXXXXXXX où X est un caractère alphanumérique.
-     * 
-     * @return l'identifiant généré
-     */
-    private String genererIdPaiement() {
-        return "PAY_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-    
-    /**
-     * Active l'abonnement pour l'utilisateur après un paiement réussi.
-     * Ajoute l'abonnement à l'utilisateur en base de données et affiche la confirmation.
-     */
-    private void activerAbonnement() {
-        try {
-            boolean abonnementActive = AbonnementDAO.getInstance().ajouterAbonnementUtilisateur(
-                usager.getIdUsager(), 
-                abonnement.getIdAbonnement()
-            );
-            
-            if (abonnementActive) {
-                etat = Etat.CONFIRMATION_SUCCES;
-                afficherConfirmationPaiement();
-                retourPageUtilisateur();
-            } else {
-                gererErreur("Paiement effectué mais erreur lors de l'activation de l'abonnement");
-            }
-            
-        } catch (Exception e) {
-            gererErreur("Erreur activation abonnement: " + e.getMessage());
-        }
-    }
-    
     /**
      * Affiche une boîte de dialogue de confirmation après l'activation de l'abonnement.
      * Indique le nom de l'abonnement, la date d'activation et le prix payé.
@@ -7,6 +7,8 @@ import ihm.Page_Garer_Parking;
 import ihm.Page_Stationnement_En_Cours;
 import ihm.Page_Resultats_Recherche;
 import ihm.Page_Feedback;
+import ihm.SuggestionsParkings;
+import modele.Parking;
 import javax.swing.JButton;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -79,6 +81,19 @@ public class ControleurPrincipale implements ActionListener {
         
         if (vue.getSearchField() != null) {
             vue.getSearchField().addActionListener(this);
+            new SuggestionsParkings(vue.getSearchField(), this::choisirSuggestion);
+        }
+    }
+    
+    /**
+     * Un parking a été choisi dans les suggestions : ouvre directement ses résultats.
+     * 
+     * @param parking le parking suggéré
+     */
+    private void choisirSuggestion(Parking parking) {
+        if (etat == EtatPrincipal.ACCUEIL) {
+            etat = EtatPrincipal.RECHERCHE_RESULTATS;
+            ouvrirResultatsRecherche(parking.getLibelleParking());
         }
     }
     
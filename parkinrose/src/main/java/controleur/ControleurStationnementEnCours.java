@@ -2,18 +2,21 @@ package controleur;
 
 import ihm.Page_Stationnement_En_Cours;
 import ihm.Page_Principale;
+import modele.Usager;
+import modele.dao.UsagerDAO;
+import utils.BusEvenements;
 import utils.NotificationManager;
 import javax.swing.JButton;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import javax.swing.Timer;
+import java.util.function.Consumer;
 import javax.swing.JOptionPane;
 
 /**
  * Contrôleur gérant l'interface de consultation d'un stationnement en cours.
  * Implémente le pattern MVC en coordonnant les interactions entre la vue Page_Stationnement_En_Cours
  * et le modèle (Stationnement).
- * Gère l'actualisation automatique des données et les notifications de fin de stationnement.
+ * Gère l'actualisation des données sur les événements du bus et les notifications de fin de stationnement.
  * 
  * @author Équipe 7
  */
@@ -40,12 +43,16 @@ public class ControleurStationnementEnCours implements ActionListener {
     
     private Page_Stationnement_En_Cours vue;
     private EtatStationnement etat;
-    private Timer timer;
     private NotificationManager notificationManager;
     
+    // Abonnements au bus d'événements
+    private final Consumer<BusEvenements.StationnementActifModifie> abonneStationnement =
+        e -> actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "ACTUALISATION"));
+    private final Consumer<BusEvenements.TopMinute> abonneMinute = e -> actualiserTempsRestant();
+    
     /**
      * Constructeur du contrôleur de stationnement en cours.
-     * Initialise le contrôleur avec la vue associée et démarre l'actualisation automatique.
+     * Initialise le contrôleur avec la vue associée et s'abonne au bus d'événements.
      * 
      * @param vue la page d'interface graphique du stationnement en cours
      */
@@ -56,7 +63,7 @@ public class ControleurStationnementEnCours implements ActionListener {
         configurerListeners();
         
         etat = EtatStationnement.AFFICHAGE_EN_COURS;
-        demarrerTimer();
+        abonnerAuxEvenements();
         
         verifierNotifications();
     }
@@ -128,7 +135,7 @@ public class ControleurStationnementEnCours implements ActionListener {
     
     /**
      * Détermine l'action à partir de la source de l'événement.
-     * Identifie si c'est un bouton, un timer ou une autre source.
+     * Identifie si c'est un bouton ou une autre source.
      * 
      * @param e l'événement d'action
      * @return une chaîne identifiant l'action
@@ -147,8 +154,6 @@ public class ControleurStationnementEnCours implements ActionListener {
                     return "ARRETER";
                 }
             }
-        } else if (source instanceof Timer) {
-            return "ACTUALISATION_TIMER";
         }
         
         return e.getActionCommand();
@@ -167,7 +172,7 @@ public class ControleurStationnementEnCours implements ActionListener {
     
     /**
      * Traite les actions en état AFFICHAGE_EN_COURS.
-     * Gère le retour, l'arrêt et l'actualisation automatique.
+     * Gère le retour, l'arrêt et l'actualisation sur changement du stationnement.
      * 
      * @param action l'action à traiter
      */
@@ -183,7 +188,7 @@ public class ControleurStationnementEnCours implements ActionListener {
                 terminerStationnement();
                 break;
                 
-            case "ACTUALISATION_TIMER":
+            case "ACTUALISATION":
                 etat = EtatStationnement.CHARGEMENT_DONNEES;
                 actualiserDonnees();
                 break;
@@ -246,10 +251,10 @@ public class ControleurStationnementEnCours implements ActionListener {
     
     /**
      * Retourne à la page d'accueil de l'application.
-     * Arrête le timer d'actualisation et ferme la page actuelle.
+     * Se désabonne du bus d'événements et ferme la page actuelle.
      */
     private void retourAccueil() {
-        arreterTimer();
+        desabonnerDesEvenements();
         
         try {
             Page_Principale pagePrincipale = new Page_Principale(vue.getEmailUtilisateur());
@@ -338,23 +343,34 @@ public class ControleurStationnementEnCours implements ActionListener {
     }
     
     /**
-     * Démarre le timer d'actualisation automatique.
-     * Le timer déclenche une actualisation toutes les 30 secondes.
+     * S'abonne au bus d'événements : les données sont rechargées quand le stationnement
+     * actif change, et le temps restant est réaffiché chaque minute sans accès à la base.
      */
-    private void demarrerTimer() {
-        timer = new Timer(30000, e -> 
-            actionPerformed(new ActionEvent(timer, ActionEvent.ACTION_PERFORMED, "ACTUALISATION_TIMER")));
-        timer.start();
+    private void abonnerAuxEvenements() {
+        Usager usager = UsagerDAO.getUsagerByEmail(vue.getEmailUtilisateur());
+        BusEvenements bus = BusEvenements.getInstance();
+        if (usager != null) {
+            bus.abonner(BusEvenements.StationnementActifModifie.class, usager.getIdUsager(), abonneStationnement);
+        }
+        bus.abonner(BusEvenements.TopMinute.class, abonneMinute);
     }
     
     /**
-     * Arrête le timer d'actualisation.
+     * Se désabonne du bus d'événements.
      * Utilisé lors du retour à la page principale.
      */
-    private void arreterTimer() {
-        if (timer != null) {
-            timer.stop();
-            timer = null;
+    private void desabonnerDesEvenements() {
+        BusEvenements bus = BusEvenements.getInstance();
+        bus.desabonner(abonneStationnement);
+        bus.desabonner(abonneMinute);
+    }
+    
+    /**
+     * Réaffiche le temps restant (les rappels sont déclenchés par l'échéancier).
+     */
+    private void actualiserTempsRestant() {
+        if (etat == EtatStationnement.AFFICHAGE_EN_COURS && vue.getStationnementActif() != null) {
+            rafraichirAffichage();
         }
     }
     
@@ -391,9 +407,9 @@ public class ControleurStationnementEnCours implements ActionListener {
     
     /**
      * Nettoie les ressources utilisées par le contrôleur.
-     * Arrête le timer d'actualisation.
+     * Se désabonne du bus d'événements.
      */
     public void nettoyer() {
-        arreterTimer();
+        desabonnerDesEvenements();
     }
 }
\ No newline at end of file
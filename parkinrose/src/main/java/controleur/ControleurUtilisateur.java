@@ -1,6 +1,8 @@
 package controleur;
 
 import modele.Usager;
+import modele.dao.FavoriDAO;
+import modele.dao.SessionUsager;
 import modele.dao.UsagerDAO;
 import ihm.Page_Utilisateur;
 import ihm.Page_Authentification;
@@ -369,6 +371,11 @@ public class ControleurUtilisateur implements ActionListener {
      * Affiche un message de confirmation et ouvre la page d'authentification.
      */
     private void executerDeconnexion() {
+        if (usager != null) {
+            FavoriDAO.getInstance().oublier(usager.getIdUsager());
+        }
+        SessionUsager.fermer();
+        
         JOptionPane.showMessageDialog(vue,
             "Déconnexion réussie !\nÀ bientôt sur Parkin'Rose.",
             "Déconnexion",
@@ -3,14 +3,20 @@ package controleur;
 import modele.Paiement;
 import modele.Stationnement;
 import modele.Usager;
+import modele.dao.AbonnementDAO;
+import modele.dao.JournalPaiements;
 import modele.dao.PaiementDAO;
 import modele.dao.StationnementDAO;
 import modele.dao.UsagerDAO;
 import ihm.Page_Paiement;
 import ihm.Page_Principale;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class PaiementControleur {
     
@@ -34,44 +40,27 @@ public class PaiementControleur {
         try {
             // Créer le paiement
             Paiement paiement = new Paiement(nomCarte, numeroCarte, cvv, montant, usager.getIdUsager());
-            boolean paiementReussi = PaiementDAO.enregistrerPaiement(paiement);
             
-            if (paiementReussi) {
-                // Créer l'objet Stationnement en utilisant le bon constructeur
-                Stationnement stationnement = new Stationnement(
-                    usager.getIdUsager(),
-                    typeVehicule,
-                    plaqueImmatriculation,
-                    idZone,
-                    "", // zone (laissé vide car tu as déjà idZone)
-                    dureeHeures,
-                    dureeMinutes,
-                    montant,
-                    paiement.getIdPaiement()
-                );
-                
-                // Appeler la méthode avec l'objet Stationnement
-                boolean stationnementReussi = StationnementDAO.creerStationnementVoirie(stationnement);
-                
-                if (stationnementReussi) {
-                    afficherConfirmationVoirie(montant, plaqueImmatriculation, idZone, 
-                                              dureeHeures, dureeMinutes, pagePaiement);
-                    redirigerVersAccueil(pagePaiement);
-                    return true;
-                } else {
-                    JOptionPane.showMessageDialog(pagePaiement,
-                        "Erreur lors de la création du stationnement",
-                        "Erreur",
-                        JOptionPane.ERROR_MESSAGE);
-                    return false;
-                }
-            } else {
-                JOptionPane.showMessageDialog(pagePaiement,
-                    "Erreur lors de l'enregistrement du paiement",
-                    "Erreur",
-                    JOptionPane.ERROR_MESSAGE);
-                return false;
-            }
+            // Créer l'objet Stationnement en utilisant le bon constructeur
+            Stationnement stationnement = new Stationnement(
+                usager.getIdUsager(),
+                typeVehicule,
+                plaqueImmatriculation,
+                idZone,
+                "", // zone (laissé vide car tu as déjà idZone)
+                dureeHeures,
+                dureeMinutes,
+                montant,
+                paiement.getIdPaiement()
+            );
+            
+            // Paiement et stationnement écrits dans une seule transaction par le journal des paiements
+            enregistrer(paiement, StationnementDAO.getInstance().creationVoiriePayee(stationnement));
+            
+            afficherConfirmationVoirie(montant, plaqueImmatriculation, idZone, 
+                                      dureeHeures, dureeMinutes, pagePaiement);
+            redirigerVersAccueil(pagePaiement);
+            return true;
         } catch (Exception e) {
             JOptionPane.showMessageDialog(pagePaiement,
                 "Erreur lors du traitement du paiement: " + e.getMessage(),
@@ -108,35 +97,13 @@ public class PaiementControleur {
         try {
             // Créer le paiement
             Paiement paiement = new Paiement(nomCarte, numeroCarte, cvv, montant, usager.getIdUsager());
-            boolean paiementReussi = PaiementDAO.enregistrerPaiement(paiement);
             
-            if (paiementReussi) {
-                // Utiliser la méthode qui prend idPaiement en String (correspond à ton DAO)
-                boolean stationnementReussi = StationnementDAO.terminerStationnementParking(
-                    idStationnement,
-                    heureDepart,
-                    montant,
-                    paiement.getIdPaiement()
-                );
-                
-                if (stationnementReussi) {
-                    afficherConfirmationParking(montant, idStationnement, pagePaiement);
-                    redirigerVersAccueil(pagePaiement);
-                    return true;
-                } else {
-                    JOptionPane.showMessageDialog(pagePaiement,
-                        "Erreur lors de la mise à jour du stationnement",
-                        "Erreur",
-                        JOptionPane.ERROR_MESSAGE);
-                    return false;
-                }
-            } else {
-                JOptionPane.showMessageDialog(pagePaiement,
-                    "Erreur lors de l'enregistrement du paiement",
-                    "Erreur",
-                    JOptionPane.ERROR_MESSAGE);
-                return false;
-            }
+            // Paiement et fin du stationnement écrits dans une seule transaction par le journal des paiements
+            enregistrer(paiement, StationnementDAO.getInstance().finParkingPayee(idStationnement, heureDepart, montant));
+            
+            afficherConfirmationParking(montant, idStationnement, pagePaiement);
+            redirigerVersAccueil(pagePaiement);
+            return true;
         } catch (Exception e) {
             JOptionPane.showMessageDialog(pagePaiement,
                 "Erreur lors du traitement du paiement: " + e.getMessage(),
@@ -146,6 +113,19 @@ public class PaiementControleur {
         }
     }
     
+    /**
+     * Enregistre le paiement et ce qu'il règle par le journal des paiements (une seule fois par id_paiement)
+     * et attend la fin de l'écriture
+     */
+    private void enregistrer(Paiement paiement, JournalPaiements.Ecriture ecriture) throws Exception {
+        try {
+            JournalPaiements.getInstance().enregistrer(paiement, ecriture)
+                .get(TraitementPaiements.DELAI_MAX_ENREGISTREMENT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+    
     public boolean validerDonneesPaiement(String nomCarte, String numeroCarte, String dateExpiration, String cvv,
                                          javax.swing.JFrame parent) {
 
@@ -377,72 +357,17 @@ public class PaiementControleur {
     }
     
     /**
-     * Simule un paiement
-     */
-    public boolean simulerPaiement(double montant, String numeroCarte, String dateExpiration, String cvv) {
-        try {
-            // Simuler un délai de traitement
-            Thread.sleep(1000);
-            
-            // Vérifications de base
-            if (numeroCarte == null || numeroCarte.trim().isEmpty()) return false;
-            if (!validerDateExpiration(dateExpiration)) return false;
-            if (!validerCVV(cvv)) return false;
-            
-            // Pour la simulation, accepter toujours (ou presque)
-            return Math.random() > 0.1; // 90% de chance de succès
-            
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return false;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-    
-    /**
-     * Valide une date d'expiration (version pour simulerPaiement)
-     */
-    private boolean validerDateExpiration(String dateExpiration) {
-        if (dateExpiration == null || !dateExpiration.matches("\\d{2}/\\d{2}")) {
-            return false;
-        }
-        
-        try {
-            String[] parties = dateExpiration.split("/");
-            int mois = Integer.parseInt(parties[0]);
-            int annee = Integer.parseInt(parties[1]);
-            
-            // Validation du mois (1-12)
-            if (mois < 1 || mois > 12) {
-                return false;
-            }
-            
-            // Vérifier que la carte n'est pas expirée
-            int anneeCourante = java.time.Year.now().getValue() % 100;
-            int moisCourant = java.time.LocalDate.now().getMonthValue();
-            
-            if (annee < anneeCourante) {
-                return false;
-            } else if (annee == anneeCourante && mois < moisCourant) {
-                return false;
-            }
-            
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-    
-    /**
-     * Valide un code CVV (version pour simulerPaiement)
+     * Simule un paiement auprès de la banque, sans bloquer l'appelant
+     * @return true si le paiement est accepté (terminé en TimeoutException si la banque ne répond pas)
      */
-    private boolean validerCVV(String cvv) {
-        return cvv != null && cvv.matches("\\d{3,4}");
+    public CompletableFuture<Boolean> simulerPaiement(double montant, String numeroCarte, String dateExpiration, String cvv) {
+        return TraitementPaiements.getInstance().autoriser(montant, numeroCarte, dateExpiration, cvv);
     }
     
     /**
-     * Traite un paiement pour un abonnement (méthode manquante)
+     * Traite un paiement pour un abonnement.
+     * Le paiement est soumis sans bloquer l'appelant ; le résultat est affiché sur l'EDT.
+     * @return true si le formulaire est valide et le paiement soumis
      */
     public boolean traiterPaiementAbonnement(String nomCarte, String numeroCarte, String dateExpiration, 
                                             String cvv, double montant, String idAbonnement, 
@@ -453,44 +378,35 @@ public class PaiementControleur {
             return false;
         }
         
-        // Simuler le paiement
-        if (!simulerPaiement(montant, numeroCarte, dateExpiration, cvv)) {
-            JOptionPane.showMessageDialog(parent,
-                "Le paiement a été refusé par la banque.",
-                "Paiement refusé",
-                JOptionPane.ERROR_MESSAGE);
-            return false;
-        }
+        // Créer le paiement avec l'ID d'abonnement, enregistré avec l'abonnement une fois la banque d'accord
+        Paiement paiement = new Paiement(nomCarte, nettoyerNumeroCarte(numeroCarte), cvv.trim(), montant,
+                                         usager.getIdUsager(), idAbonnement);
         
-        try {
-            // Créer le paiement avec l'ID d'abonnement
-            Paiement paiement = new Paiement(nomCarte, numeroCarte, cvv, montant, usager.getIdUsager(), idAbonnement);
-            boolean paiementEnregistre = PaiementDAO.enregistrerPaiement(paiement);
-            
-            if (paiementEnregistre) {
-                JOptionPane.showMessageDialog(parent,
-                    "<html><h3>Paiement confirmé !</h3>" +
-                    "<p>Votre abonnement " + libelleAbonnement + " est maintenant actif.</p>" +
-                    "<p><b>ID Transaction:</b> " + paiement.getIdPaiement() + "</p>" +
-                    "<p><b>Prix mensuel:</b> " + String.format("%.2f €", montant) + "</p></html>",
-                    "Succès",
-                    JOptionPane.INFORMATION_MESSAGE);
-                return true;
-            } else {
-                JOptionPane.showMessageDialog(parent,
-                    "Erreur lors de l'enregistrement du paiement.",
-                    "Erreur",
-                    JOptionPane.ERROR_MESSAGE);
-                return false;
-            }
-            
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(parent,
-                "Erreur lors du traitement: " + e.getMessage(),
-                "Erreur",
-                JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-            return false;
-        }
+        TraitementPaiements.getInstance()
+            .soumettre(paiement, dateExpiration.trim(),
+                       AbonnementDAO.getInstance().souscriptionPayee(usager.getIdUsager(), idAbonnement))
+            .whenCompleteAsync((accepte, erreur) -> {
+                if (erreur != null) {
+                    JOptionPane.showMessageDialog(parent,
+                        "Erreur lors du traitement: " + erreur.getMessage(),
+                        "Erreur",
+                        JOptionPane.ERROR_MESSAGE);
+                } else if (!accepte) {
+                    JOptionPane.showMessageDialog(parent,
+                        "Le paiement a été refusé par la banque.",
+                        "Paiement refusé",
+                        JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(parent,
+                        "<html><h3>Paiement confirmé !</h3>" +
+                        "<p>Votre abonnement " + libelleAbonnement + " est maintenant actif.</p>" +
+                        "<p><b>ID Transaction:</b> " + paiement.getIdPaiement() + "</p>" +
+                        "<p><b>Prix mensuel:</b> " + String.format("%.2f €", montant) + "</p></html>",
+                        "Succès",
+                        JOptionPane.INFORMATION_MESSAGE);
+                }
+            }, SwingUtilities::invokeLater);
+        
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,16 @@
 package controleur;
 
 import modele.Abonnement;
+import modele.Paiement;
 import modele.Stationnement;
 import modele.Usager;
 import modele.Zone;
 import modele.dao.AbonnementDAO;
-import modele.dao.PaiementDAO;
-import modele.dao.ParkingDAO;
+import modele.dao.DonneesReference;
+import modele.dao.JournalPaiements;
+import modele.dao.OccupationParkings;
 import modele.dao.StationnementDAO;
 import modele.dao.UsagerDAO;
-import modele.dao.ZoneDAO;
 import modele.Parking;
 import ihm.Page_Garer_Voirie;
 import ihm.Page_Garer_Parking;
@@ -19,6 +20,7 @@ import javax.swing.JOptionPane;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Contrôleur métier gérant la logique de gestion des stationnements.
@@ -150,7 +152,7 @@ public class StationnementControleur {
 
         Zone zone = null;
         try {
-            zone = ZoneDAO.getInstance().getZoneById(idZone);
+            zone = DonneesReference.getInstance().getZone(idZone);
         } catch (Exception e) {
             System.err.println("Erreur récupération zone: " + e.getMessage());
         }
@@ -220,7 +222,11 @@ public class StationnementControleur {
 
     	Parking parking = null;
     	try {
-    		parking = ParkingDAO.getInstance().getParkingById(idParking);
+    		parking = DonneesReference.getInstance().getParking(idParking);
+    		if (parking != null) {
+    			// Places libres lues dans les compteurs, pas dans l'objet en cache
+    			OccupationParkings.getInstance().actualiser(parking);
+    		}
     	} catch (Exception e) {
     		System.err.println("Erreur récupération parking: " + e.getMessage());
     	}
@@ -467,7 +473,7 @@ public class StationnementControleur {
 
     /**
      * Crée un stationnement en voirie gratuit (abonnement gratuit ou tarif zéro).
-     * Crée d'abord un paiement gratuit puis le stationnement associé.
+     * Le paiement gratuit et le stationnement sont écrits dans une seule transaction.
      * 
      * @param typeVehicule le type de véhicule
      * @param plaque la plaque d'immatriculation
@@ -485,7 +491,7 @@ public class StationnementControleur {
 
             Zone zone = null;
             try {
-                zone = ZoneDAO.getInstance().getZoneById(idZone);
+                zone = DonneesReference.getInstance().getZone(idZone);
             } catch (Exception e) {
                 System.err.println("Erreur récupération zone: " + e.getMessage());
             }
@@ -494,12 +500,7 @@ public class StationnementControleur {
                 return false;
             }
 
-            String idPaiement = "PAY_GRATUIT_" + System.currentTimeMillis();
-
-            boolean paiementCree = creerPaiementGratuit(this.usager.getIdUsager(), idPaiement);
-            if (!paiementCree) {
-                return false;
-            }
+            Paiement paiement = creerPaiementGratuit(this.usager.getIdUsager());
 
             Stationnement stationnement = new Stationnement();
             stationnement.setIdUsager(this.usager.getIdUsager());
@@ -513,19 +514,19 @@ public class StationnementControleur {
             stationnement.setStatut("ACTIF");
             stationnement.setTypeStationnement("VOIRIE");
             stationnement.setStatutPaiement("PAYE");
-            stationnement.setIdPaiement(idPaiement);
+            stationnement.setIdPaiement(paiement.getIdPaiement());
             
-            boolean succes = false;
+            // Paiement gratuit et stationnement écrits dans une seule transaction par le journal des paiements
             try {
-                StationnementDAO.getInstance().create(stationnement);
-                succes = true;
+                JournalPaiements.getInstance()
+                    .enregistrer(paiement, StationnementDAO.getInstance().creationVoiriePayee(stationnement))
+                    .get(TraitementPaiements.DELAI_MAX_ENREGISTREMENT_MS, TimeUnit.MILLISECONDS);
+                return true;
             } catch (Exception e) {
                 System.err.println("Erreur création stationnement voirie gratuit: " + e.getMessage());
-                succes = false;
+                return false;
             }
 
-            return succes;
-
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -533,46 +534,24 @@ public class StationnementControleur {
     }
 
     /**
-     * Crée un paiement gratuit dans la base de données.
+     * Prépare le paiement gratuit d'un stationnement.
      * Utilisé pour les stationnements avec abonnement gratuit ou tarif zéro.
      * 
      * @param idUsager l'identifiant de l'usager
-     * @param idPaiement l'identifiant du paiement à créer
-     * @return true si la création a réussi, false sinon
+     * @return le paiement à enregistrer avec le stationnement qu'il règle
      */
-    private boolean creerPaiementGratuit(int idUsager, String idPaiement) {
-        try {
-            modele.Paiement paiement = new modele.Paiement();
-            paiement.setIdPaiement(idPaiement);
-            paiement.setNomCarte("GRATUIT");
-            paiement.setNumeroCarte("0000000000000000");
-            paiement.setCodeSecretCarte("000");
-            paiement.setMontant(0.00);
-            paiement.setIdUsager(idUsager);
-            paiement.setDatePaiement(LocalDateTime.now());
-            paiement.setMethodePaiement("GRATUIT");
-            paiement.setStatut("REUSSI");
-            paiement.setIdAbonnement(null);
-
-            boolean paiementCree = false;
-            try {
-                PaiementDAO.getInstance().enregistrerPaiement(paiement);
-                paiementCree = true;
-            } catch (Exception e) {
-                System.err.println("Erreur enregistrement paiement: " + e.getMessage());
-                paiementCree = false;
-            }
-            
-            if (paiementCree) {
-                return true;
-            } else {
-                System.err.println(" Échec de l'enregistrement du paiement gratuit");
-                return false;
-            }
-        } catch (Exception e) {
-            System.err.println("Erreur lors de la création du paiement gratuit: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+    private Paiement creerPaiementGratuit(int idUsager) {
+        Paiement paiement = new Paiement();
+        paiement.setIdPaiement(Paiement.genererIdPaiement());
+        paiement.setNomCarte("GRATUIT");
+        paiement.setNumeroCarte("0000000000000000");
+        paiement.setCodeSecretCarte("000");
+        paiement.setMontant(0.00);
+        paiement.setIdUsager(idUsager);
+        paiement.setDatePaiement(LocalDateTime.now());
+        paiement.setMethodePaiement("GRATUIT");
+        paiement.setStatut("REUSSI");
+        paiement.setIdAbonnement(null);
+        return paiement;
     }
 }
\ No newline at end of file
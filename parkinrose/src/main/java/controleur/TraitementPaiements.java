@@ -0,0 +1,180 @@
+package controleur;
+
+import modele.Paiement;
+import modele.dao.JournalPaiements;
+import modele.dao.MySQLConnection;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traitement asynchrone des paiements : autorisation par la banque (simulée),
+ * puis enregistrement du paiement et de ce qu'il règle (stationnement, abonnement).
+ *
+ * soumettre() rend la main tout de suite avec un CompletableFuture : les contrôleurs
+ * affichent le résultat sur l'EDT sans bloquer l'interface pendant le traitement.
+ * La banque répond après DELAI_BANQUE_MS sans occuper de thread pendant l'attente ;
+ * les paiements autorisés sont écrits par lots par le JournalPaiements, avec au plus
+ * MAX_EN_COURS paiements en cours, et chaque étape a son délai maximal.
+ *
+ * L'enregistrement est identifié par id_paiement : soumettre de nouveau le même paiement
+ * après un délai dépassé ne crée pas de doublon, et un paiement déjà en cours
+ * n'est pas lancé une seconde fois.
+ */
+public class TraitementPaiements {
+
+    /** Délai de réponse simulé de la banque */
+    public static final long DELAI_BANQUE_MS = 1000;
+
+    /** Délais maximaux de l'autorisation et de l'enregistrement */
+    public static final long DELAI_MAX_AUTORISATION_MS = 5000;
+    public static final long DELAI_MAX_ENREGISTREMENT_MS = 10000;
+
+    /** Nombre maximal de paiements en cours à la fois */
+    private static final int MAX_EN_COURS = 200;
+
+    private static TraitementPaiements instance;
+
+    private final ScheduledThreadPoolExecutor banque;
+    private final Map<String, CompletableFuture<Boolean>> enCours = new ConcurrentHashMap<>();
+
+    // Singleton privé
+    private TraitementPaiements() {
+        banque = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "paiements-banque");
+            t.setDaemon(true);
+            return t;
+        });
+        MySQLConnection.avantFermeture(this::fermer);
+    }
+
+    public static synchronized TraitementPaiements getInstance() {
+        if (instance == null) {
+            instance = new TraitementPaiements();
+        }
+        return instance;
+    }
+
+    /**
+     * Soumet un paiement : autorisation, enregistrement du paiement puis de ce qu'il règle.
+     *
+     * @param dateExpiration date d'expiration de la carte (MM/AA), vérifiée par la banque
+     * @param ecriture ce que règle le paiement, écrit dans la même transaction que lui
+     * @return true si le paiement est accepté et enregistré, false s'il est refusé par la banque ;
+     *         terminé en erreur (TimeoutException, SQLException...) si une étape échoue
+     */
+    public CompletableFuture<Boolean> soumettre(Paiement paiement, String dateExpiration,
+                                                JournalPaiements.Ecriture ecriture) {
+        String idPaiement = paiement.getIdPaiement();
+        CompletableFuture<Boolean> existant = enCours.get(idPaiement);
+        if (existant != null) {
+            return existant;
+        }
+        if (enCours.size() >= MAX_EN_COURS) {
+            return CompletableFuture.failedFuture(
+                new RejectedExecutionException("Trop de paiements en cours, veuillez réessayer"));
+        }
+        CompletableFuture<Boolean> resultat = new CompletableFuture<>();
+        existant = enCours.putIfAbsent(idPaiement, resultat);
+        if (existant != null) {
+            return existant;
+        }
+
+        autoriser(paiement.getMontant(), paiement.getNumeroCarte(), dateExpiration, paiement.getCodeSecretCarte())
+            .thenCompose(autorise -> autorise
+                ? enregistrer(paiement, ecriture)
+                : CompletableFuture.completedFuture(false))
+            .whenComplete((succes, erreur) -> {
+                // Retiré avant d'être terminé : une nouvelle soumission après un échec est relancée
+                enCours.remove(idPaiement, resultat);
+                if (erreur != null) {
+                    resultat.completeExceptionally(erreur instanceof CompletionException && erreur.getCause() != null
+                        ? erreur.getCause() : erreur);
+                } else {
+                    resultat.complete(succes);
+                }
+            });
+        return resultat;
+    }
+
+    /**
+     * Demande l'autorisation du paiement à la banque (simulée)
+     *
+     * @return true si le paiement est accepté ; terminé en TimeoutException
+     *         si la banque ne répond pas dans DELAI_MAX_AUTORISATION_MS
+     */
+    public CompletableFuture<Boolean> autoriser(double montant, String numeroCarte, String dateExpiration, String cvv) {
+        CompletableFuture<Boolean> reponse = new CompletableFuture<>();
+        try {
+            banque.schedule(() -> reponse.complete(decider(montant, numeroCarte, dateExpiration, cvv)),
+                            DELAI_BANQUE_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            reponse.completeExceptionally(e);
+        }
+        return reponse.orTimeout(DELAI_MAX_AUTORISATION_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Nombre de paiements soumis et pas encore terminés
+     */
+    public int getNombreEnCours() {
+        return enCours.size();
+    }
+
+    /**
+     * Enregistre le paiement et ce qu'il règle (une seule fois par id_paiement)
+     */
+    private CompletableFuture<Boolean> enregistrer(Paiement paiement, JournalPaiements.Ecriture ecriture) {
+        // Un paiement déjà au journal compte comme enregistré : le journal ne le signale ainsi
+        // que pour une soumission précédente du même paiement (même usager, même montant),
+        // un identifiant repris par un autre paiement termine en erreur
+        return JournalPaiements.getInstance().enregistrer(paiement, ecriture)
+            .thenApply(nouveau -> true)
+            .orTimeout(DELAI_MAX_ENREGISTREMENT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Réponse de la banque simulée : toute carte valide (numéro, date d'expiration, cryptogramme)
+     * est acceptée
+     */
+    private boolean decider(double montant, String numeroCarte, String dateExpiration, String cvv) {
+        if (montant < 0 || numeroCarte == null || numeroCarte.trim().isEmpty()) return false;
+        if (!validerDateExpiration(dateExpiration)) return false;
+        return cvv != null && cvv.matches("\\d{3,4}");
+    }
+
+    /**
+     * Valide une date d'expiration MM/AA non dépassée
+     */
+    private boolean validerDateExpiration(String dateExpiration) {
+        if (dateExpiration == null || !dateExpiration.matches("\\d{2}/\\d{2}")) {
+            return false;
+        }
+        String[] parties = dateExpiration.split("/");
+        int mois = Integer.parseInt(parties[0]);
+        int annee = Integer.parseInt(parties[1]) + 2000;
+        if (mois < 1 || mois > 12) {
+            return false;
+        }
+        return !YearMonth.of(annee, mois).isBefore(YearMonth.now());
+    }
+
+    /**
+     * Arrête la banque simulée (fermeture de l'application) ;
+     * le journal écrit de son côté les paiements déjà autorisés
+     */
+    private void fermer() {
+        banque.shutdownNow();
+        synchronized (TraitementPaiements.class) {
+            if (instance == this) {
+                instance = null; // recréé si le pool de connexions est rouvert
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ihm;
+
+import modele.Stationnement;
+import modele.dao.StationnementDAO;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Modèle de table de l'historique des stationnements d'un usager, chargé par pages
+ * (StationnementDAO.getHistoriquePage, pagination par clé).
+ */
+public class ModeleHistoriqueStationnements extends ModelePagine<Stationnement> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int TAILLE_PAGE = 100;
+
+    private final int idUsager;
+    private final Function<Stationnement, Object[]> versLigne;
+
+    /**
+     * @param colonnes en-têtes de la table
+     * @param versLigne valeurs affichées d'un stationnement, une par colonne
+     *                  (appelée hors de l'EDT : elle peut lire des libellés en base)
+     */
+    public ModeleHistoriqueStationnements(int idUsager, String[] colonnes,
+                                          Function<Stationnement, Object[]> versLigne) {
+        super(colonnes, TAILLE_PAGE);
+        this.idUsager = idUsager;
+        this.versLigne = versLigne;
+    }
+
+    @Override
+    protected List<Stationnement> lirePage(Stationnement apres, int taille) throws SQLException {
+        return StationnementDAO.getInstance().getHistoriquePage(idUsager, apres, taille);
+    }
+
+    @Override
+    protected Object[] versLigne(Stationnement stationnement) {
+        return versLigne.apply(stationnement);
+    }
+
+    @Override
+    protected void signalerErreur(Throwable cause) {
+        System.err.println("Erreur chargement historique stationnements: " + cause.getMessage());
+        JOptionPane.showMessageDialog(null,
+            "Erreur lors du chargement de l'historique : " + cause.getMessage(),
+            "Erreur", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Compte en tâche de fond le nombre total de stationnements et le nombre d'actifs,
+     * puis les transmet sur l'EDT (l'historique n'étant pas chargé en entier)
+     */
+    public void compter(BiConsumer<Integer, Integer> affichage) {
+        new SwingWorker<int[], Void>() {
+            @Override
+            protected int[] doInBackground() throws SQLException {
+                StationnementDAO dao = StationnementDAO.getInstance();
+                return new int[] { dao.compterHistorique(idUsager, null),
+                                   dao.compterHistorique(idUsager, "ACTIF") };
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    int[] nombres = get();
+                    affichage.accept(nombres[0], nombres[1]);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    System.err.println("Erreur comptage historique stationnements: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+}
@@ -0,0 +1,175 @@
+package ihm;
+
+import javax.swing.BoundedRangeModel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Modèle de table chargé par pages (pagination par clé : chaque page repart du dernier
+ * élément reçu).
+ *
+ * Seule la première page est lue à l'ouverture ; les suivantes le sont quand le défilement
+ * approche du bas de la table. Les pages sont lues et mises en forme hors de l'EDT
+ * (SwingWorker), les lignes gardées déjà converties : l'affichage ne fait aucun accès
+ * à la base. Un rechargement invalide les pages encore en cours du précédent.
+ *
+ * @param <E> type des éléments affichés, un par ligne
+ */
+public abstract class ModelePagine<E> extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] colonnes;
+    private final int taillePage;
+
+    private final List<E> elements = new ArrayList<>();
+    private final List<Object[]> lignes = new ArrayList<>();
+    private int generation;
+    private boolean complet;
+    private boolean enCours;
+
+    /**
+     * @param colonnes en-têtes de la table
+     * @param taillePage nombre d'éléments demandés par page
+     */
+    protected ModelePagine(String[] colonnes, int taillePage) {
+        this.colonnes = colonnes;
+        this.taillePage = taillePage;
+    }
+
+    /**
+     * Lit la page qui suit un élément (hors de l'EDT)
+     *
+     * @param apres dernier élément de la page précédente, ou null pour la première page
+     */
+    protected abstract List<E> lirePage(E apres, int taille) throws SQLException;
+
+    /**
+     * Valeurs affichées d'un élément, une par colonne (hors de l'EDT : peut lire des libellés en base)
+     */
+    protected abstract Object[] versLigne(E element);
+
+    /**
+     * Signale l'échec de la lecture d'une page (sur l'EDT)
+     */
+    protected abstract void signalerErreur(Throwable cause);
+
+    /**
+     * Relie le modèle à sa table : page suivante quand on approche du bas de la liste
+     */
+    public void chargerAuDefilement(JTable table, JScrollPane defilement) {
+        defilement.getVerticalScrollBar().getModel().addChangeListener(e -> {
+            BoundedRangeModel modele = (BoundedRangeModel) e.getSource();
+            int marge = table.getRowHeight() * 10;
+            if (modele.getValue() + modele.getExtent() >= modele.getMaximum() - marge) {
+                chargerSuite();
+            }
+        });
+    }
+
+    /**
+     * Vide la table et recharge la première page
+     */
+    public void reinitialiser() {
+        generation++;
+        complet = false;
+        enCours = false;
+        elements.clear();
+        lignes.clear();
+        fireTableDataChanged();
+        chargerSuite();
+    }
+
+    /**
+     * Charge la page suivante, sauf si une page est déjà en cours ou si tout est chargé
+     */
+    public void chargerSuite() {
+        if (enCours || complet) {
+            return;
+        }
+        enCours = true;
+        final int generationDemandee = generation;
+        final E apres = elements.isEmpty() ? null : elements.get(elements.size() - 1);
+
+        new SwingWorker<List<E>, Void>() {
+            private final List<Object[]> converties = new ArrayList<>();
+
+            @Override
+            protected List<E> doInBackground() throws SQLException {
+                List<E> page = lirePage(apres, taillePage);
+                for (E element : page) {
+                    converties.add(versLigne(element));
+                }
+                return page;
+            }
+
+            @Override
+            protected void done() {
+                if (generationDemandee != generation) {
+                    return; // rechargement demandé entre-temps
+                }
+                enCours = false;
+                List<E> page;
+                try {
+                    page = get();
+                } catch (Exception e) {
+                    complet = true;
+                    signalerErreur(e.getCause() != null ? e.getCause() : e);
+                    return;
+                }
+                complet = page.size() < taillePage;
+                if (!page.isEmpty()) {
+                    int debut = lignes.size();
+                    elements.addAll(page);
+                    lignes.addAll(converties);
+                    fireTableRowsInserted(debut, lignes.size() - 1);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Élément affiché à cette ligne du modèle, ou null
+     */
+    public E getElement(int row) {
+        return row >= 0 && row < elements.size() ? elements.get(row) : null;
+    }
+
+    /**
+     * Éléments déjà chargés
+     */
+    public List<E> getElements() {
+        return Collections.unmodifiableList(elements);
+    }
+
+    @Override
+    public int getRowCount() {
+        return lignes.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return colonnes.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return colonnes[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return lignes.get(row)[column];
+    }
+}
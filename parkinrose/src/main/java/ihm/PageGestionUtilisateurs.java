@@ -6,8 +6,6 @@ import controleur.ControleurGestionUtilisateurs;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
@@ -21,8 +19,8 @@ public class PageGestionUtilisateurs extends JFrame {
     // Composants
     private JTextField txtRecherche;
     private JTable tableUtilisateurs;
-    private DefaultTableModel tableModel;
-    private List<Usager> utilisateursCourants;
+    private JScrollPane scrollPane;
+    private ModeleUtilisateurs tableModel;
     
     // Boutons
     private JButton btnRechercher;
@@ -146,28 +144,17 @@ public class PageGestionUtilisateurs extends JFrame {
         searchPanel.add(txtRecherche, BorderLayout.CENTER);
         searchPanel.add(btnRechercher, BorderLayout.EAST);
         
-        // Table des utilisateurs
-        String[] colonnes = {"ID", "Nom", "Prénom", "Email", "Admin", "Carte Tisséo"};
-        tableModel = new DefaultTableModel(colonnes, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-            
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                if (columnIndex == 4) return Boolean.class;
-                return String.class;
-            }
-        };
+        // Table des utilisateurs, chargée page par page
+        tableModel = new ModeleUtilisateurs();
         
         tableUtilisateurs = new JTable(tableModel);
-        tableUtilisateurs.setAutoCreateRowSorter(true);
         tableUtilisateurs.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         tableUtilisateurs.getTableHeader().setReorderingAllowed(false);
         
-        JScrollPane scrollPane = new JScrollPane(tableUtilisateurs);
+        scrollPane = new JScrollPane(tableUtilisateurs);
         scrollPane.setPreferredSize(new Dimension(0, 400));
+        // Page suivante quand on approche du bas de la liste
+        tableModel.chargerAuDefilement(tableUtilisateurs, scrollPane);
         
         // Panel des boutons
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
@@ -210,60 +197,18 @@ public class PageGestionUtilisateurs extends JFrame {
     
     // ========== MÉTHODES PUBLIQUES POUR LE CONTRÔLEUR ==========
     
+    /**
+     * Recharge la liste complète des utilisateurs (première page)
+     */
     public void chargerUtilisateurs() {
-        try {
-            tableModel.setRowCount(0);
-            utilisateursCourants = usagerDAO.findAll(); // Utiliser l'instance
-            
-            for (Usager usager : utilisateursCourants) {
-                // Utiliser la méthode statique pour la carte Tisséo
-                String carteTisseo = usager.getNumeroCarteTisseo();
-                tableModel.addRow(new Object[]{
-                    usager.getIdUsager(),
-                    usager.getNomUsager(),
-                    usager.getPrenomUsager(),
-                    usager.getMailUsager(),
-                    usager.isAdmin(),
-                    carteTisseo != null && !carteTisseo.isEmpty() ? carteTisseo : "Non renseignée"
-                });
-            }
-            
-        } catch (SQLException e) {
-            afficherErreur("Erreur lors du chargement des utilisateurs: " + e.getMessage());
-        }
+        tableModel.reinitialiser("");
     }
     
+    /**
+     * Relance la recherche sur le texte saisi ; la base filtre et pagine
+     */
     public void rechercherUtilisateurs() {
-        String recherche = txtRecherche.getText().trim().toLowerCase();
-        
-        if (recherche.isEmpty()) {
-            chargerUtilisateurs();
-            return;
-        }
-        
-        try {
-            tableModel.setRowCount(0);
-            
-            for (Usager usager : utilisateursCourants) {
-                if (usager.getNomUsager().toLowerCase().contains(recherche) ||
-                    usager.getPrenomUsager().toLowerCase().contains(recherche) ||
-                    usager.getMailUsager().toLowerCase().contains(recherche)) {
-                    
-                    String carteTisseo = usager.getNumeroCarteTisseo();
-                    tableModel.addRow(new Object[]{
-                        usager.getIdUsager(),
-                        usager.getNomUsager(),
-                        usager.getPrenomUsager(),
-                        usager.getMailUsager(),
-                        usager.isAdmin(),
-                        carteTisseo != null && !carteTisseo.isEmpty() ? carteTisseo : "Non renseignée"
-                    });
-                }
-            }
-            
-        } catch (Exception e) {
-            afficherErreur("Erreur lors de la recherche: " + e.getMessage());
-        }
+        tableModel.reinitialiser(txtRecherche.getText());
     }
     
     public void afficherFormulaireNouvelUtilisateur() {
@@ -500,19 +445,16 @@ public class PageGestionUtilisateurs extends JFrame {
         int selectedRow = tableUtilisateurs.getSelectedRow();
         if (selectedRow >= 0) {
             int modelRow = tableUtilisateurs.convertRowIndexToModel(selectedRow);
-            int idUsager = (int) tableModel.getValueAt(modelRow, 0);
-            
-            for (Usager usager : utilisateursCourants) {
-                if (usager.getIdUsager() == idUsager) {
-                    return usager;
-                }
-            }
+            return tableModel.getElement(modelRow);
         }
         return null;
     }
     
+    /**
+     * Utilisateurs déjà chargés dans la table
+     */
     public List<Usager> getUtilisateursCourants() {
-        return utilisateursCourants;
+        return tableModel.getElements();
     }
     
     public JTextField getTxtRecherche() {
@@ -579,4 +521,61 @@ public class PageGestionUtilisateurs extends JFrame {
                                                  JOptionPane.QUESTION_MESSAGE);
         return choix == JOptionPane.YES_OPTION;
     }
-}
\ No newline at end of file
+    
+    // ========== MODÈLE DE TABLE PAGINÉ ==========
+    
+    /**
+     * Modèle de la table chargé par pages de TAILLE_PAGE usagers (UsagerDAO.rechercherPage) ;
+     * une nouvelle recherche invalide les pages encore en cours de la précédente.
+     */
+    private class ModeleUtilisateurs extends ModelePagine<Usager> {
+        
+        private static final long serialVersionUID = 1L;
+        private static final int TAILLE_PAGE = 100;
+        
+        // Lu hors de l'EDT par lirePage
+        private volatile String terme = "";
+        
+        ModeleUtilisateurs() {
+            super(new String[] {"ID", "Nom", "Prénom", "Email", "Admin", "Carte Tisséo"}, TAILLE_PAGE);
+        }
+        
+        /**
+         * Vide la table et charge la première page pour le terme donné
+         */
+        void reinitialiser(String nouveauTerme) {
+            terme = nouveauTerme == null ? "" : nouveauTerme.trim();
+            reinitialiser();
+        }
+        
+        @Override
+        protected List<Usager> lirePage(Usager apres, int taille) throws SQLException {
+            return usagerDAO.rechercherPage(terme, apres == null ? 0 : apres.getIdUsager(), taille);
+        }
+        
+        @Override
+        protected Object[] versLigne(Usager usager) {
+            String carteTisseo = usager.getNumeroCarteTisseo();
+            return new Object[] {
+                usager.getIdUsager(),
+                usager.getNomUsager(),
+                usager.getPrenomUsager(),
+                usager.getMailUsager(),
+                usager.isAdmin(),
+                carteTisseo != null && !carteTisseo.isEmpty() ? carteTisseo : "Non renseignée"
+            };
+        }
+        
+        @Override
+        protected void signalerErreur(Throwable cause) {
+            afficherErreur("Erreur lors du chargement des utilisateurs: " + cause.getMessage());
+        }
+        
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            if (columnIndex == 0) return Integer.class;
+            if (columnIndex == 4) return Boolean.class;
+            return String.class;
+        }
+    }
+}
@@ -13,7 +13,6 @@ public class Page_Configuration_Notifications extends JFrame {
     
     // Composants UI
     private JCheckBox chkActiverNotifications;
-    private JSpinner spinnerIntervalle;
     private JButton btnTester;
     private JButton btnNettoyer;
     private JButton btnSauvegarder;
@@ -58,29 +57,6 @@ public class Page_Configuration_Notifications extends JFrame {
         mainPanel.add(panelActivation);
         mainPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         
-        // Panel intervalle
-        JPanel panelIntervalle = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        panelIntervalle.setBackground(Color.WHITE);
-        panelIntervalle.setMaximumSize(new Dimension(450, 50));
-        
-        JLabel lblIntervalle = new JLabel("Vérifier toutes les :");
-        lblIntervalle.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        lblIntervalle.setPreferredSize(new Dimension(150, 25));
-        
-        spinnerIntervalle = new JSpinner(new SpinnerNumberModel(
-            notificationManager.getVerificationInterval(), 1, 60, 1));
-        spinnerIntervalle.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        spinnerIntervalle.setEnabled(notificationManager.areNotificationsActives());
-        
-        JLabel lblMinutes = new JLabel("minutes");
-        lblMinutes.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        
-        panelIntervalle.add(lblIntervalle);
-        panelIntervalle.add(spinnerIntervalle);
-        panelIntervalle.add(lblMinutes);
-        mainPanel.add(panelIntervalle);
-        mainPanel.add(Box.createRigidArea(new Dimension(0, 20)));
-        
         // Panel informations
         JPanel panelInfo = new JPanel();
         panelInfo.setLayout(new BoxLayout(panelInfo, BoxLayout.Y_AXIS));
@@ -176,21 +152,16 @@ public class Page_Configuration_Notifications extends JFrame {
     
     private void mettreAJourEtatChamps() {
         boolean actives = chkActiverNotifications.isSelected();
-        spinnerIntervalle.setEnabled(actives);
         btnTester.setEnabled(actives);
     }
     
     private void sauvegarderConfiguration() {
         boolean actives = chkActiverNotifications.isSelected();
-        int intervalle = (int) spinnerIntervalle.getValue();
-        
         notificationManager.setNotificationsActives(actives);
-        notificationManager.setVerificationInterval(intervalle);
         
         JOptionPane.showMessageDialog(this,
             "Configuration sauvegardée avec succès !\n\n" +
-            "Notifications : " + (actives ? "ACTIVÉES" : "DÉSACTIVÉES") + "\n" +
-            "Vérification : toutes les " + intervalle + " minute(s)",
+            "Notifications : " + (actives ? "ACTIVÉES" : "DÉSACTIVÉES"),
             "Configuration sauvegardée",
             JOptionPane.INFORMATION_MESSAGE);
     }
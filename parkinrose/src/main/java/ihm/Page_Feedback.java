@@ -6,6 +6,7 @@ import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.List;
+import java.util.Set;
 import modele.Feedback;
 import modele.Usager;
 import modele.dao.FeedbackDAO;
@@ -443,6 +444,7 @@ public class Page_Feedback extends JFrame {
         List<Feedback> feedbacks = FeedbackDAO.getFeedbacksByUser(usager.getIdUsager());
         if (feedbacks == null) return;
         
+        Set<Integer> conversationsNonLues = FeedbackDAO.getConversationsNonLues(usager.getIdUsager());
         int totalFeedbacks = 0;
         int nouveauxMessages = 0;
         
@@ -454,16 +456,7 @@ public class Page_Feedback extends JFrame {
                 Color statutColor = Color.GRAY;
                 
                 if (feedback.isGotanswer()) {
-                    List<Feedback> reponses = FeedbackDAO.getReponsesFeedback(feedback.getIdFeedback());
-                    boolean dejaLu = false;
-                    for (Feedback reponse : reponses) {
-                        if (reponse.getMessage() != null && reponse.getMessage().equals("MESSAGE_LU")) {
-                            dejaLu = true;
-                            break;
-                        }
-                    }
-                    
-                    if (!dejaLu) {
+                    if (conversationsNonLues.contains(feedback.getIdFeedback())) {
                         statutIcon = "●";
                         statutColor = COULEUR_NOTIFICATION;
                         nouveauxMessages++;
@@ -35,9 +35,25 @@ public class Page_Garer_Voirie extends JFrame {
     
     // Données
     private List<Zone> zones;
+    // Position choisie sur la carte (null si la page est ouverte depuis l'accueil)
+    private Double latitude;
+    private Double longitude;
     
     public Page_Garer_Voirie(String email) {
+        this(email, null, null);
+    }
+    
+    /**
+     * Ouvre la page pour une position de la carte : la zone correspondante est présélectionnée.
+     */
+    public Page_Garer_Voirie(String email, double latitude, double longitude) {
+        this(email, Double.valueOf(latitude), Double.valueOf(longitude));
+    }
+    
+    private Page_Garer_Voirie(String email, Double latitude, Double longitude) {
         this.emailUtilisateur = email;
+        this.latitude = latitude;
+        this.longitude = longitude;
         initialiseUI();
         
         // Créer le contrôleur
@@ -278,6 +294,14 @@ public class Page_Garer_Voirie extends JFrame {
         return emailUtilisateur;
     }
     
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
     public JComboBox<String> getComboZone() {
         return comboZone;
     }
@@ -402,6 +426,24 @@ public class Page_Garer_Voirie extends JFrame {
         return zones;
     }
     
+    /**
+     * Sélectionne une zone dans la liste par son identifiant.
+     * 
+     * @return true si la zone a été trouvée
+     */
+    public boolean selectionnerZone(String idZone) {
+        if (zones == null || idZone == null) {
+            return false;
+        }
+        for (int i = 0; i < zones.size(); i++) {
+            if (idZone.equals(zones.get(i).getIdZone())) {
+                comboZone.setSelectedIndex(i);
+                return true;
+            }
+        }
+        return false;
+    }
+    
     public void afficherMessageErreur(String titre, String message) {
         JOptionPane.showMessageDialog(this, message, titre, JOptionPane.ERROR_MESSAGE);
     }
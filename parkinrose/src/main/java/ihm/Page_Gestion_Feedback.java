@@ -28,6 +28,7 @@ public class Page_Gestion_Feedback extends JFrame {
     private JLabel lblTitre;
     private JPanel panelBoutonsHaut;
     private JButton btnRetour;
+    private JButton btnPlusAnciens;
     
     // Panel Gauche
     private JPanel panelGauche;
@@ -105,6 +106,11 @@ public class Page_Gestion_Feedback extends JFrame {
         panelBoutonsHaut.setLayout(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         panelHaut.add(panelBoutonsHaut, BorderLayout.EAST);
         
+        btnPlusAnciens = new JButton("Messages plus anciens");
+        styliserBouton(btnPlusAnciens, new Color(70, 130, 180));
+        btnPlusAnciens.setEnabled(false);
+        panelBoutonsHaut.add(btnPlusAnciens);
+        
         btnRetour = new JButton("← Retour");
         styliserBouton(btnRetour, new Color(169, 169, 169));
         panelBoutonsHaut.add(btnRetour);
@@ -348,6 +354,10 @@ public class Page_Gestion_Feedback extends JFrame {
         return btnRetour;
     }
     
+    public JButton getBtnPlusAnciens() {
+        return btnPlusAnciens;
+    }
+    
     public JButton getBtnMarquerEnCours() {
         return btnMarquerEnCours;
     }
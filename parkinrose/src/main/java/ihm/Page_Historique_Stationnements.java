@@ -3,17 +3,16 @@ package ihm;
 import javax.swing.*;
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 import modele.Stationnement;
 import modele.Usager;
-import modele.dao.StationnementDAO;
 import modele.dao.UsagerDAO;
 
 
 public class Page_Historique_Stationnements extends JFrame {
     
     private static final long serialVersionUID = 1L;
+    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private String emailUtilisateur;  // Email de l'utilisateur connecté
     private Usager usager;            // Objet utilisateur contenant les informations personnelles
 
@@ -62,82 +61,33 @@ public class Page_Historique_Stationnements extends JFrame {
         
         //TABLEAU DES STATIONNEMENTS
         
-        // Récupération de l'historique des stationnements depuis la base de données
-        List<Stationnement> stationnements = StationnementDAO.getHistoriqueStationnements(usager.getIdUsager());
-        
-        // Définition des colonnes du tableau
+        // Historique lu par pages depuis la base de données, au fil du défilement
         String[] colonnes = {"Date", "Type", "Véhicule", "Zone/Parking", "Durée", "Coût", "Statut"};
-        Object[][] donnees = new Object[stationnements.size()][7];  // 7 colonnes
-        
-        // Formatage des dates pour l'affichage
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        
-        // Remplissage du tableau avec les données des stationnements
-        for (int i = 0; i < stationnements.size(); i++) {
-            Stationnement s = stationnements.get(i);
-            
-            // Colonne 1: Date de création formatée
-            donnees[i][0] = s.getDateCreation().format(formatter);
-            
-            // Colonne 2: Type de stationnement (Voirie ou Parking)
-            donnees[i][1] = s.getTypeStationnement();
-            
-            // Colonne 3: Véhicule (type + plaque)
-            donnees[i][2] = s.getTypeVehicule() + " - " + s.getPlaqueImmatriculation();
-            
-            // Colonne 4: Zone ou nom du parking
-            donnees[i][3] = s.getZone();
-            
-            // Colonne 5: Durée du stationnement
-            if (s.estVoirie()) {
-                // Pour la voirie : durée planifiée
-                donnees[i][4] = s.getDureeHeures() + "h" + s.getDureeMinutes() + "min";
-            } else {
-                // Pour les parkings : durée réelle calculée
-                if (s.getHeureArrivee() != null && s.getHeureDepart() != null) {
-                    // Calcul de la durée réelle entre arrivée et départ
-                    long minutes = java.time.Duration.between(s.getHeureArrivee(), s.getHeureDepart()).toMinutes();
-                    long heures = minutes / 60;
-                    long mins = minutes % 60;
-                    donnees[i][4] = heures + "h" + mins + "min";
-                } else {
-                    // Stationnement encore en cours
-                    donnees[i][4] = "En cours";
-                }
-            }
-            
-            // Colonne 6: Coût formaté avec 2 décimales
-            donnees[i][5] = String.format("%.2f €", s.getCout());
-            
-            // Colonne 7: Statut (ACTIF, TERMINE, EXPIRE)
-            donnees[i][6] = s.getStatut();
-        }
+        ModeleHistoriqueStationnements modele = new ModeleHistoriqueStationnements(
+            usager.getIdUsager(), colonnes, Page_Historique_Stationnements::ligneStationnement);
         
-        // Création du tableau avec les données
-        JTable table = new JTable(donnees, colonnes);
+        // Création du tableau sur le modèle paginé
+        JTable table = new JTable(modele);
         table.setFont(new Font("Arial", Font.PLAIN, 12));  
         table.setRowHeight(25);  // Hauteur des lignes
         table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12)); 
-        table.setDefaultEditor(Object.class, null);
         
         // Ajout du tableau dans un scroll pane pour le défilement
         JScrollPane scrollPane = new JScrollPane(table);
         mainPanel.add(scrollPane, BorderLayout.CENTER);  
+        modele.chargerAuDefilement(table, scrollPane);
+        modele.reinitialiser();
         
         //PANEL DES STATISTIQUES
         JPanel statsPanel = new JPanel(new FlowLayout());
         statsPanel.setBackground(Color.WHITE);
         
-        // Calcul des statistiques
-        long totalStationnements = stationnements.size();  
-        long stationnementsActifs = stationnements.stream()
-                .filter(s -> "ACTIF".equals(s.getStatut()))
-                .count();
-        
-        // Affichage des statistiques
-        JLabel lblStats = new JLabel("Total: " + totalStationnements + " stationnement(s) | Actifs: " + stationnementsActifs);
+        // Statistiques comptées en base (l'historique n'est pas chargé en entier)
+        JLabel lblStats = new JLabel("Total: ... stationnement(s) | Actifs: ...");
         lblStats.setFont(new Font("Arial", Font.BOLD, 14));
         statsPanel.add(lblStats);
+        modele.compter((total, actifs) ->
+            lblStats.setText("Total: " + total + " stationnement(s) | Actifs: " + actifs));
         
         mainPanel.add(statsPanel, BorderLayout.SOUTH);
         
@@ -145,6 +95,50 @@ public class Page_Historique_Stationnements extends JFrame {
         this.setContentPane(mainPanel);
     }
     
+    /**
+     * Valeurs affichées d'un stationnement, une par colonne du tableau
+     */
+    private static Object[] ligneStationnement(Stationnement s) {
+        Object[] ligne = new Object[7];
+        
+        // Colonne 1: Date de création formatée
+        ligne[0] = s.getDateCreation().format(FORMAT_DATE);
+        
+        // Colonne 2: Type de stationnement (Voirie ou Parking)
+        ligne[1] = s.getTypeStationnement();
+        
+        // Colonne 3: Véhicule (type + plaque)
+        ligne[2] = s.getTypeVehicule() + " - " + s.getPlaqueImmatriculation();
+        
+        // Colonne 4: Zone ou nom du parking
+        ligne[3] = s.getZone();
+        
+        // Colonne 5: Durée du stationnement
+        if (s.estVoirie()) {
+            // Pour la voirie : durée planifiée
+            ligne[4] = s.getDureeHeures() + "h" + s.getDureeMinutes() + "min";
+        } else {
+            // Pour les parkings : durée réelle calculée
+            if (s.getHeureArrivee() != null && s.getHeureDepart() != null) {
+                // Calcul de la durée réelle entre arrivée et départ
+                long minutes = java.time.Duration.between(s.getHeureArrivee(), s.getHeureDepart()).toMinutes();
+                long heures = minutes / 60;
+                long mins = minutes % 60;
+                ligne[4] = heures + "h" + mins + "min";
+            } else {
+                // Stationnement encore en cours
+                ligne[4] = "En cours";
+            }
+        }
+        
+        // Colonne 6: Coût formaté avec 2 décimales
+        ligne[5] = String.format("%.2f €", s.getCout());
+        
+        // Colonne 7: Statut (ACTIF, TERMINE, EXPIRE)
+        ligne[6] = s.getStatut();
+        return ligne;
+    }
+    
     /**
      * Retourne à la page du profil utilisateur
      * Ferme la page actuelle et ouvre la page utilisateur
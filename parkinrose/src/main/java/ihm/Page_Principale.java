@@ -2,7 +2,6 @@ package ihm;
 
 import javax.swing.*;
 import controleur.ControleurPrincipale;
-import controleur.StationnementControleur;
 import java.awt.*;
 import java.awt.event.*;
 import java.sql.Connection;
@@ -13,14 +12,18 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import modele.Stationnement;
+import java.util.function.Consumer;
 import modele.Parking;
 import modele.Usager;
+import modele.dao.EcheancierStationnements;
+import modele.dao.ExpirationStationnements;
 import modele.dao.FeedbackDAO;
 import modele.dao.MySQLConnection;
+import modele.dao.OccupationParkings;
 import modele.dao.ParkingDAO;
-import modele.dao.StationnementDAO;
 import modele.dao.UsagerDAO;
+import utils.BusEvenements;
+import utils.NotificationManager;
 
 public class Page_Principale extends JFrame {
     
@@ -33,7 +36,15 @@ public class Page_Principale extends JFrame {
     public JButton btnUtilisateur;
     public JButton btnPreparerStationnement;
     public JButton btnSearch;
-    private Timer timer;
+    // Abonnements au bus d'événements (remplacent le Timer de scrutation)
+    private final Consumer<BusEvenements.StationnementActifModifie> abonneStationnement = e -> {
+        afficherIconeStationnement(e.getStationnement() != null);
+        NotificationManager.getInstance().verifierStationnement(e.getStationnement());
+    };
+    private final Consumer<BusEvenements.MessagesNonLusModifies> abonneMessages = e -> {
+        hasUnreadMessages = e.hasNonLus();
+        afficherIconeMessagerie();
+    };
     private JTextField searchField;
     private JPanel headerPanel;
     private CartePanel cartePanel;
@@ -45,10 +56,15 @@ public class Page_Principale extends JFrame {
         this.emailUtilisateur = email;
         this.usager = UsagerDAO.getUsagerByEmail(email);
         
-        StationnementDAO.nettoyerStationnementsExpires();
+        // Les stationnements échus sont expirés en tâche de fond,
+        // les rappels des stationnements déjà ouverts planifiés,
+        // les compteurs d'occupation chargés avant la première lecture des parkings
+        ExpirationStationnements.getInstance();
+        OccupationParkings.getInstance();
+        EcheancierStationnements.getInstance().chargerActifs();
         
         initialisePage();
-        startStationnementCheck();
+        abonnerAuxEvenements();
         
         // Créer et lier le contrôleur
         new ControleurPrincipale(this, email);
@@ -75,12 +91,11 @@ public class Page_Principale extends JFrame {
         JPanel bottomPanel = creerBottomPanel();
         mainPanel.add(bottomPanel, BorderLayout.SOUTH);
         
-        updateStationnementIcon();
+        afficherIconeStationnement(false);
         if (usager != null && usager.isAdmin()) {
             ajouterBoutonAdmin();
         }
-        updateMessagerieIcon();
-        updateStationnementIcon();
+        afficherIconeMessagerie();
         if (usager != null && usager.isAdmin()) {
             ajouterBoutonAdmin();
         }
@@ -405,19 +420,20 @@ public class Page_Principale extends JFrame {
         return label;
     }
     
-    private void startStationnementCheck() {
-        timer = new Timer(10000, e -> {
-            updateStationnementIcon();
-            updateMessagerieIcon(); // Cette ligne doit être présente
-        });
-        timer.start();
+    /**
+     * Les icônes Stationnement et Feedback suivent les événements du bus :
+     * l'état courant arrive dès l'abonnement, puis à chaque changement.
+     */
+    private void abonnerAuxEvenements() {
+        if (usager != null) {
+            BusEvenements bus = BusEvenements.getInstance();
+            bus.abonner(BusEvenements.StationnementActifModifie.class, usager.getIdUsager(), abonneStationnement);
+            bus.abonner(BusEvenements.MessagesNonLusModifies.class, usager.getIdUsager(), abonneMessages);
+        }
     }
     
-    private void updateStationnementIcon() {
-        StationnementControleur controleur = new StationnementControleur(emailUtilisateur);
-        Stationnement stationnementActif = controleur.getStationnementActif();
-        
-        if (stationnementActif != null) {
+    private void afficherIconeStationnement(boolean stationnementActif) {
+        if (stationnementActif) {
             btnStationnement.setBackground(new Color(255, 240, 240));
             btnStationnement.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createLineBorder(Color.RED, 2),
@@ -470,20 +486,27 @@ public class Page_Principale extends JFrame {
     
     @Override
     public void dispose() {
-        
-        if (timer != null) {
-            timer.stop();
+        BusEvenements bus = BusEvenements.getInstance();
+        bus.desabonner(abonneStationnement);
+        bus.desabonner(abonneMessages);
+        if (carteOSM != null) {
+            carteOSM.nettoyer();
         }
         super.dispose();
     }
-    private void checkUnreadMessages() {
+    
+    /**
+     * Redemande l'état des messages (après une lecture ou une réponse) ;
+     * l'icône est mise à jour par le bus si l'état a changé.
+     */
+    public void updateMessagerieIcon() {
         if (usager != null) {
-            hasUnreadMessages = FeedbackDAO.hasUnreadMessages(usager.getIdUsager());
+            BusEvenements.getInstance().rafraichir(usager.getIdUsager());
         }
+        afficherIconeMessagerie();
     }
-    public void updateMessagerieIcon() {
-        checkUnreadMessages();
-        
+    
+    private void afficherIconeMessagerie() {
         if (hasUnreadMessages) {
             btnMessagerie.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createLineBorder(new Color(240, 240, 240), 8),
@@ -7,9 +7,11 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.time.LocalDateTime;
 import modele.Parking;
 import modele.dao.FavoriDAO;
 import modele.dao.ParkingDAO;
+import modele.dao.DevisParkings;
 import modele.dao.TarifParkingDAO;
 import modele.dao.UsagerDAO;
 import controleur.ControleurFavoris;
@@ -50,6 +52,10 @@ public class Page_Resultats_Recherche extends JFrame {
     private final String termeRecherche;
     private final List<Parking> parkings;
     private List<Parking> parkingsFiltres;
+    private DevisParkings devis;    // Tarifs calculés en lot pour le filtrage et le tri
+    
+    // Durée du créneau utilisé pour estimer et trier les prix
+    private static final int DUREE_DEVIS_HEURES = 1;
     private int idUsager;
     
     // Composants d'interface
@@ -213,7 +219,8 @@ public class Page_Resultats_Recherche extends JFrame {
             "Parkings relais",
             "Places moto disponibles",
             "Hauteur (décroissant)",
-            "Hauteur (croissant)"
+            "Hauteur (croissant)",
+            "Prix pour 1h (croissant)"
         };
         
         comboFiltres = new JComboBox<>(optionsTri);
@@ -266,23 +273,23 @@ public class Page_Resultats_Recherche extends JFrame {
     }
     
     /**
-     * Filtre les parkings selon les critères sélectionnés
+     * Filtre les parkings selon les critères sélectionnés.
+     * Les tarifs de tous les résultats sont calculés en un seul lot.
      */
     private void filtrerParkings() {
-        setParkingsFiltres(new ArrayList<>(parkings));
-        
-        if (checkGratuit.isSelected()) {
-            getParkingsFiltres().removeIf(p -> !estParkingGratuit(p));
-        }
-        if (checkSoiree.isSelected()) {
-            getParkingsFiltres().removeIf(p -> !aTarifSoiree(p));
-        }
-        if (checkRelais.isSelected()) {
-            getParkingsFiltres().removeIf(p -> !estParkingRelais(p));
-        }
-        if (checkMoto.isSelected()) {
-            getParkingsFiltres().removeIf(p -> !aPlacesMotoDisponibles(p));
+        LocalDateTime arrivee = LocalDateTime.now();
+        devis = TarifParkingDAO.getInstance().calculerDevis(parkings, arrivee, arrivee.plusHours(DUREE_DEVIS_HEURES));
+        
+        List<Parking> resultats = new ArrayList<>();
+        for (int i = 0; i < devis.taille(); i++) {
+            Parking p = devis.getParking(i);
+            if (checkGratuit.isSelected() && !devis.estGratuit(i)) continue;
+            if (checkSoiree.isSelected() && !devis.proposeTarifSoiree(i)) continue;
+            if (checkRelais.isSelected() && !devis.estRelais(i)) continue;
+            if (checkMoto.isSelected() && !aPlacesMotoDisponibles(p)) continue;
+            resultats.add(p);
         }
+        setParkingsFiltres(resultats);
     }
     
     /**
@@ -299,13 +306,16 @@ public class Page_Resultats_Recherche extends JFrame {
                 getParkingsFiltres().sort(Comparator.comparingInt(Parking::getPlacesDisponibles));
                 break;
             case "Parkings gratuits":
-                getParkingsFiltres().sort(Comparator.comparing(this::estParkingGratuit).reversed());
+                getParkingsFiltres().sort(Comparator.comparing((Parking p) -> devis.estGratuit(devis.indice(p))).reversed());
                 break;
             case "Tarif soirée":
                 getParkingsFiltres().sort(Comparator.comparing(Parking::hasTarifSoiree).reversed());
                 break;
             case "Parkings relais":
-                getParkingsFiltres().sort(Comparator.comparing(this::estParkingRelais).reversed());
+                getParkingsFiltres().sort(Comparator.comparing((Parking p) -> devis.estRelais(devis.indice(p))).reversed());
+                break;
+            case "Prix pour 1h (croissant)":
+                getParkingsFiltres().sort(devis.comparateurPrix());
                 break;
             case "Places moto disponibles":
                 getParkingsFiltres().sort(this::comparerPlacesMoto);
@@ -349,28 +359,6 @@ public class Page_Resultats_Recherche extends JFrame {
         }
     }
     
-    /**
-     * Vérifie si un parking a le tarif soirée - utilise la méthode statique
-     */
-    private boolean aTarifSoiree(Parking parking) {
-        try {
-            return TarifParkingDAO.getInstance().proposeTarifSoiree(parking.getIdParking());
-        } catch (Exception e) {
-            return false;
-        }
-    }
-    
-    /**
-     * Vérifie si un parking est un parking relais - utilise la méthode statique
-     */
-    private boolean estParkingRelais(Parking parking) {
-        try {
-            return TarifParkingDAO.getInstance().estParkingRelais(parking.getIdParking());
-        } catch (Exception e) {
-            return false;
-        }
-    }
-    
     /**
      * Vérifie si un parking a des places moto disponibles
      */
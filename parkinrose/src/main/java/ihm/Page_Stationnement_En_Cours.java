@@ -7,17 +7,19 @@ import java.awt.event.ItemListener;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import modele.Abonnement;
 import modele.Stationnement;
 import modele.Usager;
 import modele.Zone;
 import modele.dao.AbonnementDAO;
+import modele.dao.DonneesReference;
 import modele.dao.StationnementDAO;
 import modele.dao.TarifParkingDAO;
 import modele.dao.UsagerDAO;
-import modele.dao.ZoneDAO;
 import controleur.ControleurStationnementEnCours;
+import utils.BusEvenements;
 import utils.NotificationManager;
 import utils.NotificationManager.NotificationListener;
 import utils.NotificationManager.NotificationType;
@@ -37,7 +39,11 @@ public class Page_Stationnement_En_Cours extends JFrame implements NotificationL
      * constructeur de la page de stationnement en cours
      */
 
-    private Timer timerAlerte;
+    private final Consumer<BusEvenements.TopMinute> abonneAlerte = e -> {
+        if (!this.fenetreFermee && isDisplayable()) {
+            verifierAlerteTempsRestant();
+        }
+    };
     private boolean alerteDejaAffichee = false;
     private boolean fenetreFermee = false;
     private NotificationManager notificationManager;
@@ -60,8 +66,8 @@ public class Page_Stationnement_En_Cours extends JFrame implements NotificationL
             }
         });
         
-        // Démarrer le timer d'alerte
-        demarrerTimerAlerte();
+        // Vérifier l'alerte de fin de stationnement chaque minute
+        BusEvenements.getInstance().abonner(BusEvenements.TopMinute.class, abonneAlerte);
     }
     
     /**
@@ -593,24 +599,7 @@ public class Page_Stationnement_En_Cours extends JFrame implements NotificationL
     private String getLibelleParkingFromId(String idParking) {
         if (idParking == null) return null;
         
-        switch(idParking) {
-            case "PARK_CAPITOLE": return "Parking Capitole";
-            case "PARK_CARNOT": return "Parking Carnot";
-            case "PARK_ESQUIROL": return "Parking Esquirol";
-            case "PARK_SAINT_ETIENNE": return "Parking Saint-Étienne";
-            case "PARK_JEAN_JAURES": return "Parking Jean Jaurès";
-            case "PARK_JEANNE_DARC": return "Parking Jeanne d'Arc";
-            case "PARK_EUROPE": return "Parking Europe";
-            case "PARK_VICTOR_HUGO": return "Parking Victor Hugo";
-            case "PARK_SAINT_AUBIN": return "Parking Saint-Aubin";
-            case "PARK_SAINT_CYPRIEN": return "Parking Saint-Cyprien";
-            case "PARK_SAINT_MICHEL": return "Parking Saint-Michel";
-            case "PARK_MATABIAU": return "Parking Matabiau-Ramblas";
-            case "PARK_ARNAUD_BERNARD": return "Parking Arnaud Bernard";
-            case "PARK_CARMES": return "Parking Carmes";
-            case "PARKING_DEFAULT": return "Parking";
-            default: return idParking;
-        }
+        return DonneesReference.getInstance().libelleParking(idParking);
     }
     
     /**
@@ -660,7 +649,7 @@ public class Page_Stationnement_En_Cours extends JFrame implements NotificationL
         }
         
         try {
-            Zone zone = ZoneDAO.getInstance().getZoneById(stationnementActif.getIdTarification());
+            Zone zone = DonneesReference.getInstance().getZone(stationnementActif.getIdTarification());
             if (zone == null) {
                 JOptionPane.showMessageDialog(this,
                     "Impossible de trouver la zone de stationnement",
@@ -885,24 +874,8 @@ public class Page_Stationnement_En_Cours extends JFrame implements NotificationL
 
     }
 
-    private void demarrerTimerAlerte() {
-        timerAlerte = new Timer(60000, e -> {
-            if (!fenetreFermee && isDisplayable()) {
-                verifierAlerteTempsRestant();
-            } else {
-                if (timerAlerte != null) {
-                    timerAlerte.stop();
-                }
-            }
-        });
-        timerAlerte.start();
-    }
-    
     private void arreterTousLesTimers() {
-        if (timerAlerte != null) {
-            timerAlerte.stop();
-            timerAlerte = null;
-        }
+        BusEvenements.getInstance().desabonner(abonneAlerte);
     }
     
     private void verifierAlerteTempsRestant() {
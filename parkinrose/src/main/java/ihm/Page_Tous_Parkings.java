@@ -5,7 +5,9 @@ import java.awt.*;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.time.LocalDateTime;
 import modele.Parking;
+import modele.dao.DevisParkings;
 import modele.dao.TarifParkingDAO;
 import controleur.ControleurTousParkings;
 
@@ -42,6 +44,10 @@ public class Page_Tous_Parkings extends JFrame {
     private final String emailUtilisateur;
     private final List<Parking> parkings;
     private List<Parking> parkingsFiltres;
+    private DevisParkings devis;    // Tarifs calculés en lot pour le filtrage et le tri
+    
+    // Durée du créneau utilisé pour estimer et trier les prix
+    private static final int DUREE_DEVIS_HEURES = 1;
     
     // Composants d'interface
     private JPanel panelParkings;
@@ -175,7 +181,8 @@ public class Page_Tous_Parkings extends JFrame {
             "Capacité totale (croissant)",
             "Places moto disponibles",
             "Hauteur (décroissant)",
-            "Hauteur (croissant)"
+            "Hauteur (croissant)",
+            "Prix pour 1h (croissant)"
         };
         
         comboFiltres = new JComboBox<>(optionsTri);
@@ -212,22 +219,21 @@ public class Page_Tous_Parkings extends JFrame {
     }
     
     /**
-     * Filtre les parkings selon les critères sélectionnés
+     * Filtre les parkings selon les critères sélectionnés.
+     * Les tarifs de tous les parkings sont calculés en un seul lot.
      */
     private void filtrerParkings() {
-        parkingsFiltres = new ArrayList<>(parkings);
+        LocalDateTime arrivee = LocalDateTime.now();
+        devis = tarifParkingDAO.calculerDevis(parkings, arrivee, arrivee.plusHours(DUREE_DEVIS_HEURES));
         
-        if (checkGratuit.isSelected()) {
-            parkingsFiltres.removeIf(p -> !estParkingGratuit(p));
-        }
-        if (checkSoiree.isSelected()) {
-            parkingsFiltres.removeIf(p -> !aTarifSoiree(p));
-        }
-        if (checkRelais.isSelected()) {
-            parkingsFiltres.removeIf(p -> !estParkingRelais(p));
-        }
-        if (checkMoto.isSelected()) {
-            parkingsFiltres.removeIf(p -> !aPlacesMotoDisponibles(p));
+        parkingsFiltres = new ArrayList<>();
+        for (int i = 0; i < devis.taille(); i++) {
+            Parking p = devis.getParking(i);
+            if (checkGratuit.isSelected() && !devis.estGratuit(i)) continue;
+            if (checkSoiree.isSelected() && !devis.proposeTarifSoiree(i)) continue;
+            if (checkRelais.isSelected() && !devis.estRelais(i)) continue;
+            if (checkMoto.isSelected() && !aPlacesMotoDisponibles(p)) continue;
+            parkingsFiltres.add(p);
         }
     }
     
@@ -265,6 +271,9 @@ public class Page_Tous_Parkings extends JFrame {
             case "Hauteur (croissant)":
                 parkingsFiltres.sort(Comparator.comparingDouble(Parking::getHauteurParking));
                 break;
+            case "Prix pour 1h (croissant)":
+                parkingsFiltres.sort(devis.comparateurPrix());
+                break;
             default:
                 // Par défaut, ordre alphabétique
                 parkingsFiltres.sort(Comparator.comparing(Parking::getLibelleParking));
@@ -301,30 +310,6 @@ public class Page_Tous_Parkings extends JFrame {
         }
     }
     
-    /**
-     * Vérifie si un parking a le tarif soirée
-     */
-    private boolean aTarifSoiree(Parking parking) {
-        try {
-            return tarifParkingDAO.proposeTarifSoiree(parking.getIdParking());
-        } catch (Exception e) {
-            System.err.println("Erreur lors de la vérification du tarif soirée: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Vérifie si un parking est un parking relais
-     */
-    private boolean estParkingRelais(Parking parking) {
-        try {
-            return tarifParkingDAO.estParkingRelais(parking.getIdParking());
-        } catch (Exception e) {
-            System.err.println("Erreur lors de la vérification du parking relais: " + e.getMessage());
-            return false;
-        }
-    }
-    
     /**
      * Vérifie si un parking a des places moto disponibles
      */
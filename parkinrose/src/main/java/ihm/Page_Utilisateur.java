@@ -6,18 +6,15 @@ import controleur.ControleurUtilisateur;
 import modele.Usager;
 import modele.dao.AbonnementDAO;
 import modele.dao.AdresseDAO;
+import modele.dao.CumulsUsagers;
+import modele.dao.DonneesReference;
 import modele.dao.UsagerDAO;
 import modele.dao.PaiementDAO;
-import modele.dao.StationnementDAO;
-import modele.dao.ZoneDAO;
-import modele.dao.ParkingDAO;
 import modele.dao.VehiculeUsagerDAO;
 import modele.Abonnement;
 import modele.Adresse;
 import modele.Paiement;
 import modele.Stationnement;
-import modele.Zone;
-import modele.Parking;
 import modele.VehiculeUsager;
 import java.awt.*;
 import java.util.List;
@@ -25,6 +22,9 @@ import java.util.List;
 public class Page_Utilisateur extends JFrame {
     
     private static final long serialVersionUID = 1L;
+    
+    // Au-delà, les libellés de l'historique sont préchargés en une requête par table
+    private static final int SEUIL_PRECHARGEMENT = 50;
     private String emailUtilisateur;
     private Usager usager;
     private JButton btnModifierMdp;
@@ -578,9 +578,10 @@ public class Page_Utilisateur extends JFrame {
         String[] colonnes = {"Date", "Montant", "Type", "Détails", "Statut"};
         Object[][] donnees = new Object[paiements.size()][5];
         
-        double totalDepense = 0.0;
-        double totalAbonnements = 0.0;
-        double totalStationnements = 0.0;
+        DonneesReference reference = DonneesReference.getInstance();
+        if (paiements.size() > SEUIL_PRECHARGEMENT) {
+            reference.prechauffer();
+        }
         
         for (int i = 0; i < paiements.size(); i++) {
             Paiement p = paiements.get(i);
@@ -591,24 +592,26 @@ public class Page_Utilisateur extends JFrame {
             
             // Détails spécifiques
             String details = "-";
-            if ("ABONNEMENT".equals(p.getTypePaiement()) && p.getIdAbonnement() != null) {
-                try {
-                    Abonnement abonnement = AbonnementDAO.getInstance().findById(p.getIdAbonnement());
-                    details = (abonnement != null) ? abonnement.getLibelleAbonnement() : p.getIdAbonnement();
-                } catch (Exception e) {
-                    details = p.getIdAbonnement();
-                }
-                totalAbonnements += p.getMontant();
-            } else if ("STATIONNEMENT".equals(p.getTypePaiement())) {
-                totalStationnements += p.getMontant();
+            if ("ABONNEMENT".equalsIgnoreCase(p.getTypePaiement()) && p.getIdAbonnement() != null) {
+                details = reference.libelleAbonnement(p.getIdAbonnement());
             }
             donnees[i][3] = details;
             
             donnees[i][4] = "Payé";
-            
-            totalDepense += p.getMontant();
         }
         
+        // Totaux lus dans les cumuls mensuels de l'usager
+        CumulsUsagers.Cumul cumul;
+        try {
+            cumul = CumulsUsagers.getInstance().getTotal(usager.getIdUsager());
+        } catch (Exception e) {
+            System.err.println("Erreur récupération des dépenses: " + e.getMessage());
+            cumul = null;
+        }
+        double totalAbonnements = cumul != null ? cumul.getDepensesAbonnements() : 0.0;
+        double totalStationnements = cumul != null ? cumul.getDepensesStationnements() : 0.0;
+        double totalDepense = totalAbonnements + totalStationnements;
+        
         // Création du tableau
         JTable table = new JTable(donnees, colonnes);
         table.setFont(new Font("Arial", Font.PLAIN, 12));
@@ -650,88 +653,80 @@ public class Page_Utilisateur extends JFrame {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(Color.WHITE);
         
-        // Récupération des stationnements
-        List<Stationnement> stationnements = StationnementDAO.getHistoriqueStationnementsStatic(usager.getIdUsager());
-        
+        // Historique chargé par pages au défilement
         String[] colonnes = {"Date", "Type", "Véhicule", "Zone/Parking", "Durée", "Coût", "Statut"};
-        Object[][] donnees = new Object[stationnements.size()][7];
-        
-        for (int i = 0; i < stationnements.size(); i++) {
-            Stationnement s = stationnements.get(i);
-            
-            donnees[i][0] = s.getDateCreation()
-                .format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-            donnees[i][1] = s.getTypeStationnement();
-            donnees[i][2] = s.getTypeVehicule() + " - " + s.getPlaqueImmatriculation();
-            
-            // Colonne Zone/Parking
-            String zoneId = s.getIdTarification();
-            if (zoneId == null || zoneId.trim().isEmpty()) {
-                donnees[i][3] = "Non spécifié";
-            } else {
-                if ("PARKING".equals(s.getTypeStationnement())) {
-                    try {
-                        Parking parking = ParkingDAO.getInstance().findById(zoneId);
-                        donnees[i][3] = (parking != null) ? parking.getLibelleParking() : zoneId;
-                    } catch (Exception e) {
-                        donnees[i][3] = zoneId;
-                    }
-                } else {
-                    try {
-                        Zone zone = ZoneDAO.getInstance().findById(zoneId);
-                        donnees[i][3] = (zone != null) ? zone.getLibelleZone() : zoneId;
-                    } catch (Exception e) {
-                        donnees[i][3] = zoneId;
-                    }
-                }
-            }
-            
-            // Durée
-            if (s.estVoirie()) {
-                donnees[i][4] = s.getDureeHeures() + "h" + s.getDureeMinutes() + "min";
-            } else {
-                if (s.getHeureArrivee() != null && s.getHeureDepart() != null) {
-                    long minutes = java.time.Duration.between(s.getHeureArrivee(), s.getHeureDepart()).toMinutes();
-                    long heures = minutes / 60;
-                    long mins = minutes % 60;
-                    donnees[i][4] = heures + "h" + mins + "min";
-                } else {
-                    donnees[i][4] = "En cours";
-                }
-            }
-            
-            donnees[i][5] = String.format("%.2f €", s.getCout());
-            donnees[i][6] = s.getStatut();
-        }
+        DonneesReference reference = DonneesReference.getInstance();
+        ModeleHistoriqueStationnements modele = new ModeleHistoriqueStationnements(
+            usager.getIdUsager(), colonnes, s -> ligneStationnement(s, reference));
         
         // Création du tableau
-        JTable table = new JTable(donnees, colonnes);
+        JTable table = new JTable(modele);
         table.setFont(new Font("Arial", Font.PLAIN, 12));
         table.setRowHeight(25);
         table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
-        table.setDefaultEditor(Object.class, null);
         
         JScrollPane scrollPane = new JScrollPane(table);
         panel.add(scrollPane, BorderLayout.CENTER);
+        modele.chargerAuDefilement(table, scrollPane);
+        modele.reinitialiser();
         
-        // Statistiques
+        // Statistiques, comptées en base
         JPanel statsPanel = new JPanel(new FlowLayout());
         statsPanel.setBackground(Color.WHITE);
         
-        long totalStationnements = stationnements.size();
-        long stationnementsActifs = stationnements.stream()
-                .filter(s -> "ACTIF".equals(s.getStatut()))
-                .count();
-        
-        JLabel lblStats = new JLabel("Total: " + totalStationnements + " stationnement(s) | Actifs: " + stationnementsActifs);
+        JLabel lblStats = new JLabel("Total: ... stationnement(s) | Actifs: ...");
         lblStats.setFont(new Font("Arial", Font.BOLD, 14));
         statsPanel.add(lblStats);
+        modele.compter((total, actifs) ->
+            lblStats.setText("Total: " + total + " stationnement(s) | Actifs: " + actifs));
         
         panel.add(statsPanel, BorderLayout.SOUTH);
         
         return panel;
     }
     
+    /**
+     * valeurs affichées d'un stationnement dans l'onglet d'historique
+     */
+    private static Object[] ligneStationnement(Stationnement s, DonneesReference reference) {
+        Object[] ligne = new Object[7];
+        
+        ligne[0] = s.getDateCreation()
+            .format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+        ligne[1] = s.getTypeStationnement();
+        ligne[2] = s.getTypeVehicule() + " - " + s.getPlaqueImmatriculation();
+        
+        // Colonne Zone/Parking
+        String zoneId = s.getIdTarification();
+        if (zoneId == null || zoneId.trim().isEmpty()) {
+            ligne[3] = "Non spécifié";
+        } else {
+            if ("PARKING".equals(s.getTypeStationnement())) {
+                ligne[3] = reference.libelleParking(zoneId);
+            } else {
+                ligne[3] = reference.libelleZone(zoneId);
+            }
+        }
+        
+        // Durée
+        if (s.estVoirie()) {
+            ligne[4] = s.getDureeHeures() + "h" + s.getDureeMinutes() + "min";
+        } else {
+            if (s.getHeureArrivee() != null && s.getHeureDepart() != null) {
+                long minutes = java.time.Duration.between(s.getHeureArrivee(), s.getHeureDepart()).toMinutes();
+                long heures = minutes / 60;
+                long mins = minutes % 60;
+                ligne[4] = heures + "h" + mins + "min";
+            } else {
+                ligne[4] = "En cours";
+            }
+        }
+        
+        ligne[5] = String.format("%.2f €", s.getCout());
+        ligne[6] = s.getStatut();
+        return ligne;
+    }
+    
     /**
      * ajoute une ligne d'information avec un libellé et une valeur
      */
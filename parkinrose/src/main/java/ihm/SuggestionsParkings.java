@@ -0,0 +1,233 @@
+package ihm;
+
+import modele.Parking;
+import modele.dao.IndexRechercheParkings;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Suggestions de parkings sous un champ de recherche, pendant la frappe.
+ *
+ * Chaque frappe replanifie la recherche après un court délai sur un thread de fond
+ * (la précédente, pas encore partie, est annulée) ; une réponse arrivée après une frappe
+ * plus récente est ignorée. Les suggestions viennent de l'index plein texte en mémoire
+ * (IndexRechercheParkings) : aucune requête SQL pendant la saisie.
+ * Flèches haut/bas pour parcourir, Entrée ou clic pour choisir, Échap pour fermer.
+ */
+public class SuggestionsParkings {
+
+    /** Délai sans frappe avant de chercher */
+    private static final long DELAI_MS = 120;
+
+    /** Nombre maximal de suggestions affichées */
+    private static final int NOMBRE_SUGGESTIONS = 8;
+
+    // Partagé par tous les champs : les recherches sont courtes et se suivent
+    private static final ScheduledExecutorService RECHERCHE = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "suggestions-parkings");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final JTextField champ;
+    private final Consumer<Parking> actionChoix;
+    private final DefaultListModel<Parking> modele = new DefaultListModel<>();
+    private final JList<Parking> liste = new JList<>(modele);
+    private JWindow fenetre;
+
+    private Future<?> rechercheEnAttente;
+    private int generation;
+    private boolean miseAJourInterne;
+
+    /**
+     * @param champ le champ de saisie
+     * @param actionChoix appelée sur l'EDT avec le parking choisi
+     */
+    public SuggestionsParkings(JTextField champ, Consumer<Parking> actionChoix) {
+        this.champ = champ;
+        this.actionChoix = actionChoix;
+
+        liste.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        liste.setFocusable(false);
+        liste.setFont(champ.getFont());
+        liste.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                Parking p = (Parking) value;
+                String texte = "<html><b>" + echapper(p.getLibelleParking()) + "</b>"
+                             + " <font color='gray'>" + echapper(p.getAdresseParking()) + "</font></html>";
+                JLabel label = (JLabel) super.getListCellRendererComponent(list, texte, index, isSelected, cellHasFocus);
+                label.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+                return label;
+            }
+        });
+        liste.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = liste.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    choisir(modele.get(index));
+                }
+            }
+        });
+
+        champ.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                saisieModifiee();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                saisieModifiee();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attributs de style uniquement
+            }
+        });
+        champ.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                toucheAppuyee(e);
+            }
+        });
+        champ.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                masquer();
+            }
+        });
+
+        // Charge l'index en arrière-plan avant la première frappe
+        RECHERCHE.execute(IndexRechercheParkings::getInstance);
+    }
+
+    // ==================== SAISIE ====================
+
+    private void saisieModifiee() {
+        final int demande = ++generation;
+        if (rechercheEnAttente != null) {
+            rechercheEnAttente.cancel(false);
+        }
+        // Texte posé par le programme (choix, texte d'invite) : pas de suggestions
+        if (miseAJourInterne || !champ.isFocusOwner()) {
+            masquer();
+            return;
+        }
+        final String saisie = champ.getText();
+        if (saisie.trim().isEmpty()) {
+            masquer();
+            return;
+        }
+        rechercheEnAttente = RECHERCHE.schedule(() -> {
+            List<Parking> suggestions = IndexRechercheParkings.getInstance()
+                                                              .rechercherParkings(saisie, NOMBRE_SUGGESTIONS);
+            SwingUtilities.invokeLater(() -> {
+                if (demande == generation) {
+                    afficher(suggestions);
+                }
+            });
+        }, DELAI_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void toucheAppuyee(KeyEvent e) {
+        if (fenetre == null || !fenetre.isVisible()) {
+            return;
+        }
+        int index = liste.getSelectedIndex();
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+                liste.setSelectedIndex(Math.min(index + 1, modele.size() - 1));
+                liste.ensureIndexIsVisible(liste.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_UP:
+                liste.setSelectedIndex(Math.max(index - 1, 0));
+                liste.ensureIndexIsVisible(liste.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER:
+                // Sans suggestion sélectionnée, Entrée garde son action habituelle sur le champ
+                if (index >= 0) {
+                    e.consume();
+                    choisir(modele.get(index));
+                } else {
+                    masquer();
+                }
+                break;
+            case KeyEvent.VK_ESCAPE:
+                masquer();
+                e.consume();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void choisir(Parking parking) {
+        masquer();
+        miseAJourInterne = true;
+        try {
+            champ.setText(parking.getLibelleParking());
+        } finally {
+            miseAJourInterne = false;
+        }
+        actionChoix.accept(parking);
+    }
+
+    // ==================== FENÊTRE DES SUGGESTIONS ====================
+
+    private void afficher(List<Parking> suggestions) {
+        if (suggestions.isEmpty() || !champ.isShowing() || !champ.isFocusOwner()) {
+            masquer();
+            return;
+        }
+        modele.clear();
+        for (Parking p : suggestions) {
+            modele.addElement(p);
+        }
+        liste.clearSelection();
+
+        if (fenetre == null) {
+            fenetre = new JWindow(SwingUtilities.getWindowAncestor(champ));
+            fenetre.setFocusableWindowState(false);
+            JScrollPane defilement = new JScrollPane(liste);
+            defilement.setBorder(BorderFactory.createLineBorder(new Color(180, 180, 180)));
+            fenetre.getContentPane().add(defilement);
+        }
+        liste.setVisibleRowCount(Math.min(modele.size(), NOMBRE_SUGGESTIONS));
+        fenetre.pack();
+        Point position = champ.getLocationOnScreen();
+        fenetre.setBounds(position.x, position.y + champ.getHeight(),
+                          Math.max(champ.getWidth(), 350), fenetre.getPreferredSize().height);
+        fenetre.setVisible(true);
+    }
+
+    private void masquer() {
+        if (fenetre != null) {
+            fenetre.setVisible(false);
+        }
+    }
+
+    private static String echapper(String texte) {
+        return texte == null ? "" : texte.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -1,6 +1,8 @@
 package modele;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Classe représentant un feedback (retour utilisateur) dans le système.
@@ -44,6 +46,9 @@ public class Feedback {
     private String nomAdminReponse;
     private String prenomAdminReponse;
     
+    // Réponses de la conversation, chargées avec le message parent (FeedbackDAO.getConversations)
+    private List<Feedback> reponses = new ArrayList<>();
+    
     // ==================== CONSTRUCTEURS ====================
     
     /**
@@ -202,6 +207,14 @@ public class Feedback {
         this.prenomAdminReponse = prenomAdminReponse;
     }
     
+    public List<Feedback> getReponses() {
+        return reponses;
+    }
+    
+    public void setReponses(List<Feedback> reponses) {
+        this.reponses = reponses != null ? reponses : new ArrayList<>();
+    }
+    
     // ==================== MÉTHODES UTILITAIRES ====================
     
     /**
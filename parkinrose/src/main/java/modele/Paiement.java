@@ -1,6 +1,7 @@
 package modele;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Classe représentant un paiement effectué dans le système.
@@ -50,7 +51,7 @@ public class Paiement {
         this.codeSecretCarte = codeSecretCarte;
         this.montant = montant;
         this.idUsager = idUsager;
-        this.idPaiement = "PAY_" + System.currentTimeMillis();  // Génération d'ID unique
+        this.idPaiement = genererIdPaiement();                  // Génération d'ID unique
         this.datePaiement = LocalDateTime.now();                // Date courante
         this.methodePaiement = "CARTE";                        // Méthode par défaut
         this.statut = "REUSSI";                                 // Statut par défaut
@@ -81,6 +82,17 @@ public class Paiement {
     public Paiement() {
     }
 
+    /**
+     * Génère un identifiant "PAY_" suivi de 20 chiffres hexadécimaux tirés d'un UUID aléatoire :
+     * unique d'un poste à l'autre, et pas plus long que les identifiants "PAY_GRATUIT_" déjà en base.
+     *
+     * @return Identifiant unique de paiement
+     */
+    public static String genererIdPaiement() {
+        String uuid = UUID.randomUUID().toString().replace("-", "");
+        return "PAY_" + uuid.substring(0, 20).toUpperCase();
+    }
+
     // ==================== GETTERS & SETTERS ====================
 
     public String getIdPaiement() { 
@@ -1,6 +1,7 @@
 package modele.dao;
 
 import modele.Abonnement;
+import modele.Paiement;
 import modele.dao.requetes.*;
 import java.sql.*;
 import java.util.ArrayList;
@@ -56,43 +57,50 @@ public class AbonnementDAO extends DaoModele<Abonnement> {
     public void create(Abonnement abonnement) throws SQLException {
         // D'abord supprimer les relations dans Appartenir
         String sqlDeleteAppartenir = "DELETE FROM Appartenir WHERE id_abonnement = ?";
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement pstmt1 = conn.prepareStatement(sqlDeleteAppartenir);
-        pstmt1.setString(1, abonnement.getIdAbonnement());
-        pstmt1.executeUpdate();
-        pstmt1.close();
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement pstmt1 = conn.prepareStatement(sqlDeleteAppartenir)) {
+            pstmt1.setString(1, abonnement.getIdAbonnement());
+            pstmt1.executeUpdate();
+        }
         
         // Ensuite insérer l'abonnement
         RequeteInsertAbonnement req = new RequeteInsertAbonnement();
         miseAJour(req, abonnement);
+        DonneesReference.getInstance().invaliderAbonnement(abonnement.getIdAbonnement());
+        SessionUsager.invaliderAbonnement(abonnement.getIdAbonnement());
     }
     
     @Override
     public void update(Abonnement abonnement) throws SQLException {
         RequeteUpdateAbonnement req = new RequeteUpdateAbonnement();
         miseAJour(req, abonnement);
+        DonneesReference.getInstance().invaliderAbonnement(abonnement.getIdAbonnement());
+        SessionUsager.invaliderAbonnement(abonnement.getIdAbonnement());
     }
     
     @Override
     public void delete(Abonnement abonnement) throws SQLException {
         // D'abord supprimer les relations dans Appartenir
         String sqlDeleteAppartenir = "DELETE FROM Appartenir WHERE id_abonnement = ?";
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement pstmt1 = conn.prepareStatement(sqlDeleteAppartenir);
-        pstmt1.setString(1, abonnement.getIdAbonnement());
-        pstmt1.executeUpdate();
-        pstmt1.close();
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement pstmt1 = conn.prepareStatement(sqlDeleteAppartenir)) {
+            pstmt1.setString(1, abonnement.getIdAbonnement());
+            pstmt1.executeUpdate();
+        }
         
         // Ensuite supprimer l'abonnement
         RequeteDeleteAbonnement req = new RequeteDeleteAbonnement();
         miseAJour(req, abonnement);
+        DonneesReference.getInstance().invaliderAbonnement(abonnement.getIdAbonnement());
+        SessionUsager.invaliderAbonnement(abonnement.getIdAbonnement());
     }
     
     public Iterateur<Abonnement> findAllIte() throws SQLException {
         Connection conn = MySQLConnection.getConnection();
         PreparedStatement prSt = conn.prepareStatement("SELECT * FROM Abonnement ORDER BY tarif_applique");
         ResultSet rs = prSt.executeQuery();
-        iterateur = new Iterateur<>(rs, this);
+        // L'itérateur rend la connexion au pool une fois fermé ou épuisé
+        iterateur = new Iterateur<>(rs, this, conn);
         return iterateur;
     }
     
@@ -101,10 +109,11 @@ public class AbonnementDAO extends DaoModele<Abonnement> {
         String sql = "SELECT a.* FROM Abonnement a " +
                     "INNER JOIN Appartenir ap ON a.id_abonnement = ap.id_abonnement " +
                     "WHERE ap.id_usager = ? ORDER BY a.tarif_applique";
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql);
-        pstmt.setInt(1, idUsager);
-        return select(pstmt);
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsager);
+            return select(pstmt);
+        }
     }
     
     public boolean ajouterAbonnementUtilisateur(int idUsager, String idAbonnement) throws SQLException {
@@ -117,40 +126,79 @@ public class AbonnementDAO extends DaoModele<Abonnement> {
             return false;
         }
         
-        // D'abord supprimer les anciens abonnements
-        supprimerAbonnementsUtilisateur(idUsager);
+        // Anciens abonnements remplacés en une transaction
+        try (Connection conn = MySQLConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                boolean ajoute = remplacerAbonnementUtilisateur(conn, idUsager, idAbonnement);
+                conn.commit();
+                return ajoute;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                SessionUsager.invaliderAbonnement(idUsager);
+            }
+        }
+    }
+    
+    /**
+     * Souscription d'un abonnement réglée par un paiement, écrite par le journal des paiements
+     * dans la même transaction que le paiement
+     */
+    public JournalPaiements.Ecriture souscriptionPayee(int idUsager, String idAbonnement) {
+        return new JournalPaiements.Ecriture() {
+            @Override
+            public void executer(Connection conn, Paiement paiement) throws SQLException {
+                if (!remplacerAbonnementUtilisateur(conn, idUsager, idAbonnement)) {
+                    throw new SQLException("Erreur lors de l'activation de l'abonnement " + idAbonnement);
+                }
+            }
+            
+            @Override
+            public void apresValidation(Paiement paiement) {
+                SessionUsager.invaliderAbonnement(idUsager);
+            }
+        };
+    }
+    
+    /**
+     * Remplace les abonnements de l'usager par celui-ci, dans la transaction de l'appelant
+     */
+    private boolean remplacerAbonnementUtilisateur(Connection conn, int idUsager, String idAbonnement) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM Appartenir WHERE id_usager = ?")) {
+            pstmt.setInt(1, idUsager);
+            pstmt.executeUpdate();
+        }
         
         String sql = "INSERT INTO Appartenir (id_usager, id_abonnement, date_debut) VALUES (?, ?, CURDATE())";
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql);
-        pstmt.setInt(1, idUsager);
-        pstmt.setString(2, idAbonnement);
-        
-        return pstmt.executeUpdate() > 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsager);
+            pstmt.setString(2, idAbonnement);
+            return pstmt.executeUpdate() > 0;
+        }
     }
     
     public void supprimerAbonnementsUtilisateur(int idUsager) throws SQLException {
         String sql = "DELETE FROM Appartenir WHERE id_usager = ?";
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql);
-        pstmt.setInt(1, idUsager);
-        pstmt.executeUpdate();
-        pstmt.close();
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsager);
+            pstmt.executeUpdate();
+        }
+        SessionUsager.invaliderAbonnement(idUsager);
     }
     
     private boolean usagerExiste(int idUsager) throws SQLException {
         String sql = "SELECT COUNT(*) FROM Usager WHERE id_usager = ?";
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql);
-        pstmt.setInt(1, idUsager);
-        ResultSet rs = pstmt.executeQuery();
-        boolean existe = false;
-        if (rs.next()) {
-            existe = rs.getInt(1) > 0;
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUsager);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
         }
-        rs.close();
-        pstmt.close();
-        return existe;
     }
     
     /**
@@ -233,6 +281,10 @@ public class AbonnementDAO extends DaoModele<Abonnement> {
      * Version statique pour récupérer l'abonnement actif
      */
     public static Abonnement getAbonnementActifStatic(int idUsager) {
+        SessionUsager session = SessionUsager.pour(idUsager);
+        if (session != null) {
+            return session.getAbonnementActif();
+        }
         try {
             return getInstance().getAbonnementActif(idUsager);
         } catch (SQLException e) {
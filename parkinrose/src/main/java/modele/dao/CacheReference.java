@@ -0,0 +1,181 @@
+package modele.dao;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache en lecture seule de données de référence (parkings, zones, abonnements),
+ * indexé par identifiant.
+ *
+ * Lecture traversante : un identifiant absent ou expiré est chargé par le chargeur
+ * puis gardé pendant la durée de vie. Les identifiants inconnus sont gardés aussi
+ * (valeur null), pour qu'un historique citant un parking supprimé ne relance pas
+ * une requête par ligne.
+ *
+ * Un chargement commencé avant une invalidation n'est pas gardé : il pourrait
+ * rapporter la version d'avant la modification.
+ *
+ * @param <T> type des objets gardés
+ */
+public class CacheReference<T> {
+
+    /**
+     * Lecture d'un objet en base par son identifiant (null s'il n'existe pas)
+     */
+    public interface Chargeur<T> {
+        T charger(String id) throws SQLException;
+    }
+
+    /**
+     * Lecture en base de tous les objets (préchargement)
+     */
+    public interface ChargeurTout<T> {
+        Collection<T> chargerTout() throws SQLException;
+    }
+
+    private static final class Entree<T> {
+        final T valeur;
+        final long expiration;
+
+        Entree(T valeur, long expiration) {
+            this.valeur = valeur;
+            this.expiration = expiration;
+        }
+    }
+
+    private final Chargeur<T> chargeur;
+    private final Function<T, String> identifiant;
+    private final long dureeVieMs;
+    private final LongSupplier horloge;
+    private final Map<String, Entree<T>> entrees = new ConcurrentHashMap<>();
+
+    // Incrémentée à chaque invalidation
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong succes = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * @param chargeur lecture en base d'un objet absent du cache
+     * @param identifiant identifiant d'un objet (pour le préchargement)
+     * @param dureeVieMs durée de vie d'une entrée en millisecondes
+     */
+    public CacheReference(Chargeur<T> chargeur, Function<T, String> identifiant, long dureeVieMs) {
+        this(chargeur, identifiant, dureeVieMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param horloge heure courante en millisecondes (remplaçable pour les tests)
+     */
+    public CacheReference(Chargeur<T> chargeur, Function<T, String> identifiant, long dureeVieMs,
+                          LongSupplier horloge) {
+        this.chargeur = chargeur;
+        this.identifiant = identifiant;
+        this.dureeVieMs = dureeVieMs;
+        this.horloge = horloge;
+    }
+
+    // ==================== LECTURE ====================
+
+    /**
+     * Objet de cet identifiant, chargé en base s'il n'est pas en cache ou a expiré
+     *
+     * @return null si l'identifiant est null ou inconnu
+     */
+    public T get(String id) throws SQLException {
+        if (id == null) {
+            return null;
+        }
+        long maintenant = horloge.getAsLong();
+        Entree<T> entree = entrees.get(id);
+        if (entree != null) {
+            if (entree.expiration > maintenant) {
+                succes.incrementAndGet();
+                return entree.valeur;
+            }
+            expirations.incrementAndGet();
+        }
+
+        echecs.incrementAndGet();
+        long generationLecture = generation.get();
+        T valeur = chargeur.charger(id);
+        if (generation.get() == generationLecture) {
+            entrees.put(id, new Entree<>(valeur, maintenant + dureeVieMs));
+        }
+        return valeur;
+    }
+
+    // ==================== PRÉCHARGEMENT ====================
+
+    /**
+     * Lit et garde d'un coup des objets lus ensemble (findAll...) ;
+     * rien n'est gardé si une invalidation a eu lieu pendant la lecture
+     */
+    public void prechauffer(ChargeurTout<T> chargeurTout) throws SQLException {
+        long generationLecture = generation.get();
+        long expiration = horloge.getAsLong() + dureeVieMs;
+        Collection<T> valeurs = chargeurTout.chargerTout();
+        if (generation.get() != generationLecture) {
+            return;
+        }
+        for (T valeur : valeurs) {
+            String id = identifiant.apply(valeur);
+            if (id != null) {
+                entrees.put(id, new Entree<>(valeur, expiration));
+            }
+        }
+    }
+
+    // ==================== INVALIDATION ====================
+
+    /**
+     * Oublie un objet modifié ou supprimé : il sera relu au prochain accès
+     */
+    public void invalider(String id) {
+        generation.incrementAndGet();
+        if (id != null) {
+            entrees.remove(id);
+        }
+    }
+
+    /**
+     * Oublie tous les objets
+     */
+    public void vider() {
+        generation.incrementAndGet();
+        entrees.clear();
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    /** Lectures servies par le cache */
+    public long getSucces() {
+        return succes.get();
+    }
+
+    /** Lectures parties en base (absent ou expiré) */
+    public long getEchecs() {
+        return echecs.get();
+    }
+
+    /** Parmi les échecs, entrées trouvées mais expirées */
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    /** Part des lectures servies par le cache, entre 0 et 1 */
+    public double getTauxSucces() {
+        long total = succes.get() + echecs.get();
+        return total == 0 ? 0 : (double) succes.get() / total;
+    }
+
+    public int taille() {
+        return entrees.size();
+    }
+}
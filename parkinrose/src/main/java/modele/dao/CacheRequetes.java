@@ -0,0 +1,115 @@
+package modele.dao;
+
+import modele.dao.requetes.Requete;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache LRU des PreparedStatement d'une connexion physique, indexé par classe de Requete.
+ *
+ * Chaque sous-classe de Requete renvoie (sauf exception) toujours le même SQL :
+ * on garde donc le statement préparé côté serveur d'un emprunt à l'autre.
+ * Le SQL est tout de même comparé pour les rares requêtes construites dynamiquement.
+ *
+ * Un cache appartient à une seule connexion, elle-même empruntée par un seul
+ * thread à la fois : il n'a pas besoin d'être synchronisé.
+ * Les statements renvoyés ne doivent pas être fermés par l'appelant.
+ */
+class CacheRequetes {
+
+    /**
+     * Compteurs partagés par tous les caches d'un même pool
+     */
+    static class Compteurs {
+        final AtomicLong succes = new AtomicLong();
+        final AtomicLong echecs = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+    }
+
+    private static class Entree {
+        final String sql;
+        final PreparedStatement statement;
+
+        Entree(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+    }
+
+    private final Connection connexion;
+    private final int capacite;
+    private final Compteurs compteurs;
+    private final LinkedHashMap<Class<?>, Entree> entrees;
+
+    CacheRequetes(Connection connexion, int capacite, Compteurs compteurs) {
+        this.connexion = connexion;
+        this.capacite = capacite;
+        this.compteurs = compteurs;
+        // accessOrder = true : l'entrée la moins récemment utilisée est en tête
+        this.entrees = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Renvoie le statement préparé pour cette requête, paramètres effacés
+     */
+    PreparedStatement preparer(Requete<?> req) throws SQLException {
+        String sql = req.requete();
+        Class<?> cle = req.getClass();
+
+        Entree entree = entrees.get(cle);
+        if (entree != null && entree.sql.equals(sql) && !entree.statement.isClosed()) {
+            compteurs.succes.incrementAndGet();
+            entree.statement.clearParameters();
+            return entree.statement;
+        }
+
+        compteurs.echecs.incrementAndGet();
+        if (entree != null) {
+            entrees.remove(cle);
+            fermerSilencieusement(entree.statement);
+        }
+
+        PreparedStatement statement = connexion.prepareStatement(sql);
+        entrees.put(cle, new Entree(sql, statement));
+        evincerSiPlein();
+        return statement;
+    }
+
+    private void evincerSiPlein() {
+        Iterator<Map.Entry<Class<?>, Entree>> it = entrees.entrySet().iterator();
+        while (entrees.size() > capacite && it.hasNext()) {
+            Entree plusAncienne = it.next().getValue();
+            it.remove();
+            compteurs.evictions.incrementAndGet();
+            fermerSilencieusement(plusAncienne.statement);
+        }
+    }
+
+    int taille() {
+        return entrees.size();
+    }
+
+    /**
+     * Ferme tous les statements (avant la fermeture de la connexion physique)
+     */
+    void vider() {
+        for (Entree entree : entrees.values()) {
+            fermerSilencieusement(entree.statement);
+        }
+        entrees.clear();
+    }
+
+    private static void fermerSilencieusement(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur fermeture statement en cache: " + e.getMessage());
+        }
+    }
+}
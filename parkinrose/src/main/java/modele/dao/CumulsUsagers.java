@@ -0,0 +1,279 @@
+package modele.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cumuls mensuels par usager : stationnements terminés (nombre, voirie / parking, coût)
+ * et dépenses (abonnements / stationnements), pour que le profil et les statistiques
+ * lisent quelques lignes au lieu de parcourir tout l'historique.
+ * <pre>
+ * CREATE TABLE Cumul_Usager_Mois (
+ *     id_usager               INT NOT NULL,
+ *     mois                    DATE NOT NULL,        -- premier jour du mois
+ *     nb_stationnements       INT NOT NULL,         -- stationnements terminés ou expirés
+ *     nb_voirie               INT NOT NULL,
+ *     nb_parking              INT NOT NULL,
+ *     cout_stationnements     DECIMAL(12,2) NOT NULL,
+ *     depenses_abonnements    DECIMAL(12,2) NOT NULL, -- paiements réussis
+ *     depenses_stationnements DECIMAL(12,2) NOT NULL,
+ *     PRIMARY KEY (id_usager, mois)
+ * )
+ * </pre>
+ * Un stationnement est compté dans le mois de sa création quand il se termine ou expire,
+ * dans la transaction qui change son statut. Un paiement réussi est compté dans le mois
+ * de son paiement après son enregistrement (retiré s'il est modifié ou supprimé).
+ * Les stationnements encore actifs ne sont pas cumulés : on les lit à part.
+ *
+ * La table est créée et remplie depuis l'historique par le script evolutions_bdd.sql ;
+ * reconstruire() la recalcule entièrement. Une mise à jour des cumuls qui échoue
+ * (table absente...) fait échouer la transaction de l'appelant.
+ */
+public class CumulsUsagers {
+
+    // Mois de rattachement d'une date (premier jour du mois)
+    private static final String MOIS_CREATION = "DATE_FORMAT(COALESCE(date_creation, NOW()), '%Y-%m-01')";
+    private static final String MOIS_PAIEMENT = "DATE_FORMAT(COALESCE(date_paiement, NOW()), '%Y-%m-01')";
+    private static final String EST_ABONNEMENT = "NULLIF(id_abonnement, '') IS NOT NULL";
+
+    private static final String SQL_CUMUL_STATIONNEMENTS =
+        "INSERT INTO Cumul_Usager_Mois (id_usager, mois, nb_stationnements, nb_voirie, nb_parking, cout_stationnements) " +
+        "SELECT id_usager, " + MOIS_CREATION + ", COUNT(*), " +
+        "SUM(IF(type_stationnement = 'VOIRIE', 1, 0)), SUM(IF(type_stationnement = 'PARKING', 1, 0)), " +
+        "COALESCE(SUM(cout), 0) " +
+        "FROM Stationnement WHERE statut <> 'ACTIF' " +
+        "GROUP BY id_usager, " + MOIS_CREATION + " " +
+        "ON DUPLICATE KEY UPDATE nb_stationnements = VALUES(nb_stationnements), " +
+        "nb_voirie = VALUES(nb_voirie), nb_parking = VALUES(nb_parking), " +
+        "cout_stationnements = VALUES(cout_stationnements)";
+
+    private static final String SQL_CUMUL_PAIEMENTS =
+        "INSERT INTO Cumul_Usager_Mois (id_usager, mois, depenses_abonnements, depenses_stationnements) " +
+        "SELECT id_usager, " + MOIS_PAIEMENT + ", " +
+        "SUM(IF(" + EST_ABONNEMENT + ", montant, 0)), SUM(IF(" + EST_ABONNEMENT + ", 0, montant)) " +
+        "FROM Paiement WHERE statut = 'REUSSI' " +
+        "GROUP BY id_usager, " + MOIS_PAIEMENT + " " +
+        "ON DUPLICATE KEY UPDATE depenses_abonnements = VALUES(depenses_abonnements), " +
+        "depenses_stationnements = VALUES(depenses_stationnements)";
+
+    private static final String SQL_AJOUTER_STATIONNEMENT =
+        "INSERT INTO Cumul_Usager_Mois (id_usager, mois, nb_stationnements, nb_voirie, nb_parking, cout_stationnements) " +
+        "SELECT id_usager, " + MOIS_CREATION + ", 1, " +
+        "IF(type_stationnement = 'VOIRIE', 1, 0), IF(type_stationnement = 'PARKING', 1, 0), COALESCE(cout, 0) " +
+        "FROM Stationnement WHERE id_stationnement = ? " +
+        "ON DUPLICATE KEY UPDATE nb_stationnements = nb_stationnements + VALUES(nb_stationnements), " +
+        "nb_voirie = nb_voirie + VALUES(nb_voirie), nb_parking = nb_parking + VALUES(nb_parking), " +
+        "cout_stationnements = cout_stationnements + VALUES(cout_stationnements)";
+
+    // Le premier paramètre vaut 1 pour ajouter le paiement, -1 pour le retirer
+    private static final String SQL_APPLIQUER_PAIEMENT =
+        "INSERT INTO Cumul_Usager_Mois (id_usager, mois, depenses_abonnements, depenses_stationnements) " +
+        "SELECT id_usager, " + MOIS_PAIEMENT + ", " +
+        "? * IF(" + EST_ABONNEMENT + ", montant, 0), ? * IF(" + EST_ABONNEMENT + ", 0, montant) " +
+        "FROM Paiement WHERE id_paiement = ? AND statut = 'REUSSI' " +
+        "ON DUPLICATE KEY UPDATE depenses_abonnements = depenses_abonnements + VALUES(depenses_abonnements), " +
+        "depenses_stationnements = depenses_stationnements + VALUES(depenses_stationnements)";
+
+    private static final String COLONNES_CUMUL =
+        "nb_stationnements, nb_voirie, nb_parking, cout_stationnements, " +
+        "depenses_abonnements, depenses_stationnements";
+
+    private static CumulsUsagers instance;
+
+    /**
+     * Cumul d'un usager, pour un mois ou pour toute sa période
+     */
+    public static final class Cumul {
+        private final YearMonth mois;
+        private final int nombreStationnements;
+        private final int nombreVoirie;
+        private final int nombreParking;
+        private final double coutStationnements;
+        private final double depensesAbonnements;
+        private final double depensesStationnements;
+
+        Cumul(YearMonth mois, int nombreStationnements, int nombreVoirie, int nombreParking,
+              double coutStationnements, double depensesAbonnements, double depensesStationnements) {
+            this.mois = mois;
+            this.nombreStationnements = nombreStationnements;
+            this.nombreVoirie = nombreVoirie;
+            this.nombreParking = nombreParking;
+            this.coutStationnements = coutStationnements;
+            this.depensesAbonnements = depensesAbonnements;
+            this.depensesStationnements = depensesStationnements;
+        }
+
+        /** Mois du cumul, null pour un total toutes périodes */
+        public YearMonth getMois() { return mois; }
+        public int getNombreStationnements() { return nombreStationnements; }
+        public int getNombreVoirie() { return nombreVoirie; }
+        public int getNombreParking() { return nombreParking; }
+        public double getCoutStationnements() { return coutStationnements; }
+        public double getDepensesAbonnements() { return depensesAbonnements; }
+        public double getDepensesStationnements() { return depensesStationnements; }
+
+        public double getDepensesTotales() {
+            return depensesAbonnements + depensesStationnements;
+        }
+    }
+
+    // Singleton privé
+    private CumulsUsagers() {}
+
+    public static synchronized CumulsUsagers getInstance() {
+        if (instance == null) {
+            instance = new CumulsUsagers();
+        }
+        return instance;
+    }
+
+    // ==================== LECTURE ====================
+
+    /**
+     * Cumul de toute la période d'un usager (une ligne par mois d'activité lue sur la clé primaire)
+     */
+    public Cumul getTotal(int idUsager) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(nb_stationnements), 0), COALESCE(SUM(nb_voirie), 0), " +
+                     "COALESCE(SUM(nb_parking), 0), COALESCE(SUM(cout_stationnements), 0), " +
+                     "COALESCE(SUM(depenses_abonnements), 0), COALESCE(SUM(depenses_stationnements), 0) " +
+                     "FROM Cumul_Usager_Mois WHERE id_usager = ?";
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, idUsager);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new Cumul(null, rs.getInt(1), rs.getInt(2), rs.getInt(3),
+                                 rs.getDouble(4), rs.getDouble(5), rs.getDouble(6));
+            }
+        }
+    }
+
+    /**
+     * Cumuls mois par mois d'un usager, du plus récent au plus ancien
+     */
+    public List<Cumul> getCumulsMensuels(int idUsager) throws SQLException {
+        String sql = "SELECT mois, " + COLONNES_CUMUL + " FROM Cumul_Usager_Mois " +
+                     "WHERE id_usager = ? ORDER BY mois DESC";
+        List<Cumul> cumuls = new ArrayList<>();
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, idUsager);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Date mois = rs.getDate("mois");
+                    cumuls.add(new Cumul(YearMonth.from(mois.toLocalDate()),
+                                         rs.getInt("nb_stationnements"), rs.getInt("nb_voirie"),
+                                         rs.getInt("nb_parking"), rs.getDouble("cout_stationnements"),
+                                         rs.getDouble("depenses_abonnements"),
+                                         rs.getDouble("depenses_stationnements")));
+                }
+            }
+        }
+        return cumuls;
+    }
+
+    // ==================== MISE À JOUR INCRÉMENTALE ====================
+
+    /**
+     * Compte des stationnements qui viennent de se terminer ou d'expirer,
+     * dans la transaction de l'appelant (qui a changé leur statut)
+     */
+    public void ajouterStationnements(Connection conn, List<Integer> idsStationnement) throws SQLException {
+        if (idsStationnement.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_AJOUTER_STATIONNEMENT)) {
+            for (int id : idsStationnement) {
+                stmt.setInt(1, id);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Compte un stationnement qui vient de se terminer, dans la transaction de l'appelant
+     */
+    public void ajouterStationnement(Connection conn, int idStationnement) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        ids.add(idStationnement);
+        ajouterStationnements(conn, ids);
+    }
+
+    /**
+     * Ajoute un paiement enregistré aux dépenses de son mois (sans effet s'il n'est pas réussi),
+     * dans la transaction de l'appelant
+     */
+    public void ajouterPaiement(Connection conn, String idPaiement) throws SQLException {
+        appliquerPaiement(conn, idPaiement, 1);
+    }
+
+    /**
+     * Ajoute des paiements qui viennent d'être insérés aux dépenses de leur mois,
+     * dans la transaction de l'appelant (journal des paiements)
+     */
+    public void ajouterPaiements(Connection conn, List<String> idsPaiement) throws SQLException {
+        if (idsPaiement.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_APPLIQUER_PAIEMENT)) {
+            for (String id : idsPaiement) {
+                stmt.setInt(1, 1);
+                stmt.setInt(2, 1);
+                stmt.setString(3, id);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Retire un paiement des dépenses, avant sa modification ou sa suppression,
+     * dans la transaction de l'appelant
+     */
+    public void retirerPaiement(Connection conn, String idPaiement) throws SQLException {
+        appliquerPaiement(conn, idPaiement, -1);
+    }
+
+    private void appliquerPaiement(Connection conn, String idPaiement, int signe) throws SQLException {
+        if (idPaiement == null) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_APPLIQUER_PAIEMENT)) {
+            stmt.setInt(1, signe);
+            stmt.setInt(2, signe);
+            stmt.setString(3, idPaiement);
+            stmt.executeUpdate();
+        }
+    }
+
+    // ==================== RECONSTRUCTION ====================
+
+    /**
+     * Recalcule tous les cumuls depuis l'historique des stationnements et des paiements,
+     * en une transaction (rattrape les cumuls manqués ; à lancer quand l'application est peu utilisée)
+     */
+    public synchronized void reconstruire() throws SQLException {
+        try (Connection conn = MySQLConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM Cumul_Usager_Mois");
+                stmt.executeUpdate(SQL_CUMUL_STATIONNEMENTS);
+                stmt.executeUpdate(SQL_CUMUL_PAIEMENTS);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -9,6 +9,19 @@ public abstract class DaoModele<T> implements Dao<T> {
     
     protected abstract T creerInstance(ResultSet curseur) throws SQLException;
     
+    /**
+     * Lit toutes les lignes sans fermer le statement (utilisé pour les statements en cache)
+     */
+    private List<T> lire(PreparedStatement prSt) throws SQLException {
+        List<T> resultat = new ArrayList<>();
+        try (ResultSet rs = prSt.executeQuery()) {
+            while (rs.next()) {
+                resultat.add(creerInstance(rs));
+            }
+        }
+        return resultat;
+    }
+    
     protected List<T> select(PreparedStatement prSt) throws SQLException {
         List<T> resultat = new ArrayList<>();
         ResultSet rs = prSt.executeQuery();
@@ -21,19 +34,21 @@ public abstract class DaoModele<T> implements Dao<T> {
         return resultat;
     }
     
-    // Méthode find avec Requete<T> et paramètres
+    // Méthode find avec Requete<T> et paramètres (la connexion est rendue au pool en sortie)
     protected List<T> find(Requete<T> req, String... id) throws SQLException {
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement prSt = conn.prepareStatement(req.requete());
-        req.parametres(prSt, id);
-        return select(prSt);
+        try (Connection conn = MySQLConnection.getConnection()) {
+            PreparedStatement prSt = PoolConnexions.preparerEnCache(conn, req);
+            req.parametres(prSt, id);
+            return lire(prSt);
+        }
     }
     
     // Méthode find avec Requete<T> seulement (sans paramètres)
     protected List<T> find(Requete<T> req) throws SQLException {
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement prSt = conn.prepareStatement(req.requete());
-        return select(prSt);
+        try (Connection conn = MySQLConnection.getConnection()) {
+            PreparedStatement prSt = PoolConnexions.preparerEnCache(conn, req);
+            return lire(prSt);
+        }
     }
     
     // Méthode findById avec Requete<T>
@@ -47,32 +62,31 @@ public abstract class DaoModele<T> implements Dao<T> {
     
     // Méthode miseAJour avec Requete<T> et données
     protected int miseAJour(Requete<T> req, T donnee) throws SQLException {
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement prSt = conn.prepareStatement(req.requete());
-        req.parametres(prSt, donnee);
-        int rowsAffected = prSt.executeUpdate();
-        prSt.close();
-        return rowsAffected;
+        try (Connection conn = MySQLConnection.getConnection()) {
+            PreparedStatement prSt = PoolConnexions.preparerEnCache(conn, req);
+            req.parametres(prSt, donnee);
+            return prSt.executeUpdate();
+        }
     }
     
    
     protected int miseAJourReturnId(Requete<T> req, T donnee) throws SQLException {
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement prSt = conn.prepareStatement(req.requete(), Statement.RETURN_GENERATED_KEYS);
-        req.parametres(prSt, donnee);
-        int rowsAffected = prSt.executeUpdate();
-        
-        // Récupérer l'ID généré pour les feedbacks
-        if (donnee instanceof modele.Feedback) {
-            ResultSet rs = prSt.getGeneratedKeys();
-            if (rs.next()) {
-                modele.Feedback feedback = (modele.Feedback) donnee;
-                feedback.setIdFeedback(rs.getInt(1));
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement prSt = conn.prepareStatement(req.requete(), Statement.RETURN_GENERATED_KEYS)) {
+            req.parametres(prSt, donnee);
+            int rowsAffected = prSt.executeUpdate();
+            
+            // Récupérer l'ID généré pour les feedbacks
+            if (donnee instanceof modele.Feedback) {
+                try (ResultSet rs = prSt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        modele.Feedback feedback = (modele.Feedback) donnee;
+                        feedback.setIdFeedback(rs.getInt(1));
+                    }
+                }
             }
-            rs.close();
+            
+            return rowsAffected;
         }
-        
-        prSt.close();
-        return rowsAffected;
     }
 }
\ No newline at end of file
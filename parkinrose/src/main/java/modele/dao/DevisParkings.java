@@ -0,0 +1,108 @@
+package modele.dao;
+
+import modele.Parking;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Devis calculés en lot pour une liste de parkings et un même créneau.
+ *
+ * Les résultats sont rangés dans des tableaux denses : l'indice i correspond
+ * au i-ème parking de la collection passée à TarifParkingDAO.calculerDevis().
+ */
+public class DevisParkings {
+
+    private final List<Parking> parkings;
+    private final double[] cout;
+    private final boolean[] gratuit;
+    private final boolean[] relais;
+    private final boolean[] proposeSoiree;
+    private final boolean[] soireeApplicable;
+
+    private Map<Parking, Integer> indices;
+
+    DevisParkings(List<Parking> parkings) {
+        int taille = parkings.size();
+        this.parkings = Collections.unmodifiableList(parkings);
+        this.cout = new double[taille];
+        this.gratuit = new boolean[taille];
+        this.relais = new boolean[taille];
+        this.proposeSoiree = new boolean[taille];
+        this.soireeApplicable = new boolean[taille];
+    }
+
+    void remplir(int i, double cout, boolean gratuit, boolean relais, boolean proposeSoiree, boolean soireeApplicable) {
+        this.cout[i] = cout;
+        this.gratuit[i] = gratuit;
+        this.relais[i] = relais;
+        this.proposeSoiree[i] = proposeSoiree;
+        this.soireeApplicable[i] = soireeApplicable;
+    }
+
+    public int taille() {
+        return cout.length;
+    }
+
+    public Parking getParking(int i) {
+        return parkings.get(i);
+    }
+
+    public double getCout(int i) {
+        return cout[i];
+    }
+
+    public boolean estGratuit(int i) {
+        return gratuit[i];
+    }
+
+    public boolean estRelais(int i) {
+        return relais[i];
+    }
+
+    /**
+     * Le parking propose le tarif soirée (quel que soit le créneau)
+     */
+    public boolean proposeTarifSoiree(int i) {
+        return proposeSoiree[i];
+    }
+
+    /**
+     * Le tarif soirée s'applique au créneau demandé
+     */
+    public boolean tarifSoireeApplicable(int i) {
+        return soireeApplicable[i];
+    }
+
+    /**
+     * Indice d'un parking du devis (-1 s'il n'en fait pas partie)
+     */
+    public synchronized int indice(Parking parking) {
+        if (indices == null) {
+            indices = new IdentityHashMap<>();
+            for (int i = 0; i < parkings.size(); i++) {
+                indices.put(parkings.get(i), i);
+            }
+        }
+        Integer i = indices.get(parking);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Coût d'un parking du devis (infini s'il n'en fait pas partie, pour le trier en dernier)
+     */
+    public double getCout(Parking parking) {
+        int i = indice(parking);
+        return i < 0 ? Double.POSITIVE_INFINITY : cout[i];
+    }
+
+    /**
+     * Comparateur par coût croissant, pour trier les parkings du devis
+     */
+    public Comparator<Parking> comparateurPrix() {
+        return Comparator.comparingDouble(this::getCout);
+    }
+}
@@ -0,0 +1,148 @@
+package modele.dao;
+
+import modele.Abonnement;
+import modele.Parking;
+import modele.Zone;
+
+import java.sql.SQLException;
+
+/**
+ * Données de référence partagées par les pages : parkings, zones et abonnements,
+ * gardés par identifiant (CacheReference) pour résoudre les libellés sans une
+ * requête par ligne d'historique.
+ *
+ * Les entrées expirent après DUREE_VIE_MS ; les DAO invalident en plus l'objet
+ * modifié à chaque création, modification ou suppression.
+ * Les places disponibles d'un parking gardé ici ne sont pas à jour :
+ * elles se lisent dans OccupationParkings.
+ */
+public class DonneesReference {
+
+    /** Durée de vie d'une entrée : 10 minutes */
+    public static final long DUREE_VIE_MS = 10 * 60 * 1000L;
+
+    private static DonneesReference instance;
+
+    private final CacheReference<Parking> parkings = new CacheReference<>(
+        id -> ParkingDAO.getInstance().findById(id), Parking::getIdParking, DUREE_VIE_MS);
+    private final CacheReference<Zone> zones = new CacheReference<>(
+        id -> ZoneDAO.getInstance().findById(id), Zone::getIdZone, DUREE_VIE_MS);
+    private final CacheReference<Abonnement> abonnements = new CacheReference<>(
+        id -> AbonnementDAO.getInstance().findById(id), Abonnement::getIdAbonnement, DUREE_VIE_MS);
+
+    // Singleton privé
+    private DonneesReference() {}
+
+    public static synchronized DonneesReference getInstance() {
+        if (instance == null) {
+            instance = new DonneesReference();
+        }
+        return instance;
+    }
+
+    /**
+     * Charge les trois tables en une requête chacune (avant d'afficher un long historique)
+     */
+    public void prechauffer() {
+        try {
+            parkings.prechauffer(() -> ParkingDAO.getInstance().findAll());
+            zones.prechauffer(() -> ZoneDAO.getInstance().findAll());
+            abonnements.prechauffer(() -> AbonnementDAO.getInstance().findAll());
+        } catch (SQLException e) {
+            System.err.println("Erreur préchargement des données de référence: " + e.getMessage());
+        }
+    }
+
+    // ==================== OBJETS ====================
+
+    public Parking getParking(String idParking) throws SQLException {
+        return parkings.get(idParking);
+    }
+
+    public Zone getZone(String idZone) throws SQLException {
+        return zones.get(idZone);
+    }
+
+    public Abonnement getAbonnement(String idAbonnement) throws SQLException {
+        return abonnements.get(idAbonnement);
+    }
+
+    // ==================== LIBELLÉS ====================
+
+    /**
+     * Libellé du parking, ou son identifiant s'il est inconnu
+     */
+    public String libelleParking(String idParking) {
+        try {
+            Parking parking = parkings.get(idParking);
+            return parking != null ? parking.getLibelleParking() : idParking;
+        } catch (SQLException e) {
+            System.err.println("Erreur récupération du parking " + idParking + ": " + e.getMessage());
+            return idParking;
+        }
+    }
+
+    /**
+     * Libellé de la zone, ou son identifiant si elle est inconnue
+     */
+    public String libelleZone(String idZone) {
+        try {
+            Zone zone = zones.get(idZone);
+            return zone != null ? zone.getLibelleZone() : idZone;
+        } catch (SQLException e) {
+            System.err.println("Erreur récupération de la zone " + idZone + ": " + e.getMessage());
+            return idZone;
+        }
+    }
+
+    /**
+     * Libellé de l'abonnement, ou son identifiant s'il est inconnu
+     */
+    public String libelleAbonnement(String idAbonnement) {
+        try {
+            Abonnement abonnement = abonnements.get(idAbonnement);
+            return abonnement != null ? abonnement.getLibelleAbonnement() : idAbonnement;
+        } catch (SQLException e) {
+            System.err.println("Erreur récupération de l'abonnement " + idAbonnement + ": " + e.getMessage());
+            return idAbonnement;
+        }
+    }
+
+    // ==================== INVALIDATION ====================
+
+    public void invaliderParking(String idParking) {
+        parkings.invalider(idParking);
+    }
+
+    public void invaliderZone(String idZone) {
+        zones.invalider(idZone);
+    }
+
+    public void invaliderAbonnement(String idAbonnement) {
+        abonnements.invalider(idAbonnement);
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    public CacheReference<Parking> getCacheParkings() {
+        return parkings;
+    }
+
+    public CacheReference<Zone> getCacheZones() {
+        return zones;
+    }
+
+    public CacheReference<Abonnement> getCacheAbonnements() {
+        return abonnements;
+    }
+
+    /**
+     * Résumé des succès et échecs des trois caches (journal, écran d'administration)
+     */
+    public String resumeStatistiques() {
+        return String.format("Données de référence - parkings %d/%d, zones %d/%d, abonnements %d/%d (succès/échecs)",
+            parkings.getSucces(), parkings.getEchecs(),
+            zones.getSucces(), zones.getEchecs(),
+            abonnements.getSucces(), abonnements.getEchecs());
+    }
+}
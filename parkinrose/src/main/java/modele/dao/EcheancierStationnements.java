@@ -0,0 +1,216 @@
+package modele.dao;
+
+import modele.Stationnement;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Échéancier des stationnements en voirie actifs.
+ *
+ * Chaque stationnement est inscrit une seule fois avec deux échéances : le rappel
+ * (10 minutes avant la fin) et l'expiration. Les échéances sont rangées dans la file
+ * de priorité d'un ScheduledThreadPoolExecutor : le thread ne se réveille qu'à l'échéance
+ * la plus proche, quel que soit le nombre de stationnements suivis.
+ *
+ * StationnementDAO inscrit chaque stationnement à sa création et le réinscrit à chaque
+ * prolongation ; une terminaison annule ses échéances. Au démarrage, chargerActifs()
+ * inscrit les stationnements ouverts depuis un autre poste ou avant un redémarrage.
+ */
+public class EcheancierStationnements {
+
+    /** Délai du rappel avant la fin du stationnement */
+    public static final int MINUTES_RAPPEL = 10;
+
+    private static EcheancierStationnements instance;
+
+    /**
+     * Reçoit les échéances, sur le thread de l'échéancier
+     */
+    public interface EcouteurEcheance {
+        void rappel(Stationnement stationnement, long minutesRestantes);
+        void expiration(Stationnement stationnement);
+    }
+
+    /**
+     * Échéances planifiées d'un stationnement
+     */
+    private static final class Echeances {
+        final Stationnement stationnement;
+        final LocalDateTime dateFin;
+        ScheduledFuture<?> rappel;
+        ScheduledFuture<?> expiration;
+
+        Echeances(Stationnement stationnement, LocalDateTime dateFin) {
+            this.stationnement = stationnement;
+            this.dateFin = dateFin;
+        }
+
+        void annuler() {
+            if (rappel != null) {
+                rappel.cancel(false);
+            }
+            if (expiration != null) {
+                expiration.cancel(false);
+            }
+        }
+    }
+
+    private final Map<Integer, Echeances> echeances = new HashMap<>();
+    private final List<EcouteurEcheance> ecouteurs = new CopyOnWriteArrayList<>();
+    private final ScheduledThreadPoolExecutor executeur;
+    private final AtomicBoolean actifsCharges = new AtomicBoolean();
+
+    // Singleton privé
+    private EcheancierStationnements() {
+        executeur = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "echeancier-stationnements");
+            t.setDaemon(true);
+            return t;
+        });
+        // Une échéance annulée sort tout de suite de la file
+        executeur.setRemoveOnCancelPolicy(true);
+    }
+
+    public static synchronized EcheancierStationnements getInstance() {
+        if (instance == null) {
+            instance = new EcheancierStationnements();
+        }
+        return instance;
+    }
+
+    public void addEcouteur(EcouteurEcheance ecouteur) {
+        if (!ecouteurs.contains(ecouteur)) {
+            ecouteurs.add(ecouteur);
+        }
+    }
+
+    public void removeEcouteur(EcouteurEcheance ecouteur) {
+        ecouteurs.remove(ecouteur);
+    }
+
+    /**
+     * Inscrit un stationnement en voirie actif. Sans effet s'il est déjà inscrit
+     * avec la même date de fin : les pages peuvent l'appeler à chaque affichage.
+     */
+    public synchronized void planifier(Stationnement stationnement) {
+        if (stationnement == null || !stationnement.estVoirie()
+            || !"ACTIF".equals(stationnement.getStatut()) || stationnement.getDateFin() == null) {
+            return;
+        }
+        Echeances existantes = echeances.get(stationnement.getIdStationnement());
+        if (existantes != null && existantes.dateFin.equals(stationnement.getDateFin())) {
+            return;
+        }
+        planifier(stationnement, stationnement.getDateFin());
+    }
+
+    /**
+     * Inscrit une seule fois, sur le thread de l'échéancier, tous les stationnements en voirie
+     * actifs en base (démarrage de l'application)
+     */
+    public void chargerActifs() {
+        if (!actifsCharges.compareAndSet(false, true)) {
+            return;
+        }
+        executeur.execute(() -> {
+            try {
+                for (Stationnement stationnement : StationnementDAO.getInstance().getStationnementsVoirieActifs()) {
+                    planifier(stationnement);
+                }
+            } catch (SQLException e) {
+                actifsCharges.set(false);
+                System.err.println("Erreur chargement des stationnements actifs: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Décale les échéances d'un stationnement prolongé
+     */
+    public synchronized void prolonger(int idStationnement, int dureeSupplementaireMinutes) {
+        Echeances existantes = echeances.get(idStationnement);
+        if (existantes != null) {
+            planifier(existantes.stationnement, existantes.dateFin.plusMinutes(dureeSupplementaireMinutes));
+        }
+    }
+
+    /**
+     * Retire un stationnement terminé
+     */
+    public synchronized void annuler(int idStationnement) {
+        Echeances existantes = echeances.remove(idStationnement);
+        if (existantes != null) {
+            existantes.annuler();
+        }
+    }
+
+    /**
+     * Nombre de stationnements suivis
+     */
+    public synchronized int taille() {
+        return echeances.size();
+    }
+
+    private void planifier(Stationnement stationnement, LocalDateTime dateFin) {
+        int id = stationnement.getIdStationnement();
+        Echeances anciennes = echeances.get(id);
+        if (anciennes != null) {
+            anciennes.annuler();
+        }
+
+        Echeances nouvelles = new Echeances(stationnement, dateFin);
+        long avantFin = Duration.between(LocalDateTime.now(), dateFin).toMillis();
+        long avantRappel = avantFin - TimeUnit.MINUTES.toMillis(MINUTES_RAPPEL);
+
+        // Rappel déjà dépassé mais stationnement en cours : le rappel part tout de suite
+        if (avantFin > 0) {
+            nouvelles.rappel = executeur.schedule(() -> declencherRappel(id, nouvelles),
+                                                  Math.max(0, avantRappel), TimeUnit.MILLISECONDS);
+        }
+        nouvelles.expiration = executeur.schedule(() -> declencherExpiration(id, nouvelles),
+                                                  Math.max(0, avantFin), TimeUnit.MILLISECONDS);
+        echeances.put(id, nouvelles);
+    }
+
+    private void declencherRappel(int id, Echeances prevues) {
+        synchronized (this) {
+            if (echeances.get(id) != prevues) {
+                return;
+            }
+        }
+        long minutesRestantes = Math.max(1, (Duration.between(LocalDateTime.now(), prevues.dateFin).toMillis()
+                                            + TimeUnit.MINUTES.toMillis(1) - 1) / TimeUnit.MINUTES.toMillis(1));
+        for (EcouteurEcheance ecouteur : ecouteurs) {
+            try {
+                ecouteur.rappel(prevues.stationnement, minutesRestantes);
+            } catch (Exception e) {
+                System.err.println("Erreur écouteur de rappel (stationnement " + id + "): " + e.getMessage());
+            }
+        }
+    }
+
+    private void declencherExpiration(int id, Echeances prevues) {
+        synchronized (this) {
+            if (!echeances.remove(id, prevues)) {
+                return;
+            }
+        }
+        for (EcouteurEcheance ecouteur : ecouteurs) {
+            try {
+                ecouteur.expiration(prevues.stationnement);
+            } catch (Exception e) {
+                System.err.println("Erreur écouteur d'expiration (stationnement " + id + "): " + e.getMessage());
+            }
+        }
+    }
+}
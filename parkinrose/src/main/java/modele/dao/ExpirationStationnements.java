@@ -0,0 +1,210 @@
+package modele.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passage en EXPIRE des stationnements actifs dont la date de fin est dépassée.
+ *
+ * Le balayage tourne sur son propre thread, jamais sur celui de l'interface.
+ * Il avance par lots bornés, du plus ancien au plus récent sur date_fin
+ * (index (statut, date_fin), créé par evolutions_bdd.sql) : chaque lot ne lit
+ * que les lignes à expirer au lieu de parcourir toute la table.
+ * Les places des stationnements en parking expirés sont libérées dans la transaction de leur lot,
+ * les stationnements expirés ajoutés aux cumuls mensuels de leur usager (CumulsUsagers).
+ */
+public class ExpirationStationnements {
+
+    public static final long PERIODE_SECONDES = 60;
+
+    /** Nombre maximal de stationnements expirés par lot */
+    private static final int TAILLE_LOT = 500;
+
+    /** Nombre maximal de lots par balayage, pour borner la durée d'un passage */
+    private static final int LOTS_PAR_BALAYAGE = 20;
+
+    private static final String SQL_A_EXPIRER =
+        "SELECT s.id_stationnement, s.id_parking, s.type_vehicule, s.date_fin, p.has_moto " +
+        "FROM Stationnement s LEFT JOIN Parking p ON s.id_parking = p.id_parking " +
+        "WHERE s.statut = 'ACTIF' AND s.date_fin < NOW() " +
+        "ORDER BY s.date_fin LIMIT ?";
+
+    private static final String SQL_EXPIRER =
+        "UPDATE Stationnement SET statut = 'EXPIRE' WHERE id_stationnement = ? AND statut = 'ACTIF'";
+
+    private static ExpirationStationnements instance;
+
+    /**
+     * Résultat d'un balayage
+     */
+    public static final class Bilan {
+        private final LocalDateTime instant;
+        private final int nombreExpires;
+        private final Duration retard;
+
+        Bilan(LocalDateTime instant, int nombreExpires, Duration retard) {
+            this.instant = instant;
+            this.nombreExpires = nombreExpires;
+            this.retard = retard;
+        }
+
+        public LocalDateTime getInstant() { return instant; }
+        public int getNombreExpires() { return nombreExpires; }
+
+        /** Écart entre la plus ancienne date de fin traitée et le balayage (zéro si rien à expirer) */
+        public Duration getRetard() { return retard; }
+    }
+
+    /**
+     * Stationnement lu dans un lot
+     */
+    private static final class AExpirer {
+        final int idStationnement;
+        final String idParking;
+        final boolean moto;
+
+        AExpirer(int idStationnement, String idParking, boolean moto) {
+            this.idStationnement = idStationnement;
+            this.idParking = idParking;
+            this.moto = moto;
+        }
+    }
+
+    private final ScheduledExecutorService balayeur;
+    private volatile Bilan dernierBilan;
+
+    // Singleton privé
+    private ExpirationStationnements() {
+        balayeur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "expiration-stationnements");
+            t.setDaemon(true);
+            return t;
+        });
+        balayeur.scheduleWithFixedDelay(() -> {
+            try {
+                balayer();
+            } catch (RuntimeException e) {
+                System.err.println("Erreur balayage des stationnements expirés: " + e.getMessage());
+            }
+        }, 0, PERIODE_SECONDES, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Démarre le service au premier appel
+     */
+    public static synchronized ExpirationStationnements getInstance() {
+        if (instance == null) {
+            instance = new ExpirationStationnements();
+        }
+        return instance;
+    }
+
+    /**
+     * Expire les stationnements échus, lot par lot, et renvoie le bilan du passage
+     */
+    public synchronized Bilan balayer() {
+        LocalDateTime debut = LocalDateTime.now();
+        LocalDateTime plusAncienneFin = null;
+        int total = 0;
+
+        try (Connection conn = MySQLConnection.getConnection()) {
+            for (int lot = 0; lot < LOTS_PAR_BALAYAGE; lot++) {
+                List<AExpirer> candidats = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_A_EXPIRER)) {
+                    stmt.setInt(1, TAILLE_LOT);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            if (plusAncienneFin == null) {
+                                Timestamp dateFin = rs.getTimestamp("date_fin");
+                                plusAncienneFin = dateFin.toLocalDateTime();
+                            }
+                            boolean moto = "Moto".equalsIgnoreCase(rs.getString("type_vehicule"))
+                                           && rs.getBoolean("has_moto");
+                            candidats.add(new AExpirer(rs.getInt("id_stationnement"),
+                                                       rs.getString("id_parking"), moto));
+                        }
+                    }
+                }
+                if (candidats.isEmpty()) {
+                    break;
+                }
+
+                total += expirer(conn, candidats);
+
+                if (candidats.size() < TAILLE_LOT) {
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur expiration des stationnements: " + e.getMessage());
+        }
+
+        Duration retard = plusAncienneFin == null ? Duration.ZERO : Duration.between(plusAncienneFin, debut);
+        dernierBilan = new Bilan(debut, total, retard);
+        return dernierBilan;
+    }
+
+    /**
+     * Expire un lot en une transaction, avec les cumuls mensuels des usagers et les places libérées ;
+     * seules les lignes encore actives (pas terminées entre-temps) libèrent leur place
+     */
+    private int expirer(Connection conn, List<AExpirer> candidats) throws SQLException {
+        CumulsUsagers cumuls = CumulsUsagers.getInstance();
+        List<AExpirer> expires = new ArrayList<>();
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_EXPIRER)) {
+            for (AExpirer s : candidats) {
+                stmt.setInt(1, s.idStationnement);
+                stmt.addBatch();
+            }
+            int[] resultats = stmt.executeBatch();
+            List<Integer> ids = new ArrayList<>();
+            List<String> parkings = new ArrayList<>();
+            List<Boolean> motos = new ArrayList<>();
+            for (int i = 0; i < candidats.size(); i++) {
+                if (resultats[i] > 0 || resultats[i] == PreparedStatement.SUCCESS_NO_INFO) {
+                    AExpirer s = candidats.get(i);
+                    expires.add(s);
+                    ids.add(s.idStationnement);
+                    if (s.idParking != null) {
+                        parkings.add(s.idParking);
+                        motos.add(s.moto);
+                    }
+                }
+            }
+            cumuls.ajouterStationnements(conn, ids);
+            ParkingDAO.getInstance().libererPlaces(conn, parkings, motos);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        OccupationParkings occupation = OccupationParkings.getInstance();
+        for (AExpirer s : expires) {
+            if (s.idParking != null) {
+                occupation.placeLiberee(s.idParking, s.moto);
+            }
+        }
+        return expires.size();
+    }
+
+    /**
+     * Bilan du dernier balayage, ou null avant le premier
+     */
+    public Bilan getDernierBilan() {
+        return dernierBilan;
+    }
+}
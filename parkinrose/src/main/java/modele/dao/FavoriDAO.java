@@ -7,14 +7,24 @@ import modele.dao.requetes.RequeteDeleteFavori;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-
-// DAO pour gérer les favoris des utilisateurs
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// DAO pour gérer les favoris des utilisateurs.
+// Les identifiants des parkings favoris sont gardés en mémoire par usager :
+// estFavori (un appel par ligne affichée) ne fait plus de requête.
+// Le cache est tenu à jour par ajouterFavori / supprimerFavori et vidé à la déconnexion (oublier).
 public class FavoriDAO extends DaoModele<Favori> {
 
     // Singleton instance
     private static FavoriDAO instance;
 
+    // Parkings favoris par usager (ensembles concurrents, chargés au premier besoin)
+    private final Map<Integer, Set<String>> favorisParUsager = new ConcurrentHashMap<>();
+
     private final RequeteCreerFavori reqCreate = new RequeteCreerFavori();
     private final RequeteDeleteFavori reqDelete = new RequeteDeleteFavori();
     
@@ -115,9 +125,15 @@ public class FavoriDAO extends DaoModele<Favori> {
     public boolean ajouterFavori(int idUsager, String idParking) {
         try {
             create(new Favori(idUsager, idParking));
+            Set<String> favoris = favorisParUsager.get(idUsager);
+            if (favoris != null) {
+                favoris.add(idParking);
+            }
             return true;
         } catch (SQLException e) {
             System.err.println("Erreur ajout favori: " + e.getMessage());
+            // État en base incertain : relu au prochain accès
+            favorisParUsager.remove(idUsager);
             return false;
         }
     }
@@ -129,9 +145,14 @@ public class FavoriDAO extends DaoModele<Favori> {
     public boolean supprimerFavori(int idUsager, String idParking) {
         try {
             delete(new Favori(idUsager, idParking));
+            Set<String> favoris = favorisParUsager.get(idUsager);
+            if (favoris != null) {
+                favoris.remove(idParking);
+            }
             return true;
         } catch (SQLException e) {
             System.err.println("Erreur suppression favori: " + e.getMessage());
+            favorisParUsager.remove(idUsager);
             return false;
         }
     }
@@ -142,7 +163,34 @@ public class FavoriDAO extends DaoModele<Favori> {
     
     
     public boolean estFavori(int idUsager, String idParking) throws SQLException {
-        return findById(String.valueOf(idUsager), idParking) != null;
+        return favoris(idUsager).contains(idParking);
+    }
+
+    /**
+     * Identifiants des parkings favoris de l'usager, lus une fois puis gardés en mémoire
+     */
+    public Set<String> getIdsFavoris(int idUsager) throws SQLException {
+        return Collections.unmodifiableSet(favoris(idUsager));
+    }
+
+    /**
+     * Oublie les favoris gardés en mémoire pour un usager (déconnexion)
+     */
+    public void oublier(int idUsager) {
+        favorisParUsager.remove(idUsager);
+    }
+
+    private Set<String> favoris(int idUsager) throws SQLException {
+        Set<String> favoris = favorisParUsager.get(idUsager);
+        if (favoris == null) {
+            favoris = ConcurrentHashMap.newKeySet();
+            favoris.addAll(getFavorisUtilisateur(idUsager));
+            Set<String> existant = favorisParUsager.putIfAbsent(idUsager, favoris);
+            if (existant != null) {
+                favoris = existant;
+            }
+        }
+        return favoris;
     }
 
     /**
@@ -169,21 +217,28 @@ public class FavoriDAO extends DaoModele<Favori> {
     }
     
     /**
-     * Récupérer les objets Parking des favoris d'un utilisateur
+     * Récupérer les objets Parking des favoris d'un utilisateur, en une seule requête (jointure)
      */
     
     public List<Parking> getParkingsFavoris(int idUsager) throws SQLException {
-        List<Parking> parkings = new ArrayList<>();
-        List<String> ids = getFavorisUtilisateur(idUsager);
+        String sql = "SELECT p.* FROM Favori f " +
+                    "JOIN Parking p ON p.id_parking = f.id_parking " +
+                    "WHERE f.id_usager = ? ORDER BY p.libelle_parking";
+        List<Parking> parkings;
 
-        ParkingDAO parkingDAO = ParkingDAO.getInstance();
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-        for (String idParking : ids) {
-            Parking p = parkingDAO.findById(idParking);
-            if (p != null) {
-                parkings.add(p);
-            }
+            stmt.setInt(1, idUsager);
+            parkings = ParkingDAO.getInstance().select(stmt);
+        }
+
+        // La liste complète vient d'être lue : elle remplace le cache de l'usager
+        Set<String> favoris = ConcurrentHashMap.newKeySet();
+        for (Parking p : parkings) {
+            favoris.add(p.getIdParking());
         }
+        favorisParUsager.put(idUsager, favoris);
         return parkings;
     }
 
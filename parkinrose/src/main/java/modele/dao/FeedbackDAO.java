@@ -7,12 +7,42 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * DAO des feedbacks (conversations usager / administrateur).
+ *
+ * L'état de lecture des réponses est tenu dans deux tables, créées par evolutions_bdd.sql
+ * et initialisées depuis les anciennes lignes sentinelles 'MESSAGE_LU' :
+ * <pre>
+ * CREATE TABLE Feedback_Lecture (        -- une ligne par conversation ayant une réponse
+ *     id_feedback INT PRIMARY KEY,       -- message parent de la conversation
+ *     id_usager   INT NOT NULL,
+ *     lu          BOOLEAN NOT NULL,
+ *     INDEX (id_usager, lu)
+ * )
+ * CREATE TABLE Feedback_Non_Lus (        -- compteur matérialisé par usager
+ *     id_usager INT PRIMARY KEY,
+ *     non_lus   INT NOT NULL DEFAULT 0   -- conversations avec une réponse non lue
+ * )
+ * </pre>
+ * Le compteur est incrémenté dans la transaction de la réponse (repondre, repondreFeedback) : savoir s'il y a
+ * des messages non lus est une lecture par clé primaire, tout marquer comme lu une seule requête.
+ */
 public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
 
+    private static final String SQL_SIGNALER_NON_LU =
+        "INSERT INTO Feedback_Non_Lus (id_usager, non_lus) VALUES (?, 1) " +
+        "ON DUPLICATE KEY UPDATE non_lus = non_lus + 1";
+
     private static FeedbackDAO instance;
 
     public static FeedbackDAO getInstance() {
@@ -133,9 +163,10 @@ public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
     public List<Feedback> findAllParent() throws SQLException {
         String sql = "SELECT * FROM Feedback WHERE id_feedback_parent IS NULL ORDER BY date_creation DESC";
         
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        return select(stmt);
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            return select(stmt);
+        }
     }
 
     public List<Feedback> findByStatut(String statut) throws SQLException {
@@ -148,6 +179,89 @@ public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
         return find(req, String.valueOf(idFeedbackParent));
     }
 
+    /**
+     * Charge une page de conversations en une seule requête : les messages parents
+     * (du plus récent au plus ancien) et toutes leurs réponses, rattachées en mémoire.
+     * 
+     * La pagination se fait par clé (date_creation, id_feedback) et non par OFFSET :
+     * la page suivante repart du dernier parent reçu, son coût ne dépend pas de l'historique.
+     * Parents et réponses sont lus par deux SELECT réunis (UNION ALL), chacun par son index
+     * (clé primaire, id_feedback_parent).
+     * 
+     * @param idUsager usager dont on charge les conversations, ou null pour toutes (administration)
+     * @param apres dernier parent de la page précédente, ou null pour la première page
+     * @param taille nombre maximal de conversations
+     */
+    public List<Feedback> findConversations(Integer idUsager, Feedback apres, int taille) throws SQLException {
+        StringBuilder page = new StringBuilder(
+            "SELECT id_feedback FROM Feedback WHERE id_feedback_parent IS NULL");
+        if (idUsager != null) {
+            page.append(" AND id_usager = ?");
+        }
+        if (apres != null) {
+            page.append(" AND (date_creation < ? OR (date_creation = ? AND id_feedback < ?))");
+        }
+        page.append(" ORDER BY date_creation DESC, id_feedback DESC LIMIT ?");
+        
+        String colonnes = "SELECT f.*, u.prenom_usager, u.nom_usager, u.mail_usager, " +
+                          "a.prenom_usager as prenom_admin, a.nom_usager as nom_admin " +
+                          "FROM (" + page + ") p ";
+        String jointures = "JOIN Usager u ON f.id_usager = u.id_usager " +
+                           "LEFT JOIN Usager a ON f.id_admin_reponse = a.id_usager " +
+                           "WHERE f.message IS NULL OR f.message <> 'MESSAGE_LU' ";
+        String sql = colonnes +
+                     "JOIN Feedback f ON f.id_feedback = p.id_feedback " + jointures +
+                     "UNION ALL " + colonnes +
+                     "JOIN Feedback f ON f.id_feedback_parent = p.id_feedback " + jointures +
+                     "ORDER BY date_creation ASC, id_feedback ASC";
+        
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            // Paramètres de la page, une fois par SELECT
+            int i = 1;
+            for (int select = 0; select < 2; select++) {
+                if (idUsager != null) {
+                    stmt.setInt(i++, idUsager);
+                }
+                if (apres != null) {
+                    Timestamp date = Timestamp.valueOf(apres.getDateCreation());
+                    stmt.setTimestamp(i++, date);
+                    stmt.setTimestamp(i++, date);
+                    stmt.setInt(i++, apres.getIdFeedback());
+                }
+                stmt.setInt(i++, taille);
+            }
+            
+            return assemblerConversations(select(stmt));
+        }
+    }
+    
+    /**
+     * Rattache chaque réponse à son parent ; les parents sont rendus du plus récent au plus ancien
+     */
+    private static List<Feedback> assemblerConversations(List<Feedback> lignes) {
+        Map<Integer, Feedback> parents = new LinkedHashMap<>();
+        List<Feedback> reponses = new ArrayList<>();
+        for (Feedback f : lignes) {
+            if (f.estUnMessageParent()) {
+                f.setReponses(new ArrayList<>());
+                parents.put(f.getIdFeedback(), f);
+            } else {
+                reponses.add(f);
+            }
+        }
+        // Lignes triées par date : les réponses restent dans l'ordre chronologique
+        for (Feedback r : reponses) {
+            Feedback parent = parents.get(r.getIdFeedbackParent());
+            if (parent != null) {
+                parent.getReponses().add(r);
+            }
+        }
+        List<Feedback> resultat = new ArrayList<>(parents.values());
+        Collections.reverse(resultat);
+        return resultat;
+    }
+
     public List<Feedback> findAllWithUserInfo() throws SQLException {
         RequeteSelectFeedbackWithUserInfo req = new RequeteSelectFeedbackWithUserInfo();
         return find(req);
@@ -165,6 +279,10 @@ public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
         return result > 0;
     }
 
+    /**
+     * Enregistre la réponse, passe la conversation en cours et la signale non lue à l'usager,
+     * dans une seule transaction
+     */
     public boolean repondre(int idFeedback, int idAdmin, String reponse) throws SQLException {
         Feedback reponseFeedback = new Feedback();
         reponseFeedback.setIdUsager(idAdmin);
@@ -174,139 +292,185 @@ public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
         reponseFeedback.setStatut("EN_COURS");
         reponseFeedback.setGotanswer(true);
         reponseFeedback.setIdAdminReponse(idAdmin);
-        
+
+        Feedback statut = new Feedback();
+        statut.setIdFeedback(idFeedback);
+        statut.setStatut("EN_COURS");
+        statut.setGotanswer(true);
+
         RequeteCreerReponseFeedback reqInsert = new RequeteCreerReponseFeedback();
-        int resultInsert = miseAJour(reqInsert, reponseFeedback);
-        
-        if (resultInsert > 0) {
-            return updateStatut(idFeedback, "EN_COURS", true);
+        RequeteUpdateStatutFeedback reqStatut = new RequeteUpdateStatutFeedback();
+
+        try (Connection conn = MySQLConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmtInsert = conn.prepareStatement(reqInsert.requete());
+                 PreparedStatement stmtStatut = conn.prepareStatement(reqStatut.requete())) {
+                reqInsert.parametres(stmtInsert, reponseFeedback);
+                reqStatut.parametres(stmtStatut, statut);
+
+                if (stmtInsert.executeUpdate() > 0 && stmtStatut.executeUpdate() > 0) {
+                    signalerReponseNonLue(conn, idFeedback);
+                    conn.commit();
+                    return true;
+                }
+                conn.rollback();
+                return false;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
-        
-        return false;
     }
 
     public int countNouveaux() throws SQLException {
         String sql = "SELECT COUNT(*) FROM Feedback WHERE statut = 'NOUVEAU' AND id_feedback_parent IS NULL";
         
-        Connection conn = MySQLConnection.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        ResultSet rs = stmt.executeQuery();
-        
-        int count = 0;
-        if (rs.next()) {
-            count = rs.getInt(1);
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            int count = 0;
+            if (rs.next()) {
+                count = rs.getInt(1);
+            }
+            return count;
         }
-        
-        rs.close();
-        stmt.close();
-        return count;
     }
     
     
-    public static boolean markMessagesAsRead(int idUsager) {
-        String sqlSelect = "SELECT f.id_feedback FROM Feedback f " +
-                          "WHERE f.id_usager = ? " +
-                          "AND f.id_feedback_parent IS NULL " +
-                          "AND f.gotanswer = true " +
-                          "AND NOT EXISTS ( " +
-                          "    SELECT 1 FROM Feedback vu " +
-                          "    WHERE vu.id_usager = ? " +
-                          "    AND vu.id_feedback_parent = f.id_feedback " +
-                          "    AND vu.message = 'MESSAGE_LU' " +
-                          ")";
-        
-        // Ajouter un sujet valide
-        String sqlInsert = "INSERT INTO Feedback (id_usager, sujet, message, date_creation, statut, gotanswer, id_feedback_parent) " +
-                          "VALUES (?, 'Message lu', 'MESSAGE_LU', NOW(), 'RESOLU', false, ?)";
-        
-        try (Connection conn = MySQLConnection.getConnection()) {
-            conn.setAutoCommit(false);
-            
-            try (PreparedStatement pstmtSelect = conn.prepareStatement(sqlSelect);
-                 PreparedStatement pstmtInsert = conn.prepareStatement(sqlInsert)) {
-                
-                pstmtSelect.setInt(1, idUsager);
-                pstmtSelect.setInt(2, idUsager);
-                
-                ResultSet rs = pstmtSelect.executeQuery();
-                boolean hasResults = false;
-                
-                while (rs.next()) {
-                    hasResults = true;
-                    int idFeedback = rs.getInt("id_feedback");
-                    
-                    pstmtInsert.setInt(1, idUsager);
-                    pstmtInsert.setInt(2, idFeedback);
-                    pstmtInsert.executeUpdate();
+    // ==================== ÉTAT DE LECTURE ====================
+
+    /**
+     * Passe une conversation en « non lue » dans la transaction de l'appelant.
+     * Le compteur de l'usager n'augmente que si la conversation était lue (ou nouvelle).
+     */
+    private static void signalerReponseNonLue(Connection conn, int idFeedback) throws SQLException {
+        String sqlEtat = "SELECT f.id_usager, l.lu FROM Feedback f " +
+                        "LEFT JOIN Feedback_Lecture l ON l.id_feedback = f.id_feedback " +
+                        "WHERE f.id_feedback = ? FOR UPDATE";
+        String sqlNonLu = "INSERT INTO Feedback_Lecture (id_feedback, id_usager, lu) VALUES (?, ?, FALSE) " +
+                         "ON DUPLICATE KEY UPDATE lu = FALSE";
+
+        int idUsager;
+        try (PreparedStatement stmt = conn.prepareStatement(sqlEtat)) {
+            stmt.setInt(1, idFeedback);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return;
                 }
-                
-                rs.close();
-                
-                if (hasResults) {
-                    conn.commit();
-                    return true;
+                idUsager = rs.getInt("id_usager");
+                boolean lu = rs.getBoolean("lu");
+                if (!rs.wasNull() && !lu) {
+                    return; // déjà comptée comme non lue
                 }
-                
-                conn.commit();
-                return false;
-                
-            } catch (SQLException e) {
-                conn.rollback();
-                e.printStackTrace();
-                return false;
             }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(sqlNonLu)) {
+            stmt.setInt(1, idFeedback);
+            stmt.setInt(2, idUsager);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_SIGNALER_NON_LU)) {
+            stmt.setInt(1, idUsager);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Marque toutes les conversations de l'usager comme lues, en une requête
+     */
+    public static boolean markMessagesAsRead(int idUsager) {
+        String sql = "UPDATE Feedback_Non_Lus n " +
+                    "LEFT JOIN Feedback_Lecture l ON l.id_usager = n.id_usager AND l.lu = FALSE " +
+                    "SET n.non_lus = 0, l.lu = TRUE " +
+                    "WHERE n.id_usager = ?";
+        
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, idUsager);
+            return pstmt.executeUpdate() > 0;
             
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
+
+    /**
+     * Marque une conversation comme lue et décrémente le compteur de son usager
+     */
     public static boolean markMessageAsRead(int idFeedback) {
-        String sql = "INSERT INTO Feedback (id_usager, sujet, message, date_creation, statut, gotanswer, id_feedback_parent) " +
-                    "SELECT id_usager, 'Lecture message', 'MESSAGE_LU', NOW(), 'RESOLU', false, ? " +
-                    "FROM Feedback WHERE id_feedback = ?";
+        try (Connection conn = MySQLConnection.getConnection()) {
+            return marquerLue(conn, idFeedback);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Marque une conversation comme lue dans la transaction de l'appelant
+     */
+    private static boolean marquerLue(Connection conn, int idFeedback) throws SQLException {
+        String sql = "UPDATE Feedback_Lecture l " +
+                    "JOIN Feedback_Non_Lus n ON n.id_usager = l.id_usager " +
+                    "SET l.lu = TRUE, n.non_lus = GREATEST(n.non_lus - 1, 0) " +
+                    "WHERE l.id_feedback = ? AND l.lu = FALSE";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idFeedback);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * L'usager a des réponses non lues (lecture du compteur par clé primaire)
+     */
+    public static boolean hasUnreadMessages(int idUsager) {
+        String sql = "SELECT non_lus FROM Feedback_Non_Lus WHERE id_usager = ?";
         
         try (Connection conn = MySQLConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setInt(1, idFeedback);
-            pstmt.setInt(2, idFeedback);
+            pstmt.setInt(1, idUsager);
             
-            return pstmt.executeUpdate() > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
+            }
             
         } catch (SQLException e) {
             e.printStackTrace();
-            return false;
         }
+        return false;
     }
-    public static boolean hasUnreadMessages(int idUsager) {
-        String sql = "SELECT COUNT(*) FROM Feedback f " +
-                    "WHERE f.id_usager = ? " +
-                    "AND f.id_feedback_parent IS NULL " +
-                    "AND f.gotanswer = true " +
-                    "AND f.statut != 'RESOLU' " + // Ajouter cette condition
-                    "AND NOT EXISTS ( " +
-                    "    SELECT 1 FROM Feedback vu " +
-                    "    WHERE vu.id_usager = ? " +
-                    "    AND vu.id_feedback_parent = f.id_feedback " +
-                    "    AND vu.message = 'MESSAGE_LU' " +
-                    ")";
+
+    /**
+     * Identifiants des conversations de l'usager dont une réponse n'a pas été lue
+     */
+    public static Set<Integer> getConversationsNonLues(int idUsager) {
+        Set<Integer> ids = new HashSet<>();
+        String sql = "SELECT id_feedback FROM Feedback_Lecture WHERE id_usager = ? AND lu = FALSE";
         
         try (Connection conn = MySQLConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, idUsager);
-            pstmt.setInt(2, idUsager);
             
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
             }
             
         } catch (SQLException e) {
-            e.printStackTrace();
+            System.err.println("Erreur récupération conversations non lues: " + e.getMessage());
         }
-        return false;
+        return ids;
     }
     
     public static boolean envoyerFeedback(int idUsager, String sujet, String message) {
@@ -329,6 +493,15 @@ public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
         }
     }
 
+    public static List<Feedback> getConversations(Integer idUsager, Feedback apres, int taille) {
+        try {
+            return getInstance().findConversations(idUsager, apres, taille);
+        } catch (SQLException e) {
+            System.err.println("Erreur récupération conversations: " + e.getMessage());
+            return null;
+        }
+    }
+
     public static List<Feedback> getAllFeedbacksWithInfo() {
         try {
             return getInstance().findAllWithUserInfo();
@@ -351,14 +524,30 @@ public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
         String sql = "UPDATE Feedback SET statut = ?, gotanswer = ? " +
                     "WHERE id_feedback = ?";
         
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, nouveauStatut);
-            pstmt.setBoolean(2, gotanswer);
-            pstmt.setInt(3, idFeedback);
+        try (Connection conn = MySQLConnection.getConnection()) {
+            conn.setAutoCommit(false);
             
-            return pstmt.executeUpdate() > 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, nouveauStatut);
+                pstmt.setBoolean(2, gotanswer);
+                pstmt.setInt(3, idFeedback);
+                
+                boolean modifie = pstmt.executeUpdate() > 0;
+                // Une conversation résolue ne compte plus comme non lue
+                if (modifie && "RESOLU".equals(nouveauStatut)) {
+                    marquerLue(conn, idFeedback);
+                }
+                conn.commit();
+                return modifie;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                e.printStackTrace();
+                return false;
+            } finally {
+                conn.setAutoCommit(true);
+            }
             
         } catch (SQLException e) {
             e.printStackTrace();
@@ -392,6 +581,7 @@ public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
                     int rowsUpdated = pstmtUpdate.executeUpdate();
                     
                     if (rowsUpdated > 0) {
+                        signalerReponseNonLue(conn, idFeedback);
                         conn.commit();
                         return true;
                     }
@@ -404,6 +594,8 @@ public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
                 conn.rollback();
                 e.printStackTrace();
                 return false;
+            } finally {
+                conn.setAutoCommit(true);
             }
             
         } catch (SQLException e) {
@@ -434,6 +626,7 @@ public class FeedbackDAO extends DaoModele<Feedback> implements Dao<Feedback> {
         try {
             Feedback feedback = getFeedbackById(idFeedback);
             if (feedback != null) {
+                markMessageAsRead(idFeedback);
                 getInstance().delete(feedback);
                 return true;
             }
@@ -0,0 +1,112 @@
+package modele.dao;
+
+import modele.Parking;
+import modele.Zone;
+
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Recherche plein texte des parkings (libellé et adresse) et des zones de voirie (libellé),
+ * sans requête SQL : deux index inversés en mémoire (IndexTexte).
+ *
+ * L'index des parkings est chargé une fois depuis la table Parking puis tenu à jour
+ * par ParkingDAO à chaque création, modification ou suppression.
+ * Les zones ne sont pas modifiables depuis l'application : elles sont chargées une fois.
+ */
+public class IndexRechercheParkings {
+
+    private static IndexRechercheParkings instance;
+
+    private static final Comparator<String> PAR_TEXTE =
+        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+
+    private final IndexTexte<Parking> parkings =
+        new IndexTexte<>(Comparator.comparing(Parking::getLibelleParking, PAR_TEXTE));
+    private final IndexTexte<Zone> zones =
+        new IndexTexte<>(Comparator.comparing(Zone::getLibelleZone, PAR_TEXTE));
+
+    private IndexRechercheParkings() {
+        recharger();
+    }
+
+    public static synchronized IndexRechercheParkings getInstance() {
+        if (instance == null) {
+            instance = new IndexRechercheParkings();
+        }
+        return instance;
+    }
+
+    /**
+     * Reconstruit les deux index depuis la base
+     */
+    public void recharger() {
+        try {
+            List<Parking> tous = ParkingDAO.getInstance().findAll();
+            parkings.vider();
+            for (Parking parking : tous) {
+                ajouterOuModifier(parking);
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur chargement de l'index de recherche des parkings: " + e.getMessage());
+        }
+        try {
+            List<Zone> toutes = ZoneDAO.getInstance().findAll();
+            zones.vider();
+            for (Zone zone : toutes) {
+                zones.indexer(zone.getIdZone(), zone, zone.getLibelleZone(), zone.getIdZone());
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur chargement de l'index de recherche des zones: " + e.getMessage());
+        }
+    }
+
+    // ==================== MISES À JOUR INCRÉMENTALES ====================
+
+    /**
+     * Indexe un parking, ou remplace sa version précédente
+     */
+    public void ajouterOuModifier(Parking parking) {
+        if (parking == null || parking.getIdParking() == null) {
+            return;
+        }
+        parkings.indexer(parking.getIdParking(), parking, parking.getLibelleParking(), parking.getAdresseParking());
+    }
+
+    /**
+     * Retire un parking supprimé
+     */
+    public void supprimer(String idParking) {
+        if (idParking != null) {
+            parkings.retirer(idParking);
+        }
+    }
+
+    // ==================== RECHERCHE ====================
+
+    /**
+     * Parkings correspondant au texte saisi, du plus pertinent au moins pertinent
+     */
+    public List<Parking> rechercherParkings(String terme, int limite) {
+        return parkings.rechercher(terme, limite);
+    }
+
+    /**
+     * Zones correspondant au texte saisi (libellé ou identifiant)
+     */
+    public List<Zone> rechercherZones(String terme, int limite) {
+        return zones.rechercher(terme, limite);
+    }
+
+    /**
+     * Mots des libellés et adresses commençant par le dernier mot saisi
+     */
+    public List<String> completer(String prefixe, int limite) {
+        return parkings.completer(prefixe, limite);
+    }
+
+    public int nombreParkings() {
+        return parkings.taille();
+    }
+}
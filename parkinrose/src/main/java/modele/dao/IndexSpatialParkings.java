@@ -0,0 +1,397 @@
+package modele.dao;
+
+import modele.Parking;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Index spatial des parkings en mémoire (arbre k-d).
+ *
+ * Chaque parking est projeté sur la sphère unité (x, y, z) : la distance de corde y est
+ * croissante avec la distance sur la surface, donc l'élagage de l'arbre est exact,
+ * et les distances renvoyées sont calculées par la formule de haversine.
+ * Les k plus proches voisins sont gardés dans un tas borné à k éléments.
+ *
+ * Convention des coordonnées du projet : positionX = longitude, positionY = latitude.
+ * L'index est mis à jour au fil des ajouts, déplacements et suppressions faits par
+ * l'administrateur ; il est reconstruit (équilibré) quand trop de nœuds sont supprimés.
+ */
+public class IndexSpatialParkings {
+
+    public static final double RAYON_TERRE_METRES = 6_371_000.0;
+
+    private static IndexSpatialParkings instance;
+
+    /**
+     * Nœud de l'arbre k-d (un parking)
+     */
+    private static final class Noeud {
+        final Parking parking;
+        final double x, y, z;
+        final int axe;
+        Noeud gauche, droite;
+        boolean supprime;
+
+        Noeud(Parking parking, double[] point, int axe) {
+            this.parking = parking;
+            this.x = point[0];
+            this.y = point[1];
+            this.z = point[2];
+            this.axe = axe;
+        }
+
+        double coordonnee(int a) {
+            return a == 0 ? x : (a == 1 ? y : z);
+        }
+    }
+
+    /**
+     * Candidat pendant une recherche (distance de corde au carré)
+     */
+    private static final class Candidat {
+        final Noeud noeud;
+        final double distance2;
+
+        Candidat(Noeud noeud, double distance2) {
+            this.noeud = noeud;
+            this.distance2 = distance2;
+        }
+    }
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Map<String, Noeud> noeudsParId = new HashMap<>();
+    private Noeud racine;
+    private int supprimes;
+
+    private IndexSpatialParkings() {
+        recharger();
+    }
+
+    public static synchronized IndexSpatialParkings getInstance() {
+        if (instance == null) {
+            instance = new IndexSpatialParkings();
+        }
+        return instance;
+    }
+
+    // ==================== CONSTRUCTION ====================
+
+    /**
+     * Reconstruit l'index depuis la table Parking
+     */
+    public void recharger() {
+        try {
+            reconstruire(ParkingDAO.getInstance().findAll());
+        } catch (SQLException e) {
+            System.err.println("Erreur chargement de l'index spatial des parkings: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reconstruit un arbre équilibré (médiane sur chaque axe) à partir des parkings donnés
+     */
+    public void reconstruire(List<Parking> parkings) {
+        List<Noeud> noeuds = new ArrayList<>();
+        for (Parking parking : parkings) {
+            double[] point = projeter(parking);
+            if (point != null) {
+                noeuds.add(new Noeud(parking, point, 0));
+            }
+        }
+
+        verrou.writeLock().lock();
+        try {
+            noeudsParId.clear();
+            racine = construire(noeuds, 0);
+            supprimes = 0;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private Noeud construire(List<Noeud> noeuds, int profondeur) {
+        if (noeuds.isEmpty()) {
+            return null;
+        }
+        int axe = profondeur % 3;
+        noeuds.sort((a, b) -> Double.compare(a.coordonnee(axe), b.coordonnee(axe)));
+        int milieu = noeuds.size() / 2;
+
+        Noeud median = noeuds.get(milieu);
+        Noeud noeud = new Noeud(median.parking, new double[] { median.x, median.y, median.z }, axe);
+        noeudsParId.put(noeud.parking.getIdParking(), noeud);
+        noeud.gauche = construire(new ArrayList<>(noeuds.subList(0, milieu)), profondeur + 1);
+        noeud.droite = construire(new ArrayList<>(noeuds.subList(milieu + 1, noeuds.size())), profondeur + 1);
+        return noeud;
+    }
+
+    // ==================== MISES À JOUR INCRÉMENTALES ====================
+
+    /**
+     * Ajoute un parking, ou le déplace s'il est déjà indexé
+     */
+    public void ajouterOuDeplacer(Parking parking) {
+        double[] point = projeter(parking);
+
+        verrou.writeLock().lock();
+        try {
+            retirer(parking.getIdParking());
+            if (point != null) {
+                inserer(parking, point);
+            }
+            reequilibrerSiNecessaire();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un parking de l'index
+     */
+    public void supprimer(String idParking) {
+        verrou.writeLock().lock();
+        try {
+            retirer(idParking);
+            reequilibrerSiNecessaire();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void retirer(String idParking) {
+        Noeud noeud = noeudsParId.remove(idParking);
+        if (noeud != null) {
+            // Suppression paresseuse : le nœud reste dans l'arbre pour ne pas le déséquilibrer
+            noeud.supprime = true;
+            supprimes++;
+        }
+    }
+
+    private void inserer(Parking parking, double[] point) {
+        if (racine == null) {
+            racine = new Noeud(parking, point, 0);
+            noeudsParId.put(parking.getIdParking(), racine);
+            return;
+        }
+        Noeud courant = racine;
+        while (true) {
+            boolean aGauche = point[courant.axe] < courant.coordonnee(courant.axe);
+            Noeud suivant = aGauche ? courant.gauche : courant.droite;
+            if (suivant == null) {
+                Noeud nouveau = new Noeud(parking, point, (courant.axe + 1) % 3);
+                if (aGauche) {
+                    courant.gauche = nouveau;
+                } else {
+                    courant.droite = nouveau;
+                }
+                noeudsParId.put(parking.getIdParking(), nouveau);
+                return;
+            }
+            courant = suivant;
+        }
+    }
+
+    private void reequilibrerSiNecessaire() {
+        if (supprimes > 16 && supprimes > noeudsParId.size()) {
+            List<Parking> actifs = new ArrayList<>();
+            for (Noeud noeud : noeudsParId.values()) {
+                actifs.add(noeud.parking);
+            }
+            List<Noeud> noeuds = new ArrayList<>();
+            for (Parking parking : actifs) {
+                noeuds.add(new Noeud(parking, projeter(parking), 0));
+            }
+            noeudsParId.clear();
+            racine = construire(noeuds, 0);
+            supprimes = 0;
+        }
+    }
+
+    // ==================== REQUÊTES ====================
+
+    /**
+     * Les k parkings les plus proches d'un point, triés du plus proche au plus éloigné
+     */
+    public List<Parking> plusProches(double latitude, double longitude, int k) {
+        return plusProches(latitude, longitude, k, null);
+    }
+
+    /**
+     * Les k parkings les plus proches d'un point qui vérifient le filtre (null : aucun filtre)
+     */
+    public List<Parking> plusProches(double latitude, double longitude, int k, Predicate<Parking> filtre) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        double[] cible = versSphere(latitude, longitude);
+        // Tas max borné : la tête est le plus éloigné des k meilleurs candidats
+        PriorityQueue<Candidat> tas = new PriorityQueue<>(k + 1,
+                (a, b) -> Double.compare(b.distance2, a.distance2));
+
+        verrou.readLock().lock();
+        try {
+            chercherPlusProches(racine, cible, k, filtre, tas);
+        } finally {
+            verrou.readLock().unlock();
+        }
+        return versListeTriee(tas);
+    }
+
+    private void chercherPlusProches(Noeud noeud, double[] cible, int k, Predicate<Parking> filtre,
+                                     PriorityQueue<Candidat> tas) {
+        if (noeud == null) {
+            return;
+        }
+        if (!noeud.supprime && (filtre == null || filtre.test(noeud.parking))) {
+            double d2 = distance2(noeud, cible);
+            if (tas.size() < k) {
+                tas.add(new Candidat(noeud, d2));
+            } else if (d2 < tas.peek().distance2) {
+                tas.poll();
+                tas.add(new Candidat(noeud, d2));
+            }
+        }
+
+        double ecart = cible[noeud.axe] - noeud.coordonnee(noeud.axe);
+        Noeud proche = ecart < 0 ? noeud.gauche : noeud.droite;
+        Noeud loin = ecart < 0 ? noeud.droite : noeud.gauche;
+
+        chercherPlusProches(proche, cible, k, filtre, tas);
+        // L'autre côté ne peut contenir mieux que si le plan de coupe est plus près que le pire candidat
+        if (tas.size() < k || ecart * ecart < tas.peek().distance2) {
+            chercherPlusProches(loin, cible, k, filtre, tas);
+        }
+    }
+
+    /**
+     * Les parkings à moins de rayonMetres d'un point, triés par distance
+     */
+    public List<Parking> dansRayon(double latitude, double longitude, double rayonMetres) {
+        double[] cible = versSphere(latitude, longitude);
+        double corde = 2 * Math.sin(Math.min(Math.PI, rayonMetres / RAYON_TERRE_METRES) / 2);
+        List<Candidat> trouves = new ArrayList<>();
+
+        verrou.readLock().lock();
+        try {
+            chercherDansRayon(racine, cible, corde * corde, trouves);
+        } finally {
+            verrou.readLock().unlock();
+        }
+
+        trouves.sort((a, b) -> Double.compare(a.distance2, b.distance2));
+        List<Parking> resultat = new ArrayList<>(trouves.size());
+        for (Candidat c : trouves) {
+            resultat.add(c.noeud.parking);
+        }
+        return resultat;
+    }
+
+    private void chercherDansRayon(Noeud noeud, double[] cible, double corde2, List<Candidat> trouves) {
+        if (noeud == null) {
+            return;
+        }
+        if (!noeud.supprime) {
+            double d2 = distance2(noeud, cible);
+            if (d2 <= corde2) {
+                trouves.add(new Candidat(noeud, d2));
+            }
+        }
+        double ecart = cible[noeud.axe] - noeud.coordonnee(noeud.axe);
+        if (ecart < 0 || ecart * ecart <= corde2) {
+            chercherDansRayon(noeud.gauche, cible, corde2, trouves);
+        }
+        if (ecart >= 0 || ecart * ecart <= corde2) {
+            chercherDansRayon(noeud.droite, cible, corde2, trouves);
+        }
+    }
+
+    /**
+     * Parking indexé par son identifiant (null s'il n'a pas de coordonnées)
+     */
+    public Parking getParking(String idParking) {
+        verrou.readLock().lock();
+        try {
+            Noeud noeud = noeudsParId.get(idParking);
+            return noeud == null ? null : noeud.parking;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return noeudsParId.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ==================== GÉOMÉTRIE ====================
+
+    /**
+     * Distance en mètres sur la surface terrestre (formule de haversine)
+     */
+    public static double distanceMetres(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                 + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                 * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * RAYON_TERRE_METRES * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Distance en mètres entre deux parkings (-1 si l'un n'a pas de coordonnées)
+     */
+    public static double distanceMetres(Parking p1, Parking p2) {
+        if (!aDesCoordonnees(p1) || !aDesCoordonnees(p2)) {
+            return -1;
+        }
+        return distanceMetres(p1.getPositionY(), p1.getPositionX(), p2.getPositionY(), p2.getPositionX());
+    }
+
+    static boolean aDesCoordonnees(Parking parking) {
+        Float x = parking.getPositionX();
+        Float y = parking.getPositionY();
+        return x != null && y != null && (x != 0.0f || y != 0.0f);
+    }
+
+    private static double[] projeter(Parking parking) {
+        if (!aDesCoordonnees(parking)) {
+            return null;
+        }
+        return versSphere(parking.getPositionY(), parking.getPositionX());
+    }
+
+    private static double[] versSphere(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lng = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[] { cosLat * Math.cos(lng), cosLat * Math.sin(lng), Math.sin(lat) };
+    }
+
+    private static double distance2(Noeud noeud, double[] cible) {
+        double dx = noeud.x - cible[0];
+        double dy = noeud.y - cible[1];
+        double dz = noeud.z - cible[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static List<Parking> versListeTriee(PriorityQueue<Candidat> tas) {
+        List<Parking> resultat = new ArrayList<>(tas.size());
+        while (!tas.isEmpty()) {
+            resultat.add(tas.poll().noeud.parking);
+        }
+        Collections.reverse(resultat);
+        return resultat;
+    }
+}
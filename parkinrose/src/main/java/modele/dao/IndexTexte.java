@@ -0,0 +1,319 @@
+package modele.dao;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire pour la recherche plein texte (libellés, adresses...).
+ *
+ * Les textes sont normalisés (minuscules, accents retirés : « Saint-Étienne » et
+ * « saint etienne » donnent les mêmes mots) puis découpés en mots. Chaque mot pointe vers
+ * les documents qui le contiennent. Les mots sont rangés dans un TreeMap : les mots
+ * commençant par un préfixe forment une plage contiguë.
+ *
+ * Un mot de la recherche correspond à un mot indexé identique, commençant par lui,
+ * ou à une faute de frappe près (distance d'édition 1, ou 2 pour les mots longs ;
+ * une inversion de deux lettres compte pour une faute).
+ * Tous les mots de la recherche doivent correspondre ; les documents sont classés
+ * par qualité de correspondance, les mots du premier texte (le libellé) comptant double.
+ *
+ * @param <T> type des documents indexés
+ */
+public class IndexTexte<T> {
+
+    /** Points par mot : identique, début de mot, faute de frappe */
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIXE = 2;
+    private static final int SCORE_APPROCHE = 1;
+
+    /** Longueur minimale d'un mot de la recherche pour tolérer une, puis deux fautes */
+    private static final int LONGUEUR_UNE_FAUTE = 4;
+    private static final int LONGUEUR_DEUX_FAUTES = 8;
+
+    /**
+     * Document indexé et ses mots (pour pouvoir le retirer)
+     */
+    private static final class Document<T> {
+        final T valeur;
+        final Map<String, Integer> poidsParMot;
+
+        Document(T valeur, Map<String, Integer> poidsParMot) {
+            this.valeur = valeur;
+            this.poidsParMot = poidsParMot;
+        }
+    }
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Map<String, Document<T>> documents = new HashMap<>();
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private final Comparator<T> ordreAEgalite;
+
+    /**
+     * @param ordreAEgalite ordre des documents de même score (ex : par libellé)
+     */
+    public IndexTexte(Comparator<T> ordreAEgalite) {
+        this.ordreAEgalite = ordreAEgalite;
+    }
+
+    // ==================== MISE À JOUR ====================
+
+    /**
+     * Ajoute ou remplace un document
+     *
+     * @param libelle texte principal, dont les mots comptent double
+     * @param autres textes secondaires (adresse...)
+     */
+    public void indexer(String id, T valeur, String libelle, String... autres) {
+        Map<String, Integer> poidsParMot = new HashMap<>();
+        for (String mot : mots(libelle)) {
+            poidsParMot.put(mot, 2);
+        }
+        for (String texte : autres) {
+            for (String mot : mots(texte)) {
+                poidsParMot.putIfAbsent(mot, 1);
+            }
+        }
+
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+            documents.put(id, new Document<>(valeur, poidsParMot));
+            for (Map.Entry<String, Integer> e : poidsParMot.entrySet()) {
+                postings.computeIfAbsent(e.getKey(), m -> new HashMap<>()).put(id, e.getValue());
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un document (sans effet s'il n'est pas indexé)
+     */
+    public void retirer(String id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide l'index
+     */
+    public void vider() {
+        verrou.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void retirerSansVerrou(String id) {
+        Document<T> ancien = documents.remove(id);
+        if (ancien == null) {
+            return;
+        }
+        for (String mot : ancien.poidsParMot.keySet()) {
+            Map<String, Integer> ids = postings.get(mot);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(mot);
+                }
+            }
+        }
+    }
+
+    // ==================== RECHERCHE ====================
+
+    /**
+     * Documents contenant tous les mots de la recherche, du plus pertinent au moins pertinent
+     *
+     * @param limite nombre maximal de résultats
+     * @return liste vide si la recherche ne contient aucun mot
+     */
+    public List<T> rechercher(String recherche, int limite) {
+        List<String> motsRecherche = mots(recherche);
+        if (motsRecherche.isEmpty() || limite <= 0) {
+            return new ArrayList<>();
+        }
+
+        verrou.readLock().lock();
+        try {
+            Map<String, Integer> scores = null;
+            for (String mot : motsRecherche) {
+                Map<String, Integer> correspondances = correspondances(mot);
+                if (scores == null) {
+                    scores = correspondances;
+                } else {
+                    // Intersection : le document doit contenir chaque mot
+                    Map<String, Integer> intersection = new HashMap<>();
+                    for (Map.Entry<String, Integer> e : scores.entrySet()) {
+                        Integer score = correspondances.get(e.getKey());
+                        if (score != null) {
+                            intersection.put(e.getKey(), e.getValue() + score);
+                        }
+                    }
+                    scores = intersection;
+                }
+                if (scores.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+
+            List<Map.Entry<String, Integer>> classes = new ArrayList<>(scores.entrySet());
+            classes.sort((a, b) -> {
+                int parScore = Integer.compare(b.getValue(), a.getValue());
+                return parScore != 0 ? parScore
+                     : ordreAEgalite.compare(documents.get(a.getKey()).valeur, documents.get(b.getKey()).valeur);
+            });
+
+            List<T> resultat = new ArrayList<>(Math.min(limite, classes.size()));
+            for (int i = 0; i < classes.size() && i < limite; i++) {
+                resultat.add(documents.get(classes.get(i).getKey()).valeur);
+            }
+            return resultat;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Meilleur score de chaque document pour un mot de la recherche
+     */
+    private Map<String, Integer> correspondances(String mot) {
+        Map<String, Integer> scores = new HashMap<>();
+
+        // Mots indexés commençant par le mot cherché (dont le mot lui-même)
+        for (Map.Entry<String, Map<String, Integer>> e
+                 : postings.subMap(mot, true, mot + Character.MAX_VALUE, false).entrySet()) {
+            int points = e.getKey().length() == mot.length() ? SCORE_EXACT : SCORE_PREFIXE;
+            ajouterScores(scores, e.getValue(), points);
+        }
+
+        int fautes = mot.length() >= LONGUEUR_DEUX_FAUTES ? 2 : mot.length() >= LONGUEUR_UNE_FAUTE ? 1 : 0;
+        if (fautes > 0) {
+            for (Map.Entry<String, Map<String, Integer>> e : postings.entrySet()) {
+                String indexe = e.getKey();
+                if (!indexe.startsWith(mot) && distanceAuPlus(mot, indexe, fautes)) {
+                    ajouterScores(scores, e.getValue(), SCORE_APPROCHE);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void ajouterScores(Map<String, Integer> scores, Map<String, Integer> poidsParId, int points) {
+        for (Map.Entry<String, Integer> p : poidsParId.entrySet()) {
+            scores.merge(p.getKey(), points * p.getValue(), Math::max);
+        }
+    }
+
+    /**
+     * Mots indexés commençant par le préfixe (saisie semi-automatique), par ordre alphabétique
+     */
+    public List<String> completer(String prefixe, int limite) {
+        List<String> motsPrefixe = mots(prefixe);
+        List<String> resultat = new ArrayList<>();
+        if (motsPrefixe.isEmpty()) {
+            return resultat;
+        }
+        String debut = motsPrefixe.get(motsPrefixe.size() - 1);
+        verrou.readLock().lock();
+        try {
+            for (String mot : postings.subMap(debut, true, debut + Character.MAX_VALUE, false).keySet()) {
+                if (resultat.size() >= limite) {
+                    break;
+                }
+                resultat.add(mot);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+        return resultat;
+    }
+
+    /**
+     * Nombre de documents indexés
+     */
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ==================== NORMALISATION ====================
+
+    /**
+     * Minuscules sans accents, tout ce qui n'est ni lettre ni chiffre remplacé par un espace
+     */
+    public static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String sansAccents = Normalizer.normalize(texte, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return sansAccents.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /**
+     * Mots normalisés d'un texte
+     */
+    public static List<String> mots(String texte) {
+        List<String> resultat = new ArrayList<>();
+        for (String mot : normaliser(texte).split(" ")) {
+            if (!mot.isEmpty()) {
+                resultat.add(mot);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Distance d'édition inférieure ou égale au maximum. Une inversion de deux lettres voisines
+     * compte pour une seule faute (« relias » pour « relais »). Abandon dès qu'une ligne dépasse le maximum.
+     */
+    static boolean distanceAuPlus(String a, String b, int maximum) {
+        if (Math.abs(a.length() - b.length()) > maximum) {
+            return false;
+        }
+        int[] avantPrecedente = new int[b.length() + 1];
+        int[] precedente = new int[b.length() + 1];
+        int[] courante = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            precedente[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            courante[0] = i;
+            int minimumLigne = courante[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cout = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                courante[j] = Math.min(Math.min(courante[j - 1] + 1, precedente[j] + 1), precedente[j - 1] + cout);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    courante[j] = Math.min(courante[j], avantPrecedente[j - 2] + 1);
+                }
+                minimumLigne = Math.min(minimumLigne, courante[j]);
+            }
+            if (minimumLigne > maximum) {
+                return false;
+            }
+            int[] echange = avantPrecedente;
+            avantPrecedente = precedente;
+            precedente = courante;
+            courante = echange;
+        }
+        return precedente[b.length()] <= maximum;
+    }
+}
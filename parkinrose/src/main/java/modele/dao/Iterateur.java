@@ -1,5 +1,6 @@
 package modele.dao;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Iterator;
@@ -8,12 +9,25 @@ import java.util.NoSuchElementException;
 public class Iterateur<T> implements Iterator<T> {
     private ResultSet rs;
     private DaoModele<T> dao;
+    private Connection conn;
     private boolean hasNext;
     
     public Iterateur(ResultSet rs, DaoModele<T> dao) throws SQLException {
+        this(rs, dao, null);
+    }
+    
+    /**
+     * Itérateur propriétaire de sa connexion : elle est rendue au pool
+     * dès que le curseur est épuisé ou que l'itérateur est fermé
+     */
+    public Iterateur(ResultSet rs, DaoModele<T> dao, Connection conn) throws SQLException {
         this.rs = rs;
         this.dao = dao;
+        this.conn = conn;
         this.hasNext = rs.next();
+        if (!hasNext) {
+            close();
+        }
     }
     
     @Override
@@ -30,7 +44,7 @@ public class Iterateur<T> implements Iterator<T> {
             T instance = dao.creerInstance(rs);
             hasNext = rs.next();
             if (!hasNext) {
-                rs.close();
+                close();
             }
             return instance;
         } catch (SQLException e) {
@@ -47,5 +61,8 @@ public class Iterateur<T> implements Iterator<T> {
         if (rs != null && !rs.isClosed()) {
             rs.close();
         }
+        if (conn != null && !conn.isClosed()) {
+            conn.close();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,338 @@
+package modele.dao;
+
+import modele.Paiement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal des paiements : écriture des paiements par lots (validation groupée).
+ *
+ * Les paiements soumis en même temps sont écrits ensemble : le thread d'écriture prend
+ * le premier en attente, attend les suivants au plus FENETRE_MS (TAILLE_LOT_MAX au plus),
+ * puis écrit le lot en une transaction, avec un seul INSERT de plusieurs lignes.
+ * Chaque paiement y est accompagné de ce qu'il règle (Ecriture : stationnement, abonnement)
+ * et de ses cumuls mensuels : le paiement et son effet sont validés ensemble ou pas du tout.
+ *
+ * L'id_paiement sert de clé d'idempotence : un paiement déjà au journal n'est ni réinséré
+ * ni réappliqué, il est seulement signalé comme tel. Un identifiant déjà au journal pour
+ * un autre usager ou un autre montant n'est pas une nouvelle soumission : ce paiement
+ * est en erreur. Le journal ne fait qu'ajouter des lignes.
+ * Si un lot échoue, ses paiements sont repris un par un : un paiement en erreur
+ * ne fait pas échouer les autres.
+ */
+public class JournalPaiements {
+
+    /** Attente maximale des paiements suivants avant d'écrire un lot */
+    public static final long FENETRE_MS = 5;
+
+    /** Nombre maximal de paiements par lot */
+    public static final int TAILLE_LOT_MAX = 100;
+
+    /** Nombre maximal de paiements en attente d'écriture */
+    private static final int CAPACITE_FILE = 1000;
+
+    /** Attente d'un premier paiement avant de vérifier la fermeture */
+    private static final long ATTENTE_MS = 200;
+
+    private static final String SQL_INSERER =
+        "INSERT INTO Paiement (id_paiement, nom_carte, numero_carte, code_secret_carte, " +
+        "id_abonnement, montant, id_usager, date_paiement, methode_paiement, statut) VALUES ";
+    private static final String VALEURS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Ce que règle un paiement, écrit sur la connexion et dans la transaction de son lot.
+     * N'est exécutée que pour un paiement qui entre au journal.
+     */
+    @FunctionalInterface
+    public interface Ecriture {
+        void executer(Connection conn, Paiement paiement) throws SQLException;
+
+        /** Après validation de la transaction (caches et compteurs en mémoire) */
+        default void apresValidation(Paiement paiement) {}
+    }
+
+    /** Paiement seul, sans autre écriture */
+    public static final Ecriture AUCUNE = (conn, paiement) -> {};
+
+    private static final class Demande {
+        private final Paiement paiement;
+        private final Ecriture ecriture;
+        private final CompletableFuture<Boolean> resultat = new CompletableFuture<>();
+
+        Demande(Paiement paiement, Ecriture ecriture) {
+            this.paiement = paiement;
+            this.ecriture = ecriture;
+        }
+    }
+
+    private static JournalPaiements instance;
+
+    private final BlockingQueue<Demande> file = new LinkedBlockingQueue<>(CAPACITE_FILE);
+    private final Thread ecrivain;
+    private volatile boolean ferme;
+
+    private final AtomicLong lotsEcrits = new AtomicLong();
+    private final AtomicLong paiementsEcrits = new AtomicLong();
+
+    // Singleton privé
+    private JournalPaiements() {
+        ecrivain = new Thread(this::ecrire, "journal-paiements");
+        ecrivain.setDaemon(true);
+        ecrivain.start();
+        // Les paiements en file sont écrits avant la fermeture du pool de connexions
+        MySQLConnection.avantFermeture(this::fermer);
+    }
+
+    public static synchronized JournalPaiements getInstance() {
+        if (instance == null) {
+            instance = new JournalPaiements();
+        }
+        return instance;
+    }
+
+    /**
+     * Soumet un paiement et ce qu'il règle au prochain lot
+     *
+     * @return true si le paiement vient d'entrer au journal, false s'il y était déjà
+     *         (même id_paiement) ; terminé en erreur si son écriture a échoué
+     */
+    public CompletableFuture<Boolean> enregistrer(Paiement paiement, Ecriture ecriture) {
+        Demande demande = new Demande(paiement, ecriture);
+        if (ferme || !file.offer(demande)) {
+            demande.resultat.completeExceptionally(
+                new RejectedExecutionException("Journal des paiements fermé ou saturé, veuillez réessayer"));
+        }
+        return demande.resultat;
+    }
+
+    public long getLotsEcrits() {
+        return lotsEcrits.get();
+    }
+
+    public long getPaiementsEcrits() {
+        return paiementsEcrits.get();
+    }
+
+    // ==================== ÉCRITURE PAR LOTS ====================
+
+    private void ecrire() {
+        List<Demande> lot = new ArrayList<>();
+        while (!ferme || !file.isEmpty()) {
+            try {
+                Demande premiere = file.poll(ATTENTE_MS, TimeUnit.MILLISECONDS);
+                if (premiere == null) {
+                    continue;
+                }
+                lot.add(premiere);
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FENETRE_MS);
+                while (lot.size() < TAILLE_LOT_MAX) {
+                    Demande suivante = file.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (suivante == null) {
+                        break;
+                    }
+                    lot.add(suivante);
+                }
+            } catch (InterruptedException e) {
+                ferme = true;
+                file.drainTo(lot);
+            }
+            if (!lot.isEmpty()) {
+                ecrireLot(lot);
+                lot.clear();
+            }
+        }
+    }
+
+    /**
+     * Écrit un lot ; s'il échoue, reprend ses paiements un par un
+     */
+    private void ecrireLot(List<Demande> lot) {
+        boolean[] nouveaux;
+        try {
+            nouveaux = ecrireTransaction(lot);
+        } catch (SQLException | RuntimeException e) {
+            if (lot.size() > 1) {
+                for (Demande demande : lot) {
+                    ecrireLot(Collections.singletonList(demande));
+                }
+            } else {
+                Demande demande = lot.get(0);
+                System.err.println("Erreur écriture du paiement " + demande.paiement.getIdPaiement() + ": " + e.getMessage());
+                demande.resultat.completeExceptionally(e);
+            }
+            return;
+        }
+
+        lotsEcrits.incrementAndGet();
+        for (int i = 0; i < lot.size(); i++) {
+            Demande demande = lot.get(i);
+            if (nouveaux[i]) {
+                paiementsEcrits.incrementAndGet();
+                try {
+                    demande.ecriture.apresValidation(demande.paiement);
+                } catch (RuntimeException e) {
+                    System.err.println("Erreur après l'écriture du paiement " + demande.paiement.getIdPaiement() + ": " + e.getMessage());
+                }
+            }
+            demande.resultat.complete(nouveaux[i]);
+        }
+    }
+
+    /**
+     * Une transaction par lot : paiements absents du journal, leurs cumuls, puis ce qu'ils règlent
+     *
+     * @return pour chaque demande, true si son paiement vient d'entrer au journal
+     */
+    private boolean[] ecrireTransaction(List<Demande> lot) throws SQLException {
+        try (Connection conn = MySQLConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Map<String, Paiement> presents = lirePresents(conn, lot);
+                boolean[] nouveaux = new boolean[lot.size()];
+                List<Paiement> aInserer = new ArrayList<>();
+                List<String> idsInseres = new ArrayList<>();
+                for (int i = 0; i < lot.size(); i++) {
+                    Paiement paiement = lot.get(i).paiement;
+                    // Déjà présent aussi pour un même id_paiement soumis deux fois dans le lot
+                    Paiement present = presents.putIfAbsent(paiement.getIdPaiement(), paiement);
+                    if (present != null && !memePaiement(present, paiement)) {
+                        throw new SQLException("Identifiant de paiement déjà utilisé par un autre paiement: "
+                                               + paiement.getIdPaiement());
+                    }
+                    nouveaux[i] = present == null;
+                    if (nouveaux[i]) {
+                        aInserer.add(paiement);
+                        idsInseres.add(paiement.getIdPaiement());
+                    }
+                }
+
+                inserer(conn, aInserer);
+                CumulsUsagers.getInstance().ajouterPaiements(conn, idsInseres);
+                for (int i = 0; i < lot.size(); i++) {
+                    if (nouveaux[i]) {
+                        lot.get(i).ecriture.executer(conn, lot.get(i).paiement);
+                    }
+                }
+
+                conn.commit();
+                return nouveaux;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Paiements du lot déjà au journal (identifiant, usager et montant), verrouillés jusqu'à la fin
+     * de la transaction (une autre instance de l'application ne peut pas les insérer entre-temps)
+     */
+    private Map<String, Paiement> lirePresents(Connection conn, List<Demande> lot) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+            "SELECT id_paiement, id_usager, montant FROM Paiement WHERE id_paiement IN (");
+        for (int i = 0; i < lot.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") FOR UPDATE");
+
+        Map<String, Paiement> presents = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < lot.size(); i++) {
+                stmt.setString(i + 1, lot.get(i).paiement.getIdPaiement());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Paiement present = new Paiement();
+                    present.setIdPaiement(rs.getString("id_paiement"));
+                    present.setIdUsager(rs.getInt("id_usager"));
+                    present.setMontant(rs.getDouble("montant"));
+                    presents.put(present.getIdPaiement(), present);
+                }
+            }
+        }
+        return presents;
+    }
+
+    /**
+     * Une nouvelle soumission du même paiement : même usager et même montant (au centime)
+     */
+    private static boolean memePaiement(Paiement present, Paiement soumis) {
+        return present.getIdUsager() == soumis.getIdUsager()
+            && Math.abs(present.getMontant() - soumis.getMontant()) < 0.005;
+    }
+
+    /**
+     * Un seul INSERT pour tous les paiements du lot
+     */
+    private void inserer(Connection conn, List<Paiement> paiements) throws SQLException {
+        if (paiements.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(SQL_INSERER);
+        for (int i = 0; i < paiements.size(); i++) {
+            sql.append(i == 0 ? VALEURS : ", " + VALEURS);
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int n = 0;
+            for (Paiement paiement : paiements) {
+                stmt.setString(++n, paiement.getIdPaiement());
+                stmt.setString(++n, paiement.getNomCarte());
+                stmt.setString(++n, paiement.getNumeroCarte());
+                stmt.setString(++n, paiement.getCodeSecretCarte());
+                if (paiement.getIdAbonnement() != null && !paiement.getIdAbonnement().isEmpty()) {
+                    stmt.setString(++n, paiement.getIdAbonnement());
+                } else {
+                    stmt.setNull(++n, Types.VARCHAR);
+                }
+                stmt.setDouble(++n, paiement.getMontant());
+                stmt.setInt(++n, paiement.getIdUsager());
+                // Date du paiement, pas celle de l'écriture : les cumuls sont comptés dans son mois
+                stmt.setTimestamp(++n, Timestamp.valueOf(paiement.getDatePaiement() != null
+                    ? paiement.getDatePaiement() : LocalDateTime.now()));
+                stmt.setString(++n, paiement.getMethodePaiement() != null ? paiement.getMethodePaiement() : "CARTE");
+                stmt.setString(++n, paiement.getStatut() != null ? paiement.getStatut() : "REUSSI");
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Écrit les paiements encore en file puis arrête le thread d'écriture
+     */
+    private void fermer() {
+        ferme = true;
+        try {
+            ecrivain.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ecrivain.isAlive()) {
+            System.err.println("Paiements encore en file à la fermeture: " + file.size());
+        }
+        synchronized (JournalPaiements.class) {
+            if (instance == this) {
+                instance = null; // recréé si le pool de connexions est rouvert
+            }
+        }
+    }
+}
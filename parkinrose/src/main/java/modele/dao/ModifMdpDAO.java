@@ -35,6 +35,7 @@ public class ModifMdpDAO {
             stmt.setString(2, email);
             
             int rowsUpdated = stmt.executeUpdate();
+            SessionUsager.invaliderUsager(email);
             return rowsUpdated > 0;
             
         } catch (SQLException e) {
@@ -0,0 +1,478 @@
+package modele.dao;
+
+import modele.Parking;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moteur de tarification des parkings.
+ *
+ * Les règles (tarif au quart d'heure, forfait 24h, tarif soirée, gratuité, relais)
+ * sont lues une seule fois depuis les tables Parking et Tarif_Parking, puis compilées
+ * dans une table immuable de tableaux primitifs indexés par parking.
+ * Un devis ne fait ensuite ni requête ni allocation.
+ *
+ * Table des tarifs (créée et remplie des tarifs d'origine par le script evolutions_bdd.sql) :
+ * <pre>
+ * CREATE TABLE Tarif_Parking (
+ *     id_parking        VARCHAR(50) PRIMARY KEY,
+ *     tarif_quart_heure DECIMAL(6,3) NOT NULL,
+ *     forfait_24h       DECIMAL(6,2) NULL,   -- NULL : 24 x tarif horaire
+ *     montant_soiree    DECIMAL(6,2) NULL,   -- NULL : 5.90
+ *     gratuit           BOOLEAN NOT NULL DEFAULT FALSE
+ * )
+ * </pre>
+ * Un parking absent de Tarif_Parking a le tarif par défaut (TARIF_QUART_HEURE_DEFAUT).
+ * La table est rechargée (remplacement atomique) quand l'administrateur modifie un parking ;
+ * un parking inconnu (créé depuis un autre poste) la fait recharger sur le thread du moteur.
+ */
+public class MoteurTarifs {
+
+    public static final double TARIF_QUART_HEURE_DEFAUT = 0.50; // 2€/h
+    public static final double MONTANT_SOIREE_DEFAUT = 5.90;
+
+    // Délai minimal entre deux rechargements déclenchés par un parking inconnu
+    private static final long DELAI_RECHARGEMENT_INCONNU_MS = 60_000;
+
+    private static final String SQL_CHARGER_PARKINGS =
+        "SELECT id_parking, tarif_soiree, est_relais FROM Parking";
+
+    private static final String SQL_CHARGER_TARIFS =
+        "SELECT id_parking, tarif_quart_heure, forfait_24h, montant_soiree, gratuit FROM Tarif_Parking";
+
+    private static final String SQL_ENREGISTRER_TARIF_HORAIRE =
+        "INSERT INTO Tarif_Parking (id_parking, tarif_quart_heure) VALUES (?, ?) " +
+        "ON DUPLICATE KEY UPDATE tarif_quart_heure = VALUES(tarif_quart_heure)";
+
+    // Une règle d'un parking ; un parking sans ligne la reçoit avec son tarif au quart d'heure courant
+    private static final String SQL_ENREGISTRER_FORFAIT_24H =
+        "INSERT INTO Tarif_Parking (id_parking, tarif_quart_heure, forfait_24h) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE forfait_24h = VALUES(forfait_24h)";
+
+    private static final String SQL_ENREGISTRER_MONTANT_SOIREE =
+        "INSERT INTO Tarif_Parking (id_parking, tarif_quart_heure, montant_soiree) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE montant_soiree = VALUES(montant_soiree)";
+
+    private static final String SQL_ENREGISTRER_GRATUIT =
+        "INSERT INTO Tarif_Parking (id_parking, tarif_quart_heure, gratuit) VALUES (?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE gratuit = VALUES(gratuit)";
+
+    private static MoteurTarifs instance;
+
+    private volatile TableTarifs table;
+    private volatile long dernierChargement;
+
+    private final ExecutorService service;
+    private final AtomicBoolean rechargementDemande = new AtomicBoolean();
+
+    private MoteurTarifs() {
+        recharger();
+
+        service = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "moteur-tarifs");
+            t.setDaemon(true);
+            return t;
+        });
+        MySQLConnection.avantFermeture(this::fermer);
+    }
+
+    public static synchronized MoteurTarifs getInstance() {
+        if (instance == null) {
+            instance = new MoteurTarifs();
+        }
+        return instance;
+    }
+
+    // ==================== TABLE COMPILÉE ====================
+
+    /**
+     * Règles compilées : un indice par parking, une colonne primitive par règle.
+     * Immuable, partagée sans verrou entre les threads.
+     */
+    static final class TableTarifs {
+        private final Map<String, Integer> indices;
+        final double[] tarifQuartHeure;
+        final double[] forfait24h;
+        final double[] montantSoiree;
+        final boolean[] gratuit;
+        final boolean[] relais;
+        final boolean[] soiree;
+
+        TableTarifs(Map<String, Integer> indices, int taille) {
+            this.indices = indices;
+            this.tarifQuartHeure = new double[taille];
+            this.forfait24h = new double[taille];
+            this.montantSoiree = new double[taille];
+            this.gratuit = new boolean[taille];
+            this.relais = new boolean[taille];
+            this.soiree = new boolean[taille];
+        }
+
+        int indice(String idParking) {
+            Integer i = idParking == null ? null : indices.get(idParking);
+            return i == null ? -1 : i;
+        }
+    }
+
+    /**
+     * Recharge et recompile les règles, puis remplace la table en une seule écriture
+     */
+    public synchronized void recharger() {
+        Map<String, Integer> indices = new HashMap<>();
+        Map<String, boolean[]> drapeaux = new HashMap<>();       // {tarif_soiree, est_relais}
+        Map<String, Object[]> tarifs = new HashMap<>();          // {quart, forfait, soiree, gratuit}
+
+        try (Connection conn = MySQLConnection.getConnection()) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(SQL_CHARGER_PARKINGS)) {
+                while (rs.next()) {
+                    drapeaux.put(rs.getString("id_parking"),
+                                 new boolean[] { rs.getBoolean("tarif_soiree"), rs.getBoolean("est_relais") });
+                }
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(SQL_CHARGER_TARIFS)) {
+                while (rs.next()) {
+                    tarifs.put(rs.getString("id_parking"), new Object[] {
+                        rs.getDouble("tarif_quart_heure"),
+                        rs.getObject("forfait_24h", Double.class),
+                        rs.getObject("montant_soiree", Double.class),
+                        rs.getBoolean("gratuit")
+                    });
+                }
+            } catch (SQLException e) {
+                // Table des tarifs indisponible : tarifs par défaut
+                System.err.println("Tarifs des parkings indisponibles: " + e.getMessage());
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur chargement des tarifs: " + e.getMessage());
+            if (table != null) {
+                return; // On garde la table précédente
+            }
+        }
+
+        for (String id : drapeaux.keySet()) indices.putIfAbsent(id, indices.size());
+        for (String id : tarifs.keySet()) indices.putIfAbsent(id, indices.size());
+
+        TableTarifs nouvelle = new TableTarifs(indices, indices.size());
+        Arrays.fill(nouvelle.tarifQuartHeure, TARIF_QUART_HEURE_DEFAUT);
+        Arrays.fill(nouvelle.montantSoiree, MONTANT_SOIREE_DEFAUT);
+
+        for (Map.Entry<String, boolean[]> e : drapeaux.entrySet()) {
+            int i = indices.get(e.getKey());
+            nouvelle.soiree[i] = e.getValue()[0];
+            nouvelle.relais[i] = e.getValue()[1];
+        }
+        for (Map.Entry<String, Object[]> e : tarifs.entrySet()) {
+            int i = indices.get(e.getKey());
+            Object[] t = e.getValue();
+            nouvelle.tarifQuartHeure[i] = (Double) t[0];
+            if (t[1] != null) nouvelle.forfait24h[i] = (Double) t[1];
+            if (t[2] != null) nouvelle.montantSoiree[i] = (Double) t[2];
+            nouvelle.gratuit[i] = (Boolean) t[3];
+        }
+        for (int i = 0; i < nouvelle.forfait24h.length; i++) {
+            if (nouvelle.forfait24h[i] == 0) {
+                nouvelle.forfait24h[i] = nouvelle.tarifQuartHeure[i] * 4 * 24;
+            }
+        }
+
+        table = nouvelle;
+        dernierChargement = System.currentTimeMillis();
+    }
+
+    /**
+     * Table compilée courante, pour ce parking.
+     * Un parking inconnu (créé depuis un autre poste) a le tarif par défaut et déclenche
+     * au plus un rechargement par minute, sur le thread du moteur, jamais sur celui de l'appelant
+     */
+    TableTarifs tablePour(String idParking) {
+        TableTarifs t = table;
+        if (idParking != null && t.indice(idParking) < 0
+                && System.currentTimeMillis() - dernierChargement > DELAI_RECHARGEMENT_INCONNU_MS) {
+            demanderRechargement();
+        }
+        return t;
+    }
+
+    private void demanderRechargement() {
+        if (rechargementDemande.compareAndSet(false, true)) {
+            try {
+                service.execute(() -> {
+                    rechargementDemande.set(false);
+                    recharger();
+                });
+            } catch (RejectedExecutionException e) {
+                rechargementDemande.set(false);
+            }
+        }
+    }
+
+    /**
+     * Arrête le thread de rechargement (fermeture du pool de connexions)
+     */
+    private void fermer() {
+        service.shutdownNow();
+        synchronized (MoteurTarifs.class) {
+            if (instance == this) {
+                instance = null; // recréé si le pool de connexions est rouvert
+            }
+        }
+    }
+
+    /**
+     * Table compilée courante (pour les calculs en lot)
+     */
+    TableTarifs getTable() {
+        return table;
+    }
+
+    // ==================== RÈGLES PAR PARKING ====================
+
+    public double getTarifQuartHeure(String idParking) {
+        TableTarifs t = tablePour(idParking);
+        int i = t.indice(idParking);
+        return i < 0 ? TARIF_QUART_HEURE_DEFAUT : t.tarifQuartHeure[i];
+    }
+
+    public double getTarifHoraire(String idParking) {
+        return getTarifQuartHeure(idParking) * 4; // 4 quarts d'heure = 1 heure
+    }
+
+    public boolean estGratuit(String idParking) {
+        TableTarifs t = tablePour(idParking);
+        int i = t.indice(idParking);
+        return i >= 0 && t.gratuit[i];
+    }
+
+    public boolean estRelais(String idParking) {
+        TableTarifs t = tablePour(idParking);
+        int i = t.indice(idParking);
+        return i >= 0 && t.relais[i];
+    }
+
+    public boolean proposeTarifSoiree(String idParking) {
+        TableTarifs t = tablePour(idParking);
+        int i = t.indice(idParking);
+        return i >= 0 && t.soiree[i];
+    }
+
+    /**
+     * Montant du tarif soirée du parking (MONTANT_SOIREE_DEFAUT s'il n'est pas personnalisé)
+     */
+    public double getMontantSoiree(String idParking) {
+        TableTarifs t = tablePour(idParking);
+        int i = t.indice(idParking);
+        return i < 0 ? MONTANT_SOIREE_DEFAUT : t.montantSoiree[i];
+    }
+
+    public boolean tarifSoireeApplicable(LocalDateTime heureArrivee, LocalDateTime heureDepart, String idParking) {
+        return proposeTarifSoiree(idParking) && plageSoiree(heureArrivee, heureDepart);
+    }
+
+    /**
+     * Calcule le coût du stationnement (sans requête ni allocation pour un parking connu)
+     */
+    public double calculerCout(LocalDateTime heureArrivee, LocalDateTime heureDepart, String idParking) {
+        TableTarifs t = tablePour(idParking);
+        int i = t.indice(idParking);
+        if (i < 0) {
+            return coutAuQuartHeure(minutesEntre(heureArrivee, heureDepart),
+                                    TARIF_QUART_HEURE_DEFAUT, TARIF_QUART_HEURE_DEFAUT * 4 * 24);
+        }
+        return calculerCout(t, i, heureArrivee, heureDepart);
+    }
+
+    /**
+     * Calcule le coût pour l'indice i d'une table compilée
+     */
+    static double calculerCout(TableTarifs t, int i, LocalDateTime heureArrivee, LocalDateTime heureDepart) {
+        if (t.gratuit[i] || t.relais[i]) {
+            return 0.00;
+        }
+        if (t.soiree[i] && plageSoiree(heureArrivee, heureDepart)) {
+            return t.montantSoiree[i];
+        }
+        return coutAuQuartHeure(minutesEntre(heureArrivee, heureDepart), t.tarifQuartHeure[i], t.forfait24h[i]);
+    }
+
+    /**
+     * Calcule en une passe le devis de tous les parkings pour un même créneau.
+     * Aucune requête si tous les parkings sont connus, un seul rechargement sinon.
+     */
+    public DevisParkings calculerDevis(Collection<Parking> parkings, LocalDateTime heureArrivee, LocalDateTime heureDepart) {
+        List<Parking> liste = new ArrayList<>(parkings);
+        DevisParkings devis = new DevisParkings(liste);
+
+        TableTarifs t = table;
+        for (Parking parking : liste) {
+            if (t.indice(parking.getIdParking()) < 0) {
+                t = tablePour(parking.getIdParking());
+                break;
+            }
+        }
+
+        // Calculs communs au créneau, faits une seule fois
+        boolean plage = plageSoiree(heureArrivee, heureDepart);
+        long minutes = minutesEntre(heureArrivee, heureDepart);
+
+        for (int n = 0; n < liste.size(); n++) {
+            int i = t.indice(liste.get(n).getIdParking());
+            if (i < 0) {
+                devis.remplir(n, coutAuQuartHeure(minutes, TARIF_QUART_HEURE_DEFAUT, TARIF_QUART_HEURE_DEFAUT * 4 * 24),
+                              false, false, false, false);
+                continue;
+            }
+            boolean gratuit = t.gratuit[i];
+            boolean relais = t.relais[i];
+            boolean soiree = t.soiree[i];
+            double cout;
+            if (gratuit || relais) {
+                cout = 0.00;
+            } else if (soiree && plage) {
+                cout = t.montantSoiree[i];
+            } else {
+                cout = coutAuQuartHeure(minutes, t.tarifQuartHeure[i], t.forfait24h[i]);
+            }
+            devis.remplir(n, cout, gratuit, relais, soiree, soiree && plage);
+        }
+        return devis;
+    }
+
+    // ==================== CALCULS PRIMITIFS ====================
+
+    /**
+     * Tarification au quart d'heure (minimum 15 minutes), plafonnée au forfait sur 24h
+     */
+    static double coutAuQuartHeure(long dureeMinutes, double tarifQuartHeure, double forfait24h) {
+        if (dureeMinutes < 15) {
+            dureeMinutes = 15;
+        }
+        long nombreQuarts = (dureeMinutes + 14) / 15;
+        double cout = nombreQuarts * tarifQuartHeure;
+
+        if (cout > forfait24h && dureeMinutes <= (24 * 60)) {
+            cout = forfait24h;
+        }
+        return cout;
+    }
+
+    /**
+     * Minutes entières entre deux dates (même arrondi que ChronoUnit.MINUTES.between)
+     */
+    static long minutesEntre(LocalDateTime debut, LocalDateTime fin) {
+        long secondes = fin.toEpochSecond(ZoneOffset.UTC) - debut.toEpochSecond(ZoneOffset.UTC);
+        int nanos = fin.getNano() - debut.getNano();
+        if (secondes > 0 && nanos < 0) {
+            secondes--;
+        } else if (secondes < 0 && nanos > 0) {
+            secondes++;
+        }
+        return secondes / 60;
+    }
+
+    /**
+     * Conditions du tarif soirée : arrivée entre 19h30 et minuit, départ avant 3h le lendemain,
+     * durée maximale de 8 heures
+     */
+    static boolean plageSoiree(LocalDateTime heureArrivee, LocalDateTime heureDepart) {
+        if (minutesEntre(heureArrivee, heureDepart) > 480) {
+            return false;
+        }
+
+        int heureArriveeH = heureArrivee.getHour();
+        int minuteArrivee = heureArrivee.getMinute();
+        long jourArrivee = heureArrivee.toLocalDate().toEpochDay();
+        long jourDepart = heureDepart.toLocalDate().toEpochDay();
+
+        boolean arriveeValide = (heureArriveeH == 19 && minuteArrivee >= 30)
+            || (heureArriveeH >= 20 && heureArriveeH <= 23)
+            || (heureArriveeH == 0 && minuteArrivee == 0 && jourArrivee == jourDepart);
+        if (!arriveeValide) {
+            return false;
+        }
+
+        if (jourArrivee == jourDepart) {
+            return true; // Départ avant minuit
+        }
+        if (jourDepart == jourArrivee + 1) {
+            int heureDepartH = heureDepart.getHour();
+            return heureDepartH < 3 || (heureDepartH == 3 && heureDepart.getMinute() == 0);
+        }
+        return false;
+    }
+
+    // ==================== ADMINISTRATION ====================
+
+    /**
+     * Enregistre le tarif horaire d'un parking puis recompile les règles
+     */
+    public void enregistrerTarifHoraire(String idParking, double tarifHoraire) throws SQLException {
+        try (Connection conn = MySQLConnection.getConnection()) {
+            ecrireTarifHoraire(conn, idParking, tarifHoraire);
+        }
+        recharger();
+    }
+
+    /**
+     * Enregistre le forfait 24h d'un parking (null : 24 x tarif horaire) puis recompile les règles
+     */
+    public void enregistrerForfait24h(String idParking, Double forfait24h) throws SQLException {
+        enregistrerRegle(SQL_ENREGISTRER_FORFAIT_24H, idParking, forfait24h, Types.DECIMAL);
+    }
+
+    /**
+     * Enregistre le montant du tarif soirée d'un parking (null : MONTANT_SOIREE_DEFAUT)
+     * puis recompile les règles
+     */
+    public void enregistrerMontantSoiree(String idParking, Double montantSoiree) throws SQLException {
+        enregistrerRegle(SQL_ENREGISTRER_MONTANT_SOIREE, idParking, montantSoiree, Types.DECIMAL);
+    }
+
+    /**
+     * Rend un parking gratuit ou payant puis recompile les règles
+     */
+    public void enregistrerGratuit(String idParking, boolean gratuit) throws SQLException {
+        enregistrerRegle(SQL_ENREGISTRER_GRATUIT, idParking, gratuit, Types.BOOLEAN);
+    }
+
+    private void enregistrerRegle(String sql, String idParking, Object valeur, int typeSql) throws SQLException {
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, idParking);
+            stmt.setDouble(2, getTarifQuartHeure(idParking));
+            stmt.setObject(3, valeur, typeSql);
+            stmt.executeUpdate();
+        }
+        recharger();
+    }
+
+    /**
+     * Écrit le tarif horaire d'un parking sur la connexion de l'appelant, dans sa transaction ;
+     * les règles sont à recompiler (recharger) une fois la transaction validée
+     */
+    void ecrireTarifHoraire(Connection conn, String idParking, double tarifHoraire) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_ENREGISTRER_TARIF_HORAIRE)) {
+            stmt.setString(1, idParking);
+            stmt.setDouble(2, tarifHoraire / 4);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -6,7 +6,9 @@ import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class MySQLConnection {
     private static String HOST;
@@ -15,6 +17,19 @@ public class MySQLConnection {
     private static String USER;
     private static String PASSWORD;
     
+    // Paramètres du pool (surchargeables dans db.properties)
+    private static int POOL_TAILLE_MAX;
+    private static long POOL_ATTENTE_MAX_MS;
+    private static long POOL_INACTIVITE_MAX_MS;
+    private static long POOL_DUREE_VIE_MAX_MS;
+    private static int POOL_VALIDATION_TIMEOUT_S;
+    private static int POOL_CACHE_REQUETES;
+    
+    private static volatile PoolConnexions pool;
+    
+    // Tâches à exécuter avant la fermeture du pool (écritures différées)
+    private static final List<Runnable> tachesAvantFermeture = new CopyOnWriteArrayList<>();
+    
     static {
         loadDatabaseConfig();
     }
@@ -42,6 +57,13 @@ public class MySQLConnection {
             USER = props.getProperty("db.user");
             PASSWORD = props.getProperty("db.password");
             
+            POOL_TAILLE_MAX = Integer.parseInt(props.getProperty("db.pool.tailleMax", "10"));
+            POOL_ATTENTE_MAX_MS = Long.parseLong(props.getProperty("db.pool.attenteMaxMs", "5000"));
+            POOL_INACTIVITE_MAX_MS = Long.parseLong(props.getProperty("db.pool.inactiviteMaxMs", "600000"));
+            POOL_DUREE_VIE_MAX_MS = Long.parseLong(props.getProperty("db.pool.dureeVieMaxMs", "1800000"));
+            POOL_VALIDATION_TIMEOUT_S = Integer.parseInt(props.getProperty("db.pool.validationTimeoutSecondes", "2"));
+            POOL_CACHE_REQUETES = Integer.parseInt(props.getProperty("db.pool.cacheRequetes", "64"));
+            
         } catch (IOException e) {
             System.err.println("Erreur lors du chargement du fichier de configuration : " + e.getMessage());
             System.err.println("Veuillez créer un fichier db.properties à partir du template db.properties.template");
@@ -49,7 +71,72 @@ public class MySQLConnection {
         }
     }
     
+    /**
+     * Emprunte une connexion au pool.
+     * La connexion doit être fermée (try-with-resources) pour être rendue au pool.
+     */
     public static Connection getConnection() throws SQLException {
+        return getPool().emprunter();
+    }
+    
+    /**
+     * Statistiques du pool (actives, inactives, en attente, latence d'emprunt)
+     */
+    public static StatistiquesPool getStatistiquesPool() {
+        return getPool().getStatistiques();
+    }
+    
+    /**
+     * Enregistre une tâche exécutée avant la fermeture du pool
+     * (par exemple pour écrire des données encore en mémoire)
+     */
+    public static void avantFermeture(Runnable tache) {
+        tachesAvantFermeture.add(tache);
+    }
+    
+    /**
+     * Ferme le pool et toutes ses connexions inactives
+     */
+    public static synchronized void fermerPool() {
+        if (pool != null) {
+            for (Runnable tache : tachesAvantFermeture) {
+                try {
+                    tache.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Erreur avant fermeture du pool: " + e.getMessage());
+                }
+            }
+            pool.fermer();
+            pool = null;
+        }
+    }
+    
+    private static PoolConnexions getPool() {
+        // Lecture sans verrou : fermerPool() peut exécuter des tâches qui empruntent une connexion
+        PoolConnexions courant = pool;
+        return courant != null ? courant : creerPoolSiAbsent();
+    }
+    
+    private static synchronized PoolConnexions creerPoolSiAbsent() {
+        if (pool == null) {
+            pool = new PoolConnexions(
+                MySQLConnection::ouvrirConnexionPhysique,
+                POOL_TAILLE_MAX,
+                POOL_ATTENTE_MAX_MS,
+                POOL_INACTIVITE_MAX_MS,
+                POOL_DUREE_VIE_MAX_MS,
+                POOL_VALIDATION_TIMEOUT_S,
+                POOL_CACHE_REQUETES
+            );
+            Runtime.getRuntime().addShutdownHook(new Thread(MySQLConnection::fermerPool, "pool-connexions-arret"));
+        }
+        return pool;
+    }
+    
+    /**
+     * Ouvre une nouvelle connexion physique (utilisé uniquement par le pool)
+     */
+    private static Connection ouvrirConnexionPhysique() throws SQLException {
         try {
             // Pour MySQL 8.0+
             Class.forName("com.mysql.cj.jdbc.Driver");
@@ -64,7 +151,10 @@ public class MySQLConnection {
         
         // Construction de l'URL de connexion
         String URL = "jdbc:mysql://" + HOST + ":" + PORT + "/" + DATABASE;
-        String connectionURL = URL + "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
+        // useServerPrepStmts : les requêtes sont préparées côté serveur, une seule fois par statement en cache
+        // rewriteBatchedStatements : un executeBatch() part en un seul aller-retour
+        String connectionURL = URL + "?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true" +
+                               "&useServerPrepStmts=true&rewriteBatchedStatements=true";
         
         return DriverManager.getConnection(connectionURL, USER, PASSWORD);
     }
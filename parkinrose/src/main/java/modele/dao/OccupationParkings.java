@@ -0,0 +1,252 @@
+package modele.dao;
+
+import modele.Parking;
+import utils.BusEvenements;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Occupation en temps réel des parkings, tenue en mémoire.
+ *
+ * Les places libres (voiture et moto) de chaque parking sont gardées dans des compteurs
+ * atomiques : l'affichage ne refait plus de SELECT. La table Parking fait foi, les compteurs
+ * n'en sont qu'un cache : réservations et libérations sont écrites en base dans la transaction
+ * du stationnement (StationnementDAO), puis reflétées ici une fois validées.
+ *
+ * Chaque ligne lue par ParkingDAO met à jour le compteur de son parking : les pages
+ * qui lisent la table et celles qui lisent les compteurs affichent les mêmes places.
+ * Le chargement initial et les modifications faites depuis un autre poste passent par une
+ * resynchronisation périodique, sur le thread du service : aucune connexion n'est empruntée
+ * sur le thread de l'appelant. Le service est démarré dès l'ouverture de la page principale. Chaque changement des places libres d'un parking
+ * est publié sur le BusEvenements (PlacesParkingModifiees).
+ */
+public class OccupationParkings {
+
+    private static final long INTERVALLE_RESYNCHRONISATION_MS = 60000;
+
+    private static final String SQL_OCCUPATION =
+        "SELECT id_parking, nombre_places, places_disponibles, has_moto, places_moto, " +
+        "places_moto_disponibles FROM Parking";
+
+    private static OccupationParkings instance;
+
+    /**
+     * Compteurs d'un parking
+     */
+    private static class Compteur {
+        final AtomicInteger places = new AtomicInteger();
+        final AtomicInteger placesMoto = new AtomicInteger();
+        volatile int capacite;
+        volatile int capaciteMoto;
+
+        /**
+         * @return true si les places libres ont changé
+         */
+        boolean initialiser(int nombrePlaces, int placesDisponibles, boolean moto,
+                            int nombrePlacesMoto, int placesMotoDisponibles) {
+            capacite = nombrePlaces;
+            capaciteMoto = moto ? nombrePlacesMoto : 0;
+            int motoDisponibles = moto ? placesMotoDisponibles : 0;
+            boolean modifie = places.getAndSet(placesDisponibles) != placesDisponibles;
+            return placesMoto.getAndSet(motoDisponibles) != motoDisponibles || modifie;
+        }
+    }
+
+    private final Map<String, Compteur> compteurs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService service;
+    private final AtomicBoolean resynchronisationDemandee = new AtomicBoolean();
+
+    private OccupationParkings() {
+        service = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "occupation-parkings");
+            t.setDaemon(true);
+            return t;
+        });
+        // Premier chargement sur le thread du service : getInstance() est atteint depuis
+        // ParkingDAO.creerInstance, qui tient déjà une connexion du pool
+        service.scheduleWithFixedDelay(this::resynchroniser,
+                0, INTERVALLE_RESYNCHRONISATION_MS, TimeUnit.MILLISECONDS);
+
+        MySQLConnection.avantFermeture(this::fermer);
+    }
+
+    public static synchronized OccupationParkings getInstance() {
+        if (instance == null) {
+            instance = new OccupationParkings();
+        }
+        return instance;
+    }
+
+    // ==================== LECTURES ====================
+
+    /**
+     * Places voiture libres (0 si le parking est inconnu)
+     */
+    public int getPlacesDisponibles(String idParking) {
+        Compteur c = compteur(idParking);
+        return c == null ? 0 : c.places.get();
+    }
+
+    /**
+     * Places moto libres (0 si le parking est inconnu ou sans places moto)
+     */
+    public int getPlacesMotoDisponibles(String idParking) {
+        Compteur c = compteur(idParking);
+        return c == null ? 0 : c.placesMoto.get();
+    }
+
+    /**
+     * Indique si le parking n'a plus de place pour ce type de véhicule
+     */
+    public boolean estComplet(String idParking, boolean moto) {
+        return moto ? getPlacesMotoDisponibles(idParking) <= 0 : getPlacesDisponibles(idParking) <= 0;
+    }
+
+    /**
+     * Recopie l'occupation courante dans un objet Parking qui ne vient pas d'être lu en base
+     * (index de recherche en mémoire, liste déjà affichée)
+     */
+    public void actualiser(Parking parking) {
+        Compteur c = compteur(parking.getIdParking());
+        if (c != null) {
+            parking.setPlacesDisponibles(c.places.get());
+            if (parking.hasMoto()) {
+                parking.setPlacesMotoDisponibles(c.placesMoto.get());
+            }
+        }
+    }
+
+    /**
+     * Met à jour le compteur d'un parking avec une ligne qui vient d'être lue dans la table Parking
+     * (ParkingDAO.creerInstance)
+     */
+    void parkingLu(Parking parking) {
+        Compteur c = compteurs.computeIfAbsent(parking.getIdParking(), id -> new Compteur());
+        if (c.initialiser(parking.getNombrePlaces(), parking.getPlacesDisponibles(), parking.hasMoto(),
+                          parking.getPlacesMoto(), parking.getPlacesMotoDisponibles())) {
+            publier(parking.getIdParking(), c);
+        }
+    }
+
+    /**
+     * Compteur d'un parking ; un parking inconnu (créé depuis un autre poste)
+     * est chargé par une resynchronisation sur le thread du service, jamais sur celui de l'appelant
+     */
+    private Compteur compteur(String idParking) {
+        if (idParking == null) {
+            return null;
+        }
+        Compteur c = compteurs.get(idParking);
+        if (c == null) {
+            demanderResynchronisation();
+        }
+        return c;
+    }
+
+    private void demanderResynchronisation() {
+        if (resynchronisationDemandee.compareAndSet(false, true)) {
+            try {
+                service.execute(this::resynchroniser);
+            } catch (RejectedExecutionException e) {
+                resynchronisationDemandee.set(false);
+            }
+        }
+    }
+
+    // ==================== RÉSERVATIONS ET LIBÉRATIONS ====================
+
+    /**
+     * Reflète une réservation déjà validée en base
+     */
+    void placeReservee(String idParking, boolean moto) {
+        Compteur c = compteurs.get(idParking);
+        if (c != null) {
+            AtomicInteger compteur = moto ? c.placesMoto : c.places;
+            if (compteur.getAndUpdate(v -> Math.max(0, v - 1)) > 0) {
+                publier(idParking, c);
+            }
+        }
+    }
+
+    /**
+     * Reflète une libération déjà validée en base
+     */
+    void placeLiberee(String idParking, boolean moto) {
+        Compteur c = compteurs.get(idParking);
+        if (c != null) {
+            AtomicInteger compteur = moto ? c.placesMoto : c.places;
+            int capacite = moto ? c.capaciteMoto : c.capacite;
+            if (compteur.getAndUpdate(v -> Math.min(capacite, v + 1)) < capacite) {
+                publier(idParking, c);
+            }
+        }
+    }
+
+    /**
+     * Signale aux abonnés du bus (carte des parkings) les nouvelles places libres d'un parking
+     */
+    private static void publier(String idParking, Compteur c) {
+        BusEvenements.getInstance().publier(
+            new BusEvenements.PlacesParkingModifiees(idParking, c.places.get(), c.placesMoto.get()));
+    }
+
+    /**
+     * Oublie un parking supprimé
+     */
+    public void oublier(String idParking) {
+        compteurs.remove(idParking);
+    }
+
+    // ==================== RESYNCHRONISATION ====================
+
+    /**
+     * Recharge les compteurs depuis la table Parking
+     * (modifications faites depuis un autre poste ou par l'administrateur)
+     */
+    public void resynchroniser() {
+        resynchronisationDemandee.set(false);
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_OCCUPATION);
+             ResultSet rs = stmt.executeQuery()) {
+            Set<String> presents = new HashSet<>();
+            while (rs.next()) {
+                String idParking = rs.getString("id_parking");
+                presents.add(idParking);
+                Compteur c = compteurs.computeIfAbsent(idParking, id -> new Compteur());
+                if (c.initialiser(rs.getInt("nombre_places"), rs.getInt("places_disponibles"),
+                                  rs.getBoolean("has_moto"), rs.getInt("places_moto"),
+                                  rs.getInt("places_moto_disponibles"))) {
+                    publier(idParking, c);
+                }
+            }
+            compteurs.keySet().retainAll(presents);
+        } catch (SQLException e) {
+            System.err.println("Erreur chargement de l'occupation des parkings: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Arrête la resynchronisation périodique (fermeture du pool de connexions)
+     */
+    private void fermer() {
+        service.shutdownNow();
+        synchronized (OccupationParkings.class) {
+            if (instance == this) {
+                instance = null; // recréé si le pool de connexions est rouvert
+            }
+        }
+    }
+}
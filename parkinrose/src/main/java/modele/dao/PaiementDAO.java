@@ -61,20 +61,46 @@ public class PaiementDAO extends DaoModele<Paiement> {
     
     @Override
     public void create(Paiement paiement) throws SQLException {
-        RequeteInsertPaiement req = new RequeteInsertPaiement();
-        miseAJour(req, paiement);
+        ecrireAvecCumuls(new RequeteInsertPaiement(), paiement, false, true);
     }
     
     @Override
     public void update(Paiement paiement) throws SQLException {
-        RequeteUpdatePaiement req = new RequeteUpdatePaiement();
-        miseAJour(req, paiement);
+        ecrireAvecCumuls(new RequeteUpdatePaiement(), paiement, true, true);
     }
     
     @Override
     public void delete(Paiement paiement) throws SQLException {
-        RequeteDeletePaiement req = new RequeteDeletePaiement();
-        miseAJour(req, paiement);
+        ecrireAvecCumuls(new RequeteDeletePaiement(), paiement, true, false);
+    }
+    
+    /**
+     * Écrit un paiement et ses cumuls mensuels dans une seule transaction
+     * @param retirer retirer des cumuls le paiement tel qu'il est en base, avant l'écriture
+     * @param ajouter ajouter aux cumuls le paiement tel qu'il est écrit
+     */
+    private void ecrireAvecCumuls(Requete<Paiement> req, Paiement paiement,
+                                  boolean retirer, boolean ajouter) throws SQLException {
+        CumulsUsagers cumuls = CumulsUsagers.getInstance();
+        try (Connection conn = MySQLConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(req.requete())) {
+                if (retirer) {
+                    cumuls.retirerPaiement(conn, paiement.getIdPaiement());
+                }
+                req.parametres(pstmt, paiement);
+                pstmt.executeUpdate();
+                if (ajouter) {
+                    cumuls.ajouterPaiement(conn, paiement.getIdPaiement());
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
     }
     
     // Méthodes spécifiques pour les paiements
@@ -123,56 +149,13 @@ public class PaiementDAO extends DaoModele<Paiement> {
     }
     
     /**
-     * Enregistre un paiement (alias pour create)
-     * @param paiement L'objet Paiement à enregistrer
-     * @return true si l'insertion a réussi
-     * @throws SQLException en cas d'erreur SQL
-     */
-    public boolean enregistrerPaiement(Paiement paiement) throws SQLException {
-        create(paiement);
-        return true;
-    }
-    
-    /**
-     * Vérifie si un paiement existe par son ID
-     * @param idPaiement ID du paiement
-     * @return true si le paiement existe
-     * @throws SQLException en cas d'erreur SQL
-     */
-    public boolean paiementExiste(String idPaiement) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM Paiement WHERE id_paiement = ?";
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, idPaiement);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        }
-        return false;
-    }
-    
-    /**
-     * Récupère le total des dépenses d'un utilisateur
+     * Récupère le total des dépenses d'un utilisateur (paiements réussis), lu dans ses cumuls mensuels
      * @param idUsager ID de l'utilisateur
      * @return Montant total dépensé
      * @throws SQLException en cas d'erreur SQL
      */
     public double getTotalDepenses(int idUsager) throws SQLException {
-        String sql = "SELECT SUM(montant) as total FROM Paiement WHERE id_usager = ? AND statut = 'REUSSI'";
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, idUsager);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getDouble("total");
-                }
-            }
-        }
-        return 0.0;
+        return CumulsUsagers.getInstance().getTotal(idUsager).getDepensesTotales();
     }
     
     /**
@@ -5,7 +5,6 @@ import modele.dao.requetes.*;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -13,6 +12,20 @@ public class ParkingDAO extends DaoModele<Parking> {
     
     private static ParkingDAO instance;
     
+    // Décréments conditionnels : atomiques, ils échouent s'il ne reste plus de place
+    private static final String SQL_RESERVER_PLACE =
+        "UPDATE Parking SET places_disponibles = places_disponibles - 1 " +
+        "WHERE id_parking = ? AND places_disponibles > 0";
+    private static final String SQL_RESERVER_PLACE_MOTO =
+        "UPDATE Parking SET places_moto_disponibles = places_moto_disponibles - 1 " +
+        "WHERE id_parking = ? AND has_moto = TRUE AND places_moto_disponibles > 0";
+    private static final String SQL_LIBERER_PLACE =
+        "UPDATE Parking SET places_disponibles = places_disponibles + 1 " +
+        "WHERE id_parking = ?";
+    private static final String SQL_LIBERER_PLACE_MOTO =
+        "UPDATE Parking SET places_moto_disponibles = places_moto_disponibles + 1 " +
+        "WHERE id_parking = ? AND has_moto = TRUE";
+    
     // Constructeur privé pour le singleton
     private ParkingDAO() {}
     
@@ -54,6 +67,9 @@ public class ParkingDAO extends DaoModele<Parking> {
             System.err.println("Colonnes position_x/position_y non trouvées: " + e.getMessage());
         }
         
+        // Les compteurs d'occupation suivent la ligne lue : tous les lecteurs voient les mêmes places
+        OccupationParkings.getInstance().parkingLu(parking);
+        
         return parking;
     }
     
@@ -76,18 +92,29 @@ public class ParkingDAO extends DaoModele<Parking> {
     public void create(Parking parking) throws SQLException {
         RequeteInsertParking req = new RequeteInsertParking();
         miseAJour(req, parking);
+        IndexRechercheParkings.getInstance().ajouterOuModifier(parking);
+        IndexSpatialParkings.getInstance().ajouterOuDeplacer(parking);
+        DonneesReference.getInstance().invaliderParking(parking.getIdParking());
     }
     
     @Override
     public void update(Parking parking) throws SQLException {
         RequeteUpdateParking req = new RequeteUpdateParking();
         miseAJour(req, parking);
+        IndexRechercheParkings.getInstance().ajouterOuModifier(parking);
+        IndexSpatialParkings.getInstance().ajouterOuDeplacer(parking);
+        DonneesReference.getInstance().invaliderParking(parking.getIdParking());
     }
     
     @Override
     public void delete(Parking parking) throws SQLException {
         RequeteDeleteParking req = new RequeteDeleteParking();
         miseAJour(req, parking);
+        IndexRechercheParkings.getInstance().supprimer(parking.getIdParking());
+        IndexSpatialParkings.getInstance().supprimer(parking.getIdParking());
+        OccupationParkings.getInstance().oublier(parking.getIdParking());
+        DonneesReference.getInstance().invaliderParking(parking.getIdParking());
+        MoteurTarifs.getInstance().recharger();
     }
     
     /**
@@ -130,6 +157,60 @@ public class ParkingDAO extends DaoModele<Parking> {
         }
     }
     
+    /**
+     * Crée un parking et son tarif horaire dans une même transaction (méthode pratique pour le contrôleur)
+     */
+    public boolean creerParkingAvecTarif(Parking parking) {
+        try {
+            enregistrerAvecTarif(new RequeteInsertParking(), parking);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Erreur création parking: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Met à jour un parking et son tarif horaire dans une même transaction (méthode pratique pour le contrôleur)
+     */
+    public boolean mettreAJourParkingAvecTarif(Parking parking) {
+        try {
+            enregistrerAvecTarif(new RequeteUpdateParking(), parking);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Erreur mise à jour parking: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Écrit le parking puis son tarif horaire (aucun pour un parking relais) en une transaction :
+     * les deux sont enregistrés ou aucun. Les règles de tarification sont recompilées ensuite.
+     */
+    private void enregistrerAvecTarif(Requete<Parking> req, Parking parking) throws SQLException {
+        MoteurTarifs moteur = MoteurTarifs.getInstance();
+        try (Connection conn = MySQLConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement prSt = conn.prepareStatement(req.requete())) {
+                req.parametres(prSt, parking);
+                prSt.executeUpdate();
+                if (!parking.isEstRelais()) {
+                    moteur.ecrireTarifHoraire(conn, parking.getIdParking(), parking.getTarifHoraire());
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        IndexRechercheParkings.getInstance().ajouterOuModifier(parking);
+        IndexSpatialParkings.getInstance().ajouterOuDeplacer(parking);
+        DonneesReference.getInstance().invaliderParking(parking.getIdParking());
+        moteur.recharger();
+    }
+    
     /**
      * Supprime un parking (méthode pratique pour le contrôleur - version avec objet Parking)
      */
@@ -176,37 +257,25 @@ public class ParkingDAO extends DaoModele<Parking> {
     }
     
     /**
-     * Recherche des parkings par terme
+     * Recherche des parkings par terme (libellé ou adresse), sans accès à la base :
+     * index plein texte en mémoire, tolérant aux accents et aux fautes de frappe.
+     * Résultats du plus pertinent au moins pertinent ; liste vide si le terme est vide.
      */
     public List<Parking> rechercherParkings(String terme) throws SQLException {
-        String sql = "SELECT * FROM Parking " +
-                    "WHERE libelle_parking LIKE ? OR adresse_parking LIKE ? " +
-                    "ORDER BY libelle_parking";
-        
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            String termeRecherche = "%" + terme + "%";
-            stmt.setString(1, termeRecherche);
-            stmt.setString(2, termeRecherche);
-            
-            return select(stmt);
+        List<Parking> resultats = IndexRechercheParkings.getInstance().rechercherParkings(terme, Integer.MAX_VALUE);
+        OccupationParkings occupation = OccupationParkings.getInstance();
+        for (Parking parking : resultats) {
+            occupation.actualiser(parking);
         }
+        return resultats;
     }
     
     /**
      * Décrémente le nombre de places disponibles d'un parking (voiture/camion)
      */
     public boolean decrementerPlacesDisponibles(String idParking) throws SQLException {
-        String sql = "UPDATE Parking SET places_disponibles = places_disponibles - 1 " +
-                    "WHERE id_parking = ? AND places_disponibles > 0";
-        
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, idParking);
-            int lignesAffectees = stmt.executeUpdate();
-            return lignesAffectees > 0;
+        try (Connection conn = MySQLConnection.getConnection()) {
+            return reserverPlace(conn, idParking, false);
         }
     }
     
@@ -214,15 +283,8 @@ public class ParkingDAO extends DaoModele<Parking> {
      * Incrémente le nombre de places disponibles d'un parking (voiture/camion)
      */
     public boolean incrementerPlacesDisponibles(String idParking) throws SQLException {
-        String sql = "UPDATE Parking SET places_disponibles = places_disponibles + 1 " +
-                    "WHERE id_parking = ?";
-        
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, idParking);
-            int lignesAffectees = stmt.executeUpdate();
-            return lignesAffectees > 0;
+        try (Connection conn = MySQLConnection.getConnection()) {
+            return libererPlace(conn, idParking, false);
         }
     }
     
@@ -230,15 +292,8 @@ public class ParkingDAO extends DaoModele<Parking> {
      * Décrémente le nombre de places moto disponibles
      */
     public boolean decrementerPlacesMotoDisponibles(String idParking) throws SQLException {
-        String sql = "UPDATE Parking SET places_moto_disponibles = places_moto_disponibles - 1 " +
-                    "WHERE id_parking = ? AND has_moto = TRUE AND places_moto_disponibles > 0";
-        
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, idParking);
-            int lignesAffectees = stmt.executeUpdate();
-            return lignesAffectees > 0;
+        try (Connection conn = MySQLConnection.getConnection()) {
+            return reserverPlace(conn, idParking, true);
         }
     }
     
@@ -246,15 +301,60 @@ public class ParkingDAO extends DaoModele<Parking> {
      * Incrémente le nombre de places moto disponibles
      */
     public boolean incrementerPlacesMotoDisponibles(String idParking) throws SQLException {
-        String sql = "UPDATE Parking SET places_moto_disponibles = places_moto_disponibles + 1 " +
-                    "WHERE id_parking = ? AND has_moto = TRUE";
-        
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
+        try (Connection conn = MySQLConnection.getConnection()) {
+            return libererPlace(conn, idParking, true);
+        }
+    }
+    
+    /**
+     * Réserve une place (moto ou voiture) sur la connexion de l'appelant,
+     * pour que la réservation fasse partie de sa transaction.
+     * Le décrément est conditionnel : il échoue s'il ne reste plus de place.
+     */
+    public boolean reserverPlace(Connection conn, String idParking, boolean moto) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(moto ? SQL_RESERVER_PLACE_MOTO : SQL_RESERVER_PLACE)) {
+            stmt.setString(1, idParking);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Libère une place (moto ou voiture) sur la connexion de l'appelant
+     */
+    public boolean libererPlace(Connection conn, String idParking, boolean moto) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(moto ? SQL_LIBERER_PLACE_MOTO : SQL_LIBERER_PLACE)) {
             stmt.setString(1, idParking);
-            int lignesAffectees = stmt.executeUpdate();
-            return lignesAffectees > 0;
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Libère en un lot les places de plusieurs stationnements, sur la connexion de l'appelant
+     * 
+     * @param idsParking parking de chaque place libérée
+     * @param motos pour chaque place, true si c'est une place moto
+     */
+    public void libererPlaces(Connection conn, List<String> idsParking, List<Boolean> motos) throws SQLException {
+        try (PreparedStatement voiture = conn.prepareStatement(SQL_LIBERER_PLACE);
+             PreparedStatement moto = conn.prepareStatement(SQL_LIBERER_PLACE_MOTO)) {
+            boolean voituresALiberer = false;
+            boolean motosALiberer = false;
+            for (int i = 0; i < idsParking.size(); i++) {
+                PreparedStatement stmt = motos.get(i) ? moto : voiture;
+                stmt.setString(1, idsParking.get(i));
+                stmt.addBatch();
+                if (motos.get(i)) {
+                    motosALiberer = true;
+                } else {
+                    voituresALiberer = true;
+                }
+            }
+            if (voituresALiberer) {
+                voiture.executeBatch();
+            }
+            if (motosALiberer) {
+                moto.executeBatch();
+            }
         }
     }
     
@@ -392,19 +492,25 @@ public class ParkingDAO extends DaoModele<Parking> {
                                                   boolean avecTarifSoiree, 
                                                   boolean avecMoto, 
                                                   int placesMin) throws SQLException {
+        if (terme != null && !terme.trim().isEmpty()) {
+            // Le terme passe par l'index plein texte, les autres critères sur l'occupation en mémoire
+            List<Parking> resultats = new ArrayList<>();
+            for (Parking parking : rechercherParkings(terme)) {
+                if ((!avecTarifSoiree || parking.hasTarifSoiree())
+                    && (!avecMoto || (parking.hasMoto() && parking.getPlacesMotoDisponibles() > 0))
+                    && (placesMin <= 0 || parking.getPlacesDisponibles() >= placesMin)) {
+                    resultats.add(parking);
+                }
+            }
+            return resultats;
+        }
+        
         StringBuilder sql = new StringBuilder(
             "SELECT * FROM Parking WHERE 1=1"
         );
         
         List<Object> parametres = new ArrayList<>();
         
-        if (terme != null && !terme.trim().isEmpty()) {
-            sql.append(" AND (libelle_parking LIKE ? OR adresse_parking LIKE ?)");
-            String termeRecherche = "%" + terme + "%";
-            parametres.add(termeRecherche);
-            parametres.add(termeRecherche);
-        }
-        
         if (avecTarifSoiree) {
             sql.append(" AND tarif_soiree = TRUE");
         }
@@ -463,6 +569,7 @@ public class ParkingDAO extends DaoModele<Parking> {
         }
         
         String sql = "UPDATE Parking SET position_x = ?, position_y = ? WHERE id_parking = ?";
+        int lignesAffectees;
         
         try (Connection conn = MySQLConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -471,9 +578,17 @@ public class ParkingDAO extends DaoModele<Parking> {
             stmt.setFloat(2, positionY);
             stmt.setString(3, idParking);
             
-            int lignesAffectees = stmt.executeUpdate();
-            return lignesAffectees > 0;
+            lignesAffectees = stmt.executeUpdate();
         }
+        DonneesReference.getInstance().invaliderParking(idParking);
+        if (lignesAffectees > 0) {
+            // Relu après libération de la connexion : l'index spatial garde le parking complet
+            Parking parking = findById(idParking);
+            if (parking != null) {
+                IndexSpatialParkings.getInstance().ajouterOuDeplacer(parking);
+            }
+        }
+        return lignesAffectees > 0;
     }
     
 
@@ -492,73 +607,42 @@ public class ParkingDAO extends DaoModele<Parking> {
     }
     
     /**
-     * Trouve les parkings les plus proches d'un parking donné
+     * Trouve les parkings les plus proches d'un parking donné (avec des places disponibles).
      */
     public List<Parking> trouverParkingsProches(String idParkingOrigine, int nombreParkings) throws SQLException {
+        return trouverParkingsProches(idParkingOrigine, nombreParkings, false, 0);
+    }
+    
+    /**
+     * Trouve les parkings les plus proches d'un parking donné pouvant accueillir le véhicule :
+     * place libre du bon type (voiture ou moto) et hauteur suffisante.
+     * Utilise l'index spatial et les compteurs d'occupation en mémoire, sans requête SQL.
+     * 
+     * @param moto true pour chercher une place moto
+     * @param hauteurVehicule hauteur du véhicule en mètres (0 si non contraignante)
+     */
+    public List<Parking> trouverParkingsProches(String idParkingOrigine, int nombreParkings,
+                                                boolean moto, double hauteurVehicule) throws SQLException {
         List<Parking> result = new ArrayList<Parking>();
         
-        
         try {
-            // Récupérer le parking d'origine
-            Parking parkingOrigine = findById(idParkingOrigine);
+            IndexSpatialParkings index = IndexSpatialParkings.getInstance();
+            Parking parkingOrigine = index.getParking(idParkingOrigine);
             
+            // Parking absent de l'index : inconnu, ou sans coordonnées
             if (parkingOrigine == null) {
-                return result;
-            }
-            
-            // Si le parking d'origine n'a pas de coordonnées, retourner vide
-            if (parkingOrigine.getPositionX() == null || parkingOrigine.getPositionY() == null) {
-                
-                // Fallback: retourner 5 parkings aléatoires avec places disponibles
-                return trouverParkingsAlternatifsFallback(nombreParkings);
-            }
-            
-            // Récupérer tous les parkings
-            List<Parking> tousParkings = findAll();
-            
-            // Liste pour stocker les parkings avec distances
-            List<ParkingDistance> parkingsAvecDistances = new ArrayList<ParkingDistance>();
-            
-            for (Parking parking : tousParkings) {
-                // Ne pas inclure le parking d'origine
-                if (parking.getIdParking().equals(idParkingOrigine)) {
-                    continue;
-                }
-                
-                // Vérifier que le parking a des coordonnées
-                if (parking.getPositionX() == null || parking.getPositionY() == null) {
-                    continue;
+                if (findById(idParkingOrigine) == null) {
+                    return result;
                 }
-                
-                // Vérifier qu'il y a des places disponibles
-                if (parking.getPlacesDisponibles() <= 0) {
-                    continue;
-                }
-                
-                // Calculer la distance
-                double distance = calculerDistance(
-                    parkingOrigine.getPositionX(), parkingOrigine.getPositionY(),
-                    parking.getPositionX(), parking.getPositionY()
-                );
-                
-                
-                parkingsAvecDistances.add(new ParkingDistance(parking, distance));
+                // Fallback: retourner des parkings aléatoires avec places disponibles
+                return trouverParkingsAlternatifsFallback(nombreParkings, moto, hauteurVehicule);
             }
             
-            
-            // Trier par distance
-            Collections.sort(parkingsAvecDistances, new Comparator<ParkingDistance>() {
-                @Override
-                public int compare(ParkingDistance p1, ParkingDistance p2) {
-                    return Double.compare(p1.getDistance(), p2.getDistance());
-                }
-            });
-            
-            // Prendre les N premiers
-            int limit = Math.min(nombreParkings, parkingsAvecDistances.size());
-            for (int i = 0; i < limit; i++) {
-                result.add(parkingsAvecDistances.get(i).getParking());
-            }
+            OccupationParkings occupation = OccupationParkings.getInstance();
+            result = index.plusProches(parkingOrigine.getPositionY(), parkingOrigine.getPositionX(), nombreParkings,
+                p -> !p.getIdParking().equals(idParkingOrigine)
+                     && peutAccueillir(p, moto, hauteurVehicule)
+                     && !occupation.estComplet(p.getIdParking(), moto));
             
         } catch (Exception e) {
             System.err.println("ERREUR dans trouverParkingsProches: " + e.getMessage());
@@ -567,10 +651,23 @@ public class ParkingDAO extends DaoModele<Parking> {
         
         return result;
     }
+    
+    /**
+     * Le parking est compatible avec le véhicule (places moto, hauteur maximale)
+     */
+    private static boolean peutAccueillir(Parking parking, boolean moto, double hauteurVehicule) {
+        if (moto && !parking.hasMoto()) {
+            return false;
+        }
+        // Une hauteur de 0 signifie « non limitée »
+        return hauteurVehicule <= 0 || parking.getHauteurParking() <= 0
+               || parking.getHauteurParking() >= hauteurVehicule;
+    }
     /**
      * Fallback: retourne des parkings aléatoires avec places disponibles
      */
-    private List<Parking> trouverParkingsAlternatifsFallback(int nombreParkings) throws SQLException {
+    private List<Parking> trouverParkingsAlternatifsFallback(int nombreParkings, boolean moto,
+                                                             double hauteurVehicule) throws SQLException {
         List<Parking> result = new ArrayList<Parking>();
         List<Parking> tousParkings = findAll();
         
@@ -579,7 +676,8 @@ public class ParkingDAO extends DaoModele<Parking> {
         
         int count = 0;
         for (Parking parking : tousParkings) {
-            if (parking.getPlacesDisponibles() > 0 && count < nombreParkings) {
+            int places = moto ? parking.getPlacesMotoDisponibles() : parking.getPlacesDisponibles();
+            if (places > 0 && peutAccueillir(parking, moto, hauteurVehicule) && count < nombreParkings) {
                 result.add(parking);
                 count++;
             }
@@ -587,33 +685,4 @@ public class ParkingDAO extends DaoModele<Parking> {
        
         return result;
     }
-    /**
-     * Calcul de distance simplifié (distance euclidienne)
-     */
-    private double calculerDistance(float x1, float y1, float x2, float y2) {
-        double deltaX = x2 - x1;
-        double deltaY = y2 - y1;
-        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
-    }
-    
-    /**
-     * Classe interne pour stocker un parking avec sa distance
-     */
-    private static class ParkingDistance {
-        private Parking parking;
-        private double distance;
-        
-        public ParkingDistance(Parking parking, double distance) {
-            this.parking = parking;
-            this.distance = distance;
-        }
-        
-        public Parking getParking() {
-            return parking;
-        }
-        
-        public double getDistance() {
-            return distance;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,425 @@
+package modele.dao;
+
+import modele.dao.requetes.Requete;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pool de connexions JDBC borné.
+ *
+ * Le nombre de connexions empruntées simultanément est limité par un sémaphore :
+ * au-delà, l'appelant attend au plus attenteMaxMs puis reçoit une SQLTimeoutException.
+ * Les connexions rendues sont gardées inactives (ordre LIFO) puis :
+ * - validées à l'emprunt si elles sont restées inactives trop longtemps,
+ * - fermées par le nettoyeur après inactiviteMaxMs,
+ * - remplacées une fois leur durée de vie maximale atteinte.
+ *
+ * Les connexions sont rendues au pool par un simple close(), ce qui permet
+ * au code existant en try-with-resources de fonctionner sans modification.
+ *
+ * Chaque connexion physique garde aussi un cache LRU de ses PreparedStatement
+ * indexé par classe de Requete (voir preparerEnCache).
+ */
+public class PoolConnexions {
+
+    /**
+     * Crée une connexion physique vers la base de données
+     */
+    public interface FabriqueConnexion {
+        Connection creer() throws SQLException;
+    }
+
+    // Bornes supérieures (en ms) des tranches de l'histogramme de latence d'emprunt
+    static final long[] BORNES_LATENCE_MS = {1, 5, 10, 50, 100, 500, 1000};
+
+    // En dessous de ce temps d'inactivité, une connexion est rendue sans ping
+    private static final long SEUIL_VALIDATION_MS = 500;
+
+    private final FabriqueConnexion fabrique;
+    private final int tailleMax;
+    private final long attenteMaxMs;
+    private final long inactiviteMaxMs;
+    private final long dureeVieMaxMs;
+    private final int validationTimeoutSecondes;
+    private final int capaciteCacheRequetes;
+
+    private final Semaphore permis;
+    private final ConcurrentLinkedDeque<ConnexionPhysique> inactives = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger nbInactives = new AtomicInteger();
+    private final AtomicInteger nbActives = new AtomicInteger();
+    private final AtomicInteger nbEnAttente = new AtomicInteger();
+
+    private final AtomicLong totalEmprunts = new AtomicLong();
+    private final AtomicLong expirationsAttente = new AtomicLong();
+    private final AtomicLong connexionsCreees = new AtomicLong();
+    private final AtomicLong connexionsDetruites = new AtomicLong();
+    private final AtomicLongArray histogrammeLatence = new AtomicLongArray(BORNES_LATENCE_MS.length + 1);
+    private final CacheRequetes.Compteurs compteursCache = new CacheRequetes.Compteurs();
+
+    private final ScheduledExecutorService nettoyeur;
+    private volatile boolean ferme = false;
+
+    public PoolConnexions(FabriqueConnexion fabrique, int tailleMax, long attenteMaxMs,
+                          long inactiviteMaxMs, long dureeVieMaxMs, int validationTimeoutSecondes) {
+        this(fabrique, tailleMax, attenteMaxMs, inactiviteMaxMs, dureeVieMaxMs, validationTimeoutSecondes, 0);
+    }
+
+    public PoolConnexions(FabriqueConnexion fabrique, int tailleMax, long attenteMaxMs,
+                          long inactiviteMaxMs, long dureeVieMaxMs, int validationTimeoutSecondes,
+                          int capaciteCacheRequetes) {
+        if (tailleMax <= 0) {
+            throw new IllegalArgumentException("La taille du pool doit être positive: " + tailleMax);
+        }
+        this.fabrique = fabrique;
+        this.tailleMax = tailleMax;
+        this.attenteMaxMs = attenteMaxMs;
+        this.inactiviteMaxMs = inactiviteMaxMs;
+        this.dureeVieMaxMs = dureeVieMaxMs;
+        this.validationTimeoutSecondes = validationTimeoutSecondes;
+        this.capaciteCacheRequetes = capaciteCacheRequetes;
+        this.permis = new Semaphore(tailleMax, true);
+
+        this.nettoyeur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-connexions-nettoyeur");
+            t.setDaemon(true);
+            return t;
+        });
+        long periode = Math.max(1000, Math.min(30_000, inactiviteMaxMs / 2));
+        nettoyeur.scheduleWithFixedDelay(this::evincerConnexions, periode, periode, TimeUnit.MILLISECONDS);
+    }
+
+    // ===================== EMPRUNT / RESTITUTION =====================
+
+    /**
+     * Emprunte une connexion au pool. Elle doit être rendue par close().
+     */
+    public Connection emprunter() throws SQLException {
+        if (ferme) {
+            throw new SQLException("Le pool de connexions est fermé");
+        }
+
+        long debut = System.nanoTime();
+        boolean obtenu;
+        nbEnAttente.incrementAndGet();
+        try {
+            obtenu = permis.tryAcquire(attenteMaxMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Attente d'une connexion interrompue", e);
+        } finally {
+            nbEnAttente.decrementAndGet();
+        }
+
+        if (!obtenu) {
+            expirationsAttente.incrementAndGet();
+            throw new SQLTimeoutException("Aucune connexion disponible après " + attenteMaxMs +
+                                          " ms (" + tailleMax + " connexions déjà empruntées)");
+        }
+
+        try {
+            ConnexionPhysique physique = prendreConnexionValide();
+            nbActives.incrementAndGet();
+            totalEmprunts.incrementAndGet();
+            enregistrerLatence(System.nanoTime() - debut);
+            return physique.emprunter(this);
+        } catch (SQLException | RuntimeException e) {
+            permis.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Récupère une connexion inactive encore utilisable, ou en ouvre une nouvelle
+     */
+    private ConnexionPhysique prendreConnexionValide() throws SQLException {
+        ConnexionPhysique candidate;
+        while ((candidate = inactives.pollFirst()) != null) {
+            nbInactives.decrementAndGet();
+            long maintenant = System.currentTimeMillis();
+
+            if (candidate.estExpiree(maintenant, dureeVieMaxMs)
+                    || !candidate.estValide(maintenant, SEUIL_VALIDATION_MS, validationTimeoutSecondes)) {
+                detruire(candidate);
+                continue;
+            }
+            return candidate;
+        }
+
+        Connection connexion = fabrique.creer();
+        CacheRequetes cache = capaciteCacheRequetes > 0
+            ? new CacheRequetes(connexion, capaciteCacheRequetes, compteursCache)
+            : null;
+        ConnexionPhysique nouvelle = new ConnexionPhysique(connexion, cache);
+        connexionsCreees.incrementAndGet();
+        return nouvelle;
+    }
+
+    /**
+     * Remet une connexion dans le pool (appelé par close() sur la connexion empruntée)
+     */
+    void rendre(ConnexionPhysique physique) {
+        nbActives.decrementAndGet();
+        try {
+            long maintenant = System.currentTimeMillis();
+            if (ferme || physique.estExpiree(maintenant, dureeVieMaxMs) || !physique.reinitialiser()) {
+                detruire(physique);
+            } else {
+                physique.derniereUtilisation = maintenant;
+                inactives.offerFirst(physique);
+                nbInactives.incrementAndGet();
+            }
+        } finally {
+            permis.release();
+        }
+    }
+
+    private void detruire(ConnexionPhysique physique) {
+        connexionsDetruites.incrementAndGet();
+        if (physique.cache != null) {
+            physique.cache.vider();
+        }
+        try {
+            physique.connexion.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur fermeture connexion du pool: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ferme les connexions inactives depuis trop longtemps ou trop anciennes
+     */
+    void evincerConnexions() {
+        long maintenant = System.currentTimeMillis();
+        for (ConnexionPhysique physique : inactives) {
+            boolean inactiveTropLongtemps = maintenant - physique.derniereUtilisation > inactiviteMaxMs;
+            if ((inactiveTropLongtemps || physique.estExpiree(maintenant, dureeVieMaxMs))
+                    && inactives.remove(physique)) {
+                nbInactives.decrementAndGet();
+                detruire(physique);
+            }
+        }
+    }
+
+    /**
+     * Ferme le pool et toutes les connexions inactives.
+     * Les connexions encore empruntées seront fermées à leur restitution.
+     */
+    public void fermer() {
+        ferme = true;
+        nettoyeur.shutdownNow();
+        ConnexionPhysique physique;
+        while ((physique = inactives.pollFirst()) != null) {
+            nbInactives.decrementAndGet();
+            detruire(physique);
+        }
+    }
+
+    // ===================== CACHE DE REQUÊTES =====================
+
+    /**
+     * Prépare une requête en réutilisant le statement déjà préparé sur cette connexion.
+     *
+     * Le statement renvoyé appartient au cache de la connexion : l'appelant ne doit
+     * pas le fermer (il l'est avec la connexion physique ou à l'éviction LRU).
+     * Pour une connexion hors pool ou sans cache, le statement est simplement
+     * préparé et sera fermé avec la connexion.
+     */
+    public static PreparedStatement preparerEnCache(Connection conn, Requete<?> req) throws SQLException {
+        if (Proxy.isProxyClass(conn.getClass())
+                && Proxy.getInvocationHandler(conn) instanceof ConnexionEmpruntee) {
+            ConnexionEmpruntee empruntee = (ConnexionEmpruntee) Proxy.getInvocationHandler(conn);
+            return empruntee.preparerEnCache(req);
+        }
+        return conn.prepareStatement(req.requete());
+    }
+
+    // ===================== STATISTIQUES =====================
+
+    private void enregistrerLatence(long dureeNanos) {
+        long dureeMs = TimeUnit.NANOSECONDS.toMillis(dureeNanos);
+        int tranche = 0;
+        while (tranche < BORNES_LATENCE_MS.length && dureeMs >= BORNES_LATENCE_MS[tranche]) {
+            tranche++;
+        }
+        histogrammeLatence.incrementAndGet(tranche);
+    }
+
+    /**
+     * Photographie de l'état courant du pool
+     */
+    public StatistiquesPool getStatistiques() {
+        long[] histogramme = new long[histogrammeLatence.length()];
+        for (int i = 0; i < histogramme.length; i++) {
+            histogramme[i] = histogrammeLatence.get(i);
+        }
+        return new StatistiquesPool(
+            nbActives.get(),
+            nbInactives.get(),
+            nbEnAttente.get(),
+            tailleMax,
+            totalEmprunts.get(),
+            expirationsAttente.get(),
+            connexionsCreees.get(),
+            connexionsDetruites.get(),
+            histogramme,
+            compteursCache.succes.get(),
+            compteursCache.echecs.get(),
+            compteursCache.evictions.get()
+        );
+    }
+
+    // ===================== CONNEXION PHYSIQUE =====================
+
+    /**
+     * Connexion réelle vers MySQL, réutilisée d'un emprunt à l'autre
+     */
+    static class ConnexionPhysique {
+        final Connection connexion;
+        final CacheRequetes cache;
+        final long dateCreation;
+        volatile long derniereUtilisation;
+
+        // Statements ouverts pendant l'emprunt courant, fermés à la restitution
+        final List<Statement> statementsOuverts = new ArrayList<>();
+
+        ConnexionPhysique(Connection connexion, CacheRequetes cache) {
+            this.connexion = connexion;
+            this.cache = cache;
+            this.dateCreation = System.currentTimeMillis();
+            this.derniereUtilisation = dateCreation;
+        }
+
+        boolean estExpiree(long maintenant, long dureeVieMaxMs) {
+            return dureeVieMaxMs > 0 && maintenant - dateCreation > dureeVieMaxMs;
+        }
+
+        boolean estValide(long maintenant, long seuilValidationMs, int timeoutSecondes) {
+            try {
+                if (connexion.isClosed()) {
+                    return false;
+                }
+                if (maintenant - derniereUtilisation < seuilValidationMs) {
+                    return true;
+                }
+                return connexion.isValid(timeoutSecondes);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Remet la connexion dans un état neutre avant de la rendre au pool
+         */
+        boolean reinitialiser() {
+            try {
+                for (Statement statement : statementsOuverts) {
+                    if (!statement.isClosed()) {
+                        statement.close();
+                    }
+                }
+                statementsOuverts.clear();
+
+                if (connexion.isClosed()) {
+                    return false;
+                }
+                if (!connexion.getAutoCommit()) {
+                    connexion.rollback();
+                    connexion.setAutoCommit(true);
+                }
+                connexion.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Connexion écartée du pool: " + e.getMessage());
+                return false;
+            }
+        }
+
+        Connection emprunter(PoolConnexions pool) {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new ConnexionEmpruntee(pool, this)
+            );
+        }
+    }
+
+    /**
+     * Vue de la connexion physique remise à l'appelant : close() la rend au pool
+     */
+    private static class ConnexionEmpruntee implements InvocationHandler {
+        private final PoolConnexions pool;
+        private final ConnexionPhysique physique;
+        private boolean rendue = false;
+
+        ConnexionEmpruntee(PoolConnexions pool, ConnexionPhysique physique) {
+            this.pool = pool;
+            this.physique = physique;
+        }
+
+        synchronized PreparedStatement preparerEnCache(Requete<?> req) throws SQLException {
+            if (rendue) {
+                throw new SQLException("Connexion déjà rendue au pool");
+            }
+            if (physique.cache == null) {
+                PreparedStatement statement = physique.connexion.prepareStatement(req.requete());
+                physique.statementsOuverts.add(statement);
+                return statement;
+            }
+            return physique.cache.preparer(req);
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method methode, Object[] args) throws Throwable {
+            switch (methode.getName()) {
+                case "close":
+                    if (!rendue) {
+                        rendue = true;
+                        pool.rendre(physique);
+                    }
+                    return null;
+                case "isClosed":
+                    return rendue || physique.connexion.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConnexionEmpruntee[" + physique.connexion + (rendue ? ", rendue" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (rendue) {
+                throw new SQLException("Connexion déjà rendue au pool");
+            }
+
+            try {
+                Object resultat = methode.invoke(physique.connexion, args);
+                if (resultat instanceof Statement) {
+                    physique.statementsOuverts.add((Statement) resultat);
+                }
+                return resultat;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package modele.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Détermine la zone de stationnement en voirie (ZONE_JAUNE, ZONE_BLEUE...) d'un point.
+ *
+ * Les polygones des zones sont chargés depuis le jeu de données zones/zones_toulouse.txt
+ * (ressource du classpath) et rangés dans un R-tree compacté (tri par tranches, STR).
+ * Une recherche ne descend que dans les nœuds dont le rectangle englobant contient le point,
+ * puis chaque polygone candidat est d'abord filtré par son propre rectangle avant le test
+ * de parité (lancer de rayon).
+ *
+ * Si plusieurs polygones contiennent le point, c'est le plus petit qui l'emporte :
+ * les zones rouges, très limitées, sont dessinées à l'intérieur des autres.
+ */
+public class ResolveurZones {
+
+    public static final String RESSOURCE_ZONES = "zones/zones_toulouse.txt";
+
+    /** Nombre maximal d'entrées par nœud du R-tree */
+    private static final int CAPACITE_NOEUD = 4;
+
+    private static ResolveurZones instance;
+
+    /**
+     * Polygone d'une zone (sommets en latitude / longitude)
+     */
+    public static final class PolygoneZone {
+        private final String idZone;
+        private final String libelle;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double minLat, maxLat, minLng, maxLng;
+        private final double aire;
+
+        PolygoneZone(String idZone, String libelle, double[] latitudes, double[] longitudes) {
+            this.idZone = idZone;
+            this.libelle = libelle;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+
+            double minLa = Double.POSITIVE_INFINITY, maxLa = Double.NEGATIVE_INFINITY;
+            double minLn = Double.POSITIVE_INFINITY, maxLn = Double.NEGATIVE_INFINITY;
+            double somme = 0;
+            for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+                minLa = Math.min(minLa, latitudes[i]);
+                maxLa = Math.max(maxLa, latitudes[i]);
+                minLn = Math.min(minLn, longitudes[i]);
+                maxLn = Math.max(maxLn, longitudes[i]);
+                somme += longitudes[j] * latitudes[i] - longitudes[i] * latitudes[j];
+            }
+            this.minLat = minLa;
+            this.maxLat = maxLa;
+            this.minLng = minLn;
+            this.maxLng = maxLn;
+            this.aire = Math.abs(somme) / 2;
+        }
+
+        public String getIdZone() {
+            return idZone;
+        }
+
+        public String getLibelle() {
+            return libelle;
+        }
+
+        public int getNombreSommets() {
+            return latitudes.length;
+        }
+
+        public double getLatitude(int i) {
+            return latitudes[i];
+        }
+
+        public double getLongitude(int i) {
+            return longitudes[i];
+        }
+
+        /**
+         * Le point est dans le polygone (rectangle englobant, puis règle de parité)
+         */
+        public boolean contient(double lat, double lng) {
+            if (lat < minLat || lat > maxLat || lng < minLng || lng > maxLng) {
+                return false;
+            }
+            boolean dedans = false;
+            for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+                if ((latitudes[i] > lat) != (latitudes[j] > lat)
+                    && lng < (longitudes[j] - longitudes[i]) * (lat - latitudes[i])
+                             / (latitudes[j] - latitudes[i]) + longitudes[i]) {
+                    dedans = !dedans;
+                }
+            }
+            return dedans;
+        }
+    }
+
+    /**
+     * Nœud du R-tree : des sous-nœuds, ou des polygones pour une feuille
+     */
+    private static final class Noeud {
+        final double minLat, maxLat, minLng, maxLng;
+        final Noeud[] enfants;
+        final PolygoneZone[] polygones;
+
+        Noeud(Noeud[] enfants) {
+            this.enfants = enfants;
+            this.polygones = null;
+            double minLa = Double.POSITIVE_INFINITY, maxLa = Double.NEGATIVE_INFINITY;
+            double minLn = Double.POSITIVE_INFINITY, maxLn = Double.NEGATIVE_INFINITY;
+            for (Noeud n : enfants) {
+                minLa = Math.min(minLa, n.minLat);
+                maxLa = Math.max(maxLa, n.maxLat);
+                minLn = Math.min(minLn, n.minLng);
+                maxLn = Math.max(maxLn, n.maxLng);
+            }
+            this.minLat = minLa;
+            this.maxLat = maxLa;
+            this.minLng = minLn;
+            this.maxLng = maxLn;
+        }
+
+        Noeud(PolygoneZone[] polygones) {
+            this.enfants = null;
+            this.polygones = polygones;
+            double minLa = Double.POSITIVE_INFINITY, maxLa = Double.NEGATIVE_INFINITY;
+            double minLn = Double.POSITIVE_INFINITY, maxLn = Double.NEGATIVE_INFINITY;
+            for (PolygoneZone p : polygones) {
+                minLa = Math.min(minLa, p.minLat);
+                maxLa = Math.max(maxLa, p.maxLat);
+                minLn = Math.min(minLn, p.minLng);
+                maxLn = Math.max(maxLn, p.maxLng);
+            }
+            this.minLat = minLa;
+            this.maxLat = maxLa;
+            this.minLng = minLn;
+            this.maxLng = maxLn;
+        }
+
+        boolean contient(double lat, double lng) {
+            return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+        }
+    }
+
+    // Remplacés d'un bloc au rechargement : les lectures se font sans verrou
+    private volatile List<PolygoneZone> polygones = Collections.emptyList();
+    private volatile Noeud racine;
+
+    private ResolveurZones() {
+        recharger();
+    }
+
+    public static synchronized ResolveurZones getInstance() {
+        if (instance == null) {
+            instance = new ResolveurZones();
+        }
+        return instance;
+    }
+
+    /**
+     * Relit le jeu de données des zones et reconstruit le R-tree
+     */
+    public void recharger() {
+        try (InputStream input = ResolveurZones.class.getClassLoader().getResourceAsStream(RESSOURCE_ZONES)) {
+            if (input == null) {
+                System.err.println("Jeu de données des zones introuvable : " + RESSOURCE_ZONES);
+                return;
+            }
+            charger(lirePolygones(input));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Erreur chargement des zones : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Remplace les polygones indexés
+     */
+    public void charger(List<PolygoneZone> nouveauxPolygones) {
+        List<PolygoneZone> copie = Collections.unmodifiableList(new ArrayList<>(nouveauxPolygones));
+        racine = construire(copie);
+        polygones = copie;
+    }
+
+    /**
+     * Lit le format du jeu de données : « zone ID_ZONE libellé » puis un sommet « lat,lng » par ligne
+     */
+    public static List<PolygoneZone> lirePolygones(InputStream input) throws IOException {
+        List<PolygoneZone> resultat = new ArrayList<>();
+        BufferedReader lecteur = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        String idZone = null;
+        String libelle = null;
+        List<double[]> sommets = new ArrayList<>();
+        String ligne;
+        int numero = 0;
+        while ((ligne = lecteur.readLine()) != null) {
+            numero++;
+            ligne = ligne.trim();
+            if (ligne.isEmpty() || ligne.startsWith("#")) {
+                continue;
+            }
+            if (ligne.startsWith("zone ")) {
+                ajouterPolygone(resultat, idZone, libelle, sommets);
+                String[] entete = ligne.substring(5).trim().split("\\s+", 2);
+                idZone = entete[0];
+                libelle = entete.length > 1 ? entete[1] : entete[0];
+                sommets.clear();
+                continue;
+            }
+            String[] parties = ligne.split(",");
+            if (idZone == null || parties.length != 2) {
+                throw new IllegalArgumentException("ligne " + numero + " invalide : " + ligne);
+            }
+            sommets.add(new double[] { Double.parseDouble(parties[0].trim()), Double.parseDouble(parties[1].trim()) });
+        }
+        ajouterPolygone(resultat, idZone, libelle, sommets);
+        return resultat;
+    }
+
+    private static void ajouterPolygone(List<PolygoneZone> resultat, String idZone, String libelle,
+                                        List<double[]> sommets) {
+        if (idZone == null || sommets.size() < 3) {
+            return;
+        }
+        double[] latitudes = new double[sommets.size()];
+        double[] longitudes = new double[sommets.size()];
+        for (int i = 0; i < sommets.size(); i++) {
+            latitudes[i] = sommets.get(i)[0];
+            longitudes[i] = sommets.get(i)[1];
+        }
+        resultat.add(new PolygoneZone(idZone, libelle, latitudes, longitudes));
+    }
+
+    /**
+     * Construction du R-tree par tranches (Sort-Tile-Recursive) : les rectangles sont triés
+     * par longitude, découpés en tranches verticales, puis triés par latitude dans chaque tranche
+     */
+    private static Noeud construire(List<PolygoneZone> polygones) {
+        if (polygones.isEmpty()) {
+            return null;
+        }
+        List<PolygoneZone> tries = new ArrayList<>(polygones);
+        List<Noeud> niveau = new ArrayList<>();
+        for (List<PolygoneZone> groupe : paquets(tries,
+                 Comparator.comparingDouble(p -> (p.minLng + p.maxLng) / 2),
+                 Comparator.comparingDouble(p -> (p.minLat + p.maxLat) / 2))) {
+            niveau.add(new Noeud(groupe.toArray(new PolygoneZone[0])));
+        }
+        while (niveau.size() > 1) {
+            List<Noeud> parents = new ArrayList<>();
+            for (List<Noeud> groupe : paquets(niveau,
+                     Comparator.comparingDouble(n -> (n.minLng + n.maxLng) / 2),
+                     Comparator.comparingDouble(n -> (n.minLat + n.maxLat) / 2))) {
+                parents.add(new Noeud(groupe.toArray(new Noeud[0])));
+            }
+            niveau = parents;
+        }
+        return niveau.get(0);
+    }
+
+    private static <T> List<List<T>> paquets(List<T> elements, Comparator<T> parLongitude, Comparator<T> parLatitude) {
+        List<T> tries = new ArrayList<>(elements);
+        tries.sort(parLongitude);
+        int nombreFeuilles = (tries.size() + CAPACITE_NOEUD - 1) / CAPACITE_NOEUD;
+        int tailleTranche = CAPACITE_NOEUD * (int) Math.ceil(Math.sqrt(nombreFeuilles));
+
+        List<List<T>> resultat = new ArrayList<>();
+        for (int debut = 0; debut < tries.size(); debut += tailleTranche) {
+            List<T> tranche = new ArrayList<>(tries.subList(debut, Math.min(debut + tailleTranche, tries.size())));
+            tranche.sort(parLatitude);
+            for (int i = 0; i < tranche.size(); i += CAPACITE_NOEUD) {
+                resultat.add(tranche.subList(i, Math.min(i + CAPACITE_NOEUD, tranche.size())));
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Zone de stationnement contenant le point, ou null hors des zones réglementées
+     *
+     * @return l'identifiant de la zone (ex : "ZONE_JAUNE")
+     */
+    public String resoudreZone(double lat, double lng) {
+        PolygoneZone polygone = resoudrePolygone(lat, lng);
+        return polygone == null ? null : polygone.getIdZone();
+    }
+
+    /**
+     * Plus petit polygone contenant le point, ou null
+     */
+    public PolygoneZone resoudrePolygone(double lat, double lng) {
+        Noeud r = racine;
+        if (r == null) {
+            return null;
+        }
+        PolygoneZone[] meilleur = new PolygoneZone[1];
+        rechercher(r, lat, lng, meilleur);
+        return meilleur[0];
+    }
+
+    private void rechercher(Noeud noeud, double lat, double lng, PolygoneZone[] meilleur) {
+        if (!noeud.contient(lat, lng)) {
+            return;
+        }
+        if (noeud.polygones != null) {
+            for (PolygoneZone p : noeud.polygones) {
+                if ((meilleur[0] == null || p.aire < meilleur[0].aire) && p.contient(lat, lng)) {
+                    meilleur[0] = p;
+                }
+            }
+            return;
+        }
+        for (Noeud enfant : noeud.enfants) {
+            rechercher(enfant, lat, lng, meilleur);
+        }
+    }
+
+    /**
+     * Tous les polygones chargés, dans l'ordre du jeu de données
+     */
+    public List<PolygoneZone> getPolygones() {
+        return polygones;
+    }
+}
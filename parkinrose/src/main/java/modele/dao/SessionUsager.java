@@ -0,0 +1,190 @@
+package modele.dao;
+
+import modele.Abonnement;
+import modele.Usager;
+import modele.VehiculeUsager;
+
+import java.sql.SQLException;
+
+/**
+ * Contexte de l'usager connecté, ouvert à la connexion et fermé à la déconnexion.
+ *
+ * Garde l'usager, son véhicule principal, son abonnement actif et sa carte Tisséo :
+ * les pages, qui se passent l'email de l'une à l'autre, les retrouvent ici
+ * (UsagerDAO.getUsagerByEmail, VehiculeUsagerDAO.getVehiculePrincipalStatic,
+ * AbonnementDAO.getAbonnementActifStatic...) sans requête.
+ *
+ * Chaque partie est relue au prochain accès après une invalidation explicite,
+ * faite par les DAO qui modifient le profil, les véhicules ou l'abonnement.
+ */
+public class SessionUsager {
+
+    private static volatile SessionUsager courante;
+
+    private final int idUsager;
+    private volatile Usager usager;
+    private volatile VehiculeUsager vehiculePrincipal;
+    private volatile boolean vehiculeCharge;
+    private volatile Abonnement abonnementActif;
+    private volatile boolean abonnementCharge;
+
+    private SessionUsager(Usager usager) {
+        this.idUsager = usager.getIdUsager();
+        this.usager = usager;
+    }
+
+    // ==================== CYCLE DE VIE ====================
+
+    /**
+     * Ouvre la session de l'usager authentifié (remplace la précédente)
+     */
+    public static SessionUsager ouvrir(Usager usager) {
+        courante = new SessionUsager(usager);
+        return courante;
+    }
+
+    /**
+     * Ferme la session (déconnexion)
+     */
+    public static void fermer() {
+        courante = null;
+    }
+
+    /**
+     * Session ouverte, ou null
+     */
+    public static SessionUsager getCourante() {
+        return courante;
+    }
+
+    /**
+     * Session ouverte si elle appartient à cet usager, sinon null
+     */
+    static SessionUsager pour(int idUsager) {
+        SessionUsager s = courante;
+        return s != null && s.idUsager == idUsager ? s : null;
+    }
+
+    /**
+     * Session ouverte si elle appartient à cet email, sinon null
+     */
+    static SessionUsager pour(String email) {
+        SessionUsager s = courante;
+        if (s == null || email == null) {
+            return null;
+        }
+        Usager u = s.getUsager();
+        return u != null && email.trim().equalsIgnoreCase(u.getMailUsager()) ? s : null;
+    }
+
+    // ==================== INVALIDATION ====================
+
+    /**
+     * Profil modifié (nom, email, mot de passe, carte Tisséo...)
+     */
+    public static void invaliderUsager(int idUsager) {
+        SessionUsager s = pour(idUsager);
+        if (s != null) {
+            s.usager = null;
+        }
+    }
+
+    /**
+     * Profil modifié, connu par son email
+     */
+    public static void invaliderUsager(String email) {
+        SessionUsager s = pour(email);
+        if (s != null) {
+            s.usager = null;
+        }
+    }
+
+    /**
+     * Véhicules de l'usager modifiés
+     */
+    public static void invaliderVehicule(int idUsager) {
+        SessionUsager s = pour(idUsager);
+        if (s != null) {
+            s.vehiculeCharge = false;
+        }
+    }
+
+    /**
+     * Abonnement de l'usager modifié
+     */
+    public static void invaliderAbonnement(int idUsager) {
+        SessionUsager s = pour(idUsager);
+        if (s != null) {
+            s.abonnementCharge = false;
+        }
+    }
+
+    /**
+     * Abonnement modifié ou supprimé (tarif, libellé, souscriptions retirées)
+     */
+    public static void invaliderAbonnement(String idAbonnement) {
+        SessionUsager s = courante;
+        if (s != null && s.abonnementCharge) {
+            Abonnement a = s.abonnementActif;
+            if (a != null && a.getIdAbonnement().equals(idAbonnement)) {
+                s.abonnementCharge = false;
+            }
+        }
+    }
+
+    // ==================== ACCÈS ====================
+
+    public int getIdUsager() {
+        return idUsager;
+    }
+
+    /**
+     * Usager connecté, relu par son identifiant après une invalidation
+     */
+    public Usager getUsager() {
+        Usager u = usager;
+        if (u == null) {
+            try {
+                u = UsagerDAO.getInstance().findByIdUsager(idUsager);
+                usager = u;
+            } catch (SQLException e) {
+                System.err.println("Erreur relecture de l'usager connecté: " + e.getMessage());
+            }
+        }
+        return u;
+    }
+
+    public VehiculeUsager getVehiculePrincipal() {
+        if (!vehiculeCharge) {
+            vehiculePrincipal = VehiculeUsagerDAO.getVehiculePrincipal(idUsager);
+            vehiculeCharge = true;
+        }
+        return vehiculePrincipal;
+    }
+
+    public Abonnement getAbonnementActif() {
+        if (!abonnementCharge) {
+            try {
+                abonnementActif = AbonnementDAO.getInstance().getAbonnementActif(idUsager);
+                abonnementCharge = true;
+            } catch (SQLException e) {
+                System.err.println("Erreur récupération abonnement actif: " + e.getMessage());
+                return null;
+            }
+        }
+        return abonnementActif;
+    }
+
+    /**
+     * Numéro de carte Tisséo, ou null si l'usager n'en a pas
+     */
+    public String getCarteTisseo() {
+        Usager u = getUsager();
+        return u == null ? null : u.getNumeroCarteTisseo();
+    }
+
+    public boolean hasCarteTisseo() {
+        String carte = getCarteTisseo();
+        return carte != null && !carte.trim().isEmpty();
+    }
+}
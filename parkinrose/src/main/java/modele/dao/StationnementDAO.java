@@ -1,16 +1,23 @@
 package modele.dao;
 
+import modele.Paiement;
 import modele.Stationnement;
 import modele.dao.requetes.*;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class StationnementDAO extends DaoModele<Stationnement> {
     
     private static StationnementDAO instance;
     
+    // Rejeu des réservations en cas d'interblocage MySQL
+    private static final int MAX_TENTATIVES_INTERBLOCAGE = 3;
+    private static final int ERREUR_MYSQL_INTERBLOCAGE = 1213;
+    private static final int ERREUR_MYSQL_ATTENTE_VERROU = 1205;
+    
     // Constructeur privé pour le singleton
     private StationnementDAO() {}
     
@@ -134,13 +141,30 @@ public class StationnementDAO extends DaoModele<Stationnement> {
      */
     public static boolean terminerStationnement(int idStationnement) {
         try {
-            String sql = "UPDATE Stationnement SET statut = 'TERMINE', date_fin = NOW() WHERE id_stationnement = ?";
+            CumulsUsagers cumuls = CumulsUsagers.getInstance();
+            String sql = "UPDATE Stationnement SET statut = 'TERMINE', date_fin = NOW() " +
+                        "WHERE id_stationnement = ? AND statut = 'ACTIF'";
             
             try (Connection conn = MySQLConnection.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
                 
-                stmt.setInt(1, idStationnement);
-                int lignesAffectees = stmt.executeUpdate();
+                // Statut et cumuls de l'usager changent ensemble
+                conn.setAutoCommit(false);
+                int lignesAffectees;
+                try {
+                    stmt.setInt(1, idStationnement);
+                    lignesAffectees = stmt.executeUpdate();
+                    if (lignesAffectees > 0) {
+                        cumuls.ajouterStationnement(conn, idStationnement);
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                EcheancierStationnements.getInstance().annuler(idStationnement);
                 return lignesAffectees > 0;
             }
         } catch (Exception e) {
@@ -174,6 +198,7 @@ public class StationnementDAO extends DaoModele<Stationnement> {
      * Termine un stationnement parking gratuit
      */
     private static boolean terminerStationnementParkingGratuit(int idStationnement, LocalDateTime heureDepart) throws SQLException {
+        CumulsUsagers cumuls = CumulsUsagers.getInstance();
         Connection conn = null;
         try {
             conn = MySQLConnection.getConnection();
@@ -208,7 +233,8 @@ public class StationnementDAO extends DaoModele<Stationnement> {
             
             // 2. Mettre à jour le stationnement (id_paiement = NULL pour éviter la contrainte)
             String sqlUpdate = "UPDATE Stationnement SET statut = 'TERMINE', heure_depart = ?, cout = 0.00, " +
-                              "id_paiement = NULL, statut_paiement = 'GRATUIT' WHERE id_stationnement = ?";
+                              "id_paiement = NULL, statut_paiement = 'GRATUIT' " +
+                              "WHERE id_stationnement = ? AND statut = 'ACTIF'";
             
             try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
                 stmt.setTimestamp(1, Timestamp.valueOf(heureDepart));
@@ -217,18 +243,15 @@ public class StationnementDAO extends DaoModele<Stationnement> {
                 int lignesAffectees = stmt.executeUpdate();
                 
                 if (lignesAffectees > 0) {
-                    // 3. Libérer les places selon le type de véhicule
-                    boolean isMoto = "Moto".equalsIgnoreCase(typeVehicule);
-                    boolean placesLiberees;
+                    cumuls.ajouterStationnement(conn, idStationnement);
                     
-                    if (isMoto && hasMoto) {
-                        placesLiberees = ParkingDAO.getInstance().incrementerPlacesMotoDisponibles(idParking);
-                    } else {
-                        placesLiberees = ParkingDAO.getInstance().incrementerPlacesDisponibles(idParking);
-                    }
+                    // 3. Libérer la place selon le type de véhicule
+                    boolean placeMoto = "Moto".equalsIgnoreCase(typeVehicule) && hasMoto;
                     
-                    if (placesLiberees) {
+                    // Sur la même connexion : la libération fait partie de la transaction
+                    if (ParkingDAO.getInstance().libererPlace(conn, idParking, placeMoto)) {
                         conn.commit();
+                        OccupationParkings.getInstance().placeLiberee(idParking, placeMoto);
                         return true;
                     } else {
                         conn.rollback();
@@ -285,20 +308,10 @@ public class StationnementDAO extends DaoModele<Stationnement> {
     
     /**
      * Nettoie les stationnements expirés (méthode statique)
+     * Passage immédiat du service d'expiration, qui tourne sinon en tâche de fond
      */
     public static void nettoyerStationnementsExpires() {
-        String sql = "UPDATE Stationnement SET statut = 'EXPIRE' WHERE statut = 'ACTIF' AND " +
-                    "date_fin IS NOT NULL AND date_fin < NOW()";
-        
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            System.err.println("Erreur nettoyage stationnements expirés: " + e.getMessage());
-            e.printStackTrace();
-        }
+        ExpirationStationnements.getInstance().balayer();
     }
     
     // ===================== MÉTHODES D'INSTANCE =====================
@@ -357,68 +370,14 @@ public class StationnementDAO extends DaoModele<Stationnement> {
             conn = MySQLConnection.getConnection();
             conn.setAutoCommit(false);
             
-            // 1. Récupérer les infos du stationnement
-            String sqlSelect = "SELECT s.*, p.has_moto FROM Stationnement s " +
-                              "LEFT JOIN Parking p ON s.id_parking = p.id_parking " +
-                              "WHERE s.id_stationnement = ?";
-            
-            String idParking = null;
-            String typeVehicule = null;
-            boolean hasMoto = false;
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sqlSelect)) {
-                stmt.setInt(1, idStationnement);
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) {
-                    idParking = rs.getString("id_parking");
-                    typeVehicule = rs.getString("type_vehicule");
-                    hasMoto = rs.getBoolean("has_moto");
-                } else {
-                    conn.rollback();
-                    return false;
-                }
-            }
-            
-            if (idParking == null) {
+            Runnable liberation = terminerStationnementParkingPrive(conn, idStationnement, heureDepart, cout, idPaiement);
+            if (liberation == null) {
                 conn.rollback();
                 return false;
             }
-            
-            // 2. Mettre à jour le stationnement
-            String sqlUpdate = "UPDATE Stationnement SET statut = 'TERMINE', heure_depart = ?, cout = ?, " +
-                              "id_paiement = ?, statut_paiement = 'PAYE' WHERE id_stationnement = ?";
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
-                stmt.setTimestamp(1, Timestamp.valueOf(heureDepart));
-                stmt.setDouble(2, cout);
-                stmt.setString(3, idPaiement);
-                stmt.setInt(4, idStationnement);
-                
-                int lignesAffectees = stmt.executeUpdate();
-                
-                if (lignesAffectees > 0) {
-                    // 3. Libérer les places selon le type de véhicule
-                    boolean isMoto = "Moto".equalsIgnoreCase(typeVehicule);
-                    boolean placesLiberees;
-                    
-                    if (isMoto && hasMoto) {
-                        placesLiberees = ParkingDAO.getInstance().incrementerPlacesMotoDisponibles(idParking);
-                    } else {
-                        placesLiberees = ParkingDAO.getInstance().incrementerPlacesDisponibles(idParking);
-                    }
-                    
-                    if (placesLiberees) {
-                        conn.commit();
-                        return true;
-                    } else {
-                        conn.rollback();
-                        return false;
-                    }
-                } else {
-                    conn.rollback();
-                    return false;
-                }
-            }
+            conn.commit();
+            liberation.run();
+            return true;
             
         } catch (SQLException e) {
             try {
@@ -440,7 +399,89 @@ public class StationnementDAO extends DaoModele<Stationnement> {
     }
     
     /**
-     * Récupère l'historique des stationnements d'un usager
+     * Termine un stationnement parking payant dans la transaction de l'appelant
+     * (statut, coût, paiement et cumuls mensuels)
+     * @return la mise à jour du compteur d'occupation, à exécuter une fois la transaction validée ;
+     *         null si le stationnement est introuvable, hors parking ou déjà terminé
+     */
+    private Runnable terminerStationnementParkingPrive(Connection conn, int idStationnement, LocalDateTime heureDepart,
+                                                       double cout, String idPaiement) throws SQLException {
+        // 1. Récupérer les infos du stationnement
+        String sqlSelect = "SELECT s.*, p.has_moto FROM Stationnement s " +
+                          "LEFT JOIN Parking p ON s.id_parking = p.id_parking " +
+                          "WHERE s.id_stationnement = ?";
+        
+        String idParking;
+        String typeVehicule;
+        boolean hasMoto;
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sqlSelect)) {
+            stmt.setInt(1, idStationnement);
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            idParking = rs.getString("id_parking");
+            typeVehicule = rs.getString("type_vehicule");
+            hasMoto = rs.getBoolean("has_moto");
+        }
+        
+        if (idParking == null) {
+            return null;
+        }
+        
+        // 2. Mettre à jour le stationnement
+        String sqlUpdate = "UPDATE Stationnement SET statut = 'TERMINE', heure_depart = ?, cout = ?, " +
+                          "id_paiement = ?, statut_paiement = 'PAYE' " +
+                          "WHERE id_stationnement = ? AND statut = 'ACTIF'";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(heureDepart));
+            stmt.setDouble(2, cout);
+            stmt.setString(3, idPaiement);
+            stmt.setInt(4, idStationnement);
+            
+            if (stmt.executeUpdate() == 0) {
+                return null;
+            }
+        }
+        CumulsUsagers.getInstance().ajouterStationnement(conn, idStationnement);
+        
+        // 3. Libérer la place selon le type de véhicule, dans la même transaction
+        boolean placeMoto = "Moto".equalsIgnoreCase(typeVehicule) && hasMoto;
+        if (!ParkingDAO.getInstance().libererPlace(conn, idParking, placeMoto)) {
+            return null;
+        }
+        return () -> OccupationParkings.getInstance().placeLiberee(idParking, placeMoto);
+    }
+    
+    /**
+     * Fin d'un stationnement parking réglé par un paiement, écrite par le journal des paiements
+     * dans la même transaction que le paiement
+     */
+    public JournalPaiements.Ecriture finParkingPayee(int idStationnement, LocalDateTime heureDepart, double cout) {
+        return new JournalPaiements.Ecriture() {
+            private Runnable liberation;
+            
+            @Override
+            public void executer(Connection conn, Paiement paiement) throws SQLException {
+                liberation = terminerStationnementParkingPrive(conn, idStationnement, heureDepart, cout,
+                                                               paiement.getIdPaiement());
+                if (liberation == null) {
+                    throw new SQLException("Stationnement " + idStationnement + " introuvable ou déjà terminé");
+                }
+            }
+            
+            @Override
+            public void apresValidation(Paiement paiement) {
+                liberation.run();
+            }
+        };
+    }
+    
+    /**
+     * Récupère l'historique complet des stationnements d'un usager
+     * (tout en mémoire : pour un affichage, parcourir plutôt getHistoriquePage)
      */
     public List<Stationnement> getHistoriqueStationnements(int idUsager) throws SQLException {
         String sql = "SELECT s.* FROM Stationnement s " +
@@ -454,6 +495,63 @@ public class StationnementDAO extends DaoModele<Stationnement> {
         }
     }
     
+    /**
+     * Page de l'historique d'un usager, du plus récent au plus ancien.
+     * Pagination par clé sur (date_creation, id_stationnement) : chaque page lit
+     * au plus taille lignes de l'index à partir de la précédente, quelle que soit la longueur de l'historique.
+     *
+     * @param dernier dernier stationnement de la page précédente, null pour la première page
+     * @param taille nombre maximal de stationnements de la page
+     */
+    public List<Stationnement> getHistoriquePage(int idUsager, Stationnement dernier, int taille) throws SQLException {
+        String sql;
+        if (dernier == null) {
+            sql = "SELECT s.* FROM Stationnement s WHERE s.id_usager = ? " +
+                  "ORDER BY s.date_creation DESC, s.id_stationnement DESC LIMIT ?";
+        } else {
+            sql = "SELECT s.* FROM Stationnement s WHERE s.id_usager = ? " +
+                  "AND (s.date_creation < ? OR (s.date_creation = ? AND s.id_stationnement < ?)) " +
+                  "ORDER BY s.date_creation DESC, s.id_stationnement DESC LIMIT ?";
+        }
+        
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int i = 1;
+            stmt.setInt(i++, idUsager);
+            if (dernier != null) {
+                Timestamp dateCreation = Timestamp.valueOf(dernier.getDateCreation());
+                stmt.setTimestamp(i++, dateCreation);
+                stmt.setTimestamp(i++, dateCreation);
+                stmt.setInt(i++, dernier.getIdStationnement());
+            }
+            stmt.setInt(i, taille);
+            return select(stmt);
+        }
+    }
+    
+    /**
+     * Nombre de stationnements de l'historique d'un usager
+     *
+     * @param statut ne compter que ce statut (ACTIF, TERMINE...), ou null pour tous
+     */
+    public int compterHistorique(int idUsager, String statut) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Stationnement WHERE id_usager = ?" +
+                     (statut != null ? " AND statut = ?" : "");
+        
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, idUsager);
+            if (statut != null) {
+                stmt.setString(2, statut);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
     /**
      * Vérifie si un usager a un stationnement actif
      */
@@ -495,6 +593,20 @@ public class StationnementDAO extends DaoModele<Stationnement> {
      * Crée un stationnement en voirie (méthode publique)
      */
     public boolean creerStationnementVoirie(Stationnement stationnement) throws SQLException {
+        boolean cree;
+        try (Connection conn = MySQLConnection.getConnection()) {
+            cree = creerStationnementVoirie(conn, stationnement);
+        }
+        if (cree) {
+            planifierEcheances(stationnement.getIdStationnement());
+        }
+        return cree;
+    }
+    
+    /**
+     * Crée un stationnement en voirie sur la connexion (et dans la transaction) de l'appelant
+     */
+    private boolean creerStationnementVoirie(Connection conn, Stationnement stationnement) throws SQLException {
 
         String sql = "INSERT INTO Stationnement (id_usager, type_vehicule, plaque_immatriculation, " +
                      "id_zone, duree_heures, duree_minutes, cout, " +
@@ -502,8 +614,7 @@ public class StationnementDAO extends DaoModele<Stationnement> {
                      "VALUES (?, ?, ?, ?, ?, ?, ?, 'ACTIF', NOW(), " +
                      "DATE_ADD(NOW(), INTERVAL ? MINUTE), 'VOIRIE', ?, ?)";
         
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setInt(1, stationnement.getIdUsager());
             pstmt.setString(2, stationnement.getTypeVehicule());
@@ -523,6 +634,11 @@ public class StationnementDAO extends DaoModele<Stationnement> {
             int rowsAffected = pstmt.executeUpdate();
 
             if (rowsAffected > 0) {
+                try (ResultSet cles = pstmt.getGeneratedKeys()) {
+                    if (cles.next()) {
+                        stationnement.setIdStationnement(cles.getInt(1));
+                    }
+                }
                 return true;
             } else {
                 return false;
@@ -530,41 +646,90 @@ public class StationnementDAO extends DaoModele<Stationnement> {
         }
     }
     
+    /**
+     * Création du stationnement en voirie réglé par un paiement, écrite par le journal des paiements
+     * dans la même transaction que le paiement
+     */
+    public JournalPaiements.Ecriture creationVoiriePayee(Stationnement stationnement) {
+        return new JournalPaiements.Ecriture() {
+            @Override
+            public void executer(Connection conn, Paiement paiement) throws SQLException {
+                stationnement.setIdPaiement(paiement.getIdPaiement());
+                if (!creerStationnementVoirie(conn, stationnement)) {
+                    throw new SQLException("Erreur lors de la création du stationnement");
+                }
+            }
+
+            @Override
+            public void apresValidation(Paiement paiement) {
+                planifierEcheances(stationnement.getIdStationnement());
+            }
+        };
+    }
+    
+    /**
+     * Inscrit un stationnement en voirie auprès de l'échéancier (rappel et expiration),
+     * relu en base pour sa date de fin exacte : à sa création et à chaque prolongation
+     */
+    private static void planifierEcheances(int idStationnement) {
+        EcheancierStationnements.getInstance().planifier(getStationnementById(idStationnement));
+    }
+    
+    /**
+     * Stationnements en voirie actifs de tous les usagers (inscrits au démarrage par l'échéancier)
+     */
+    public List<Stationnement> getStationnementsVoirieActifs() throws SQLException {
+        String sql = "SELECT * FROM Stationnement WHERE statut = 'ACTIF' AND type_stationnement = 'VOIRIE'";
+        
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            return select(stmt);
+        }
+    }
+    
     /**
      * Crée un stationnement en parking (méthode publique)
+     * 
+     * La place est réservée et le stationnement inséré dans une seule transaction,
+     * sur une seule connexion : deux arrivées simultanées ne peuvent pas obtenir
+     * la même dernière place. En cas d'interblocage MySQL, la transaction est rejouée.
      */
     public boolean creerStationnementParking(Stationnement stationnement) throws SQLException {
+        SQLException derniereErreur = null;
+        
+        for (int tentative = 1; tentative <= MAX_TENTATIVES_INTERBLOCAGE; tentative++) {
+            try {
+                return reserverEtCreerStationnementParking(stationnement);
+            } catch (SQLException e) {
+                if (!estInterblocage(e)) {
+                    throw e;
+                }
+                derniereErreur = e;
+                if (tentative < MAX_TENTATIVES_INTERBLOCAGE) {
+                    attendreAvantNouvelleTentative(tentative);
+                }
+            }
+        }
+        throw derniereErreur;
+    }
+    
+    /**
+     * Réserve la place puis insère le stationnement (une tentative)
+     */
+    private boolean reserverEtCreerStationnementParking(Stationnement stationnement) throws SQLException {
+        OccupationParkings occupation = OccupationParkings.getInstance();
+        boolean isMoto = "Moto".equalsIgnoreCase(stationnement.getTypeVehicule());
+        String idParking = stationnement.getIdTarification();
+        
         Connection conn = null;
         try {
             conn = MySQLConnection.getConnection();
             conn.setAutoCommit(false);
             
-            // Vérifier les places selon le type de véhicule
-            boolean isMoto = "Moto".equalsIgnoreCase(stationnement.getTypeVehicule());
-            String idParking = stationnement.getIdTarification();
-            
-            ParkingDAO parkingDAO = ParkingDAO.getInstance();
-            
-            if (isMoto) {
-                if (parkingDAO.getPlacesMotoDisponibles(idParking) <= 0) {
-                    conn.rollback();
-                    return false;
-                }
-                // Décrémenter places moto
-                if (!parkingDAO.decrementerPlacesMotoDisponibles(idParking)) {
-                    conn.rollback();
-                    return false;
-                }
-            } else {
-                if (parkingDAO.getPlacesDisponibles(idParking) <= 0) {
-                    conn.rollback();
-                    return false;
-                }
-                // Décrémenter places normales
-                if (!parkingDAO.decrementerPlacesDisponibles(idParking)) {
-                    conn.rollback();
-                    return false;
-                }
+            // Réserver la place selon le type de véhicule (décrément conditionnel atomique)
+            if (!ParkingDAO.getInstance().reserverPlace(conn, idParking, isMoto)) {
+                conn.rollback();
+                return false;
             }
             
             String statutPaiement = stationnement.getStatutPaiement();
@@ -590,7 +755,7 @@ public class StationnementDAO extends DaoModele<Stationnement> {
             
                 if (lignesAffectees > 0) {
                     conn.commit();
-                    System.out.println("✓ Stationnement créé avec succès, statut = " + statutPaiement);
+                    occupation.placeReservee(idParking, isMoto);
                     return true;
                 } else {
                     conn.rollback();
@@ -617,6 +782,26 @@ public class StationnementDAO extends DaoModele<Stationnement> {
         }
     }
     
+    /**
+     * Indique si l'erreur est un interblocage ou un dépassement d'attente de verrou (transaction rejouable)
+     */
+    private static boolean estInterblocage(SQLException e) {
+        return e instanceof SQLTransactionRollbackException
+            || "40001".equals(e.getSQLState())
+            || e.getErrorCode() == ERREUR_MYSQL_INTERBLOCAGE
+            || e.getErrorCode() == ERREUR_MYSQL_ATTENTE_VERROU;
+    }
+    
+    private static void attendreAvantNouvelleTentative(int tentative) throws SQLException {
+        try {
+            // Attente croissante et légèrement aléatoire pour désynchroniser les transactions concurrentes
+            Thread.sleep(10L * tentative + ThreadLocalRandom.current().nextInt(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Réservation interrompue", e);
+        }
+    }
+    
     /**
      * Récupère les stationnements avec filtres multiples
      */
@@ -662,34 +847,37 @@ public class StationnementDAO extends DaoModele<Stationnement> {
     }
     
     /**
-     * Récupère les statistiques des stationnements d'un usager
+     * Récupère les statistiques des stationnements d'un usager :
+     * {total, actifs, voirie, parking, coût total}, sans parcourir son historique
      */
     public Object[] getStatistiquesStationnements(int idUsager) throws SQLException {
+        // Stationnements terminés : cumuls mensuels
+        CumulsUsagers.Cumul cumul = CumulsUsagers.getInstance().getTotal(idUsager);
+        
+        // Stationnements encore actifs, peu nombreux : lus directement
         String sql = "SELECT " +
-                    "COUNT(*) as total, " +
-                    "SUM(CASE WHEN statut = 'ACTIF' THEN 1 ELSE 0 END) as actifs, " +
+                    "COUNT(*) as actifs, " +
                     "SUM(CASE WHEN type_stationnement = 'VOIRIE' THEN 1 ELSE 0 END) as voirie, " +
                     "SUM(CASE WHEN type_stationnement = 'PARKING' THEN 1 ELSE 0 END) as parking, " +
                     "COALESCE(SUM(cout), 0) as total_cout " +
-                    "FROM Stationnement WHERE id_usager = ?";
+                    "FROM Stationnement WHERE id_usager = ? AND statut = 'ACTIF'";
         
         try (Connection conn = MySQLConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, idUsager);
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return new Object[] {
-                        rs.getInt("total"),
-                        rs.getInt("actifs"),
-                        rs.getInt("voirie"),
-                        rs.getInt("parking"),
-                        rs.getDouble("total_cout")
-                    };
-                }
+                rs.next();
+                int actifs = rs.getInt("actifs");
+                return new Object[] {
+                    cumul.getNombreStationnements() + actifs,
+                    actifs,
+                    cumul.getNombreVoirie() + rs.getInt("voirie"),
+                    cumul.getNombreParking() + rs.getInt("parking"),
+                    cumul.getCoutStationnements() + rs.getDouble("total_cout")
+                };
             }
         }
-        return new Object[] {0, 0, 0, 0, 0.0};
     }
     /**
      * Crée un stationnement en voirie gratuit sans passer par le paiement
@@ -705,7 +893,7 @@ String sql = "INSERT INTO Stationnement (id_usager, type_vehicule, plaque_immatr
 "DATE_ADD(NOW(), INTERVAL ? MINUTE), 'VOIRIE', 'GRATUIT', NULL)";
 
 try (Connection conn = MySQLConnection.getConnection();
-PreparedStatement pstmt = conn.prepareStatement(sql)) {
+PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
 pstmt.setInt(1, idUsager);
 pstmt.setString(2, typeVehicule);
@@ -719,6 +907,13 @@ int dureeTotaleMinutes = (heures * 60) + minutes;
 pstmt.setInt(7, dureeTotaleMinutes);
 
 int rowsAffected = pstmt.executeUpdate();
+if (rowsAffected > 0) {
+try (ResultSet cles = pstmt.getGeneratedKeys()) {
+if (cles.next()) {
+planifierEcheances(cles.getInt(1));
+}
+}
+}
 
 return rowsAffected > 0;
 
@@ -741,6 +936,9 @@ return false;
             stmt.setInt(2, idStationnement);
             
             int lignesAffectees = stmt.executeUpdate();
+            if (lignesAffectees > 0) {
+                planifierEcheances(idStationnement);
+            }
             return lignesAffectees > 0;
             
         } catch (SQLException e) {
@@ -778,6 +976,7 @@ return false;
 
     			if (lignesAffectees > 0) {
     				conn.commit();
+    				planifierEcheances(idStationnement);
     				return true;
     			} else {
     				conn.rollback();
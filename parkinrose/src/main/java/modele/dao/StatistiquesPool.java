@@ -0,0 +1,121 @@
+package modele.dao;
+
+/**
+ * Photographie immuable de l'état du pool de connexions
+ */
+public class StatistiquesPool {
+
+    private final int actives;
+    private final int inactives;
+    private final int enAttente;
+    private final int tailleMax;
+    private final long totalEmprunts;
+    private final long expirationsAttente;
+    private final long connexionsCreees;
+    private final long connexionsDetruites;
+    private final long[] histogrammeLatence;
+    private final long cacheSucces;
+    private final long cacheEchecs;
+    private final long cacheEvictions;
+
+    public StatistiquesPool(int actives, int inactives, int enAttente, int tailleMax,
+                            long totalEmprunts, long expirationsAttente,
+                            long connexionsCreees, long connexionsDetruites,
+                            long[] histogrammeLatence,
+                            long cacheSucces, long cacheEchecs, long cacheEvictions) {
+        this.actives = actives;
+        this.inactives = inactives;
+        this.enAttente = enAttente;
+        this.tailleMax = tailleMax;
+        this.totalEmprunts = totalEmprunts;
+        this.expirationsAttente = expirationsAttente;
+        this.connexionsCreees = connexionsCreees;
+        this.connexionsDetruites = connexionsDetruites;
+        this.histogrammeLatence = histogrammeLatence.clone();
+        this.cacheSucces = cacheSucces;
+        this.cacheEchecs = cacheEchecs;
+        this.cacheEvictions = cacheEvictions;
+    }
+
+    public int getActives() {
+        return actives;
+    }
+
+    public int getInactives() {
+        return inactives;
+    }
+
+    public int getEnAttente() {
+        return enAttente;
+    }
+
+    public int getTailleMax() {
+        return tailleMax;
+    }
+
+    public long getTotalEmprunts() {
+        return totalEmprunts;
+    }
+
+    public long getExpirationsAttente() {
+        return expirationsAttente;
+    }
+
+    public long getConnexionsCreees() {
+        return connexionsCreees;
+    }
+
+    public long getConnexionsDetruites() {
+        return connexionsDetruites;
+    }
+
+    /**
+     * Nombre d'emprunts par tranche de latence.
+     * La tranche i couvre [borne(i-1), borne(i)[ ms, la dernière tout ce qui dépasse la plus grande borne.
+     */
+    public long[] getHistogrammeLatence() {
+        return histogrammeLatence.clone();
+    }
+
+    public long[] getBornesLatenceMs() {
+        return PoolConnexions.BORNES_LATENCE_MS.clone();
+    }
+
+    public long getCacheSucces() {
+        return cacheSucces;
+    }
+
+    public long getCacheEchecs() {
+        return cacheEchecs;
+    }
+
+    public long getCacheEvictions() {
+        return cacheEvictions;
+    }
+
+    /**
+     * Proportion de requêtes servies par le cache de PreparedStatement (0 si aucune)
+     */
+    public double getTauxSuccesCache() {
+        long total = cacheSucces + cacheEchecs;
+        return total == 0 ? 0.0 : (double) cacheSucces / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Pool: %d actives, %d inactives, %d en attente (max %d)%n",
+                                actives, inactives, enAttente, tailleMax));
+        sb.append(String.format("Emprunts: %d (dont %d expirés), connexions créées: %d, détruites: %d%n",
+                                totalEmprunts, expirationsAttente, connexionsCreees, connexionsDetruites));
+        sb.append("Latence d'emprunt:");
+        long[] bornes = PoolConnexions.BORNES_LATENCE_MS;
+        for (int i = 0; i < histogrammeLatence.length; i++) {
+            String tranche = i < bornes.length ? "<" + bornes[i] + "ms" : ">=" + bornes[bornes.length - 1] + "ms";
+            sb.append(" ").append(tranche).append("=").append(histogrammeLatence[i]);
+        }
+        sb.append(String.format("%nCache de requêtes: %d succès, %d échecs, %d évictions (%.1f%%)",
+                                cacheSucces, cacheEchecs, cacheEvictions, getTauxSuccesCache() * 100));
+        return sb.toString();
+    }
+}
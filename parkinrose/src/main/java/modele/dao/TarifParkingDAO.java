@@ -2,11 +2,11 @@ package modele.dao;
 
 import modele.Abonnement;
 import modele.Parking;
-import modele.dao.requetes.*;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,11 +15,8 @@ public class TarifParkingDAO {
     
     private static TarifParkingDAO instance;
     
-    // Liste des parkings gratuits
-    private static final String[] PARKINGS_GRATUITS = {
-        "PARK_VIGUERIE", "PARK_BOULE", "PARK_VELODROME",
-        "PARK_PONTS_JUMEAUX", "PARK_BONNEFOY", "PARK_MIRAIL", "PARK_CROIX_PIERRE"
-    };
+    // Règles de tarification compilées (chargées une fois, rechargées sur modification)
+    private final MoteurTarifs moteur = MoteurTarifs.getInstance();
     
     // Constructeur privé pour le singleton
     private TarifParkingDAO() {}
@@ -69,136 +66,32 @@ public class TarifParkingDAO {
     /**
      * Calcule le coût du stationnement en parking selon la durée réelle (méthode privée)
      */
-    private double calculerCoutParkingPrive(LocalDateTime heureArrivee, LocalDateTime heureDepart, String idParking) throws SQLException {
-        // Vérifier si le parking est gratuit
-        if (estParkingGratuit(idParking)) {
-            return 0.00;
-        }
-        
-        if (estParkingRelais(idParking)) {
-            return 0.00;
-        }
-        
-        // Vérifier si le tarif soirée s'applique
-        if (tarifSoireeApplicable(heureArrivee, heureDepart, idParking)) {
-            return 5.90;
-        }
-        
-        // Calcul normal de la durée
-        long dureeMinutes = ChronoUnit.MINUTES.between(heureArrivee, heureDepart);
-        
-        // Minimum de 15 minutes
-        if (dureeMinutes < 15) {
-            dureeMinutes = 15;
-        }
-        
-        // Tarification au quart d'heure
-        double tarifQuartHeure = getTarifQuartHeure(idParking);
-        int nombreQuarts = (int) Math.ceil(dureeMinutes / 15.0);
-        
-        double cout = nombreQuarts * tarifQuartHeure;
-        
-        // Forfait 24h maximum (tarif horaire * 24)
-        double tarifHoraire = getTarifHoraire(idParking);
-        double max24h = tarifHoraire * 24;
-        
-        if (cout > max24h && dureeMinutes <= (24 * 60)) {
-            cout = max24h;
-        }
-        return cout;
+    private double calculerCoutParkingPrive(LocalDateTime heureArrivee, LocalDateTime heureDepart, String idParking) {
+        // Gratuit, relais, tarif soirée puis quart d'heure plafonné à 24h : voir MoteurTarifs
+        return moteur.calculerCout(heureArrivee, heureDepart, idParking);
+    }
+    
+    /**
+     * Calcule en une passe le devis (coût, gratuit, relais, tarif soirée) de plusieurs parkings
+     * pour un même créneau, sans requête par parking
+     */
+    public DevisParkings calculerDevis(Collection<Parking> parkings, LocalDateTime heureArrivee, LocalDateTime heureDepart) {
+        return moteur.calculerDevis(parkings, heureArrivee, heureDepart);
     }
     
     /**
      * Récupère le tarif au quart d'heure pour un parking donné
      */
     public double getTarifQuartHeure(String idParking) {
-        Map<String, Double> tarifs = new HashMap<>();
-        
-        // Parkings standards
-        tarifs.put("PARK_CAPITOLE", 0.75);   // 3€/h
-        tarifs.put("PARK_CARNOT", 0.75);     // 3€/h
-        tarifs.put("PARK_ESQUIROL", 0.63);   // 2.50€/h
-        tarifs.put("PARK_SAINT_ETIENNE", 0.63); // 2.50€/h
-        tarifs.put("PARK_JEAN_JAURES", 0.50); // 2€/h
-        tarifs.put("PARK_JEANNE_DARC", 0.50); // 2€/h
-        tarifs.put("PARK_EUROPE", 0.50);     // 2€/h
-        tarifs.put("PARK_VICTOR_HUGO", 0.50); // 2€/h
-        tarifs.put("PARK_SAINT_AUBIN", 0.50); // 2€/h
-        tarifs.put("PARK_SAINT_CYPRIEN", 0.50); // 2€/h
-        tarifs.put("PARK_SAINT_MICHEL", 0.38); // 1.50€/h
-        tarifs.put("PARK_MATABIAU", 1.00);   // 4€/h
-        tarifs.put("PARK_ARNAUD_BERNARD", 0.38); // 1.50€/h
-        tarifs.put("PARK_CARMES", 0.63);     // 2.50€/h
-        
-        // Parkings relais (tarif normal si pas de carte Tisséo)
-        tarifs.put("PARK_SEPT_DENIERS", 0.25); // 1€/h
-        tarifs.put("PARK_BAGATELLE", 0.25);  // 1€/h
-        tarifs.put("PARK_JOLIMONT", 0.25);   // 1€/h
-        tarifs.put("PARK_ARENES", 0.25);     // 1€/h
-        
-        return tarifs.getOrDefault(idParking, 0.50); // Tarif par défaut 2€/h
+        return moteur.getTarifQuartHeure(idParking);
     }
     
     /**
      * Vérifie si le tarif soirée s'applique avec des règles précises
+     * (arrivée 19h30-minuit, départ avant 3h le lendemain, 8 heures maximum)
      */
     public boolean tarifSoireeApplicable(LocalDateTime heureArrivee, LocalDateTime heureDepart, String idParking) throws SQLException {
-        // Vérifier si le parking propose le tarif soirée
-        if (!proposeTarifSoiree(idParking)) {
-            return false;
-        }
-        
-        // Extraire les composants de temps
-        int heureArriveeH = heureArrivee.getHour();
-        int minuteArrivee = heureArrivee.getMinute();
-        int heureDepartH = heureDepart.getHour();
-        int minuteDepart = heureDepart.getMinute();
-        
-        // Calculer la durée totale en minutes
-        long dureeMinutesTotal = java.time.Duration.between(heureArrivee, heureDepart).toMinutes();
-        
-        // Vérifier la durée maximale (8 heures = 480 minutes)
-        if (dureeMinutesTotal > 480) {
-            return false;
-        }
-        
-        // Vérifier si l'arrivée est dans la plage tarif soirée (19h30 à minuit)
-        boolean arriveeValide = false;
-        
-        // Cas 1: Arrivée entre 19h30 et 19h59
-        if (heureArriveeH == 19 && minuteArrivee >= 30) {
-            arriveeValide = true;
-        }
-        // Cas 2: Arrivée entre 20h et 23h
-        else if (heureArriveeH >= 20 && heureArriveeH <= 23) {
-            arriveeValide = true;
-        }
-        // Cas 3: Arrivée à minuit pile (0h00)
-        else if (heureArriveeH == 0 && minuteArrivee == 0 && heureArrivee.toLocalDate().equals(heureDepart.toLocalDate())) {
-            arriveeValide = true;
-        }
-        
-        if (!arriveeValide) {
-            return false;
-        }
-        
-        // Vérifier si le départ est avant 3h00 du matin
-        boolean departValide = false;
-        
-        // Si arrivée et départ même jour (arrivée entre 19h30 et minuit, départ avant minuit)
-        if (heureArrivee.toLocalDate().equals(heureDepart.toLocalDate())) {
-            departValide = heureDepartH < 24; // Départ avant minuit
-        }
-        // Départ le lendemain (cas normal pour tarif soirée)
-        else {
-            // Vérifier que le départ est le lendemain de l'arrivée
-            LocalDateTime lendemainArrivee = heureArrivee.plusDays(1);
-            if (heureDepart.toLocalDate().equals(lendemainArrivee.toLocalDate())) {
-                departValide = heureDepartH < 3 || (heureDepartH == 3 && minuteDepart == 0);
-            }
-        }
-        
-        return departValide;
+        return moteur.tarifSoireeApplicable(heureArrivee, heureDepart, idParking);
     }
     
     /**
@@ -242,7 +135,7 @@ public class TarifParkingDAO {
         
         if (proposeTarifSoiree(idParking)) {
             sb.append("\n");
-            sb.append("Tarif soirée disponible: 5.90€");
+            sb.append(String.format("Tarif soirée disponible: %.2f€", moteur.getMontantSoiree(idParking)));
             sb.append("\n(Arrivée 19h30-minuit, départ avant 3h)");
         }
         
@@ -250,10 +143,10 @@ public class TarifParkingDAO {
     }
     
     /**
-     * Donne la description textuelle du tarif soirée
+     * Donne la description textuelle du tarif soirée (montant par défaut)
      */
     public String getDescriptionTarifSoiree() {
-        return "Tarif Soirée: 5.90€\n" +
+        return String.format("Tarif Soirée: %.2f€\n", MoteurTarifs.MONTANT_SOIREE_DEFAUT) +
                "Conditions:\n" +
                "- Arrivée entre 19h30 et minuit\n" +
                "- Départ avant 3h le lendemain\n" +
@@ -264,42 +157,63 @@ public class TarifParkingDAO {
      * Vérifie si le parking propose le tarif soirée
      */
     public boolean proposeTarifSoiree(String idParking) throws SQLException {
-        String sql = "SELECT tarif_soiree FROM Parking WHERE id_parking = ?";
-        try (Connection conn = MySQLConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, idParking);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getBoolean("tarif_soiree");
-            }
-        }
-        return false;
+        return moteur.proposeTarifSoiree(idParking);
     }
     
     /**
      * Vérifie si le parking est gratuit
      */
     public boolean estParkingGratuit(String idParking) {
-        for (String parking : PARKINGS_GRATUITS) {
-            if (parking.equals(idParking)) {
-                return true;
-            }
-        }
-        return false;
+        return moteur.estGratuit(idParking);
     }
     
     /**
      * Vérifie si c'est un parking relais
      */
     public boolean estParkingRelais(String idParking) throws SQLException {
-        return getParkingsRelais().contains(idParking);
+        return moteur.estRelais(idParking);
     }
     
     /**
      * Récupère le tarif horaire pour un parking
      */
     public double getTarifHoraire(String idParking) {
-        return getTarifQuartHeure(idParking) * 4; // 4 quarts d'heure = 1 heure
+        return moteur.getTarifHoraire(idParking);
+    }
+    
+    /**
+     * Enregistre le tarif horaire d'un parking (administration) et recharge les règles
+     */
+    public void enregistrerTarifHoraire(String idParking, double tarifHoraire) throws SQLException {
+        moteur.enregistrerTarifHoraire(idParking, tarifHoraire);
+    }
+    
+    /**
+     * Enregistre le forfait 24h d'un parking (null : 24 x tarif horaire) et recharge les règles
+     */
+    public void enregistrerForfait24h(String idParking, Double forfait24h) throws SQLException {
+        moteur.enregistrerForfait24h(idParking, forfait24h);
+    }
+    
+    /**
+     * Enregistre le montant du tarif soirée d'un parking (null : montant par défaut) et recharge les règles
+     */
+    public void enregistrerMontantSoiree(String idParking, Double montantSoiree) throws SQLException {
+        moteur.enregistrerMontantSoiree(idParking, montantSoiree);
+    }
+    
+    /**
+     * Rend un parking gratuit ou payant (administration) et recharge les règles
+     */
+    public void enregistrerGratuit(String idParking, boolean gratuit) throws SQLException {
+        moteur.enregistrerGratuit(idParking, gratuit);
+    }
+    
+    /**
+     * Recharge les règles de tarification après une modification des parkings
+     */
+    public void rechargerTarifs() {
+        moteur.recharger();
     }
     
     /**
@@ -3,6 +3,7 @@ package modele.dao;
 import modele.Usager;
 import modele.dao.requetes.RequeteSelectUsager;
 import modele.dao.requetes.RequeteSelectUsagerByEmail;
+import modele.dao.requetes.RequeteSelectUsagerById;
 import modele.dao.requetes.RequeteInsertUsager;
 import modele.dao.requetes.RequeteUpdateUsager;
 import modele.dao.requetes.RequeteUpdateMotDePasse;
@@ -15,10 +16,29 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 
+/**
+ * Accès aux usagers.
+ *
+ * La recherche de la gestion des utilisateurs est paginée côté serveur (rechercherPage) :
+ * pages bornées sur la clé primaire, filtrées par un index FULLTEXT à n-grammes
+ * sur nom, prénom et email, créé par le script evolutions_bdd.sql :
+ * <pre>
+ * CREATE FULLTEXT INDEX ft_usager_recherche
+ *     ON Usager (nom_usager, prenom_usager, mail_usager) WITH PARSER ngram;
+ * </pre>
+ */
 public class UsagerDAO extends DaoModele<Usager> implements Dao<Usager> {
 
     private static UsagerDAO instance;
 
+    private static final String INDEX_RECHERCHE = "ft_usager_recherche";
+
+    /** Longueur minimale d'un terme pour l'index n-grammes (ngram_token_size par défaut) */
+    private static final int LONGUEUR_NGRAMME = 2;
+
+    // null tant que l'index n'a pas été vérifié
+    private static volatile Boolean indexRechercheDisponible;
+
     // Singleton
     public static UsagerDAO getInstance() {
         if (instance == null) {
@@ -42,6 +62,14 @@ public class UsagerDAO extends DaoModele<Usager> implements Dao<Usager> {
         return findById(req, id);
     }
 
+    /**
+     * Récupère un usager par son identifiant
+     */
+    public Usager findByIdUsager(int idUsager) throws SQLException {
+        RequeteSelectUsagerById req = new RequeteSelectUsagerById();
+        return findById(req, String.valueOf(idUsager));
+    }
+
     @Override
     public void create(Usager usager) throws SQLException {
         RequeteInsertUsager req = new RequeteInsertUsager();
@@ -52,6 +80,7 @@ public class UsagerDAO extends DaoModele<Usager> implements Dao<Usager> {
     public void update(Usager usager) throws SQLException {
         RequeteUpdateUsager req = new RequeteUpdateUsager();
         miseAJour(req, usager);
+        SessionUsager.invaliderUsager(usager.getIdUsager());
     }
 
     @Override
@@ -72,6 +101,83 @@ public class UsagerDAO extends DaoModele<Usager> implements Dao<Usager> {
         return usager;
     }
 
+    /**
+     * Page de résultats de la recherche d'usagers, triée par identifiant.
+     * Terme vide : tous les usagers. Terme d'au moins deux caractères : sous-chaîne du nom,
+     * du prénom ou de l'email, par l'index n-grammes. Un seul caractère (ou base sans l'index) :
+     * début du nom, du prénom ou de l'email.
+     *
+     * @param terme le texte saisi
+     * @param idApres identifiant du dernier usager de la page précédente (0 pour la première)
+     * @param taille nombre maximal d'usagers renvoyés
+     */
+    public List<Usager> rechercherPage(String terme, int idApres, int taille) throws SQLException {
+        String t = terme == null ? "" : terme.trim();
+        boolean parIndex = t.length() >= LONGUEUR_NGRAMME && indexRechercheDisponible();
+        String sql;
+        if (t.isEmpty()) {
+            sql = "SELECT * FROM Usager WHERE id_usager > ? ORDER BY id_usager LIMIT ?";
+        } else if (parIndex) {
+            sql = "SELECT * FROM Usager " +
+                  "WHERE MATCH(nom_usager, prenom_usager, mail_usager) AGAINST (? IN BOOLEAN MODE) " +
+                  "AND id_usager > ? ORDER BY id_usager LIMIT ?";
+        } else {
+            sql = "SELECT * FROM Usager " +
+                  "WHERE (nom_usager LIKE ? OR prenom_usager LIKE ? OR mail_usager LIKE ?) " +
+                  "AND id_usager > ? ORDER BY id_usager LIMIT ?";
+        }
+
+        try (Connection conn = MySQLConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (!t.isEmpty()) {
+                if (parIndex) {
+                    // Phrase entre guillemets : les n-grammes doivent se suivre, comme une sous-chaîne
+                    stmt.setString(i++, "\"" + t.replace("\"", " ") + "\"");
+                } else {
+                    String prefixe = t.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                    stmt.setString(i++, prefixe);
+                    stmt.setString(i++, prefixe);
+                    stmt.setString(i++, prefixe);
+                }
+            }
+            stmt.setInt(i++, idApres);
+            stmt.setInt(i, taille);
+            return select(stmt);
+        }
+    }
+
+    /**
+     * Vérifie une fois que l'index de recherche existe (evolutions_bdd.sql).
+     * Sans lui (script non appliqué, MySQL sans analyseur ngram), la recherche se replie sur les préfixes.
+     */
+    private static boolean indexRechercheDisponible() {
+        if (indexRechercheDisponible != null) {
+            return indexRechercheDisponible;
+        }
+        synchronized (UsagerDAO.class) {
+            if (indexRechercheDisponible != null) {
+                return indexRechercheDisponible;
+            }
+            String sql = "SELECT COUNT(*) FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'Usager' AND index_name = ?";
+            try (Connection conn = MySQLConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, INDEX_RECHERCHE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    indexRechercheDisponible = rs.next() && rs.getInt(1) > 0;
+                }
+                if (!indexRechercheDisponible) {
+                    System.err.println("Index de recherche des usagers absent (evolutions_bdd.sql), recherche par préfixe");
+                }
+            } catch (SQLException e) {
+                System.err.println("Index de recherche des usagers indisponible: " + e.getMessage());
+                indexRechercheDisponible = false;
+            }
+            return indexRechercheDisponible;
+        }
+    }
+
     /**
      * Vérifie si un email existe déjà
      */
@@ -101,6 +207,7 @@ public class UsagerDAO extends DaoModele<Usager> implements Dao<Usager> {
         usagerTemp.setMailUsager(email);
         usagerTemp.setMotDePasse(nouveauMotDePasse);
         int result = miseAJour(req, usagerTemp);
+        SessionUsager.invaliderUsager(email);
         return result > 0;
     }
 
@@ -108,6 +215,10 @@ public class UsagerDAO extends DaoModele<Usager> implements Dao<Usager> {
      * Récupère la carte Tisséo d'un utilisateur
      */
     public String getCarteTisseoByUsager(int idUsager) throws SQLException {
+        SessionUsager session = SessionUsager.pour(idUsager);
+        if (session != null) {
+            return session.getCarteTisseo();
+        }
         String sql = "SELECT numero_carte_tisseo FROM Usager WHERE id_usager = ?";
         
         try (Connection conn = MySQLConnection.getConnection();
@@ -137,6 +248,7 @@ public class UsagerDAO extends DaoModele<Usager> implements Dao<Usager> {
             stmt.setInt(2, idUsager);
             
             int rowsAffected = stmt.executeUpdate();
+            SessionUsager.invaliderUsager(idUsager);
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -231,9 +343,14 @@ public class UsagerDAO extends DaoModele<Usager> implements Dao<Usager> {
         return usager;
     }
     /**
-     * Récupère un utilisateur par son adresse email (version statique)
+     * Récupère un utilisateur par son adresse email (version statique).
+     * L'usager connecté est pris dans sa session, sans requête.
      */
     public static Usager getUsagerByEmail(String email) {
+        SessionUsager session = SessionUsager.pour(email);
+        if (session != null && session.getUsager() != null) {
+            return session.getUsager();
+        }
         try {
             return getInstance().findById(email);
         } catch (SQLException e) {
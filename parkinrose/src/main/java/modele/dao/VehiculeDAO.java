@@ -285,7 +285,8 @@ public class VehiculeDAO extends DaoModele<Vehicule> implements Dao<Vehicule> {
         Connection conn = MySQLConnection.getConnection();
         PreparedStatement prSt = conn.prepareStatement(req.requete());
         ResultSet rs = prSt.executeQuery();
-        iterateur = new Iterateur<>(rs, this);
+        // L'itérateur rend la connexion au pool une fois fermé ou épuisé
+        iterateur = new Iterateur<>(rs, this, conn);
         return iterateur;
     }
 
@@ -93,6 +93,10 @@ public class VehiculeUsagerDAO extends DaoModele<VehiculeUsager> implements Dao<
      * Récupère le véhicule principal d'un utilisateur (version statique)
      */
     public static VehiculeUsager getVehiculePrincipalStatic(int idUsager) {
+        SessionUsager session = SessionUsager.pour(idUsager);
+        if (session != null) {
+            return session.getVehiculePrincipal();
+        }
         try {
             return getInstance().getVehiculePrincipal(idUsager);
         } catch (Exception e) {
@@ -136,6 +140,11 @@ public class VehiculeUsagerDAO extends DaoModele<VehiculeUsager> implements Dao<
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, idVehicule);
             int rows = stmt.executeUpdate();
+            // Le propriétaire n'est pas connu ici : la session courante relira son véhicule principal
+            SessionUsager session = SessionUsager.getCourante();
+            if (session != null) {
+                SessionUsager.invaliderVehicule(session.getIdUsager());
+            }
             return rows > 0;
         } catch (SQLException e) {
             System.err.println("Erreur suppression véhicule: " + e.getMessage());
@@ -166,6 +175,7 @@ public class VehiculeUsagerDAO extends DaoModele<VehiculeUsager> implements Dao<
                 
                 if (rows > 0) {
                     conn.commit();
+                    SessionUsager.invaliderVehicule(idUsager);
                     return true;
                 } else {
                     conn.rollback();
@@ -266,6 +276,7 @@ public class VehiculeUsagerDAO extends DaoModele<VehiculeUsager> implements Dao<
             }
             
             conn.commit();
+            SessionUsager.invaliderVehicule(vehicule.getIdUsager());
             return true;
             
         } catch (SQLException e) {
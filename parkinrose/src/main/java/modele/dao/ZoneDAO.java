@@ -3,7 +3,6 @@ package modele.dao;
 import modele.Zone;
 import modele.dao.requetes.RequeteSelectAllZones;
 import modele.dao.requetes.RequeteSelectZoneById;
-import modele.dao.requetes.RequeteSelectZonesRecherche;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -71,11 +70,10 @@ public class ZoneDAO extends DaoModele<Zone> implements Dao<Zone> {
     }
 
     /**
-     * Recherche des zones par terme
+     * Recherche des zones par terme (libellé ou identifiant), dans l'index plein texte en mémoire
      */
     public List<Zone> rechercherZones(String terme) throws SQLException {
-        RequeteSelectZonesRecherche req = new RequeteSelectZonesRecherche();
-        return find(req, "%" + terme + "%", "%" + terme + "%");
+        return IndexRechercheParkings.getInstance().rechercherZones(terme, Integer.MAX_VALUE);
     }
 
     @Override
@@ -123,9 +123,8 @@ public class AbonnementDAOTest {
      */
     private void fermerConnexion() throws SQLException {
         if (conn != null && !conn.isClosed()) {
-            // Ne pas fermer la connexion si elle est partagée
-            // (dépend de l'implémentation de MySQLConnection)
-            // conn.close();
+            // Rendre la connexion au pool pour ne pas épuiser les permis
+            conn.close();
         }
     }
     
@@ -18,7 +18,17 @@ import org.junit.runners.Suite;
     StationnementDAOTest.class,
     UsagerDAOTest.class,
     TarifParkingDAOTest.class,
-    ModifMdpDAOTest.class
+    ModifMdpDAOTest.class,
+    PoolConnexionsTest.class,
+    ReservationConcurrenteTest.class,
+    OccupationParkingsTest.class,
+    IndexSpatialParkingsTest.class,
+    ResolveurZonesTest.class,
+    BusEvenementsTest.class,
+    EcheancierStationnementsTest.class,
+    IndexTexteTest.class,
+    CacheReferenceTest.class,
+    SessionUsagerTest.class
 })
 public class AllTests {
     // Classe conteneur pour exécuter tous les tests
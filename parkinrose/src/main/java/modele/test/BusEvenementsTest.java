@@ -0,0 +1,92 @@
+package modele.test;
+
+import org.junit.Test;
+import org.junit.After;
+import static org.junit.Assert.*;
+
+import utils.BusEvenements;
+import javax.swing.SwingUtilities;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Classe de tests unitaires pour la classe BusEvenements.
+ *
+ * Seule la distribution des événements est testée : aucun usager n'est suivi,
+ * le scrutateur n'accède donc pas à la base.
+ */
+public class BusEvenementsTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private final BusEvenements bus = BusEvenements.getInstance();
+    private final List<Object> recus = new ArrayList<>();
+    private final Consumer<Object> abonne = recus::add;
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée après chaque test.
+     * Retire l'abonné de test.
+     */
+    @After
+    public void tearDown() {
+        bus.desabonner(abonne);
+    }
+
+    /**
+     * Attend que les livraisons en file sur l'EDT soient traitées.
+     */
+    private void attendreEDT() throws Exception {
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+
+    // ==================== TESTS ====================
+
+    /**
+     * Un abonné reçoit les événements de son type, sur l'EDT.
+     */
+    @Test
+    public void testLivraisonSurEDT() throws Exception {
+        boolean[] surEDT = new boolean[1];
+        Consumer<BusEvenements.TopMinute> verifieEDT = e -> surEDT[0] = SwingUtilities.isEventDispatchThread();
+        bus.abonner(BusEvenements.TopMinute.class, verifieEDT);
+        bus.abonner(BusEvenements.TopMinute.class, abonne);
+
+        bus.publier(new BusEvenements.TopMinute(LocalDateTime.now()));
+        attendreEDT();
+        bus.desabonner(verifieEDT);
+
+        assertEquals("L'événement doit être reçu une fois", 1, recus.size());
+        assertTrue("L'abonné doit être appelé sur l'EDT", surEDT[0]);
+    }
+
+    /**
+     * Les événements d'un autre type ne sont pas livrés.
+     */
+    @Test
+    public void testFiltrageParType() throws Exception {
+        bus.abonner(BusEvenements.TopMinute.class, abonne);
+
+        bus.publier(new BusEvenements.MessagesNonLusModifies(1, true));
+        attendreEDT();
+
+        assertTrue("Aucun événement ne doit être reçu", recus.isEmpty());
+    }
+
+    /**
+     * Après désabonnement, plus aucun événement n'est reçu.
+     */
+    @Test
+    public void testDesabonner() throws Exception {
+        bus.abonner(BusEvenements.TopMinute.class, abonne);
+        bus.desabonner(abonne);
+
+        bus.publier(new BusEvenements.TopMinute(LocalDateTime.now()));
+        attendreEDT();
+
+        assertTrue("Aucun événement ne doit être reçu après désabonnement", recus.isEmpty());
+    }
+}
@@ -0,0 +1,140 @@
+package modele.test;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import modele.dao.CacheReference;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classe de tests unitaires pour la classe CacheReference.
+ *
+ * Le chargeur lit une simple table en mémoire et compte ses appels ;
+ * l'horloge est avancée à la main pour tester l'expiration.
+ */
+public class CacheReferenceTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private static final long DUREE_VIE = 1000;
+
+    private Map<String, String> base;               // "Table" lue par le chargeur
+    private AtomicInteger lectures;                 // Nombre d'appels au chargeur
+    private AtomicLong maintenant;                  // Horloge du cache
+    private CacheReference<String> cache;           // Cache à tester
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée avant chaque test.
+     * Les valeurs sont des libellés dont l'identifiant est le premier mot.
+     */
+    @Before
+    public void setUp() {
+        base = new HashMap<>();
+        base.put("CAPITOLE", "CAPITOLE Parking Capitole");
+        base.put("CARMES", "CARMES Parking Carmes");
+        lectures = new AtomicInteger();
+        maintenant = new AtomicLong(0);
+        cache = new CacheReference<>(this::lire, v -> v.split(" ")[0], DUREE_VIE, maintenant::get);
+    }
+
+    private String lire(String id) throws SQLException {
+        lectures.incrementAndGet();
+        return base.get(id);
+    }
+
+    // ==================== TESTS ====================
+
+    /**
+     * Une deuxième lecture est servie par le cache.
+     */
+    @Test
+    public void testLectureTraversante() throws SQLException {
+        assertEquals("CAPITOLE Parking Capitole", cache.get("CAPITOLE"));
+        assertEquals("CAPITOLE Parking Capitole", cache.get("CAPITOLE"));
+        assertEquals(1, lectures.get());
+        assertEquals(1, cache.getSucces());
+        assertEquals(1, cache.getEchecs());
+        assertEquals(0.5, cache.getTauxSucces(), 0.0001);
+        assertNull(cache.get(null));
+    }
+
+    /**
+     * Un identifiant inconnu est gardé : pas de nouvelle requête.
+     */
+    @Test
+    public void testIdentifiantInconnu() throws SQLException {
+        assertNull(cache.get("INCONNU"));
+        assertNull(cache.get("INCONNU"));
+        assertEquals(1, lectures.get());
+    }
+
+    /**
+     * Une entrée expirée est relue.
+     */
+    @Test
+    public void testExpiration() throws SQLException {
+        cache.get("CARMES");
+        base.put("CARMES", "CARMES Parking des Carmes");
+
+        maintenant.set(DUREE_VIE - 1);
+        assertEquals("CARMES Parking Carmes", cache.get("CARMES"));
+
+        maintenant.set(DUREE_VIE);
+        assertEquals("CARMES Parking des Carmes", cache.get("CARMES"));
+        assertEquals(2, lectures.get());
+        assertEquals(1, cache.getExpirations());
+    }
+
+    /**
+     * L'invalidation force la relecture de l'objet modifié.
+     */
+    @Test
+    public void testInvalidation() throws SQLException {
+        cache.get("CAPITOLE");
+        base.put("CAPITOLE", "CAPITOLE Parking du Capitole");
+        cache.invalider("CAPITOLE");
+        assertEquals("CAPITOLE Parking du Capitole", cache.get("CAPITOLE"));
+        assertEquals(2, lectures.get());
+    }
+
+    /**
+     * Les objets préchargés sont servis sans appeler le chargeur.
+     */
+    @Test
+    public void testPrechauffer() throws SQLException {
+        cache.prechauffer(() -> Arrays.asList("CAPITOLE Parking Capitole", "CARMES Parking Carmes"));
+        assertEquals(2, cache.taille());
+        assertEquals("CARMES Parking Carmes", cache.get("CARMES"));
+        assertEquals(0, lectures.get());
+
+        cache.vider();
+        assertEquals(0, cache.taille());
+    }
+
+    /**
+     * Un préchargement pendant lequel un objet est invalidé n'est pas gardé :
+     * il pourrait rapporter la version d'avant la modification.
+     */
+    @Test
+    public void testPrechaufferInvalidePendantLaLecture() throws SQLException {
+        cache.prechauffer(() -> {
+            Collection<String> lus = Arrays.asList("CAPITOLE Parking Capitole", "CARMES Parking Carmes");
+            cache.invalider("CAPITOLE");
+            return lus;
+        });
+        assertEquals(0, cache.taille());
+
+        base.put("CAPITOLE", "CAPITOLE Parking du Capitole");
+        assertEquals("CAPITOLE Parking du Capitole", cache.get("CAPITOLE"));
+        assertEquals(1, lectures.get());
+    }
+}
@@ -0,0 +1,134 @@
+package modele.test;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+
+import modele.Stationnement;
+import modele.dao.EcheancierStationnements;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe de tests unitaires pour la classe EcheancierStationnements.
+ *
+ * Les stationnements de test n'existent pas en base (identifiants négatifs).
+ */
+public class EcheancierStationnementsTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private EcheancierStationnements echeancier;    // Échéancier à tester (singleton)
+    private EcouteurTest ecouteur;                  // Compte les échéances reçues
+
+    private static final int ID_TEST = -4242;
+
+    /**
+     * Écouteur qui ne retient que le stationnement de test
+     */
+    private static class EcouteurTest implements EcheancierStationnements.EcouteurEcheance {
+        final CountDownLatch rappels = new CountDownLatch(1);
+        final CountDownLatch expirations = new CountDownLatch(1);
+
+        @Override
+        public void rappel(Stationnement stationnement, long minutesRestantes) {
+            if (stationnement.getIdStationnement() == ID_TEST) {
+                rappels.countDown();
+            }
+        }
+
+        @Override
+        public void expiration(Stationnement stationnement) {
+            if (stationnement.getIdStationnement() == ID_TEST) {
+                expirations.countDown();
+            }
+        }
+    }
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée avant chaque test.
+     */
+    @Before
+    public void setUp() {
+        echeancier = EcheancierStationnements.getInstance();
+        ecouteur = new EcouteurTest();
+        echeancier.addEcouteur(ecouteur);
+    }
+
+    /**
+     * Méthode exécutée après chaque test.
+     * Retire le stationnement et l'écouteur de test.
+     */
+    @After
+    public void tearDown() {
+        echeancier.annuler(ID_TEST);
+        echeancier.removeEcouteur(ecouteur);
+    }
+
+    private Stationnement creerStationnementVoirie(LocalDateTime dateFin) {
+        Stationnement stationnement = new Stationnement();
+        stationnement.setIdStationnement(ID_TEST);
+        stationnement.setTypeStationnement("VOIRIE");
+        stationnement.setStatut("ACTIF");
+        stationnement.setDateFin(dateFin);
+        return stationnement;
+    }
+
+    // ==================== TESTS ====================
+
+    /**
+     * À moins de 10 minutes de la fin, le rappel part tout de suite puis l'expiration à l'échéance.
+     */
+    @Test
+    public void testRappelEtExpiration() throws Exception {
+        echeancier.planifier(creerStationnementVoirie(LocalDateTime.now().plusNanos(300_000_000)));
+
+        assertTrue("Le rappel doit être immédiat", ecouteur.rappels.await(1, TimeUnit.SECONDS));
+        assertTrue("L'expiration doit être déclenchée", ecouteur.expirations.await(2, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Un stationnement lointain ne déclenche rien ; une nouvelle inscription identique ne le duplique pas.
+     */
+    @Test
+    public void testAucuneEcheanceAvantLHeure() throws Exception {
+        int tailleInitiale = echeancier.taille();
+        Stationnement stationnement = creerStationnementVoirie(LocalDateTime.now().plusHours(2));
+        echeancier.planifier(stationnement);
+        echeancier.planifier(stationnement);
+
+        assertEquals("Le stationnement ne doit être inscrit qu'une fois", tailleInitiale + 1, echeancier.taille());
+        assertFalse("Aucun rappel ne doit partir", ecouteur.rappels.await(300, TimeUnit.MILLISECONDS));
+
+        echeancier.annuler(ID_TEST);
+        assertEquals("Le stationnement annulé doit être retiré", tailleInitiale, echeancier.taille());
+    }
+
+    /**
+     * Une prolongation repousse l'expiration.
+     */
+    @Test
+    public void testProlongationRepousseExpiration() throws Exception {
+        echeancier.planifier(creerStationnementVoirie(LocalDateTime.now().plusNanos(300_000_000)));
+        echeancier.prolonger(ID_TEST, 60);
+
+        assertFalse("L'expiration doit être repoussée", ecouteur.expirations.await(800, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Les stationnements en parking ne sont pas suivis.
+     */
+    @Test
+    public void testParkingIgnore() {
+        int tailleInitiale = echeancier.taille();
+        Stationnement stationnement = creerStationnementVoirie(LocalDateTime.now().plusHours(1));
+        stationnement.setTypeStationnement("PARKING");
+        echeancier.planifier(stationnement);
+
+        assertEquals("Un stationnement en parking ne doit pas être inscrit", tailleInitiale, echeancier.taille());
+    }
+}
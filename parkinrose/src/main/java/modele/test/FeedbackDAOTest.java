@@ -2,14 +2,24 @@ package modele.test;
 
 import modele.Feedback;
 import modele.dao.FeedbackDAO;
+import modele.dao.MySQLConnection;
 import org.junit.*;
 import static org.junit.Assert.*;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Classe de tests unitaires pour la classe FeedbackDAO et le modèle Feedback.
@@ -19,9 +29,65 @@ import java.time.format.DateTimeFormatter;
  * 2. L'existence et l'accessibilité des méthodes
  * 3. Les fonctionnalités du modèle Feedback
  * 4. Les cas limites et les validations
+ * 5. Les réponses et l'état de lecture des conversations (base de test)
  */
 public class FeedbackDAOTest {
     
+    // ==================== VARIABLES DE TEST ====================
+    
+    private Connection conn;        // Connexion à la base de données
+    
+    private static final int ID_USAGER_TEST = 9701;
+    private static final int ID_ADMIN_TEST = 9702;
+    private static final int ID_FEEDBACK_INEXISTANT = -1;
+    
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+    
+    /**
+     * Méthode exécutée avant chaque test.
+     * Crée un usager et un administrateur de test.
+     * 
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Before
+    public void setUp() throws SQLException {
+        conn = MySQLConnection.getConnection();
+        nettoyerBaseDeDonnees();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO Usager (id_usager, nom_usager, prenom_usager, mail_usager, mot_de_passe, is_admin) " +
+                        "VALUES (" + ID_USAGER_TEST + ", 'Test', 'Usager', 'feedback.usager@test.com', 'mdp', 0)");
+            stmt.execute("INSERT INTO Usager (id_usager, nom_usager, prenom_usager, mail_usager, mot_de_passe, is_admin) " +
+                        "VALUES (" + ID_ADMIN_TEST + ", 'Test', 'Admin', 'feedback.admin@test.com', 'mdp', 1)");
+        }
+    }
+    
+    /**
+     * Méthode exécutée après chaque test.
+     * Supprime les conversations, l'état de lecture et les usagers de test.
+     * 
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @After
+    public void tearDown() throws SQLException {
+        if (conn != null && !conn.isClosed()) {
+            nettoyerBaseDeDonnees();
+            // Rendre la connexion au pool pour ne pas épuiser les permis
+            conn.close();
+        }
+    }
+    
+    private void nettoyerBaseDeDonnees() throws SQLException {
+        String usagers = "(" + ID_USAGER_TEST + ", " + ID_ADMIN_TEST + ")";
+        try (Statement stmt = conn.createStatement()) {
+            // Tables d'état de lecture créées par evolutions_bdd.sql
+            stmt.execute("DELETE FROM Feedback_Lecture WHERE id_usager IN " + usagers);
+            stmt.execute("DELETE FROM Feedback_Non_Lus WHERE id_usager IN " + usagers);
+            stmt.execute("DELETE FROM Feedback WHERE id_feedback_parent IS NOT NULL AND id_usager IN " + usagers);
+            stmt.execute("DELETE FROM Feedback WHERE id_usager IN " + usagers);
+            stmt.execute("DELETE FROM Usager WHERE id_usager IN " + usagers);
+        }
+    }
+    
     // ==================== TESTS DU PATTERN SINGLETON ====================
     
     /**
@@ -537,4 +603,187 @@ public class FeedbackDAOTest {
         assertTrue(result.contains("statut='RESOLU'"));
         assertTrue(result.contains("date=2024-01-30T10:30"));
     }
-}
\ No newline at end of file
+    
+    // ==================== TESTS DES RÉPONSES ET DE L'ÉTAT DE LECTURE ====================
+    
+    /**
+     * Une réponse de l'administrateur rend la conversation non lue pour l'usager.
+     * 
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Test
+    public void testReponseSignaleeNonLue() throws SQLException {
+        int idFeedback = creerFeedbackTest("Borne en panne");
+        
+        assertFalse("Aucune réponse : rien de non lu", FeedbackDAO.hasUnreadMessages(ID_USAGER_TEST));
+        
+        assertTrue("La réponse doit être enregistrée",
+                  FeedbackDAO.repondreFeedback(idFeedback, ID_ADMIN_TEST, "Réparée ce matin"));
+        
+        assertTrue("La réponse doit être signalée non lue", FeedbackDAO.hasUnreadMessages(ID_USAGER_TEST));
+        assertTrue("La conversation doit être non lue",
+                  FeedbackDAO.getConversationsNonLues(ID_USAGER_TEST).contains(idFeedback));
+        assertEquals("Statut du message parent incorrect", "EN_COURS",
+                    FeedbackDAO.getFeedbackById(idFeedback).getStatut());
+    }
+    
+    /**
+     * Deux réponses dans la même conversation ne comptent qu'une conversation non lue.
+     * 
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Test
+    public void testDeuxReponsesUneConversationNonLue() throws SQLException {
+        int idFeedback = creerFeedbackTest("Badge refusé");
+        
+        assertTrue(FeedbackDAO.repondreFeedback(idFeedback, ID_ADMIN_TEST, "Première réponse"));
+        assertTrue(FeedbackDAO.repondreFeedback(idFeedback, ID_ADMIN_TEST, "Seconde réponse"));
+        
+        assertEquals("Une seule conversation non lue attendue", 1, lireCompteurNonLus());
+    }
+    
+    /**
+     * Une réponse à une conversation inexistante ne laisse aucune trace :
+     * réponse, statut et compteur sont écrits dans la même transaction.
+     * 
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Test
+    public void testRepondreConversationInexistanteSansTrace() throws SQLException {
+        try {
+            assertFalse("La réponse ne doit pas être enregistrée",
+                       FeedbackDAO.getInstance().repondre(ID_FEEDBACK_INEXISTANT, ID_ADMIN_TEST, "Sans conversation"));
+        } catch (SQLException e) {
+            // Refusée par la base : la transaction est annulée de la même façon
+        }
+        
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT COUNT(*) FROM Feedback WHERE id_feedback_parent = ?")) {
+            stmt.setInt(1, ID_FEEDBACK_INEXISTANT);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals("Aucune réponse ne doit rester en base", 0, rs.getInt(1));
+            }
+        }
+    }
+    
+    /**
+     * Tout marquer comme lu vide l'état de lecture même si le compteur de l'usager
+     * est déjà à 0 (compteur désynchronisé).
+     * 
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Test
+    public void testMarquerToutLuMalgreCompteurDesynchronise() throws SQLException {
+        int idFeedback = creerFeedbackTest("Tarif incorrect");
+        assertTrue(FeedbackDAO.repondreFeedback(idFeedback, ID_ADMIN_TEST, "Tarif corrigé"));
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE Feedback_Non_Lus SET non_lus = 0 WHERE id_usager = " + ID_USAGER_TEST);
+        }
+        
+        FeedbackDAO.markMessagesAsRead(ID_USAGER_TEST);
+        
+        assertTrue("Toutes les conversations doivent être lues",
+                  FeedbackDAO.getConversationsNonLues(ID_USAGER_TEST).isEmpty());
+        assertFalse("Plus rien de non lu", FeedbackDAO.hasUnreadMessages(ID_USAGER_TEST));
+    }
+    
+    /**
+     * Marquer une conversation comme lue décrémente le compteur de l'usager.
+     * 
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Test
+    public void testMarquerUneConversationLue() throws SQLException {
+        int idFeedback1 = creerFeedbackTest("Conversation 1");
+        int idFeedback2 = creerFeedbackTest("Conversation 2");
+        assertTrue(FeedbackDAO.repondreFeedback(idFeedback1, ID_ADMIN_TEST, "Réponse 1"));
+        assertTrue(FeedbackDAO.repondreFeedback(idFeedback2, ID_ADMIN_TEST, "Réponse 2"));
+        assertEquals(2, lireCompteurNonLus());
+        
+        assertTrue(FeedbackDAO.markMessageAsRead(idFeedback1));
+        
+        assertEquals("Une conversation non lue attendue", 1, lireCompteurNonLus());
+        assertFalse(FeedbackDAO.getConversationsNonLues(ID_USAGER_TEST).contains(idFeedback1));
+        assertTrue(FeedbackDAO.getConversationsNonLues(ID_USAGER_TEST).contains(idFeedback2));
+    }
+    
+    /**
+     * Les pages de conversations se suivent sans se recouvrir ni rien oublier,
+     * même pour des messages créés à la même seconde, et chaque parent porte ses réponses.
+     * 
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Test
+    public void testPagesDeConversationsSansRecouvrement() throws SQLException {
+        List<Integer> crees = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            crees.add(creerFeedbackTest("Conversation " + i));
+        }
+        assertTrue(FeedbackDAO.repondreFeedback(crees.get(0), ID_ADMIN_TEST, "Réponse 1"));
+        assertTrue(FeedbackDAO.repondreFeedback(crees.get(0), ID_ADMIN_TEST, "Réponse 2"));
+        
+        Set<Integer> vus = new HashSet<>();
+        Feedback apres = null;
+        int pages = 0;
+        List<Feedback> page;
+        do {
+            page = FeedbackDAO.getInstance().findConversations(ID_USAGER_TEST, apres, 2);
+            for (Feedback conversation : page) {
+                assertTrue("Conversation présente sur deux pages : " + conversation.getIdFeedback(),
+                          vus.add(conversation.getIdFeedback()));
+                assertTrue("Seuls les messages parents sont des conversations",
+                          conversation.estUnMessageParent());
+                int attendues = conversation.getIdFeedback() == crees.get(0) ? 2 : 0;
+                assertEquals("Réponses de la conversation incorrectes",
+                            attendues, conversation.getReponses().size());
+            }
+            if (!page.isEmpty()) {
+                apres = page.get(page.size() - 1);
+                pages++;
+            }
+        } while (!page.isEmpty());
+        
+        assertEquals("Toutes les conversations doivent être chargées", new HashSet<>(crees), vus);
+        assertEquals("Nombre de pages incorrect", 3, pages);
+    }
+    
+    // ==================== MÉTHODES UTILITAIRES POUR LES TESTS ====================
+    
+    /**
+     * Crée un message parent de l'usager de test.
+     * 
+     * @return ID du feedback créé
+     * @throws SQLException en cas d'erreur SQL
+     */
+    private int creerFeedbackTest(String sujet) throws SQLException {
+        String sql = "INSERT INTO Feedback (id_usager, sujet, message, date_creation, statut, gotanswer) " +
+                    "VALUES (?, ?, ?, NOW(), 'NOUVEAU', false)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, ID_USAGER_TEST);
+            stmt.setString(2, sujet);
+            stmt.setString(3, "Message de test");
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                assertTrue("ID du feedback non généré", rs.next());
+                return rs.getInt(1);
+            }
+        }
+    }
+    
+    /**
+     * Lit le compteur de conversations non lues de l'usager de test.
+     * 
+     * @throws SQLException en cas d'erreur SQL
+     */
+    private int lireCompteurNonLus() throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT non_lus FROM Feedback_Non_Lus WHERE id_usager = ?")) {
+            stmt.setInt(1, ID_USAGER_TEST);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package modele.test;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+
+import modele.Parking;
+import modele.dao.IndexSpatialParkings;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Classe de tests unitaires pour la classe IndexSpatialParkings.
+ *
+ * Les résultats de l'arbre k-d sont comparés à un parcours exhaustif.
+ */
+public class IndexSpatialParkingsTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private IndexSpatialParkings index;     // Index à tester (singleton)
+    private List<Parking> parkings;         // Parkings aléatoires autour de Toulouse
+
+    private static final double LAT_CAPITOLE = 43.6045;
+    private static final double LNG_CAPITOLE = 1.4440;
+    private static final int NB_PARKINGS = 2000;
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée avant chaque test.
+     * Indexe des parkings répartis aléatoirement (graine fixe) autour du Capitole.
+     */
+    @Before
+    public void setUp() {
+        index = IndexSpatialParkings.getInstance();
+        parkings = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < NB_PARKINGS; i++) {
+            parkings.add(creerParking("PARK_TEST_" + i,
+                    LAT_CAPITOLE + (random.nextDouble() - 0.5) * 0.2,
+                    LNG_CAPITOLE + (random.nextDouble() - 0.5) * 0.2));
+        }
+        index.reconstruire(parkings);
+    }
+
+    /**
+     * Méthode exécutée après chaque test.
+     * Recharge l'index depuis la base pour ne pas perturber les autres tests.
+     */
+    @After
+    public void tearDown() {
+        index.recharger();
+    }
+
+    private Parking creerParking(String id, double latitude, double longitude) {
+        return new Parking(id, "Parking " + id, "Adresse", 100, 50, 2.0, false, false, 0, 0,
+                           false, (float) longitude, (float) latitude);
+    }
+
+    private double distanceAuCapitole(Parking p) {
+        return IndexSpatialParkings.distanceMetres(LAT_CAPITOLE, LNG_CAPITOLE, p.getPositionY(), p.getPositionX());
+    }
+
+    // ==================== TESTS ====================
+
+    /**
+     * La distance de haversine entre le Capitole et la gare Matabiau est d'environ 1,1 km.
+     */
+    @Test
+    public void testDistanceHaversine() {
+        double distance = IndexSpatialParkings.distanceMetres(LAT_CAPITOLE, LNG_CAPITOLE, 43.6113, 1.4536);
+        assertEquals("Distance Capitole - Matabiau incorrecte", 1070, distance, 50);
+    }
+
+    /**
+     * Les k plus proches voisins doivent être ceux d'un tri exhaustif, dans le même ordre.
+     */
+    @Test
+    public void testPlusProchesIdentiqueAuParcoursExhaustif() {
+        List<Parking> attendus = new ArrayList<>(parkings);
+        attendus.sort(Comparator.comparingDouble(this::distanceAuCapitole));
+
+        List<Parking> trouves = index.plusProches(LAT_CAPITOLE, LNG_CAPITOLE, 10);
+
+        assertEquals("Nombre de résultats incorrect", 10, trouves.size());
+        for (int i = 0; i < 10; i++) {
+            assertSame("Voisin " + i + " incorrect", attendus.get(i), trouves.get(i));
+        }
+    }
+
+    /**
+     * La recherche par rayon renvoie exactement les parkings à moins de la distance demandée.
+     */
+    @Test
+    public void testDansRayon() {
+        double rayon = 1500;
+        long attendus = parkings.stream().filter(p -> distanceAuCapitole(p) <= rayon).count();
+
+        List<Parking> trouves = index.dansRayon(LAT_CAPITOLE, LNG_CAPITOLE, rayon);
+
+        assertEquals("Nombre de parkings dans le rayon incorrect", attendus, trouves.size());
+        for (int i = 1; i < trouves.size(); i++) {
+            assertTrue("Les résultats doivent être triés par distance",
+                       distanceAuCapitole(trouves.get(i - 1)) <= distanceAuCapitole(trouves.get(i)));
+        }
+    }
+
+    /**
+     * Un filtre exclut des candidats sans réduire le nombre de résultats.
+     */
+    @Test
+    public void testPlusProchesAvecFiltre() {
+        List<Parking> trouves = index.plusProches(LAT_CAPITOLE, LNG_CAPITOLE, 5,
+                p -> p.getIdParking().endsWith("0"));
+
+        assertEquals("Nombre de résultats incorrect", 5, trouves.size());
+        for (Parking p : trouves) {
+            assertTrue("Le filtre doit être respecté", p.getIdParking().endsWith("0"));
+        }
+    }
+
+    /**
+     * Ajout, déplacement et suppression sont pris en compte sans reconstruction.
+     */
+    @Test
+    public void testMisesAJourIncrementales() {
+        Parking nouveau = creerParking("PARK_NOUVEAU", LAT_CAPITOLE, LNG_CAPITOLE);
+        index.ajouterOuDeplacer(nouveau);
+        assertSame("Le nouveau parking doit être le plus proche", nouveau,
+                   index.plusProches(LAT_CAPITOLE, LNG_CAPITOLE, 1).get(0));
+
+        // Déplacement loin du Capitole
+        Parking deplace = creerParking("PARK_NOUVEAU", LAT_CAPITOLE + 1, LNG_CAPITOLE + 1);
+        index.ajouterOuDeplacer(deplace);
+        assertNotEquals("Le parking déplacé ne doit plus être le plus proche", "PARK_NOUVEAU",
+                        index.plusProches(LAT_CAPITOLE, LNG_CAPITOLE, 1).get(0).getIdParking());
+        assertEquals("Le parking ne doit être indexé qu'une fois", NB_PARKINGS + 1, index.taille());
+
+        index.supprimer("PARK_NOUVEAU");
+        assertNull("Le parking supprimé ne doit plus être indexé", index.getParking("PARK_NOUVEAU"));
+        assertEquals("Taille après suppression incorrecte", NB_PARKINGS, index.taille());
+    }
+}
@@ -0,0 +1,94 @@
+package modele.test;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+
+import modele.dao.IndexTexte;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Classe de tests unitaires pour la classe IndexTexte.
+ *
+ * Les documents sont de simples libellés : l'index est testé sans base de données.
+ */
+public class IndexTexteTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private IndexTexte<String> index;   // Index à tester
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée avant chaque test.
+     * Indexe quelques parkings fictifs (libellé, adresse).
+     */
+    @Before
+    public void setUp() {
+        index = new IndexTexte<>(Comparator.<String>naturalOrder());
+        index.indexer("P1", "Parking Saint-Étienne", "Parking Saint-Étienne", "12 rue de Metz");
+        index.indexer("P2", "Parking Capitole", "Parking Capitole", "Place du Capitole");
+        index.indexer("P3", "Relais Basso Cambo", "Relais Basso Cambo", "Avenue de Saint-Étienne");
+    }
+
+    // ==================== TESTS ====================
+
+    /**
+     * Les accents et la ponctuation sont ignorés.
+     */
+    @Test
+    public void testSansAccents() {
+        assertEquals("saint etienne", IndexTexte.normaliser("Saint-Étienne"));
+        List<String> resultats = index.rechercher("saint etienne", 10);
+        assertEquals(2, resultats.size());
+        // Le libellé compte plus que l'adresse
+        assertEquals("Parking Saint-Étienne", resultats.get(0));
+    }
+
+    /**
+     * Un début de mot suffit ; tous les mots doivent correspondre.
+     */
+    @Test
+    public void testPrefixe() {
+        assertEquals(Arrays.asList("Parking Capitole"), index.rechercher("capi", 10));
+        assertEquals(Arrays.asList("Relais Basso Cambo"), index.rechercher("bas camb", 10));
+        assertTrue(index.rechercher("capitole metz", 10).isEmpty());
+        assertTrue(index.rechercher("", 10).isEmpty());
+        assertTrue(index.rechercher(null, 10).isEmpty());
+    }
+
+    /**
+     * Une faute de frappe est tolérée sur les mots d'au moins quatre lettres.
+     */
+    @Test
+    public void testFauteDeFrappe() {
+        assertEquals(Arrays.asList("Parking Capitole"), index.rechercher("captiole", 10));
+        assertEquals(Arrays.asList("Relais Basso Cambo"), index.rechercher("relias", 10));
+        assertTrue("Pas de tolérance sur les mots courts", index.rechercher("mez", 10).isEmpty());
+    }
+
+    /**
+     * Modification et suppression mettent l'index à jour.
+     */
+    @Test
+    public void testMiseAJourIncrementale() {
+        index.indexer("P2", "Parking Jean Jaurès", "Parking Jean Jaurès", "Allées Jean Jaurès");
+        assertTrue(index.rechercher("capitole", 10).isEmpty());
+        assertEquals(Arrays.asList("Parking Jean Jaurès"), index.rechercher("jaures", 10));
+
+        index.retirer("P2");
+        assertTrue(index.rechercher("jaures", 10).isEmpty());
+        assertEquals(2, index.taille());
+    }
+
+    /**
+     * La saisie semi-automatique complète le dernier mot.
+     */
+    @Test
+    public void testCompleter() {
+        assertEquals(Arrays.asList("cambo", "capitole"), index.completer("Relais ca", 10));
+    }
+}
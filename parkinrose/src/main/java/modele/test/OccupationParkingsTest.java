@@ -0,0 +1,135 @@
+package modele.test;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+
+import modele.dao.MySQLConnection;
+import modele.dao.OccupationParkings;
+import modele.dao.ParkingDAO;
+import java.sql.*;
+
+/**
+ * Classe de tests unitaires pour la classe OccupationParkings.
+ *
+ * Vérifie que les compteurs en mémoire reflètent la table Parking
+ * et suivent les lignes lues par ParkingDAO.
+ */
+public class OccupationParkingsTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private OccupationParkings occupation;   // Service à tester (singleton)
+    private Connection conn;                 // Connexion à la base de données
+
+    private static final String ID_PARKING_TEST = "TEST_OCCUP";
+    private static final int NOMBRE_PLACES = 50;
+    private static final int PLACES_DISPONIBLES = 10;
+    private static final int PLACES_MOTO = 10;
+    private static final int PLACES_MOTO_DISPONIBLES = 4;
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée avant chaque test.
+     * Crée un parking de test puis recharge les compteurs.
+     *
+     * @throws SQLException en cas d'erreur de connexion ou d'exécution SQL
+     */
+    @Before
+    public void setUp() throws SQLException {
+        conn = MySQLConnection.getConnection();
+        occupation = OccupationParkings.getInstance();
+
+        supprimerParkingTest();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO Parking (id_parking, libelle_parking, adresse_parking, " +
+                        "nombre_places, places_disponibles, hauteur_parking, tarif_soiree, " +
+                        "has_moto, places_moto, places_moto_disponibles, est_relais) " +
+                        "VALUES ('" + ID_PARKING_TEST + "', 'Parking Occupation', 'Adresse Test', " +
+                        NOMBRE_PLACES + ", " + PLACES_DISPONIBLES + ", 2.0, 0, 1, " +
+                        PLACES_MOTO + ", " + PLACES_MOTO_DISPONIBLES + ", 0)");
+        }
+        occupation.resynchroniser();
+    }
+
+    /**
+     * Méthode exécutée après chaque test.
+     *
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @After
+    public void tearDown() throws SQLException {
+        supprimerParkingTest();
+        occupation.oublier(ID_PARKING_TEST);
+        if (conn != null && !conn.isClosed()) {
+            conn.close();
+        }
+    }
+
+    private void supprimerParkingTest() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM Parking WHERE id_parking = '" + ID_PARKING_TEST + "'");
+        }
+    }
+
+    private int lireEnBase(String colonne) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT " + colonne + " FROM Parking WHERE id_parking = '" +
+                                              ID_PARKING_TEST + "'")) {
+            assertTrue("Le parking de test doit exister", rs.next());
+            return rs.getInt(1);
+        }
+    }
+
+    // ==================== TESTS ====================
+
+    /**
+     * Les compteurs sont initialisés depuis la table Parking.
+     */
+    @Test
+    public void testChargementDepuisLaBase() {
+        assertEquals("Places disponibles incorrectes", PLACES_DISPONIBLES,
+                     occupation.getPlacesDisponibles(ID_PARKING_TEST));
+        assertEquals("Places moto disponibles incorrectes", PLACES_MOTO_DISPONIBLES,
+                     occupation.getPlacesMotoDisponibles(ID_PARKING_TEST));
+        assertFalse("Le parking ne doit pas être complet", occupation.estComplet(ID_PARKING_TEST, false));
+    }
+
+    /**
+     * Une ligne lue par ParkingDAO met à jour le compteur de son parking.
+     */
+    @Test
+    public void testLectureParkingMetAJourLesCompteurs() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE Parking SET places_disponibles = " + (PLACES_DISPONIBLES + 2) + ", " +
+                        "places_moto_disponibles = " + (PLACES_MOTO_DISPONIBLES + 1) +
+                        " WHERE id_parking = '" + ID_PARKING_TEST + "'");
+        }
+        assertEquals("Le compteur n'est pas relu avant la resynchronisation", PLACES_DISPONIBLES,
+                     occupation.getPlacesDisponibles(ID_PARKING_TEST));
+
+        ParkingDAO.getInstance().findById(ID_PARKING_TEST);
+
+        assertEquals("La lecture doit mettre à jour le compteur", PLACES_DISPONIBLES + 2,
+                     occupation.getPlacesDisponibles(ID_PARKING_TEST));
+        assertEquals("La lecture doit mettre à jour le compteur moto", PLACES_MOTO_DISPONIBLES + 1,
+                     occupation.getPlacesMotoDisponibles(ID_PARKING_TEST));
+        assertEquals("La base reste la référence", PLACES_DISPONIBLES + 2,
+                     lireEnBase("places_disponibles"));
+    }
+
+    /**
+     * Une modification faite directement en base est reprise à la resynchronisation.
+     */
+    @Test
+    public void testResynchronisation() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE Parking SET places_disponibles = 0 WHERE id_parking = '" + ID_PARKING_TEST + "'");
+        }
+        occupation.resynchroniser();
+
+        assertTrue("Le parking doit être complet", occupation.estComplet(ID_PARKING_TEST, false));
+    }
+}
@@ -6,13 +6,20 @@ import org.junit.After;
 import static org.junit.Assert.*;
 
 import modele.Paiement;
+import modele.dao.CumulsUsagers;
+import modele.dao.JournalPaiements;
 import modele.dao.MySQLConnection;
 import modele.dao.PaiementDAO;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Classe de tests unitaires pour la classe PaiementDAO.
@@ -73,6 +80,9 @@ public class PaiementDAOTest {
         
         // 3. Préparer la base de données pour les tests
         preparerBaseDeDonnees();
+        
+        // 4. Recalculer les cumuls mensuels depuis les paiements insérés directement
+        CumulsUsagers.getInstance().reconstruire();
     }
     
     /**
@@ -195,9 +205,8 @@ public class PaiementDAOTest {
      */
     private void fermerConnexion() throws SQLException {
         if (conn != null && !conn.isClosed()) {
-            // Ne pas fermer la connexion si elle est partagée
-            // (dépend de l'implémentation de MySQLConnection)
-            // conn.close();
+            // Rendre la connexion au pool pour ne pas épuiser les permis
+            conn.close();
         }
     }
     
@@ -441,33 +450,40 @@ public class PaiementDAOTest {
     }
     
     /**
-     * Test de la méthode paiementExiste().
+     * Test de la méthode getTotalDepenses().
      * 
      * @throws SQLException en cas d'erreur d'accès à la base
      */
     @Test
-    public void testPaiementExiste() throws SQLException {
-        // 1. Vérifier un paiement qui existe
-        boolean existe = dao.paiementExiste(ID_PAIEMENT_1);
-        assertTrue("Le paiement existant doit être trouvé", existe);
+    public void testGetTotalDepenses() throws SQLException {
+        // 1. Exécuter la méthode à tester
+        double total = dao.getTotalDepenses(testUserId);
         
-        // 2. Vérifier un paiement qui n'existe pas
-        boolean nExistePas = dao.paiementExiste(ID_PAIEMENT_INEXISTANT);
-        assertFalse("Le paiement inexistant ne doit pas être trouvé", nExistePas);
+        // 2. Vérifier le calcul (10.00 + 5.50 = 15.50)
+        assertEquals("Total des dépenses incorrect", 15.50, total, 0.001);
     }
     
     /**
-     * Test de la méthode getTotalDepenses().
+     * Test de update() et delete() : les cumuls mensuels suivent le paiement modifié puis supprimé.
      * 
      * @throws SQLException en cas d'erreur d'accès à la base
      */
     @Test
-    public void testGetTotalDepenses() throws SQLException {
-        // 1. Exécuter la méthode à tester
-        double total = dao.getTotalDepenses(testUserId);
-        
-        // 2. Vérifier le calcul (10.00 + 5.50 = 15.50)
-        assertEquals("Total des dépenses incorrect", 15.50, total, 0.001);
+    public void testUpdateDeleteMettentAJourLesCumuls() throws SQLException {
+        double totalAvant = dao.getTotalDepenses(testUserId);
+        Paiement paiement = dao.findById(ID_PAIEMENT_1);
+        double montant = paiement.getMontant();
+        
+        // 1. Modification du montant : l'ancien est retiré, le nouveau ajouté
+        paiement.setMontant(montant + 5);
+        dao.update(paiement);
+        assertEquals("Dépenses incorrectes après modification",
+                    totalAvant + 5, dao.getTotalDepenses(testUserId), 0.001);
+        
+        // 2. Suppression : le paiement n'est plus compté
+        dao.delete(paiement);
+        assertEquals("Dépenses incorrectes après suppression",
+                    totalAvant - montant, dao.getTotalDepenses(testUserId), 0.001);
     }
     
     /**
@@ -645,6 +661,103 @@ public class PaiementDAOTest {
         }
     }
     
+    /**
+     * Test du journal des paiements : des paiements soumis ensemble sont tous écrits,
+     * un paiement rejoué n'est ni réinséré ni réappliqué.
+     * 
+     * @throws Exception en cas d'erreur d'écriture ou de délai dépassé
+     */
+    @Test
+    public void testJournalPaiementsIdempotent() throws Exception {
+        JournalPaiements journal = JournalPaiements.getInstance();
+        AtomicInteger ecritures = new AtomicInteger();
+        JournalPaiements.Ecriture compteur = (c, p) -> ecritures.incrementAndGet();
+        int avant = dao.getPaiementsByUsager(testUserId).size();
+        double depensesAvant = dao.getTotalDepenses(testUserId);
+        
+        // 1. Soumettre 20 paiements à la fois
+        List<Paiement> paiements = new ArrayList<>();
+        List<CompletableFuture<Boolean>> resultats = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Paiement p = new Paiement(NOM_CARTE_1, NUMERO_CARTE_1, CODE_SECRET_1, MONTANT_2, testUserId);
+            paiements.add(p);
+            resultats.add(journal.enregistrer(p, compteur));
+        }
+        for (CompletableFuture<Boolean> resultat : resultats) {
+            assertTrue("Le paiement doit entrer au journal", resultat.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals("Une écriture par paiement", 20, ecritures.get());
+        
+        // 2. Rejouer un paiement déjà écrit
+        assertFalse("Un paiement rejoué est déjà au journal",
+                    journal.enregistrer(paiements.get(0), compteur).get(10, TimeUnit.SECONDS));
+        assertEquals("L'écriture n'est pas réappliquée", 20, ecritures.get());
+        
+        // 3. Vérifier les lignes et les cumuls
+        assertEquals("Nombre de paiements incorrect", avant + 20, dao.getPaiementsByUsager(testUserId).size());
+        assertEquals("Dépenses incorrectes", depensesAvant + 20 * MONTANT_2, dao.getTotalDepenses(testUserId), 0.001);
+    }
+    
+    /**
+     * Test du journal des paiements : un paiement dont l'écriture échoue n'est pas enregistré,
+     * sans empêcher les autres paiements du même lot.
+     * 
+     * @throws Exception en cas d'erreur d'écriture ou de délai dépassé
+     */
+    @Test
+    public void testJournalPaiementsEchecIsole() throws Exception {
+        JournalPaiements journal = JournalPaiements.getInstance();
+        Paiement valide = new Paiement(NOM_CARTE_1, NUMERO_CARTE_1, CODE_SECRET_1, MONTANT_1, testUserId);
+        Paiement enErreur = new Paiement(NOM_CARTE_2, NUMERO_CARTE_2, CODE_SECRET_2, MONTANT_2, testUserId);
+        
+        CompletableFuture<Boolean> resultatValide = journal.enregistrer(valide, JournalPaiements.AUCUNE);
+        CompletableFuture<Boolean> resultatErreur = journal.enregistrer(enErreur, (c, p) -> {
+            throw new SQLException("Stationnement introuvable");
+        });
+        
+        assertTrue("Le paiement valide doit être écrit", resultatValide.get(10, TimeUnit.SECONDS));
+        try {
+            resultatErreur.get(10, TimeUnit.SECONDS);
+            fail("Le paiement dont l'écriture échoue doit être en erreur");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+        
+        assertNotNull("Le paiement valide doit exister", dao.findById(valide.getIdPaiement()));
+        assertNull("Le paiement en erreur ne doit pas exister", dao.findById(enErreur.getIdPaiement()));
+    }
+    
+    /**
+     * Test du journal des paiements : le paiement est enregistré à sa propre date (et compté dans son mois),
+     * un rejeu identique n'est pas réinséré, un même identifiant pour un autre montant est refusé.
+     * 
+     * @throws Exception en cas d'erreur d'écriture ou de délai dépassé
+     */
+    @Test
+    public void testJournalPaiementsDateEtRejeu() throws Exception {
+        JournalPaiements journal = JournalPaiements.getInstance();
+        Paiement paiement = new Paiement(NOM_CARTE_1, NUMERO_CARTE_1, CODE_SECRET_1, MONTANT_1, testUserId);
+        LocalDateTime datePaiement = LocalDateTime.now().minusMonths(1).withNano(0);
+        paiement.setDatePaiement(datePaiement);
+        
+        assertTrue("Le paiement doit entrer au journal",
+                   journal.enregistrer(paiement, JournalPaiements.AUCUNE).get(10, TimeUnit.SECONDS));
+        assertEquals("Le paiement doit garder sa date", datePaiement,
+                     dao.findById(paiement.getIdPaiement()).getDatePaiement());
+        
+        assertFalse("Un rejeu identique ne doit pas être réinséré",
+                    journal.enregistrer(paiement, JournalPaiements.AUCUNE).get(10, TimeUnit.SECONDS));
+        
+        Paiement autreMontant = new Paiement(NOM_CARTE_1, NUMERO_CARTE_1, CODE_SECRET_1, MONTANT_1 + 1, testUserId);
+        autreMontant.setIdPaiement(paiement.getIdPaiement());
+        try {
+            journal.enregistrer(autreMontant, JournalPaiements.AUCUNE).get(10, TimeUnit.SECONDS);
+            fail("Un même identifiant pour un autre montant doit être refusé");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+    
     /**
      * Test de performance pour la récupération des paiements.
      */
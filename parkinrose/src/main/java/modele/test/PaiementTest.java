@@ -9,6 +9,8 @@ import org.junit.After;
 import static org.junit.Assert.*;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Classe de tests unitaires pour la classe Paiement.
@@ -93,9 +95,9 @@ public class PaiementTest {
         // Vérification de la date
         assertNotNull("Date paiement ne doit pas être null", paiement.getDatePaiement());
         
-        // Vérification que l'ID contient un timestamp
-        assertTrue("ID paiement doit contenir un timestamp", 
-                  paiement.getIdPaiement().matches("PAY_\\d+"));
+        // Vérification du format de l'ID (20 chiffres hexadécimaux tirés d'un UUID)
+        assertTrue("ID paiement au format incorrect: " + paiement.getIdPaiement(), 
+                  paiement.getIdPaiement().matches("PAY_[0-9A-F]{20}"));
     }
     
     /**
@@ -128,6 +130,20 @@ public class PaiementTest {
         assertNotNull("ID paiement ne doit pas être null", paiementStationnement.getIdPaiement());
     }
     
+    /**
+     * Test de l'unicité des identifiants : des paiements créés dans la même
+     * milliseconde ne partagent pas leur id_paiement.
+     */
+    @Test
+    public void testIdentifiantsUniques() {
+        Set<String> identifiants = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            Paiement p = new Paiement(NOM_CARTE_TEST, NUMERO_CARTE_TEST, CODE_SECRET_TEST, MONTANT_TEST, ID_USAGER_TEST);
+            assertTrue("ID paiement au format incorrect: " + p.getIdPaiement(), p.getIdPaiement().matches("PAY_[0-9A-F]{20}"));
+            assertTrue("ID paiement en double: " + p.getIdPaiement(), identifiants.add(p.getIdPaiement()));
+        }
+    }
+    
     /**
      * Test du constructeur par défaut.
      */
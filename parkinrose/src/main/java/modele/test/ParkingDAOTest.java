@@ -6,10 +6,14 @@ import org.junit.After;
 import static org.junit.Assert.*;
 
 import modele.Parking;
+import modele.dao.IndexRechercheParkings;
+import modele.dao.IndexSpatialParkings;
 import modele.dao.MySQLConnection;
+import modele.dao.OccupationParkings;
 import modele.dao.ParkingDAO;
 
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -30,6 +34,7 @@ public class ParkingDAOTest {
     private static final String ID_PARKING_2 = "TEST_PARK_2";
     private static final String ID_PARKING_3 = "TEST_PARK_3";
     private static final String ID_PARKING_INEXISTANT = "INEXISTANT";
+    private static final int TOUS_LES_PARKINGS = 1000;
     private static final String LIBELLE_PARKING_1 = "Parking Test 1";
     private static final String LIBELLE_PARKING_2 = "Parking Relais Test";
     private static final String ADRESSE_PARKING_1 = "Adresse Test 1";
@@ -87,6 +92,9 @@ public class ParkingDAOTest {
             // 2. Insérer des parkings de test
             insererParkingsTest(stmt);
         }
+        
+        // 3. Les parkings insérés directement en SQL doivent être réindexés pour la recherche
+        IndexRechercheParkings.getInstance().recharger();
     }
     
     /**
@@ -153,9 +161,8 @@ public class ParkingDAOTest {
      */
     private void fermerConnexion() throws SQLException {
         if (conn != null && !conn.isClosed()) {
-            // Ne pas fermer la connexion si elle est partagée
-            // (dépend de l'implémentation de MySQLConnection)
-            // conn.close();
+            // Rendre la connexion au pool pour ne pas épuiser les permis
+            conn.close();
         }
     }
     
@@ -667,4 +674,68 @@ public class ParkingDAOTest {
         assertNotNull("Les résultats ne doivent pas être null", resultats);
         assertTrue("La liste doit être vide pour terme vide", resultats.isEmpty());
     }
-}
\ No newline at end of file
+    
+    // ==================== TESTS DE RECHERCHE DE PARKINGS PROCHES ====================
+    
+    /**
+     * Test de la méthode trouverParkingsProches() avec contraintes de véhicule.
+     * Vérifie que seuls les parkings compatibles (places moto, hauteur) sont proposés,
+     * du plus proche au plus éloigné.
+     * 
+     * @throws SQLException en cas d'erreur d'accès à la base
+     */
+    @Test
+    public void testTrouverParkingsProches_ContraintesVehicule() throws SQLException {
+        // 1. Un parking bas sans motos tout près, un parking sans limite de hauteur avec motos plus loin
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO Parking (id_parking, libelle_parking, adresse_parking, " +
+                        "nombre_places, places_disponibles, hauteur_parking, tarif_soiree, " +
+                        "has_moto, places_moto, places_moto_disponibles, est_relais, position_x, position_y) " +
+                        "VALUES ('TEST_PROCHE_BAS', 'Proche bas', 'Adresse', 20, 10, 1.9, 0, 0, 0, 0, 0, " +
+                        "1.4450, 43.6050)");
+            stmt.execute("INSERT INTO Parking (id_parking, libelle_parking, adresse_parking, " +
+                        "nombre_places, places_disponibles, hauteur_parking, tarif_soiree, " +
+                        "has_moto, places_moto, places_moto_disponibles, est_relais, position_x, position_y) " +
+                        "VALUES ('TEST_LOIN_HAUT', 'Loin haut', 'Adresse', 20, 10, 0, 0, 1, 5, 3, 0, " +
+                        "1.4600, 43.6150)");
+        }
+        IndexSpatialParkings.getInstance().recharger();
+        OccupationParkings.getInstance().resynchroniser();
+        
+        try {
+            // La base peut contenir d'autres parkings : on demande tous les candidats
+            // et on ne vérifie que la présence et l'ordre des parkings de test
+            
+            // 2. Voiture : les deux parkings, du plus proche au plus éloigné
+            List<String> voiture = identifiants(dao.trouverParkingsProches(ID_PARKING_1, TOUS_LES_PARKINGS, false, 0));
+            assertTrue("Le parking bas doit être proposé", voiture.contains("TEST_PROCHE_BAS"));
+            assertTrue("Le parking haut doit être proposé", voiture.contains("TEST_LOIN_HAUT"));
+            assertTrue("Le plus proche doit être avant le plus éloigné",
+                       voiture.indexOf("TEST_PROCHE_BAS") < voiture.indexOf("TEST_LOIN_HAUT"));
+            
+            // 3. Camion : le parking trop bas est exclu
+            List<String> camion = identifiants(dao.trouverParkingsProches(ID_PARKING_1, TOUS_LES_PARKINGS, false, 3.0));
+            assertFalse("Le parking trop bas doit être exclu pour le camion", camion.contains("TEST_PROCHE_BAS"));
+            assertTrue("Le parking sans limite de hauteur doit être proposé", camion.contains("TEST_LOIN_HAUT"));
+            
+            // 4. Moto : seul le parking avec places moto est proposé
+            List<String> moto = identifiants(dao.trouverParkingsProches(ID_PARKING_1, TOUS_LES_PARKINGS, true, 0));
+            assertFalse("Le parking sans places moto doit être exclu", moto.contains("TEST_PROCHE_BAS"));
+            assertTrue("Le parking avec places moto doit être proposé", moto.contains("TEST_LOIN_HAUT"));
+        } finally {
+            nettoyerBaseDeDonnees();
+            IndexSpatialParkings.getInstance().recharger();
+        }
+    }
+    
+    /**
+     * Identifiants des parkings, dans l'ordre de la liste
+     */
+    private static List<String> identifiants(List<Parking> parkings) {
+        List<String> ids = new ArrayList<>();
+        for (Parking parking : parkings) {
+            ids.add(parking.getIdParking());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,284 @@
+package modele.test;
+
+import org.junit.Test;
+
+import modele.dao.PoolConnexions;
+import modele.dao.StatistiquesPool;
+import modele.dao.requetes.RequeteSelectParking;
+import modele.dao.requetes.RequeteSelectParkingById;
+import modele.dao.requetes.RequeteSelectUsagerByEmail;
+
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe de tests unitaires pour la classe PoolConnexions.
+ *
+ * Les connexions physiques sont simulées : ces tests ne nécessitent pas de base de données.
+ */
+public class PoolConnexionsTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private PoolConnexions pool;
+    private AtomicInteger connexionsOuvertes;   // Connexions physiques créées par la fabrique
+    private AtomicInteger connexionsFermees;    // Connexions physiques réellement fermées
+
+    private static final int TAILLE_MAX = 2;
+    private static final long ATTENTE_MAX_MS = 200;
+    private static final int CAPACITE_CACHE = 2;
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée avant chaque test.
+     * Crée un pool de 2 connexions alimenté par une fabrique simulée.
+     */
+    @Before
+    public void setUp() {
+        connexionsOuvertes = new AtomicInteger();
+        connexionsFermees = new AtomicInteger();
+        pool = new PoolConnexions(this::creerConnexionSimulee, TAILLE_MAX, ATTENTE_MAX_MS, 60_000, 0, 1,
+                                  CAPACITE_CACHE);
+    }
+
+    /**
+     * Méthode exécutée après chaque test.
+     */
+    @After
+    public void tearDown() {
+        pool.fermer();
+    }
+
+    /**
+     * Crée une connexion simulée qui se contente de mémoriser son état
+     */
+    private Connection creerConnexionSimulee() {
+        connexionsOuvertes.incrementAndGet();
+        AtomicBoolean fermee = new AtomicBoolean(false);
+        AtomicBoolean autoCommit = new AtomicBoolean(true);
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, methode, args) -> {
+                switch (methode.getName()) {
+                    case "close":
+                        if (fermee.compareAndSet(false, true)) {
+                            connexionsFermees.incrementAndGet();
+                        }
+                        return null;
+                    case "isClosed":
+                        return fermee.get();
+                    case "isValid":
+                        return !fermee.get();
+                    case "getAutoCommit":
+                        return autoCommit.get();
+                    case "setAutoCommit":
+                        autoCommit.set((Boolean) args[0]);
+                        return null;
+                    case "prepareStatement":
+                        return creerStatementSimule();
+                    default:
+                        return null;
+                }
+            }
+        );
+    }
+
+    /**
+     * Crée un PreparedStatement simulé qui ne fait que mémoriser sa fermeture
+     */
+    private PreparedStatement creerStatementSimule() {
+        AtomicBoolean ferme = new AtomicBoolean(false);
+        return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            (proxy, methode, args) -> {
+                switch (methode.getName()) {
+                    case "close":
+                        ferme.set(true);
+                        return null;
+                    case "isClosed":
+                        return ferme.get();
+                    default:
+                        return null;
+                }
+            }
+        );
+    }
+
+    // ==================== TESTS D'EMPRUNT ET DE RESTITUTION ====================
+
+    /**
+     * Une connexion rendue doit être réutilisée au lieu d'en ouvrir une nouvelle.
+     */
+    @Test
+    public void testReutilisationConnexion() throws SQLException {
+        Connection c1 = pool.emprunter();
+        c1.close();
+        Connection c2 = pool.emprunter();
+        c2.close();
+
+        assertEquals("Une seule connexion physique doit être ouverte", 1, connexionsOuvertes.get());
+        assertEquals("Aucune connexion physique ne doit être fermée", 0, connexionsFermees.get());
+    }
+
+    /**
+     * Une connexion rendue ne doit plus être utilisable par l'appelant.
+     */
+    @Test
+    public void testConnexionRendueInutilisable() throws SQLException {
+        Connection c = pool.emprunter();
+        c.close();
+
+        assertTrue("La connexion rendue doit apparaître fermée", c.isClosed());
+        try {
+            c.createStatement();
+            fail("Une SQLException aurait dû être levée");
+        } catch (SQLException e) {
+            // Comportement attendu
+        }
+    }
+
+    /**
+     * Le pool est borné : au-delà de la taille maximale, l'emprunt expire.
+     */
+    @Test
+    public void testPoolBorne() throws SQLException {
+        Connection c1 = pool.emprunter();
+        Connection c2 = pool.emprunter();
+
+        try {
+            pool.emprunter();
+            fail("Une SQLTimeoutException aurait dû être levée");
+        } catch (SQLTimeoutException e) {
+            // Comportement attendu
+        }
+
+        StatistiquesPool stats = pool.getStatistiques();
+        assertEquals("Deux connexions doivent être actives", 2, stats.getActives());
+        assertEquals("Une expiration d'attente doit être comptée", 1, stats.getExpirationsAttente());
+
+        c1.close();
+        c2.close();
+    }
+
+    /**
+     * Un close() multiple ne doit rendre la connexion qu'une seule fois.
+     */
+    @Test
+    public void testDoubleFermeture() throws SQLException {
+        Connection c = pool.emprunter();
+        c.close();
+        c.close();
+
+        StatistiquesPool stats = pool.getStatistiques();
+        assertEquals("Aucune connexion ne doit être active", 0, stats.getActives());
+        assertEquals("Une seule connexion doit être inactive", 1, stats.getInactives());
+    }
+
+    /**
+     * Une transaction laissée ouverte doit être annulée à la restitution.
+     */
+    @Test
+    public void testReinitialisationAutoCommit() throws SQLException {
+        Connection c1 = pool.emprunter();
+        c1.setAutoCommit(false);
+        c1.close();
+
+        Connection c2 = pool.emprunter();
+        assertTrue("L'auto-commit doit être rétabli", c2.getAutoCommit());
+        c2.close();
+    }
+
+    // ==================== TESTS DU CACHE DE REQUÊTES ====================
+
+    /**
+     * Une même classe de requête doit réutiliser le statement préparé, même après restitution.
+     */
+    @Test
+    public void testCacheRequetesReutilise() throws SQLException {
+        PreparedStatement premier;
+        try (Connection c = pool.emprunter()) {
+            premier = PoolConnexions.preparerEnCache(c, new RequeteSelectParking());
+        }
+        try (Connection c = pool.emprunter()) {
+            PreparedStatement second = PoolConnexions.preparerEnCache(c, new RequeteSelectParking());
+            assertSame("Le statement doit venir du cache", premier, second);
+            assertFalse("Le statement en cache ne doit pas être fermé", second.isClosed());
+        }
+
+        StatistiquesPool stats = pool.getStatistiques();
+        assertEquals("Succès cache incorrects", 1, stats.getCacheSucces());
+        assertEquals("Échecs cache incorrects", 1, stats.getCacheEchecs());
+    }
+
+    /**
+     * Au-delà de la capacité, la requête la moins récemment utilisée est évincée et fermée.
+     */
+    @Test
+    public void testCacheRequetesEvictionLRU() throws SQLException {
+        try (Connection c = pool.emprunter()) {
+            PreparedStatement parkings = PoolConnexions.preparerEnCache(c, new RequeteSelectParking());
+            PreparedStatement parkingParId = PoolConnexions.preparerEnCache(c, new RequeteSelectParkingById());
+
+            // Accès à RequeteSelectParking : RequeteSelectParkingById devient la plus ancienne
+            PoolConnexions.preparerEnCache(c, new RequeteSelectParking());
+            PoolConnexions.preparerEnCache(c, new RequeteSelectUsagerByEmail());
+
+            assertFalse("La requête récemment utilisée doit rester en cache", parkings.isClosed());
+            assertTrue("La requête la plus ancienne doit être fermée", parkingParId.isClosed());
+        }
+
+        assertEquals("Une éviction doit être comptée", 1, pool.getStatistiques().getCacheEvictions());
+    }
+
+    // ==================== TESTS DES STATISTIQUES ====================
+
+    /**
+     * Chaque emprunt doit être compté dans l'histogramme de latence.
+     */
+    @Test
+    public void testHistogrammeLatence() throws SQLException {
+        for (int i = 0; i < 5; i++) {
+            pool.emprunter().close();
+        }
+
+        StatistiquesPool stats = pool.getStatistiques();
+        long total = 0;
+        for (long tranche : stats.getHistogrammeLatence()) {
+            total += tranche;
+        }
+        assertEquals("Total emprunts incorrect", 5, stats.getTotalEmprunts());
+        assertEquals("L'histogramme doit contenir tous les emprunts", 5, total);
+        assertEquals("Une tranche de plus que de bornes",
+                     stats.getBornesLatenceMs().length + 1, stats.getHistogrammeLatence().length);
+    }
+
+    /**
+     * La fermeture du pool doit fermer les connexions physiques inactives.
+     */
+    @Test
+    public void testFermeturePool() throws SQLException {
+        pool.emprunter().close();
+        pool.fermer();
+
+        assertEquals("La connexion inactive doit être fermée", 1, connexionsFermees.get());
+        try {
+            pool.emprunter();
+            fail("Une SQLException aurait dû être levée");
+        } catch (SQLException e) {
+            // Comportement attendu
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package modele.test;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+
+import modele.Stationnement;
+import modele.dao.MySQLConnection;
+import modele.dao.StationnementDAO;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test de charge de la réservation de places en parking.
+ *
+ * Des centaines d'arrivées simultanées se disputent un parking de capacité limitée :
+ * le nombre de stationnements créés ne doit jamais dépasser le nombre de places.
+ */
+public class ReservationConcurrenteTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private StationnementDAO dao;        // DAO à tester (singleton)
+    private Connection conn;             // Connexion à la base de données
+    private int testUserId;              // ID de l'utilisateur de test
+
+    // Constantes pour les tests
+    private static final String ID_PARKING_TEST = "TEST_CHARGE";
+    private static final String LIBELLE_PARKING_TEST = "Parking Charge";
+    private static final int PLACES_VOITURE = 100;
+    private static final int PLACES_MOTO = 20;
+    private static final int RESERVATIONS_VOITURE = 500;
+    private static final int RESERVATIONS_MOTO = 100;
+    private static final int NB_THREADS = 50;
+    private static final String TYPE_VEHICULE_VOITURE = "Voiture";
+    private static final String TYPE_VEHICULE_MOTO = "Moto";
+    private static final String MAIL_USAGER_TEST = "test@charge.com";
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée avant chaque test.
+     * Crée un utilisateur et un parking de capacité connue.
+     *
+     * @throws SQLException en cas d'erreur de connexion ou d'exécution SQL
+     */
+    @Before
+    public void setUp() throws SQLException {
+        dao = StationnementDAO.getInstance();
+        conn = MySQLConnection.getConnection();
+
+        cleanDatabase();
+        creerUsagerTest();
+        creerParkingTest();
+    }
+
+    /**
+     * Méthode exécutée après chaque test.
+     *
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @After
+    public void tearDown() throws SQLException {
+        cleanDatabase();
+        if (conn != null && !conn.isClosed()) {
+            conn.close();
+        }
+    }
+
+    private void cleanDatabase() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET FOREIGN_KEY_CHECKS = 0");
+            stmt.execute("DELETE FROM Stationnement WHERE id_parking = '" + ID_PARKING_TEST + "'");
+            stmt.execute("DELETE FROM Parking WHERE id_parking = '" + ID_PARKING_TEST + "'");
+            stmt.execute("DELETE FROM Usager WHERE mail_usager = '" + MAIL_USAGER_TEST + "'");
+            stmt.execute("SET FOREIGN_KEY_CHECKS = 1");
+        }
+    }
+
+    private void creerUsagerTest() throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO Usager (nom_usager, prenom_usager, mail_usager, mot_de_passe) " +
+                "VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, "Charge");
+            pstmt.setString(2, "Test");
+            pstmt.setString(3, MAIL_USAGER_TEST);
+            pstmt.setString(4, "mdp");
+            pstmt.executeUpdate();
+
+            ResultSet rs = pstmt.getGeneratedKeys();
+            if (rs.next()) {
+                testUserId = rs.getInt(1);
+            }
+        }
+    }
+
+    private void creerParkingTest() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO Parking (id_parking, libelle_parking, adresse_parking, " +
+                        "nombre_places, places_disponibles, hauteur_parking, tarif_soiree, " +
+                        "has_moto, places_moto, places_moto_disponibles, est_relais) " +
+                        "VALUES ('" + ID_PARKING_TEST + "', '" + LIBELLE_PARKING_TEST + "', 'Adresse Charge', " +
+                        PLACES_VOITURE + ", " + PLACES_VOITURE + ", 2.0, 1, 1, " +
+                        PLACES_MOTO + ", " + PLACES_MOTO + ", 0)");
+        }
+    }
+
+    // ==================== MÉTHODES UTILITAIRES ====================
+
+    /**
+     * Lance les réservations en parallèle (départ simultané) et renvoie le nombre de succès
+     */
+    private int reserverEnParallele(int nbReservations, String typeVehicule) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NB_THREADS);
+        CountDownLatch depart = new CountDownLatch(1);
+        AtomicInteger succes = new AtomicInteger();
+        List<Future<?>> resultats = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < nbReservations; i++) {
+                final String plaque = "CH-" + i;
+                resultats.add(executor.submit(() -> {
+                    depart.await();
+                    Stationnement s = new Stationnement(testUserId, typeVehicule, plaque,
+                            ID_PARKING_TEST, LIBELLE_PARKING_TEST, LocalDateTime.now());
+                    if (dao.creerStationnementParking(s)) {
+                        succes.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            depart.countDown();
+            for (Future<?> resultat : resultats) {
+                // Une exception dans une tâche fait échouer le test
+                resultat.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succes.get();
+    }
+
+    private int lireEntier(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue("La requête doit renvoyer une ligne", rs.next());
+            return rs.getInt(1);
+        }
+    }
+
+    // ==================== TESTS DE CHARGE ====================
+
+    /**
+     * 500 voitures pour 100 places : exactement 100 réservations doivent aboutir.
+     */
+    @Test
+    public void testAucuneSurreservationVoiture() throws Exception {
+        int succes = reserverEnParallele(RESERVATIONS_VOITURE, TYPE_VEHICULE_VOITURE);
+
+        assertEquals("Le nombre de réservations réussies doit égaler la capacité", PLACES_VOITURE, succes);
+        assertEquals("Plus aucune place ne doit être disponible", 0,
+                lireEntier("SELECT places_disponibles FROM Parking WHERE id_parking = '" + ID_PARKING_TEST + "'"));
+        assertEquals("Un stationnement par place réservée", PLACES_VOITURE,
+                lireEntier("SELECT COUNT(*) FROM Stationnement WHERE id_parking = '" + ID_PARKING_TEST + "'"));
+    }
+
+    /**
+     * 100 motos pour 20 places moto : les places voiture ne doivent pas être touchées.
+     */
+    @Test
+    public void testAucuneSurreservationMoto() throws Exception {
+        int succes = reserverEnParallele(RESERVATIONS_MOTO, TYPE_VEHICULE_MOTO);
+
+        assertEquals("Le nombre de réservations réussies doit égaler la capacité moto", PLACES_MOTO, succes);
+        assertEquals("Plus aucune place moto ne doit être disponible", 0,
+                lireEntier("SELECT places_moto_disponibles FROM Parking WHERE id_parking = '" + ID_PARKING_TEST + "'"));
+        assertEquals("Les places voiture ne doivent pas être modifiées", PLACES_VOITURE,
+                lireEntier("SELECT places_disponibles FROM Parking WHERE id_parking = '" + ID_PARKING_TEST + "'"));
+        assertEquals("Un stationnement par place moto réservée", PLACES_MOTO,
+                lireEntier("SELECT COUNT(*) FROM Stationnement WHERE id_parking = '" + ID_PARKING_TEST + "'"));
+    }
+}
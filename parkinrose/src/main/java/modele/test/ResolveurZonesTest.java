@@ -0,0 +1,108 @@
+package modele.test;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+
+import modele.dao.ResolveurZones;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Classe de tests unitaires pour la classe ResolveurZones.
+ *
+ * Le R-tree est comparé à un test exhaustif de tous les polygones du jeu de données.
+ */
+public class ResolveurZonesTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private ResolveurZones resolveur;   // Résolveur à tester (singleton)
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée avant chaque test.
+     * Recharge le jeu de données des zones de Toulouse.
+     */
+    @Before
+    public void setUp() {
+        resolveur = ResolveurZones.getInstance();
+        resolveur.recharger();
+    }
+
+    /**
+     * Méthode exécutée après chaque test.
+     * Recharge le jeu de données réel (un test charge ses propres polygones).
+     */
+    @After
+    public void tearDown() {
+        resolveur.recharger();
+    }
+
+    // ==================== TESTS ====================
+
+    /**
+     * Le jeu de données contient les cinq types de zones.
+     */
+    @Test
+    public void testChargementJeuDeDonnees() {
+        assertFalse("Des polygones doivent être chargés", resolveur.getPolygones().isEmpty());
+        for (String idZone : Arrays.asList("ZONE_JAUNE", "ZONE_ORANGE", "ZONE_VERTE", "ZONE_ROUGE", "ZONE_BLEUE")) {
+            assertTrue("Zone absente du jeu de données : " + idZone,
+                       resolveur.getPolygones().stream().anyMatch(p -> idZone.equals(p.getIdZone())));
+        }
+    }
+
+    /**
+     * Le Capitole est en zone jaune, Paris hors de toute zone.
+     */
+    @Test
+    public void testResoudreZone() {
+        assertEquals("Le Capitole doit être en zone jaune", "ZONE_JAUNE", resolveur.resoudreZone(43.6045, 1.4440));
+        assertNull("Paris ne doit être dans aucune zone", resolveur.resoudreZone(48.8566, 2.3522));
+    }
+
+    /**
+     * Le R-tree trouve un polygone chaque fois que le test exhaustif en trouve un.
+     */
+    @Test
+    public void testIdentiqueAuParcoursExhaustif() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            double lat = 43.54 + random.nextDouble() * 0.12;
+            double lng = 1.36 + random.nextDouble() * 0.16;
+
+            ResolveurZones.PolygoneZone trouve = resolveur.resoudrePolygone(lat, lng);
+            boolean attendu = resolveur.getPolygones().stream().anyMatch(p -> p.contient(lat, lng));
+
+            assertEquals("Résultat différent en " + lat + ", " + lng, attendu, trouve != null);
+            if (trouve != null) {
+                assertTrue("Le polygone trouvé doit contenir le point", trouve.contient(lat, lng));
+            }
+        }
+    }
+
+    /**
+     * Quand deux polygones se recouvrent, le plus petit l'emporte.
+     */
+    @Test
+    public void testPlusPetitPolygonePrioritaire() throws Exception {
+        String donnees =
+            "# Un carré jaune contenant un petit carré rouge\n" +
+            "zone ZONE_JAUNE Grand carré\n" +
+            "0,0\n0,10\n10,10\n10,0\n" +
+            "\n" +
+            "zone ZONE_ROUGE Petit carré\n" +
+            "4,4\n4,6\n6,6\n6,4\n";
+        resolveur.charger(ResolveurZones.lirePolygones(
+            new ByteArrayInputStream(donnees.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("ZONE_ROUGE", resolveur.resoudreZone(5, 5));
+        assertEquals("ZONE_JAUNE", resolveur.resoudreZone(2, 2));
+        assertNull(resolveur.resoudreZone(11, 5));
+    }
+}
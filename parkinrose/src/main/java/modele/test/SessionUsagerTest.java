@@ -0,0 +1,153 @@
+package modele.test;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+
+import modele.Abonnement;
+import modele.Usager;
+import modele.dao.AbonnementDAO;
+import modele.dao.MySQLConnection;
+import modele.dao.SessionUsager;
+
+import java.sql.*;
+
+/**
+ * Classe de tests unitaires pour la classe SessionUsager.
+ * Vérifie que la session ouverte relit le profil et l'abonnement après une invalidation,
+ * et seulement pour l'usager concerné.
+ *
+ * Note: Ces tests supposent l'existence d'une base de données de test.
+ */
+public class SessionUsagerTest {
+
+    // ==================== VARIABLES DE TEST ====================
+
+    private Connection conn;        // Connexion à la base de données
+
+    private static final int ID_USAGER_TEST = 9801;
+    private static final int ID_AUTRE_USAGER = 9802;
+    private static final String ID_ABONNEMENT_TEST = "TEST_ABO_SESSION";
+
+    // ==================== MÉTHODES DE CONFIGURATION ====================
+
+    /**
+     * Méthode exécutée avant chaque test.
+     * Crée l'usager de test, un abonnement souscrit et ouvre sa session.
+     *
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Before
+    public void setUp() throws SQLException {
+        conn = MySQLConnection.getConnection();
+        nettoyerBaseDeDonnees();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO Usager (id_usager, nom_usager, prenom_usager, mail_usager, mot_de_passe, is_admin) " +
+                        "VALUES (" + ID_USAGER_TEST + ", 'Test', 'Session', 'session@test.com', 'mdp', 0)");
+            stmt.execute("INSERT INTO Abonnement (id_abonnement, libelle_abonnement, tarif_applique) " +
+                        "VALUES ('" + ID_ABONNEMENT_TEST + "', 'Abonnement session', 15.00)");
+            stmt.execute("INSERT INTO Appartenir (id_usager, id_abonnement, date_debut) " +
+                        "VALUES (" + ID_USAGER_TEST + ", '" + ID_ABONNEMENT_TEST + "', CURDATE())");
+        }
+
+        Usager usager = new Usager();
+        usager.setIdUsager(ID_USAGER_TEST);
+        usager.setMailUsager("session@test.com");
+        usager.setAdmin(false);
+        SessionUsager.ouvrir(usager);
+    }
+
+    /**
+     * Méthode exécutée après chaque test.
+     * Ferme la session et supprime les données de test.
+     *
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @After
+    public void tearDown() throws SQLException {
+        SessionUsager.fermer();
+        if (conn != null && !conn.isClosed()) {
+            nettoyerBaseDeDonnees();
+            // Rendre la connexion au pool pour ne pas épuiser les permis
+            conn.close();
+        }
+    }
+
+    private void nettoyerBaseDeDonnees() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM Appartenir WHERE id_abonnement = '" + ID_ABONNEMENT_TEST + "'");
+            stmt.execute("DELETE FROM Abonnement WHERE id_abonnement = '" + ID_ABONNEMENT_TEST + "'");
+            stmt.execute("DELETE FROM Usager WHERE id_usager = " + ID_USAGER_TEST);
+        }
+    }
+
+    // ==================== TESTS DU PROFIL ====================
+
+    /**
+     * Après invalidation, le profil est relu en base (statut administrateur modifié).
+     *
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Test
+    public void testInvaliderUsagerRelitLeProfil() throws SQLException {
+        assertFalse(SessionUsager.getCourante().getUsager().isAdmin());
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE Usager SET is_admin = 1 WHERE id_usager = " + ID_USAGER_TEST);
+        }
+        SessionUsager.invaliderUsager(ID_USAGER_TEST);
+
+        assertTrue("Le profil doit être relu après invalidation",
+                  SessionUsager.getCourante().getUsager().isAdmin());
+    }
+
+    /**
+     * L'invalidation d'un autre usager ne touche pas la session ouverte.
+     */
+    @Test
+    public void testInvaliderAutreUsagerGardeLeProfil() {
+        Usager avant = SessionUsager.getCourante().getUsager();
+
+        SessionUsager.invaliderUsager(ID_AUTRE_USAGER);
+        SessionUsager.invaliderAbonnement(ID_AUTRE_USAGER);
+
+        assertSame("Le profil en session ne doit pas être relu",
+                  avant, SessionUsager.getCourante().getUsager());
+    }
+
+    // ==================== TESTS DE L'ABONNEMENT ====================
+
+    /**
+     * La suppression de l'abonnement par AbonnementDAO invalide celui de la session.
+     *
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Test
+    public void testSuppressionAbonnementInvalideLaSession() throws SQLException {
+        Abonnement actif = SessionUsager.getCourante().getAbonnementActif();
+        assertNotNull("L'abonnement souscrit doit être en session", actif);
+        assertEquals(ID_ABONNEMENT_TEST, actif.getIdAbonnement());
+
+        AbonnementDAO.getInstance().delete(actif);
+
+        assertNull("L'abonnement supprimé ne doit plus être en session",
+                  SessionUsager.getCourante().getAbonnementActif());
+    }
+
+    /**
+     * La modification d'un autre abonnement garde celui de la session.
+     *
+     * @throws SQLException en cas d'erreur SQL
+     */
+    @Test
+    public void testInvaliderAutreAbonnementGardeLaSession() throws SQLException {
+        Abonnement actif = SessionUsager.getCourante().getAbonnementActif();
+        assertNotNull(actif);
+
+        SessionUsager.invaliderAbonnement("AUTRE_ABONNEMENT");
+
+        assertSame("L'abonnement en session ne doit pas être relu",
+                  actif, SessionUsager.getCourante().getAbonnementActif());
+    }
+}
@@ -6,14 +6,21 @@ import org.junit.After;
 import static org.junit.Assert.*;
 
 import modele.Stationnement;
+import modele.dao.CumulsUsagers;
+import modele.dao.EcheancierStationnements;
+import modele.dao.ExpirationStationnements;
 import modele.dao.MySQLConnection;
+import modele.dao.OccupationParkings;
 import modele.dao.ParkingDAO;
 import modele.dao.StationnementDAO;
 import modele.Parking;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Classe de tests unitaires pour la classe StationnementDAO.
@@ -86,6 +93,9 @@ public class StationnementDAOTest {
         // 3. Préparer la base de données pour les tests
         cleanDatabase();
         prepareTestData();
+        
+        // 4. Recalculer les cumuls mensuels depuis les stationnements insérés directement
+        CumulsUsagers.getInstance().reconstruire();
     }
     
     /**
@@ -374,6 +384,36 @@ public class StationnementDAOTest {
         assertTrue("Le nouveau stationnement doit être trouvé", found);
     }
     
+    /**
+     * Un stationnement en voirie est inscrit auprès de l'échéancier dès sa création,
+     * puis réinscrit (sans doublon) à sa prolongation.
+     * 
+     * @throws SQLException en cas d'erreur d'accès à la base
+     */
+    @Test
+    public void testCreationEtProlongationPlanifientEcheances() throws SQLException {
+        EcheancierStationnements echeancier = EcheancierStationnements.getInstance();
+        int tailleInitiale = echeancier.taille();
+        
+        assertTrue(StationnementDAO.creerStationnementVoirieGratuit(
+            testUserId, TYPE_VEHICULE_VOITURE, "TEST-ECH", ID_ZONE_TEST, 1, 0));
+        Stationnement cree = null;
+        for (Stationnement s : dao.findAll()) {
+            if ("TEST-ECH".equals(s.getPlaqueImmatriculation())) {
+                cree = s;
+            }
+        }
+        assertNotNull("Le stationnement créé doit être trouvé", cree);
+        assertEquals("Le stationnement créé doit être suivi par l'échéancier",
+                     tailleInitiale + 1, echeancier.taille());
+        
+        assertTrue(StationnementDAO.prolongerStationnement(cree.getIdStationnement(), 30));
+        assertEquals("La prolongation ne doit pas inscrire le stationnement une seconde fois",
+                     tailleInitiale + 1, echeancier.taille());
+        
+        echeancier.annuler(cree.getIdStationnement());
+    }
+    
     /**
      * Test de la création d'un stationnement en parking.
      * 
@@ -529,7 +569,42 @@ public class StationnementDAOTest {
             assertEquals("ID usager incorrect dans l'historique", testUserId, s.getIdUsager());
         }
     }
-    
+
+    /**
+     * Test du parcours de l'historique par pages : les pages se suivent sans trou
+     * ni doublon, du plus récent au plus ancien.
+     *
+     * @throws SQLException en cas d'erreur d'accès à la base
+     */
+    @Test
+    public void testGetHistoriquePage() throws SQLException {
+        // 1. Parcourir l'historique par pages de 2
+        List<Stationnement> premiere = dao.getHistoriquePage(testUserId, null, 2);
+        assertEquals("La première page doit être pleine", 2, premiere.size());
+        List<Stationnement> seconde = dao.getHistoriquePage(testUserId, premiere.get(1), 2);
+        assertEquals("La seconde page doit contenir le dernier stationnement", 1, seconde.size());
+        assertTrue("Pas de page après la dernière",
+                   dao.getHistoriquePage(testUserId, seconde.get(0), 2).isEmpty());
+
+        // 2. Même contenu et même ordre que l'historique complet
+        List<Stationnement> complet = dao.getHistoriqueStationnements(testUserId);
+        List<Stationnement> parPages = new ArrayList<>(premiere);
+        parPages.addAll(seconde);
+        for (int i = 1; i < parPages.size(); i++) {
+            assertFalse("Ordre décroissant de date de création attendu",
+                        parPages.get(i).getDateCreation().isAfter(parPages.get(i - 1).getDateCreation()));
+        }
+        Set<Integer> idsComplet = new HashSet<>();
+        Set<Integer> idsPages = new HashSet<>();
+        for (Stationnement s : complet) idsComplet.add(s.getIdStationnement());
+        for (Stationnement s : parPages) idsPages.add(s.getIdStationnement());
+        assertEquals("Les pages doivent couvrir tout l'historique", idsComplet, idsPages);
+
+        // 3. Comptages
+        assertEquals("Nombre total incorrect", 3, dao.compterHistorique(testUserId, null));
+        assertEquals("Nombre d'actifs incorrect", 2, dao.compterHistorique(testUserId, STATUT_ACTIF));
+    }
+
     /**
      * Test de la récupération du stationnement actif par utilisateur.
      * 
@@ -695,4 +770,75 @@ public class StationnementDAOTest {
         assertEquals("Total coût incorrect", 3.50, totalCout, 0.001);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test des cumuls mensuels : un stationnement terminé passe des actifs aux cumuls,
+     * une seule fois, sans changer les totaux.
+     *
+     * @throws SQLException en cas d'erreur d'accès à la base
+     */
+    @Test
+    public void testCumulsApresTerminaison() throws SQLException {
+        // 1. Avant : seul le stationnement terminé est cumulé
+        assertEquals("Cumul initial incorrect", 1,
+                     CumulsUsagers.getInstance().getTotal(testUserId).getNombreStationnements());
+
+        // 2. Terminer le stationnement en voirie actif (deux fois : la seconde est sans effet)
+        assertTrue("La terminaison doit réussir", StationnementDAO.terminerStationnement(ID_STATIONNEMENT_1));
+        assertFalse("Un stationnement déjà terminé ne se termine pas deux fois",
+                    StationnementDAO.terminerStationnement(ID_STATIONNEMENT_1));
+
+        // 3. Vérifier les cumuls et les statistiques
+        CumulsUsagers.Cumul cumul = CumulsUsagers.getInstance().getTotal(testUserId);
+        assertEquals("Cumul après terminaison incorrect", 2, cumul.getNombreStationnements());
+        assertEquals("Cumul voirie incorrect", 2, cumul.getNombreVoirie());
+        assertEquals("Cumul coût incorrect", 3.50, cumul.getCoutStationnements(), 0.001);
+
+        Object[] stats = dao.getStatistiquesStationnements(testUserId);
+        assertEquals("Total inchangé", 3, (int) stats[0]);
+        assertEquals("Un seul actif restant", 1, (int) stats[1]);
+        assertEquals("Total coût inchangé", 3.50, (double) stats[4], 0.001);
+    }
+
+    /**
+     * Test du service d'expiration : seuls les stationnements actifs échus passent en EXPIRE,
+     * et la place moto du parking est libérée en base et dans le compteur d'occupation.
+     * 
+     * @throws SQLException en cas d'erreur d'accès à la base
+     */
+    @Test
+    public void testExpirationStationnements() throws SQLException {
+        // 1. Démarrer le service (premier balayage immédiat), puis rendre échus
+        //    les stationnements 1 (voirie) et 2 (parking moto), une place moto occupée
+        ExpirationStationnements expiration = ExpirationStationnements.getInstance();
+        expiration.balayer();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE Stationnement SET date_fin = DATE_SUB(NOW(), INTERVAL 5 MINUTE) " +
+                        "WHERE id_stationnement IN (" + ID_STATIONNEMENT_1 + ", " + ID_STATIONNEMENT_2 + ")");
+            stmt.execute("UPDATE Parking SET places_moto_disponibles = 19 WHERE id_parking = '" + ID_PARKING_TEST + "'");
+        }
+        OccupationParkings occupation = OccupationParkings.getInstance();
+        occupation.resynchroniser();
+        
+        // 2. Exécuter le balayage
+        ExpirationStationnements.Bilan bilan = expiration.balayer();
+        
+        // 3. Vérifier les assertions
+        assertEquals("Deux stationnements doivent être expirés", 2, bilan.getNombreExpires());
+        assertTrue("Le retard doit couvrir l'échéance dépassée", bilan.getRetard().toMinutes() >= 4);
+        assertEquals("EXPIRE", dao.findById(String.valueOf(ID_STATIONNEMENT_1)).getStatut());
+        assertEquals("EXPIRE", dao.findById(String.valueOf(ID_STATIONNEMENT_2)).getStatut());
+        assertEquals("Un stationnement terminé ne doit pas changer", STATUT_TERMINE,
+                     dao.findById(String.valueOf(ID_STATIONNEMENT_3)).getStatut());
+        assertEquals("La place moto doit être libérée", 20, occupation.getPlacesMotoDisponibles(ID_PARKING_TEST));
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT places_moto_disponibles FROM Parking " +
+                                              "WHERE id_parking = '" + ID_PARKING_TEST + "'")) {
+            assertTrue(rs.next());
+            assertEquals("La place moto doit être libérée en base avec l'expiration", 20, rs.getInt(1));
+        }
+        
+        // 4. Un second balayage n'a plus rien à faire
+        assertEquals(0, expiration.balayer().getNombreExpires());
+    }
+
+}
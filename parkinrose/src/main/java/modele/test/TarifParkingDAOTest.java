@@ -2,6 +2,8 @@ package modele.test;
 
 import org.junit.Test;
 
+import modele.Parking;
+import modele.dao.DevisParkings;
 import modele.dao.MySQLConnection;
 import modele.dao.TarifParkingDAO;
 
@@ -25,6 +27,10 @@ public class TarifParkingDAOTest {
     private TarifParkingDAO dao;        // Instance du DAO à tester
     private Connection conn;            // Connexion à la base de données de test
     
+    // Parkings de test, dont les règles de tarification sont supprimées après chaque test
+    private static final String PARKINGS_TEST =
+        "('PARK_SOIREE', 'PARK_RELAIS', 'PARK_GRATUIT', 'PARK_STANDARD')";
+    
     /**
      * Méthode exécutée avant chaque test.
      * Initialise l'environnement de test avec des données propres.
@@ -47,7 +53,7 @@ public class TarifParkingDAOTest {
              * Insertion de parkings de test avec différentes caractéristiques :
              * 1. PARK_SOIREE : Parking avec tarif soirée activé
              * 2. PARK_RELAIS : Parking relais (est_relais = 1)
-             * 3. PARK_GRATUIT : Parking standard (sera identifié comme gratuit par liste statique)
+             * 3. PARK_GRATUIT : Parking standard (rendu gratuit par testEnregistrerReglesTarifaires)
              * 4. PARK_STANDARD : Parking sans particularités
              */
             
@@ -65,7 +71,7 @@ public class TarifParkingDAOTest {
                         "VALUES ('PARK_RELAIS', 'Parking Relais Test', 'Adresse 2', " +
                         "200, 100, 2.5, 0, 0, 0, 0, 1)");
             
-            // Parking standard (sera testé comme gratuit via liste statique)
+            // Parking standard (rendu gratuit par testEnregistrerReglesTarifaires)
             stmt.execute("INSERT INTO Parking (id_parking, libelle_parking, adresse_parking, " +
                         "nombre_places, places_disponibles, hauteur_parking, tarif_soiree, " +
                         "has_moto, places_moto, places_moto_disponibles, est_relais) " +
@@ -79,6 +85,10 @@ public class TarifParkingDAOTest {
                         "VALUES ('PARK_STANDARD', 'Parking Standard Test', 'Adresse 4', " +
                         "150, 75, 2.0, 0, 0, 0, 0, 0)");
         }
+        
+        // Les règles de tarification sont compilées en mémoire : on les recharge
+        // après avoir modifié la table Parking directement
+        dao.rechargerTarifs();
     }
     
     /**
@@ -91,7 +101,9 @@ public class TarifParkingDAOTest {
         // Suppression de toutes les données de test
         try (Statement stmt = conn.createStatement()) {
             stmt.execute("DELETE FROM Parking");
+            stmt.execute("DELETE FROM Tarif_Parking WHERE id_parking IN " + PARKINGS_TEST);
         }
+        dao.rechargerTarifs();
         
         // Fermeture de la connexion si elle est ouverte
         if (conn != null && !conn.isClosed()) {
@@ -116,20 +128,48 @@ public class TarifParkingDAOTest {
     
     /**
      * Test de la méthode estParkingGratuit.
-     * ATTENTION : Cette méthode utilise une liste statique, donc testée
-     * avec des parkings réels de la liste plutôt que ceux de la base de test.
+     * Les parkings gratuits d'origine sont insérés dans Tarif_Parking par evolutions_bdd.sql,
+     * donc testée avec un parking réel plutôt que ceux de la base de test.
      */
     @Test
     public void testEstParkingGratuit() {
-        // Test avec un parking connu comme gratuit dans la liste statique
+        // Test avec un parking gratuit d'origine
         boolean estGratuit = dao.estParkingGratuit("PARK_VIGUERIE");
         assertTrue("PARK_VIGUERIE devrait être identifié comme gratuit", estGratuit);
         
-        // Test avec un parking payant (non présent dans la liste statique)
+        // Test avec un parking payant (absent de Tarif_Parking)
         boolean estPayant = dao.estParkingGratuit("PARK_SOIREE");
         assertFalse("PARK_SOIREE ne devrait pas être identifié comme gratuit", estPayant);
     }
     
+    /**
+     * Test de l'enregistrement des règles de tarification (gratuité, forfait 24h, montant soirée) :
+     * chacune est écrite dans Tarif_Parking sans toucher au tarif au quart d'heure du parking.
+     */
+    @Test
+    public void testEnregistrerReglesTarifaires() throws SQLException {
+        LocalDateTime soir = LocalDateTime.of(2024, 1, 1, 20, 0);
+        LocalDateTime matin = LocalDateTime.of(2024, 1, 1, 8, 0);
+        
+        dao.enregistrerGratuit("PARK_GRATUIT", true);
+        assertTrue("PARK_GRATUIT devrait être gratuit", dao.estParkingGratuit("PARK_GRATUIT"));
+        assertEquals("Un parking gratuit ne coûte rien", 0.0,
+                     TarifParkingDAO.calculerCoutParking(matin, matin.plusHours(3), "PARK_GRATUIT"), 0.001);
+        
+        dao.enregistrerMontantSoiree("PARK_SOIREE", 4.50);
+        assertEquals("Le montant soirée personnalisé doit s'appliquer", 4.50,
+                     TarifParkingDAO.calculerCoutParking(soir, soir.plusHours(3), "PARK_SOIREE"), 0.001);
+        
+        dao.enregistrerForfait24h("PARK_STANDARD", 10.00);
+        assertEquals("Le coût doit être plafonné au forfait 24h", 10.00,
+                     TarifParkingDAO.calculerCoutParking(matin, matin.plusHours(12), "PARK_STANDARD"), 0.001);
+        assertEquals("Le tarif au quart d'heure ne doit pas changer", 0.50,
+                     dao.getTarifQuartHeure("PARK_STANDARD"), 0.001);
+        
+        dao.enregistrerGratuit("PARK_GRATUIT", false);
+        assertFalse("PARK_GRATUIT devrait redevenir payant", dao.estParkingGratuit("PARK_GRATUIT"));
+    }
+    
     /**
      * Test de la méthode estParkingRelais.
      * Vérifie l'identification correcte des parkings relais.
@@ -330,4 +370,64 @@ public class TarifParkingDAOTest {
         assertTrue("L'affichage devrait contenir le prix du tarif soirée", 
                   affichage.contains("5.90€"));
     }
-}
\ No newline at end of file
+    
+    /**
+     * Test du calcul du coût d'un stationnement par le moteur de tarifs.
+     * Vérifie le quart d'heure entamé, le minimum de 15 minutes et le forfait 24h.
+     */
+    @Test
+    public void testCalculerCoutParking() {
+        LocalDateTime arrivee = LocalDateTime.of(2024, 1, 1, 10, 0);
+        
+        // PARK_CAPITOLE : 0.75€ le quart d'heure
+        assertEquals("Coût d'une heure incorrect", 3.00,
+                     TarifParkingDAO.calculerCoutParking(arrivee, arrivee.plusHours(1), "PARK_CAPITOLE"), 0.001);
+        assertEquals("Un quart d'heure entamé est dû", 3.75,
+                     TarifParkingDAO.calculerCoutParking(arrivee, arrivee.plusMinutes(61), "PARK_CAPITOLE"), 0.001);
+        assertEquals("Minimum de 15 minutes", 0.75,
+                     TarifParkingDAO.calculerCoutParking(arrivee, arrivee.plusMinutes(5), "PARK_CAPITOLE"), 0.001);
+        assertEquals("Le coût doit être plafonné au forfait 24h", 72.00,
+                     TarifParkingDAO.calculerCoutParking(arrivee, arrivee.plusHours(23).plusMinutes(59), "PARK_CAPITOLE"), 0.001);
+    }
+    
+    /**
+     * Test du calcul du coût pour les parkings gratuits, relais et avec tarif soirée.
+     */
+    @Test
+    public void testCalculerCoutParkingCasParticuliers() {
+        LocalDateTime soir = LocalDateTime.of(2024, 1, 1, 20, 0);
+        
+        assertEquals("Un parking gratuit ne coûte rien", 0.0,
+                     TarifParkingDAO.calculerCoutParking(soir, soir.plusHours(3), "PARK_VIGUERIE"), 0.001);
+        assertEquals("Un parking relais ne coûte rien", 0.0,
+                     TarifParkingDAO.calculerCoutParking(soir, soir.plusHours(3), "PARK_RELAIS"), 0.001);
+        assertEquals("Le tarif soirée doit s'appliquer", 5.90,
+                     TarifParkingDAO.calculerCoutParking(soir, soir.plusHours(3), "PARK_SOIREE"), 0.001);
+        assertEquals("Sans tarif soirée, tarif par défaut au quart d'heure", 6.00,
+                     TarifParkingDAO.calculerCoutParking(soir, soir.plusHours(3), "PARK_STANDARD"), 0.001);
+    }
+    
+    /**
+     * Test du calcul des devis en lot.
+     * Les résultats doivent être rangés dans l'ordre des parkings et identiques aux calculs unitaires.
+     */
+    @Test
+    public void testCalculerDevis() throws SQLException {
+        List<Parking> parkings = dao.findAll();
+        LocalDateTime arrivee = LocalDateTime.of(2024, 1, 1, 20, 0);
+        LocalDateTime depart = arrivee.plusHours(2);
+        
+        DevisParkings devis = dao.calculerDevis(parkings, arrivee, depart);
+        
+        assertEquals("Un devis par parking", parkings.size(), devis.taille());
+        for (int i = 0; i < devis.taille(); i++) {
+            String id = parkings.get(i).getIdParking();
+            assertSame("Ordre des parkings non respecté", parkings.get(i), devis.getParking(i));
+            assertEquals("Coût incorrect pour " + id,
+                         TarifParkingDAO.calculerCoutParking(arrivee, depart, id), devis.getCout(i), 0.001);
+            assertEquals("Relais incorrect pour " + id, dao.estParkingRelais(id), devis.estRelais(i));
+            assertEquals("Tarif soirée incorrect pour " + id,
+                         dao.tarifSoireeApplicable(arrivee, depart, id), devis.tarifSoireeApplicable(i));
+        }
+    }
+}
@@ -230,4 +230,31 @@ public class UsagerDAOTest {
         String carteAdmin = dao.getCarteTisseoByUsager(2);
         assertNull("L'admin ne devrait pas avoir de carte Tisséo", carteAdmin);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Test de la méthode rechercherPage().
+     * Vérifie le filtrage sur nom, prénom et email et l'enchaînement des pages.
+     */
+    @Test
+    public void testRechercherPage() throws SQLException {
+        // Sous-chaîne de l'email
+        List<Usager> resultats = dao.rechercherPage("dupont", 0, 10);
+        assertEquals("Un seul utilisateur doit correspondre", 1, resultats.size());
+        assertEquals("Dupont", resultats.get(0).getNomUsager());
+        
+        // Un seul caractère : début du prénom
+        resultats = dao.rechercherPage("S", 0, 10);
+        assertEquals("Seul l'admin a un prénom en S", 1, resultats.size());
+        assertEquals(2, resultats.get(0).getIdUsager());
+        
+        // Pages d'un utilisateur : la seconde reprend après le dernier identifiant
+        List<Usager> page1 = dao.rechercherPage("", 0, 1);
+        assertEquals(1, page1.size());
+        List<Usager> page2 = dao.rechercherPage("", page1.get(0).getIdUsager(), 1);
+        assertEquals(1, page2.size());
+        assertTrue("Les pages ne doivent pas se recouvrir",
+                   page2.get(0).getIdUsager() > page1.get(0).getIdUsager());
+        assertTrue("Plus rien après la dernière page",
+                   dao.rechercherPage("", page2.get(0).getIdUsager(), 1).isEmpty());
+    }
+}
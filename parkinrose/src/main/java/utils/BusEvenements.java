@@ -0,0 +1,275 @@
+package utils;
+
+import modele.Stationnement;
+import modele.dao.FeedbackDAO;
+import modele.dao.StationnementDAO;
+
+import javax.swing.SwingUtilities;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bus d'événements commun à toute l'application.
+ *
+ * Un seul thread de fond scrute la base pour les usagers suivis (stationnement actif,
+ * réponses de feedback non lues) et publie un événement typé uniquement quand l'état change.
+ * Les pages s'abonnent au lieu de lancer chacune leur Timer : le nombre de requêtes
+ * ne dépend plus du nombre de fenêtres ouvertes, et aucune requête ne tourne sur l'EDT.
+ * Les abonnés sont toujours appelés sur l'EDT.
+ */
+public class BusEvenements {
+
+    /** Période de scrutation de la base pour les usagers suivis */
+    public static final long PERIODE_SCRUTATION_SECONDES = 10;
+
+    private static BusEvenements instance;
+
+    // ==================== ÉVÉNEMENTS ====================
+
+    /**
+     * Le stationnement actif d'un usager a changé (nouveau, prolongé, terminé ou expiré)
+     */
+    public static final class StationnementActifModifie {
+        private final int idUsager;
+        private final Stationnement stationnement;
+
+        public StationnementActifModifie(int idUsager, Stationnement stationnement) {
+            this.idUsager = idUsager;
+            this.stationnement = stationnement;
+        }
+
+        public int getIdUsager() { return idUsager; }
+
+        /** Stationnement actif, ou null s'il n'y en a plus */
+        public Stationnement getStationnement() { return stationnement; }
+    }
+
+    /**
+     * L'usager a (ou n'a plus) des réponses de feedback non lues
+     */
+    public static final class MessagesNonLusModifies {
+        private final int idUsager;
+        private final boolean nonLus;
+
+        public MessagesNonLusModifies(int idUsager, boolean nonLus) {
+            this.idUsager = idUsager;
+            this.nonLus = nonLus;
+        }
+
+        public int getIdUsager() { return idUsager; }
+        public boolean hasNonLus() { return nonLus; }
+    }
+
+    /**
+     * Les places libres d'un parking ont changé (réservation, libération, resynchronisation) ;
+     * publié par OccupationParkings, sans requête
+     */
+    public static final class PlacesParkingModifiees {
+        private final String idParking;
+        private final int places;
+        private final int placesMoto;
+
+        public PlacesParkingModifiees(String idParking, int places, int placesMoto) {
+            this.idParking = idParking;
+            this.places = places;
+            this.placesMoto = placesMoto;
+        }
+
+        public String getIdParking() { return idParking; }
+        public int getPlaces() { return places; }
+        public int getPlacesMoto() { return placesMoto; }
+    }
+
+    /**
+     * Publié chaque minute, sans accès à la base : pour les comptes à rebours et rappels
+     */
+    public static final class TopMinute {
+        private final LocalDateTime instant;
+
+        public TopMinute(LocalDateTime instant) {
+            this.instant = instant;
+        }
+
+        public LocalDateTime getInstant() { return instant; }
+    }
+
+    // ==================== ÉTAT INTERNE ====================
+
+    /**
+     * Abonné à un type d'événement, éventuellement restreint à un usager
+     */
+    private static final class Abonne {
+        final Class<?> type;
+        final Integer idUsager;
+        final Consumer<Object> action;
+        final Object cle;
+
+        Abonne(Class<?> type, Integer idUsager, Consumer<Object> action, Object cle) {
+            this.type = type;
+            this.idUsager = idUsager;
+            this.action = action;
+            this.cle = cle;
+        }
+    }
+
+    /**
+     * Dernier état publié pour un usager suivi
+     */
+    private static final class EtatUsager {
+        volatile StationnementActifModifie stationnement;
+        volatile MessagesNonLusModifies messages;
+    }
+
+    private final CopyOnWriteArrayList<Abonne> abonnes = new CopyOnWriteArrayList<>();
+    private final Map<Integer, EtatUsager> usagersSuivis = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scrutateur;
+
+    // Singleton privé
+    private BusEvenements() {
+        scrutateur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bus-evenements");
+            t.setDaemon(true);
+            return t;
+        });
+        scrutateur.scheduleWithFixedDelay(this::scruterTous,
+            PERIODE_SCRUTATION_SECONDES, PERIODE_SCRUTATION_SECONDES, TimeUnit.SECONDS);
+        scrutateur.scheduleAtFixedRate(() -> publier(new TopMinute(LocalDateTime.now())),
+            1, 1, TimeUnit.MINUTES);
+    }
+
+    public static synchronized BusEvenements getInstance() {
+        if (instance == null) {
+            instance = new BusEvenements();
+        }
+        return instance;
+    }
+
+    // ==================== ABONNEMENTS ====================
+
+    /**
+     * Abonne une action à un type d'événement, tous usagers confondus
+     */
+    public <E> void abonner(Class<E> type, Consumer<? super E> action) {
+        ajouterAbonne(type, null, action);
+    }
+
+    /**
+     * Abonne une action aux événements d'un usager.
+     * L'usager est suivi par le scrutateur ; l'état courant est envoyé tout de suite au nouvel abonné.
+     */
+    public <E> void abonner(Class<E> type, int idUsager, Consumer<? super E> action) {
+        ajouterAbonne(type, idUsager, action);
+
+        EtatUsager etat = usagersSuivis.get(idUsager);
+        if (etat == null) {
+            usagersSuivis.putIfAbsent(idUsager, new EtatUsager());
+            rafraichir(idUsager);
+            return;
+        }
+        Object dernier = type == StationnementActifModifie.class ? etat.stationnement
+                       : type == MessagesNonLusModifies.class ? etat.messages : null;
+        if (dernier != null) {
+            SwingUtilities.invokeLater(() -> livrer(action, type.cast(dernier)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> void ajouterAbonne(Class<E> type, Integer idUsager, Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        abonnes.add(new Abonne(type, idUsager, e -> ((Consumer<Object>) action).accept(e), action));
+    }
+
+    /**
+     * Retire toutes les inscriptions d'une action ; un usager sans abonné n'est plus scruté
+     */
+    public void desabonner(Consumer<?> action) {
+        abonnes.removeIf(a -> a.cle == action);
+        usagersSuivis.keySet().removeIf(id -> abonnes.stream().noneMatch(a -> id.equals(a.idUsager)));
+    }
+
+    // ==================== PUBLICATION ====================
+
+    /**
+     * Publie un événement : chaque abonné concerné est appelé sur l'EDT
+     */
+    public void publier(Object evenement) {
+        Integer idUsager = idUsager(evenement);
+        for (Abonne a : abonnes) {
+            if (a.type.isInstance(evenement) && (a.idUsager == null || a.idUsager.equals(idUsager))) {
+                SwingUtilities.invokeLater(() -> livrer(a.action, evenement));
+            }
+        }
+    }
+
+    private static <E> void livrer(Consumer<? super E> action, E evenement) {
+        try {
+            action.accept(evenement);
+        } catch (Exception e) {
+            System.err.println("Erreur dans un abonné du bus d'événements: " + e.getMessage());
+        }
+    }
+
+    private static Integer idUsager(Object evenement) {
+        if (evenement instanceof StationnementActifModifie) {
+            return ((StationnementActifModifie) evenement).getIdUsager();
+        }
+        if (evenement instanceof MessagesNonLusModifies) {
+            return ((MessagesNonLusModifies) evenement).getIdUsager();
+        }
+        return null;
+    }
+
+    /**
+     * Demande une scrutation immédiate d'un usager (après une action qui modifie son état)
+     */
+    public void rafraichir(int idUsager) {
+        scrutateur.execute(() -> scruter(idUsager));
+    }
+
+    // ==================== SCRUTATION ====================
+
+    private void scruterTous() {
+        for (Integer idUsager : usagersSuivis.keySet()) {
+            scruter(idUsager);
+        }
+    }
+
+    private void scruter(int idUsager) {
+        EtatUsager etat = usagersSuivis.get(idUsager);
+        if (etat == null) {
+            return;
+        }
+
+        try {
+            Stationnement actif = StationnementDAO.getInstance().getStationnementActifValideByUsager(idUsager);
+            if (etat.stationnement == null || !memeStationnement(etat.stationnement.getStationnement(), actif)) {
+                etat.stationnement = new StationnementActifModifie(idUsager, actif);
+                publier(etat.stationnement);
+            }
+        } catch (Exception e) {
+            System.err.println("Erreur scrutation stationnement (usager " + idUsager + "): " + e.getMessage());
+        }
+
+        boolean nonLus = FeedbackDAO.hasUnreadMessages(idUsager);
+        if (etat.messages == null || etat.messages.hasNonLus() != nonLus) {
+            etat.messages = new MessagesNonLusModifies(idUsager, nonLus);
+            publier(etat.messages);
+        }
+    }
+
+    private static boolean memeStationnement(Stationnement a, Stationnement b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getIdStationnement() == b.getIdStationnement()
+            && Objects.equals(a.getStatut(), b.getStatut())
+            && Objects.equals(a.getDateFin(), b.getDateFin());
+    }
+}
@@ -2,27 +2,27 @@ package utils;
 
 import javax.swing.*;
 import java.awt.*;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.prefs.Preferences;
 
+import modele.Stationnement;
+import modele.dao.EcheancierStationnements;
+import modele.dao.SessionUsager;
+
 /**
  * Gestionnaire global de notifications pour les stationnements
  * Fonctionne indépendamment de la page actuellement ouverte
+ * 
+ * Les rappels et expirations sont déclenchés par EcheancierStationnements,
+ * à l'échéance exacte, au lieu d'une vérification périodique.
  */
-public class NotificationManager {
+public class NotificationManager implements EcheancierStationnements.EcouteurEcheance {
     
     private static NotificationManager instance;
-    private ScheduledExecutorService scheduler;
     private List<NotificationListener> listeners;
     private Preferences prefs;
     private boolean notificationsActives;
-    private int verificationIntervalMinutes = 1;
     
     // Interface pour les écouteurs de notifications
     public interface NotificationListener {
@@ -57,8 +57,7 @@ public class NotificationManager {
         this.listeners = new ArrayList<>();
         this.prefs = Preferences.userNodeForPackage(NotificationManager.class);
         this.notificationsActives = prefs.getBoolean("notifications_actives", true);
-        this.verificationIntervalMinutes = prefs.getInt("verification_interval", 1);
-        initialiserScheduler();
+        EcheancierStationnements.getInstance().addEcouteur(this);
     }
     
     // Méthode singleton
@@ -69,88 +68,52 @@ public class NotificationManager {
         return instance;
     }
     
-    private void initialiserScheduler() {
-        if (scheduler == null || scheduler.isShutdown()) {
-            scheduler = Executors.newScheduledThreadPool(1);
-            
-            // Vérifier à intervalle configuré
-            scheduler.scheduleAtFixedRate(() -> {
-                try {
-                    verifierNotifications();
-                } catch (Exception e) {
-                    System.err.println("Erreur dans le scheduler de notifications: " + e.getMessage());
-                }
-            }, 0, verificationIntervalMinutes, TimeUnit.MINUTES);
-        }
-    }
-    
     /**
-     * Vérifie les notifications périodiquement
+     * Inscrit un stationnement auprès de l'échéancier : le rappel (10 minutes avant la fin)
+     * et l'expiration seront notifiés à l'échéance. Peut être appelé à chaque affichage.
      */
-    private void verifierNotifications() {
-        if (!notificationsActives) {
-            return;
-        }
-        
-        // Cette méthode sera appelée par les pages qui veulent vérifier
-        // Le contrôle réel se fait via les méthodes publiques
+    public void verifierStationnement(Stationnement stationnement) {
+        EcheancierStationnements.getInstance().planifier(stationnement);
     }
     
-    /**
-     * Vérifie un stationnement spécifique pour les notifications
-     */
-    public void verifierStationnement(modele.Stationnement stationnement) {
-        if (!notificationsActives || stationnement == null) {
+    @Override
+    public void rappel(Stationnement stationnement, long minutesRestantes) {
+        if (!notificationsActives || !concerneUsagerConnecte(stationnement)) {
             return;
         }
+        String message = formatMessageNotification(minutesRestantes, stationnement);
+        NotificationType type = minutesRestantes <= 3 ? NotificationType.WARNING : NotificationType.INFO;
         
-        // Vérifier que c'est un stationnement en voirie
-        if (!stationnement.estVoirie()) {
-            return;
-        }
-        
-        // Vérifier que le stationnement est actif
-        if (!"ACTIF".equals(stationnement.getStatut())) {
-            return;
-        }
-        
-        // Vérifier qu'il y a une date de fin
-        if (stationnement.getDateFin() == null) {
-            return;
-        }
-        
-        LocalDateTime maintenant = LocalDateTime.now();
-        LocalDateTime dateFin = stationnement.getDateFin();
-        
-        // Calculer le temps restant en minutes
-        long minutesRestantes = ChronoUnit.MINUTES.between(maintenant, dateFin);
-        
-        // Vérifier si le temps est écoulé
-        if (minutesRestantes < 0) {
-            envoyerNotification(
-                "⛔ Stationnement expiré",
-                "Votre stationnement en voirie pour " + stationnement.getPlaqueImmatriculation() + 
-                " est expiré depuis " + Math.abs(minutesRestantes) + " minute(s).\n" +
-                "Zone: " + stationnement.getIdTarification(),
-                NotificationType.ERROR
-            );
+        envoyerNotification(
+            minutesRestantes <= 3 ? "⚠ Dernières minutes !" : "⏰ Rappel stationnement",
+            message,
+            type
+        );
+    }
+    
+    @Override
+    public void expiration(Stationnement stationnement) {
+        if (!notificationsActives || !concerneUsagerConnecte(stationnement)) {
             return;
         }
-        
-        // Afficher la notification seulement si 10 minutes ou moins restent
-        if (minutesRestantes > 0 && minutesRestantes <= 10) {
-            String message = formatMessageNotification(minutesRestantes, stationnement);
-            NotificationType type = minutesRestantes <= 3 ? NotificationType.WARNING : NotificationType.INFO;
-            
-            envoyerNotification(
-                minutesRestantes <= 3 ? "⚠ Dernières minutes !" : "⏰ Rappel stationnement",
-                message,
-                type
-            );
-        }
+        envoyerNotification(
+            "⛔ Stationnement expiré",
+            "Votre stationnement en voirie pour " + stationnement.getPlaqueImmatriculation() + 
+            " est arrivé à expiration.\n" +
+            "Zone: " + stationnement.getIdTarification(),
+            NotificationType.ERROR
+        );
     }
     
-    private String formatMessageNotification(long minutesRestantes, modele.Stationnement stationnement) {
+    /**
+     * L'échéancier suit les stationnements de tous les usagers : seuls ceux de l'usager connecté sont notifiés
+     */
+    private static boolean concerneUsagerConnecte(Stationnement stationnement) {
+        SessionUsager session = SessionUsager.getCourante();
+        return session != null && session.getIdUsager() == stationnement.getIdUsager();
+    }
+    
+    private String formatMessageNotification(long minutesRestantes, Stationnement stationnement) {
         String vehicule = stationnement.getPlaqueImmatriculation();
         String zone = stationnement.getIdTarification();
         
@@ -408,29 +371,6 @@ public class NotificationManager {
     public void setNotificationsActives(boolean actives) {
         this.notificationsActives = actives;
         prefs.putBoolean("notifications_actives", actives);
-        
-        if (actives && (scheduler == null || scheduler.isShutdown())) {
-            initialiserScheduler();
-        } else if (!actives && scheduler != null) {
-            scheduler.shutdown();
-        }
-    }
-    
-    /**
-     * Définit l'intervalle de vérification
-     */
-    public void setVerificationInterval(int minutes) {
-        this.verificationIntervalMinutes = minutes;
-        prefs.putInt("verification_interval", minutes);
-        
-        // Redémarrer le scheduler avec le nouvel intervalle
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
-            scheduler = null;
-        }
-        if (notificationsActives) {
-            initialiserScheduler();
-        }
     }
     
     /**
@@ -440,28 +380,11 @@ public class NotificationManager {
         return notificationsActives;
     }
     
-    /**
-     * Retourne l'intervalle de vérification
-     */
-    public int getVerificationInterval() {
-        return verificationIntervalMinutes;
-    }
-    
     /**
      * Arrête proprement le gestionnaire
      */
     public void shutdown() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
-            try {
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                scheduler.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
+        EcheancierStationnements.getInstance().removeEcouteur(this);
     }
     
     /**